@@ -0,0 +1,487 @@
+package com.spikeify.processor;
+
+import com.spikeify.ConversionTarget;
+import com.spikeify.annotations.*;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * Generates a {@link com.spikeify.EntityMapping} for every class using Spikeify mapping annotations
+ * and registers generated classes in META-INF/services/com.spikeify.EntityMapping.
+ * Mapping errors (i.e. too long bin names, wrong types of annotated fields) are reported as compilation errors.
+ *
+ * Generated mappings are placed in the package of the entity and access non-private fields directly,
+ * private fields are accessed via the accessor factory configured in {@link com.spikeify.MapperService}.
+ */
+@SupportedAnnotationTypes({
+		"com.spikeify.annotations.UserKey",
+		"com.spikeify.annotations.BinName",
+		"com.spikeify.annotations.Generation",
+		"com.spikeify.annotations.Expires",
+		"com.spikeify.annotations.TimeToLive",
+		"com.spikeify.annotations.Namespace",
+		"com.spikeify.annotations.SetName",
+		"com.spikeify.annotations.AnyProperty",
+		"com.spikeify.annotations.AsJson",
+		"com.spikeify.annotations.Ignore",
+		"com.spikeify.annotations.Indexed"
+})
+public class EntityMappingProcessor extends AbstractProcessor {
+
+	static final int MAX_BIN_NAME_LENGTH = 14;
+
+	static final String MAPPING_SUFFIX = "_SpikeifyMapping";
+
+	private static final String SERVICE_FILE = "META-INF/services/com.spikeify.EntityMapping";
+
+	/**
+	 * Field annotations with a special meaning, in order of precedence (field with @UserKey is never mapped to a bin ...)
+	 */
+	private static final List<Class<? extends Annotation>> SPECIAL_ANNOTATIONS = Arrays.asList(
+			UserKey.class, Generation.class, Expires.class, TimeToLive.class, Namespace.class, SetName.class, AnyProperty.class);
+
+	private Elements elements;
+	private Types types;
+	private Messager messager;
+	private Filer filer;
+
+	private final Set<String> generated = new TreeSet<>();
+
+	@Override
+	public synchronized void init(ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
+		elements = processingEnv.getElementUtils();
+		types = processingEnv.getTypeUtils();
+		messager = processingEnv.getMessager();
+		filer = processingEnv.getFiler();
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		Set<TypeElement> entities = new LinkedHashSet<>();
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.FIELD) {
+					entities.add((TypeElement) element.getEnclosingElement());
+				} else if (element.getKind() == ElementKind.CLASS) {
+					entities.add((TypeElement) element);
+				}
+			}
+		}
+
+		for (TypeElement entity : entities) {
+			if (entity.getKind() == ElementKind.CLASS) {
+				processEntity(entity);
+			}
+		}
+
+		if (roundEnv.processingOver() && !generated.isEmpty()) {
+			writeServiceFile();
+		}
+
+		// annotations are left to other processors
+		return false;
+	}
+
+	private void processEntity(TypeElement entity) {
+
+		Map<Class<? extends Annotation>, VariableElement> specialFields = new LinkedHashMap<>();
+		List<VariableElement> mappedFields = new ArrayList<>();
+		Map<String, VariableElement> binNames = new HashMap<>();
+		boolean valid = true;
+
+		for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+
+			Class<? extends Annotation> special = getSpecialAnnotation(field);
+			if (special != null && !specialFields.containsKey(special)) {
+				valid &= checkSpecialField(field, special);
+				specialFields.put(special, field);
+			}
+
+			Boolean mapped = isMapped(field, special);
+			if (mapped == null) {
+				valid = false;
+			} else if (mapped) {
+				String binName = getBinName(field);
+				if (binName == null) {
+					valid = false;
+				} else if (binNames.containsKey(binName)) {
+					error(field, "Bin name '" + binName + "' is already used by field '" + binNames.get(binName).getSimpleName() + "'.");
+					valid = false;
+				} else {
+					binNames.put(binName, field);
+					mappedFields.add(field);
+				}
+			}
+		}
+
+		if (!valid) {
+			return;
+		}
+
+		if (!isAccessible(entity)) {
+			messager.printMessage(Diagnostic.Kind.NOTE, "Mapping of " + entity.getQualifiedName() + " is not generated: class is not accessible from its package, " +
+					"it will be mapped at runtime.", entity);
+			return;
+		}
+
+		try {
+			generated.add(writeMapping(entity, mappedFields, specialFields));
+		} catch (IOException e) {
+			error(entity, "Failed to generate mapping: " + e.getMessage());
+		}
+	}
+
+	private Class<? extends Annotation> getSpecialAnnotation(VariableElement field) {
+		for (Class<? extends Annotation> annotation : SPECIAL_ANNOTATIONS) {
+			if (field.getAnnotation(annotation) != null) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks type of field carrying @UserKey, @Generation ... annotation, same as MapperUtils does at runtime.
+	 */
+	private boolean checkSpecialField(VariableElement field, Class<? extends Annotation> annotation) {
+
+		TypeMirror type = field.asType();
+
+		if (annotation == UserKey.class) {
+			if (!isType(type, String.class) && !isType(type, Long.class) && type.getKind() != TypeKind.LONG) {
+				return error(field, "Field marked with @UserKey must be of type String, Long or long.");
+			}
+		} else if (annotation == Generation.class) {
+			if (!isType(type, Integer.class) && type.getKind() != TypeKind.INT) {
+				return error(field, "Field marked with @Generation must be of type int or Integer.");
+			}
+		} else if (annotation == Expires.class || annotation == TimeToLive.class) {
+			if (!isType(type, Long.class) && type.getKind() != TypeKind.LONG) {
+				return error(field, "Field marked with @" + annotation.getSimpleName() + " must be of type long or Long.");
+			}
+		} else if (annotation == Namespace.class || annotation == SetName.class) {
+			if (!isType(type, String.class)) {
+				return error(field, "Field marked with @" + annotation.getSimpleName() + " must be of type String.");
+			}
+		} else if (annotation == AnyProperty.class) {
+			List<? extends TypeMirror> typeArguments = type.getKind() == TypeKind.DECLARED ? ((DeclaredType) type).getTypeArguments() : null;
+			if (!isAssignable(type, Map.class) || typeArguments == null || typeArguments.size() != 2 ||
+					!isType(typeArguments.get(0), String.class) || !isType(typeArguments.get(1), Object.class)) {
+				return error(field, "Fields marked with @AnyProperty must be of type Map<String, Object>.");
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Mirrors MapperUtils.getFieldMapper(..)
+	 *
+	 * @return true if field is mapped to a bin, null if mapping is invalid
+	 */
+	private Boolean isMapped(VariableElement field, Class<? extends Annotation> special) {
+
+		TypeMirror type = field.asType();
+		boolean bigList = isAssignable(type, "com.spikeify.BigIndexedList");
+		boolean bigMap = isAssignable(type, "com.spikeify.BigMap");
+
+		AsJson asJson = field.getAnnotation(AsJson.class);
+		if (asJson != null && asJson.target() == ConversionTarget.DEFAULT) {
+			if (bigList || bigMap) {
+				error(field, "@AsJson(target=ConversionTarget.DEFAULT) can not be used on fields of type com.spikeify.BigMap or com.spikeify.BigIndexedList");
+				return null;
+			}
+			return true;
+		} else if (asJson != null && asJson.target() == ConversionTarget.MAPVALUES) {
+			if (!isAssignable(type, Map.class) && !bigMap) {
+				error(field, "@AsJson(target=ConversionTarget.MAPVALUES) can be used only on fields of type java.util.Map or com.spikeify.BigMap");
+				return null;
+			}
+			return !bigMap;
+		} else if (asJson != null && asJson.target() == ConversionTarget.LIST) {
+			if (!isAssignable(type, List.class) && !bigList) {
+				error(field, "@AsJson(target=ConversionTarget.LIST) can be used only on fields of type java.util.List or com.spikeify.BigIndexedList");
+				return null;
+			}
+			return !bigList;
+		}
+
+		Set<Modifier> modifiers = field.getModifiers();
+		return special == null
+				&& field.getAnnotation(Ignore.class) == null
+				&& !isAssignable(type, "com.spikeify.BigDatatypeWrapper")
+				&& !modifiers.contains(Modifier.STATIC)
+				&& !modifiers.contains(Modifier.FINAL);
+	}
+
+	/**
+	 * Mirrors MapperUtils.getBinName(..)
+	 *
+	 * @return bin name or null if invalid
+	 */
+	private String getBinName(VariableElement field) {
+
+		String binName = field.getSimpleName().toString();
+		BinName annotation = field.getAnnotation(BinName.class);
+		if (annotation != null) {
+			if (annotation.value().isEmpty()) {
+				error(field, "@BinName has empty value.");
+				return null;
+			}
+			binName = annotation.value();
+			if (binName.length() > MAX_BIN_NAME_LENGTH) {
+				error(field, "@BinName value too long: value must be max " + MAX_BIN_NAME_LENGTH + " chars long, currently it's " + binName.length() + ".");
+				return null;
+			}
+		}
+		if (binName.length() > MAX_BIN_NAME_LENGTH) {
+			error(field, "Field name too long: value must be max " + MAX_BIN_NAME_LENGTH + " chars long, currently it's " + binName.length() + ". " +
+					"Use @BinName to map it to a shorter bin name.");
+			return null;
+		}
+		return binName;
+	}
+
+	/**
+	 * @return true if generated class (in the same package) can access given class
+	 */
+	private boolean isAccessible(TypeElement type) {
+		Element element = type;
+		while (element.getKind().isClass() || element.getKind().isInterface()) {
+			TypeElement typeElement = (TypeElement) element;
+			if (typeElement.getModifiers().contains(Modifier.PRIVATE) ||
+					(typeElement.getNestingKind() != NestingKind.TOP_LEVEL && typeElement.getNestingKind() != NestingKind.MEMBER)) {
+				return false;
+			}
+			element = element.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private String writeMapping(TypeElement entity,
+	                            List<VariableElement> mappedFields,
+	                            Map<Class<? extends Annotation>, VariableElement> specialFields) throws IOException {
+
+		String packageName = elements.getPackageOf(entity).getQualifiedName().toString();
+		String entityName = entity.getQualifiedName().toString();
+		String mappingName = getMappingSimpleName(entity);
+		String qualifiedMappingName = packageName.isEmpty() ? mappingName : packageName + "." + mappingName;
+
+		// all fields with an accessor: mapped and special
+		Set<VariableElement> accessedFields = new LinkedHashSet<>(mappedFields);
+		accessedFields.addAll(specialFields.values());
+
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("/**\n")
+				.append(" * Spikeify mapping of {@link ").append(entityName).append("}.\n")
+				.append(" * Generated by ").append(EntityMappingProcessor.class.getName()).append(", do not edit.\n")
+				.append(" */\n")
+				.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+				.append("public final class ").append(mappingName).append(" implements com.spikeify.EntityMapping {\n\n");
+
+		source.append("\tprivate static final String[] MAPPED_FIELDS = {");
+		for (Iterator<VariableElement> iterator = mappedFields.iterator(); iterator.hasNext(); ) {
+			source.append('"').append(iterator.next().getSimpleName()).append('"');
+			if (iterator.hasNext()) {
+				source.append(", ");
+			}
+		}
+		source.append("};\n\n");
+
+		source.append("\tprivate final java.util.Map<String, com.spikeify.FieldAccessor> accessors = new java.util.HashMap<>();\n\n");
+
+		source.append("\tpublic ").append(mappingName).append("() {\n");
+		for (VariableElement field : accessedFields) {
+			if (!field.getModifiers().contains(Modifier.PRIVATE) && !field.getModifiers().contains(Modifier.FINAL)) {
+				writeAccessor(source, entityName, field);
+			}
+		}
+		source.append("\t}\n\n");
+
+		source.append("\t@Override\n")
+				.append("\tpublic Class<?> getType() {\n")
+				.append("\t\treturn ").append(entityName).append(".class;\n")
+				.append("\t}\n\n");
+
+		source.append("\t@Override\n")
+				.append("\tpublic String[] getMappedFields() {\n")
+				.append("\t\treturn MAPPED_FIELDS.clone();\n")
+				.append("\t}\n\n");
+
+		source.append("\t@Override\n")
+				.append("\tpublic String getAnnotatedField(Class<? extends java.lang.annotation.Annotation> annotation) {\n");
+		for (Map.Entry<Class<? extends Annotation>, VariableElement> entry : specialFields.entrySet()) {
+			source.append("\t\tif (annotation == ").append(entry.getKey().getName()).append(".class) {\n")
+					.append("\t\t\treturn \"").append(entry.getValue().getSimpleName()).append("\";\n")
+					.append("\t\t}\n");
+		}
+		source.append("\t\treturn null;\n")
+				.append("\t}\n\n");
+
+		source.append("\t@Override\n")
+				.append("\tpublic com.spikeify.FieldAccessor getAccessor(String fieldName) {\n")
+				.append("\t\treturn accessors.get(fieldName);\n")
+				.append("\t}\n")
+				.append("}\n");
+
+		try (Writer writer = filer.createSourceFile(qualifiedMappingName, entity).openWriter()) {
+			writer.write(source.toString());
+		}
+
+		return qualifiedMappingName;
+	}
+
+	private void writeAccessor(StringBuilder source, String entityName, VariableElement field) {
+
+		String target = "((" + entityName + ") target)." + field.getSimpleName();
+		TypeMirror type = field.asType();
+		TypeKind kind = type.getKind();
+
+		source.append("\t\taccessors.put(\"").append(field.getSimpleName()).append("\", new com.spikeify.GeneratedFieldAccessor() {\n");
+
+		source.append("\t\t\t@Override\n")
+				.append("\t\t\tpublic Object get(Object target) {\n")
+				.append("\t\t\t\treturn ").append(target).append(";\n")
+				.append("\t\t\t}\n\n");
+
+		String castType = kind.isPrimitive() ? types.boxedClass(types.getPrimitiveType(kind)).getQualifiedName().toString() : types.erasure(type).toString();
+		source.append("\t\t\t@Override\n")
+				.append("\t\t\tpublic void set(Object target, Object value) {\n")
+				.append("\t\t\t\t").append(target).append(" = (").append(castType).append(") value;\n")
+				.append("\t\t\t}\n");
+
+		switch (kind) {
+			case LONG:
+			case INT:
+			case SHORT:
+			case BYTE:
+			case CHAR:
+				writePrimitiveAccess(source, target, "long", "Long", type.toString());
+				break;
+			case DOUBLE:
+			case FLOAT:
+				writePrimitiveAccess(source, target, "double", "Double", type.toString());
+				break;
+			case BOOLEAN:
+				writePrimitiveAccess(source, target, "boolean", "Boolean", type.toString());
+				break;
+		}
+
+		source.append("\t\t});\n");
+	}
+
+	private void writePrimitiveAccess(StringBuilder source, String target, String accessType, String methodSuffix, String fieldType) {
+		source.append("\n")
+				.append("\t\t\t@Override\n")
+				.append("\t\t\tpublic ").append(accessType).append(" get").append(methodSuffix).append("(Object target) {\n")
+				.append("\t\t\t\treturn ").append(target).append(";\n")
+				.append("\t\t\t}\n\n")
+				.append("\t\t\t@Override\n")
+				.append("\t\t\tpublic void set").append(methodSuffix).append("(Object target, ").append(accessType).append(" value) {\n")
+				.append("\t\t\t\t").append(target).append(" = ");
+		if (!accessType.equals(fieldType)) {
+			source.append("(").append(fieldType).append(") ");
+		}
+		source.append("value;\n")
+				.append("\t\t\t}\n");
+	}
+
+	/**
+	 * Appends generated mappings to the service file. Entries of mappings generated by previous (incremental) compilations are kept.
+	 */
+	private void writeServiceFile() {
+
+		Set<String> entries = new TreeSet<>(generated);
+		try {
+			FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), Charset.forName("UTF-8")))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (!line.trim().isEmpty()) {
+						entries.add(line.trim());
+					}
+				}
+			}
+		} catch (IOException e) {
+			// no service file yet
+		}
+
+		try {
+			FileObject serviceFile = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+			try (Writer writer = serviceFile.openWriter()) {
+				for (String entry : entries) {
+					writer.write(entry);
+					writer.write("\n");
+				}
+			}
+		} catch (IOException e) {
+			messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + e.getMessage());
+		}
+	}
+
+	static String getMappingSimpleName(TypeElement entity) {
+		String name = entity.getSimpleName().toString();
+		Element enclosing = entity.getEnclosingElement();
+		while (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+			name = enclosing.getSimpleName() + "_" + name;
+			enclosing = enclosing.getEnclosingElement();
+		}
+		return name + MAPPING_SUFFIX;
+	}
+
+	private boolean isType(TypeMirror type, Class clazz) {
+		TypeElement element = elements.getTypeElement(clazz.getCanonicalName());
+		return element != null && types.isSameType(types.erasure(type), types.erasure(element.asType()));
+	}
+
+	private boolean isAssignable(TypeMirror type, Class clazz) {
+		return isAssignable(type, clazz.getCanonicalName());
+	}
+
+	private boolean isAssignable(TypeMirror type, String className) {
+		TypeElement element = elements.getTypeElement(className);
+		return element != null && types.isAssignable(types.erasure(type), types.erasure(element.asType()));
+	}
+
+	private boolean error(Element element, String message) {
+		messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+		return false;
+	}
+}
@@ -0,0 +1,141 @@
+package com.spikeify.processor;
+
+import com.spikeify.ClassMapper;
+import com.spikeify.EntityMapping;
+import com.spikeify.FieldAccessor;
+import com.spikeify.annotations.Generation;
+import com.spikeify.annotations.UserKey;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+public class EntityMappingProcessorTest {
+
+	private File sourceDir;
+	private File classesDir;
+
+	@Before
+	public void setUp() throws IOException {
+		sourceDir = Files.createTempDirectory("spikeify-src").toFile();
+		classesDir = Files.createTempDirectory("spikeify-classes").toFile();
+	}
+
+	@Test
+	public void generatesMapping() throws Exception {
+
+		DiagnosticCollector<JavaFileObject> diagnostics = compile("test.Entity",
+				"package test;\n" +
+						"import com.spikeify.annotations.*;\n" +
+						"public class Entity {\n" +
+						"	@UserKey public String id;\n" +
+						"	@Generation public Integer generation;\n" +
+						"	public int count;\n" +
+						"	@BinName(\"desc\") public String description;\n" +
+						"	private long hidden;\n" +
+						"	@Ignore public String ignored;\n" +
+						"	public static String constant;\n" +
+						"}\n");
+		Assert.assertFalse(diagnostics.getDiagnostics().toString(), hasErrors(diagnostics));
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[]{classesDir.toURI().toURL()}, getClass().getClassLoader())) {
+
+			Iterator<EntityMapping> mappings = ServiceLoader.load(EntityMapping.class, loader).iterator();
+			Assert.assertTrue(mappings.hasNext());
+			EntityMapping mapping = mappings.next();
+			Assert.assertFalse(mappings.hasNext());
+
+			Class<?> entityClass = loader.loadClass("test.Entity");
+			Assert.assertEquals(entityClass, mapping.getType());
+			Assert.assertEquals(Arrays.asList("count", "description", "hidden"), Arrays.asList(mapping.getMappedFields()));
+			Assert.assertEquals("id", mapping.getAnnotatedField(UserKey.class));
+			Assert.assertEquals("generation", mapping.getAnnotatedField(Generation.class));
+			Assert.assertNull(mapping.getAccessor("hidden")); // private fields are left to the accessor factory
+
+			Object entity = entityClass.newInstance();
+			FieldAccessor count = mapping.getAccessor("count");
+			count.setLong(entity, 42L);
+			Assert.assertEquals(42L, count.getLong(entity));
+			Assert.assertEquals(42, count.get(entity));
+
+			// class mapper created from generated mapping
+			ClassMapper mapper = new ClassMapper(entityClass, mapping);
+			Assert.assertEquals("desc", mapper.getBinName("description"));
+			mapping.getAccessor("description").set(entity, "test");
+			Assert.assertEquals("test", mapper.getProperties(entity).get("desc"));
+			Assert.assertEquals(42L, mapper.getProperties(entity).get("count"));
+		}
+	}
+
+	@Test
+	public void binNameTooLong() throws Exception {
+
+		DiagnosticCollector<JavaFileObject> diagnostics = compile("test.LongNames",
+				"package test;\n" +
+						"import com.spikeify.annotations.*;\n" +
+						"public class LongNames {\n" +
+						"	@UserKey public String id;\n" +
+						"	public String fieldWithVeryLongName;\n" +
+						"}\n");
+
+		Assert.assertTrue(hasErrors(diagnostics));
+		Assert.assertTrue(diagnostics.getDiagnostics().get(0).getMessage(null).contains("max 14 chars"));
+	}
+
+	@Test
+	public void wrongUserKeyType() throws Exception {
+
+		DiagnosticCollector<JavaFileObject> diagnostics = compile("test.WrongKey",
+				"package test;\n" +
+						"import com.spikeify.annotations.*;\n" +
+						"public class WrongKey {\n" +
+						"	@UserKey public Integer id;\n" +
+						"}\n");
+
+		Assert.assertTrue(hasErrors(diagnostics));
+		Assert.assertTrue(diagnostics.getDiagnostics().get(0).getMessage(null).contains("@UserKey"));
+	}
+
+	private DiagnosticCollector<JavaFileObject> compile(String className, String source) throws IOException {
+
+		File sourceFile = new File(sourceDir, className.replace('.', File.separatorChar) + ".java");
+		Assert.assertTrue(sourceFile.getParentFile().mkdirs());
+		Files.write(sourceFile.toPath(), source.getBytes(Charset.forName("UTF-8")));
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+					Arrays.asList("-d", classesDir.getPath(), "-classpath", System.getProperty("java.class.path")),
+					null,
+					fileManager.getJavaFileObjects(sourceFile));
+			task.setProcessors(Arrays.asList(new EntityMappingProcessor()));
+			task.call();
+		}
+		return diagnostics;
+	}
+
+	private boolean hasErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+		for (Diagnostic diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
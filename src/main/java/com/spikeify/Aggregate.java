@@ -0,0 +1,150 @@
+package com.spikeify;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of an {@link Aggregation}: number of aggregated records and statistics of numeric fields,
+ * for all records or for a single group.
+ */
+public class Aggregate {
+
+	private final Object group;
+	private long count;
+	private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+	/**
+	 * Statistics of a numeric field, over records having a numeric value of the field.
+	 */
+	public static class Stats {
+
+		private long count;
+		private Number sum = 0L;
+		private Number min;
+		private Number max;
+
+		/**
+		 * @return number of records having a numeric value
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return sum of values: a Long if all values are integers, otherwise a Double
+		 */
+		public Number getSum() {
+			return sum;
+		}
+
+		/**
+		 * @return smallest value, null if there are no values
+		 */
+		public Number getMin() {
+			return min;
+		}
+
+		/**
+		 * @return largest value, null if there are no values
+		 */
+		public Number getMax() {
+			return max;
+		}
+
+		/**
+		 * @return average value, null if there are no values
+		 */
+		public Double getAverage() {
+			return count == 0 ? null : sum.doubleValue() / count;
+		}
+
+		void add(Number partialSum, long partialCount, Number partialMin, Number partialMax) {
+
+			if (partialCount == 0) {
+				return;
+			}
+
+			count += partialCount;
+			sum = sum instanceof Long && partialSum instanceof Long ? (Number) (sum.longValue() + partialSum.longValue()) : (Number) (sum.doubleValue() + partialSum.doubleValue());
+			min = min == null || compare(partialMin, min) < 0 ? partialMin : min;
+			max = max == null || compare(partialMax, max) > 0 ? partialMax : max;
+		}
+
+		private static int compare(Number one, Number two) {
+			if (one instanceof Long && two instanceof Long) {
+				return Long.compare(one.longValue(), two.longValue());
+			}
+			return Double.compare(one.doubleValue(), two.doubleValue());
+		}
+	}
+
+	Aggregate(Object group, Iterable<String> fieldNames) {
+		this.group = group;
+		for (String fieldName : fieldNames) {
+			stats.put(fieldName, new Stats());
+		}
+	}
+
+	/**
+	 * @return value of group-by field (String or Long, booleans are 1 or 0), null if records are not grouped
+	 */
+	public Object getGroup() {
+		return group;
+	}
+
+	/**
+	 * @return number of aggregated records
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @param fieldName name of aggregated field
+	 * @return statistics of field
+	 */
+	public Stats getStats(String fieldName) {
+
+		Stats fieldStats = stats.get(fieldName);
+		if (fieldStats == null) {
+			throw new SpikeifyError("Error: field '" + fieldName + "' was not aggregated.");
+		}
+		return fieldStats;
+	}
+
+	/**
+	 * @param fieldName name of aggregated field
+	 * @return sum of field values, see {@link Stats#getSum()}
+	 */
+	public Number getSum(String fieldName) {
+		return getStats(fieldName).getSum();
+	}
+
+	/**
+	 * @param fieldName name of aggregated field
+	 * @return smallest field value, null if there are no values
+	 */
+	public Number getMin(String fieldName) {
+		return getStats(fieldName).getMin();
+	}
+
+	/**
+	 * @param fieldName name of aggregated field
+	 * @return largest field value, null if there are no values
+	 */
+	public Number getMax(String fieldName) {
+		return getStats(fieldName).getMax();
+	}
+
+	/**
+	 * @param fieldName name of aggregated field
+	 * @return average field value, null if there are no values
+	 */
+	public Double getAverage(String fieldName) {
+		return getStats(fieldName).getAverage();
+	}
+
+	void addCount(long partialCount) {
+		count += partialCount;
+	}
+}
@@ -0,0 +1,323 @@
+package com.spikeify;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Language;
+import com.aerospike.client.Value;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.query.ResultSet;
+import com.aerospike.client.query.Statement;
+import com.aerospike.client.task.RegisterTask;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Counts queried records and computes sum, min, max and average of numeric fields on the server, optionally grouped by a field.
+ * A Lua stream UDF is generated for each aggregation and registered with the cluster (once per client).
+ * Values of filtering predicates are passed to the UDF as arguments, so queries differing only in values share a UDF.
+ * Every node returns partial aggregates of its records, which are reduced on the client,
+ * so only a handful of values is transferred instead of all queried records.
+ *
+ * @param <T> queried entity type
+ */
+public class Aggregation<T> {
+
+	private static final String FUNCTION = "aggregate";
+
+	private static final String HELPERS =
+			"local function any(v, test, values)\n" +
+			"\tif getmetatable(v) == getmetatable(list()) then\n" +
+			"\t\tfor e in list.iterator(v) do\n" +
+			"\t\t\tif test(e) then return true end\n" +
+			"\t\tend\n" +
+			"\t\treturn false\n" +
+			"\tend\n" +
+			"\tif getmetatable(v) == getmetatable(map()) then\n" +
+			"\t\tlocal elements = values and map.values(v) or map.keys(v)\n" +
+			"\t\tfor e in elements do\n" +
+			"\t\t\tif test(e) then return true end\n" +
+			"\t\tend\n" +
+			"\t\treturn false\n" +
+			"\tend\n" +
+			"\treturn test(v)\n" +
+			"end\n\n" +
+			"local function member(e, values)\n" +
+			"\tfor v in list.iterator(values) do\n" +
+			"\t\tif e == v then return true end\n" +
+			"\tend\n" +
+			"\treturn false\n" +
+			"end\n\n" +
+			"local function stat(g, i, v)\n" +
+			"\tif type(v) ~= \"number\" then return end\n" +
+			"\tlocal s, k, n, x = \"s\" .. i, \"k\" .. i, \"n\" .. i, \"x\" .. i\n" +
+			"\tg[s] = (g[s] or 0) + v\n" +
+			"\tg[k] = (g[k] or 0) + 1\n" +
+			"\tif g[n] == nil or v < g[n] then g[n] = v end\n" +
+			"\tif g[x] == nil or v > g[x] then g[x] = v end\n" +
+			"end\n\n";
+
+	/**
+	 * generated modules already registered, by client
+	 */
+	private static final Map<IAerospikeClient, Set<String>> registered = new WeakHashMap<>();
+
+	private final Scanner<T> scanner;
+
+	private String groupBin;
+	private final Map<String, String> statBins = new LinkedHashMap<>();
+	private QueryPolicy policy;
+
+	Aggregation(Scanner<T> scanner) {
+		this.scanner = scanner;
+	}
+
+	/**
+	 * Groups aggregated records by value of given field (string, long or boolean).
+	 * Records without a value of the field are not aggregated.
+	 *
+	 * @param nameOfField field or bin name
+	 * @return This command chain
+	 */
+	public Aggregation<T> groupBy(String nameOfField) {
+
+		groupBin = binName(nameOfField);
+		return this;
+	}
+
+	/**
+	 * Computes sum, min, max and average of given numeric fields, see {@link Aggregate#getStats(String)}.
+	 *
+	 * @param fieldNames field or bin names
+	 * @return This command chain
+	 */
+	public Aggregation<T> stats(String... fieldNames) {
+
+		for (String fieldName : fieldNames) {
+			statBins.put(fieldName, binName(fieldName));
+		}
+		return this;
+	}
+
+	/**
+	 * Sets policy of the aggregation query.
+	 *
+	 * @param policy query policy
+	 * @return This command chain
+	 */
+	public Aggregation<T> policy(QueryPolicy policy) {
+
+		this.policy = policy;
+		return this;
+	}
+
+	/**
+	 * Synchronously executes the aggregation.
+	 *
+	 * @return single aggregate of all records, or an aggregate per group (in no particular order) if grouped
+	 */
+	public List<Aggregate> now() {
+
+		Statement statement = scanner.statement();
+
+		String code = script(groupBin, new ArrayList<>(statBins.values()), scanner.residual);
+		String module = module(code);
+		register(scanner.asynClient, module, code);
+
+		Set<String> bins = new LinkedHashSet<>(statBins.values());
+		if (groupBin != null) {
+			bins.add(groupBin);
+		}
+		for (QueryPredicate predicate : scanner.residual) {
+			bins.add(predicate.binName);
+		}
+		statement.setBinNames(bins.toArray(new String[bins.size()]));
+		statement.setAggregateFunction(new ScriptLoader(module, code), module + ".lua", module, FUNCTION, arguments(scanner.residual));
+
+		List<Object> partials = new ArrayList<>();
+		ResultSet resultSet = scanner.asynClient.queryAggregate(policy != null ? policy : scanner.policy, statement);
+		if (resultSet != null) {
+			try {
+				while (resultSet.next()) {
+					partials.add(resultSet.getObject());
+				}
+			}
+			finally {
+				resultSet.close();
+			}
+		}
+
+		return reduce(partials, groupBin != null, new ArrayList<>(statBins.keySet()));
+	}
+
+	private String binName(String nameOfField) {
+
+		Field field = scanner.findField(nameOfField);
+		return IndexingService.getFieldName(field);
+	}
+
+	/**
+	 * Generates stream UDF: records are filtered by residual predicates and aggregated into a map of groups,
+	 * each group holding count "c" and for i-th stat bin sum "s", count "k", min "n" and max "x" suffixed with i.
+	 * Values of residual predicates are passed as the function argument (see {@link #arguments(List)}),
+	 * so the same module is used whatever the values of a query are.
+	 */
+	static String script(String groupBin, List<String> statBins, List<QueryPredicate> residual) {
+
+		StringBuilder code = new StringBuilder(HELPERS);
+
+		code.append("function ").append(FUNCTION).append("(stream, args)\n\n");
+
+		code.append("\tlocal function accept(rec)\n");
+		for (int i = 0; i < residual.size(); i++) {
+			code.append("\t\tif not ").append(residual.get(i).toLuaCondition("args[" + (i + 1) + "]")).append(" then return false end\n");
+		}
+		code.append("\t\treturn true\n\tend\n\n");
+
+		code.append("\tlocal function add(groups, rec)\n");
+		code.append("\t\tif not accept(rec) then return groups end\n");
+		if (groupBin != null) {
+			code.append("\t\tlocal key = rec[").append(QueryPredicate.toLua(groupBin)).append("]\n");
+			code.append("\t\tif type(key) ~= \"string\" and type(key) ~= \"number\" then return groups end\n");
+		}
+		else {
+			code.append("\t\tlocal key = 1\n");
+		}
+		code.append("\t\tlocal g = groups[key]\n");
+		code.append("\t\tif g == nil then\n\t\t\tg = map()\n\t\t\tg[\"c\"] = 0\n\t\tend\n");
+		code.append("\t\tg[\"c\"] = g[\"c\"] + 1\n");
+		for (int i = 0; i < statBins.size(); i++) {
+			code.append("\t\tstat(g, ").append(i).append(", rec[").append(QueryPredicate.toLua(statBins.get(i))).append("])\n");
+		}
+		code.append("\t\tgroups[key] = g\n");
+		code.append("\t\treturn groups\n\tend\n\n");
+
+		code.append("\treturn stream : aggregate(map(), add)\nend\n");
+
+		return code.toString();
+	}
+
+	/**
+	 * @return argument of generated script: list holding list of values of each residual predicate
+	 */
+	static Value arguments(List<QueryPredicate> residual) {
+
+		List<Object> args = new ArrayList<>(residual.size());
+		for (QueryPredicate predicate : residual) {
+			args.add(predicate.luaValues());
+		}
+		return Value.get(args);
+	}
+
+	/**
+	 * Reduces partial aggregates returned by nodes.
+	 *
+	 * @param partials   maps of group to partial aggregate, see {@link #script(String, List, List)}
+	 * @param grouped    true if records are grouped
+	 * @param fieldNames names of fields with statistics, in order of stat bins
+	 * @return aggregates
+	 */
+	static List<Aggregate> reduce(List<Object> partials, boolean grouped, List<String> fieldNames) {
+
+		Map<Object, Aggregate> aggregates = new LinkedHashMap<>();
+		for (Object partial : partials) {
+			if (!(partial instanceof Map)) {
+				throw new SpikeifyError("Error: unexpected aggregation result: " + partial);
+			}
+
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) partial).entrySet()) {
+				Object group = grouped ? entry.getKey() : null;
+				Map<?, ?> values = (Map<?, ?>) entry.getValue();
+
+				Aggregate aggregate = aggregates.get(group);
+				if (aggregate == null) {
+					aggregate = new Aggregate(group, fieldNames);
+					aggregates.put(group, aggregate);
+				}
+
+				aggregate.addCount(((Number) values.get("c")).longValue());
+				for (int i = 0; i < fieldNames.size(); i++) {
+					Number count = (Number) values.get("k" + i);
+					if (count != null) {
+						aggregate.getStats(fieldNames.get(i)).add((Number) values.get("s" + i), count.longValue(), (Number) values.get("n" + i), (Number) values.get("x" + i));
+					}
+				}
+			}
+		}
+
+		if (!grouped && aggregates.isEmpty()) {
+			aggregates.put(null, new Aggregate(null, fieldNames));
+		}
+		return new ArrayList<>(aggregates.values());
+	}
+
+	/**
+	 * @return module name unique to generated code, so changed code is never mistaken for a registered module
+	 */
+	private static String module(String code) {
+
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(code.getBytes(StandardCharsets.UTF_8));
+
+			StringBuilder name = new StringBuilder("spikeify_agg_");
+			for (int i = 0; i < 10; i++) {
+				name.append(String.format("%02x", digest[i] & 0xFF));
+			}
+			return name.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new SpikeifyError(e);
+		}
+	}
+
+	private static void register(IAerospikeClient client, String module, String code) {
+
+		synchronized (registered) {
+			Set<String> modules = registered.get(client);
+			if (modules == null) {
+				modules = new HashSet<>();
+				registered.put(client, modules);
+			}
+
+			if (modules.contains(module)) {
+				return;
+			}
+
+			try {
+				RegisterTask task = client.registerUdfString(null, code, module + ".lua", Language.LUA);
+				if (task != null) {
+					task.waitTillComplete();
+				}
+			}
+			catch (AerospikeException e) {
+				throw new SpikeifyError("Failed to register aggregation UDF: " + module, e);
+			}
+			modules.add(module);
+		}
+	}
+
+	/**
+	 * Provides generated code to the client, which runs the final stream operations locally.
+	 */
+	private static class ScriptLoader extends ClassLoader {
+
+		private final String path;
+		private final byte[] code;
+
+		ScriptLoader(String module, String code) {
+			super(Aggregation.class.getClassLoader());
+			this.path = module + ".lua";
+			this.code = code.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public InputStream getResourceAsStream(String name) {
+			return path.equals(name) ? new ByteArrayInputStream(code) : super.getResourceAsStream(name);
+		}
+	}
+}
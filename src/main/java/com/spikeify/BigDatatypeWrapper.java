@@ -6,23 +6,137 @@ import com.aerospike.client.Key;
 import com.aerospike.client.Value;
 import com.aerospike.client.async.IAsyncClient;
 import com.aerospike.client.large.LargeList;
+import com.aerospike.client.listener.ExecuteListener;
+import com.aerospike.client.policy.WritePolicy;
 import com.spikeify.annotations.AsJson;
+import com.spikeify.commands.InfoFetcher;
 import com.spikeify.converters.JsonConverter;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Base of LDT wrappers. Wrappers are bound to a record bin when entity is loaded, but connect to database
+ * (check if LDTs are enabled and if bin exists) only on first use, see {@link #inner()}.
+ */
 public abstract class BigDatatypeWrapper {
 
+	/**
+	 * LDT support per client and namespace, checked once
+	 */
+	private static final Map<IAsyncClient, Map<String, Boolean>> ldtEnabled = new WeakHashMap<>();
+
 	protected Converter converter;
 	protected LargeList inner;
 	protected boolean isEmpty = false;
 	protected final int step = 1000;
 
+	/**
+	 * Number of elements written in a single bulk chunk
+	 */
+	protected int chunkSize = step;
+
+	/**
+	 * Max number of bulk chunks written concurrently, 1 to write chunks one after another
+	 */
+	protected int concurrentChunks = 1;
+
+	private IAsyncClient ldtClient;
+	private Key ldtKey;
+	private String ldtBinName;
+	private WritePolicy ldtPolicy;
+	private volatile boolean connected;
+
 	public boolean isInitialized() {
-		return inner != null;
+		return ldtClient != null;
+	}
+
+	/**
+	 * Binds this wrapper to a record bin, without contacting the database.
+	 *
+	 * @param client  The underlying Aerospike client
+	 * @param key     The record key under which this LDT is saved in DB
+	 * @param binName The bin name under which this LDT is saved in DB
+	 * @param policy  Policy used by LDT operations
+	 */
+	protected void bind(IAsyncClient client, Key key, String binName, WritePolicy policy) {
+		this.ldtClient = client;
+		this.ldtKey = key;
+		this.ldtBinName = binName;
+		this.ldtPolicy = policy;
+		this.inner = null;
+		this.isEmpty = false;
+		this.connected = false;
+	}
+
+	/**
+	 * Returns underlying LargeList, connects to database on first call.
+	 *
+	 * @return underlying LargeList
+	 */
+	protected LargeList inner() {
+		if (!connected) {
+			connect();
+		}
+		return inner;
+	}
+
+	private synchronized void connect() {
+		if (connected) {
+			return;
+		}
+		if (ldtClient == null) {
+			throw new SpikeifyError("Error: LDT field is not bound to a record. Load or save the entity first.");
+		}
+
+		if (!isLdtEnabled(ldtClient, ldtKey.namespace)) {
+			throw new SpikeifyError("Error: LDT support not enabled on namespace '" + ldtKey.namespace + "'. Please add 'ldt-enabled true' to namespace section in your aerospike.conf file.");
+		}
+
+		inner = new LargeList((AerospikeClient) ldtClient, ldtPolicy, ldtKey, ldtBinName);
+
+		try {
+			inner.size();
+		} catch (AerospikeException ae) {
+			if (ae.getResultCode() == 1417) {
+				isEmpty = true;
+			}
+		}
+		connected = true;
+	}
+
+	private static boolean isLdtEnabled(IAsyncClient client, String namespace) {
+		Map<String, Boolean> namespaces;
+		synchronized (ldtEnabled) {
+			namespaces = ldtEnabled.get(client);
+			if (namespaces == null) {
+				namespaces = new ConcurrentHashMap<>();
+				ldtEnabled.put(client, namespaces);
+			}
+		}
+
+		Boolean enabled = namespaces.get(namespace);
+		if (enabled == null) {
+			enabled = new InfoFetcher(client).isUDFEnabled(namespace);
+			namespaces.put(namespace, enabled);
+		}
+		return enabled;
+	}
+
+	/**
+	 * @return number of elements in underlying LargeList, 0 if bin does not exist yet
+	 */
+	protected int innerSize() {
+		LargeList list = inner();
+		return isEmpty ? 0 : list.size();
 	}
 
 	protected void setConverterForValueType(Field field, Type valueType) {
@@ -41,13 +155,110 @@ public abstract class BigDatatypeWrapper {
 		}
 	}
 
+	/**
+	 * Sets up bulk writes (i.e. putAll, addAll): elements are written in chunks of given size,
+	 * with up to given number of chunks in flight at once.
+	 *
+	 * @param chunkSize        number of elements written in a single chunk
+	 * @param concurrentChunks max number of chunks written concurrently
+	 */
+	protected void setBulkWrites(int chunkSize, int concurrentChunks) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be greater than 0.");
+		}
+		if (concurrentChunks <= 0) {
+			throw new IllegalArgumentException("Number of concurrent chunks must be greater than 0.");
+		}
+		this.chunkSize = chunkSize;
+		this.concurrentChunks = concurrentChunks;
+	}
+
+	/**
+	 * Writes elements in chunks, see {@link #setBulkWrites(int, int)}.
+	 *
+	 * @param values elements to be written
+	 */
+	protected void addInChunks(List<Value> values) {
+
+		if (concurrentChunks == 1 || values.size() <= chunkSize) {
+			for (int from = 0; from < values.size(); from += chunkSize) {
+				addTransactionally(values.subList(from, Math.min(from + chunkSize, values.size())));
+			}
+			return;
+		}
+
+		// make sure LDT exists and its bin is checked before concurrent writes
+		inner();
+
+		final int chunks = (values.size() + chunkSize - 1) / chunkSize;
+		final Semaphore window = new Semaphore(concurrentChunks);
+		final Queue<List<Value>> failed = new ConcurrentLinkedQueue<>();
+		final AtomicReference<RuntimeException> error = new AtomicReference<>();
+		final Value bin = Value.get(ldtBinName);
+
+		for (int chunk = 0; chunk < chunks && error.get() == null; chunk++) {
+
+			final List<Value> part = values.subList(chunk * chunkSize, Math.min((chunk + 1) * chunkSize, values.size()));
+
+			acquire(window, 1);
+			ExecuteListener listener = new ExecuteListener() {
+				@Override
+				public void onSuccess(Key key, Object obj) {
+					window.release();
+				}
+
+				@Override
+				public void onFailure(AerospikeException exception) {
+					if (exception.getResultCode() == 1402) {
+						failed.add(part);  // clashing key, retried below
+					} else {
+						error.compareAndSet(null, exception);
+					}
+					window.release();
+				}
+			};
+
+			try {
+				ldtClient.execute(ldtPolicy, listener, ldtKey, "llist", "update_all", bin, Value.get(part));
+			} catch (AerospikeException ae) {
+				listener.onFailure(ae);
+			} catch (RuntimeException e) {
+				// listener is never called, its permit must be released here
+				error.compareAndSet(null, e);
+				window.release();
+			}
+		}
+
+		// wait for all chunks
+		acquire(window, concurrentChunks);
+		window.release(concurrentChunks);
+
+		if (error.get() != null) {
+			throw error.get();
+		}
+		isEmpty = false;
+
+		for (List<Value> part : failed) {
+			addTransactionally(part);
+		}
+	}
+
+	private static void acquire(Semaphore window, int permits) {
+		try {
+			window.acquire(permits);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SpikeifyError("Interrupted while waiting for pending writes.");
+		}
+	}
+
 	protected void addTransactionally(List<Value> values) {
 		int retries = 10;
 
 		// retry loop in case of clashing indexes
 		while (retries > 0) {
 			try {
-				inner.update(values);
+				inner().update(values);
 				isEmpty = false;
 				return;
 			} catch (AerospikeException ae) {
@@ -78,7 +289,7 @@ public abstract class BigDatatypeWrapper {
 	 */
 	public int size() {
 		try {
-			return isEmpty ? 0 : inner.size();
+			return innerSize();
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return 0;
@@ -94,7 +305,8 @@ public abstract class BigDatatypeWrapper {
 	 */
 	public boolean isEmpty() {
 		try {
-			return isEmpty || inner.size() == 0;
+			LargeList list = inner();
+			return isEmpty || list.size() == 0;
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return true;
@@ -109,7 +321,7 @@ public abstract class BigDatatypeWrapper {
 	 * @return Map of setting name ,setting value pairs
 	 */
 	public Map getInnerConfig() {
-		return inner.getConfig();
+		return inner().getConfig();
 	}
 
 	public Converter getConverter() {
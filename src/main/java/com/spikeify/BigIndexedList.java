@@ -2,13 +2,17 @@ package com.spikeify;
 
 import com.aerospike.client.AerospikeClient;
 import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
 import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
 import com.aerospike.client.Value;
 import com.aerospike.client.async.IAsyncClient;
 import com.aerospike.client.large.LargeList;
+import com.aerospike.client.policy.GenerationPolicy;
 import com.aerospike.client.policy.RecordExistsAction;
 import com.aerospike.client.policy.WritePolicy;
-import com.spikeify.commands.InfoFetcher;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
@@ -31,6 +35,19 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 
 	protected String binName;
 
+	/**
+	 * Number of indexes reserved at once in append mode, 0 if indexes are taken from list size
+	 */
+	private int indexBlockSize;
+	private boolean counterSeeded;
+	/**
+	 * Whether counter bin exists, null until checked. Checked once per instance, so a counter created later
+	 * by another instance is not noticed until the list is loaded again.
+	 */
+	private Boolean counterExists;
+	private long nextIndex;
+	private long reservedEnd;
+
 	/**
 	 * Internal function - must be called before this LDT can be used.
 	 * This function is called during a setup of mapping relation between this class and mapped field.
@@ -54,18 +71,198 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 		// need to set timeout for operations with a lot of records, e.g. getAll();
 		wp.timeout = 10_000;  // 10s
 
-		inner = new LargeList((AerospikeClient) client, wp, key, binName);
+		// connects on first use
+		bind(client, key, binName, wp);
+
+		this.counterSeeded = false;
+		this.counterExists = null;
+		this.nextIndex = 0;
+		this.reservedEnd = 0;
+	}
+
+	/**
+	 * Switches list to append mode: indexes of added values are reserved from a counter bin in the same record
+	 * (named as the list bin, suffixed by '#'), instead of querying the list size on every add.
+	 * Indexes are reserved atomically in blocks of given size and cached in this instance,
+	 * so concurrent appenders never collide. Indexes are unique and increasing, but can have gaps
+	 * where reserved blocks were not used up: {@link #get(int)} returns null for such indexes.
+	 * Once the counter bin exists all instances take indexes from it, whether in append mode or not
+	 * (an instance checks for the counter bin once, on first add), and {@link #trim(int)} and {@link #update(int, Object)} bound indexes by the counter instead of the list size.
+	 * The counter bin is kept when the owning entity is updated with forced replace.
+	 *
+	 * @param blockSize number of indexes reserved at once
+	 * @return this list
+	 */
+	public BigIndexedList<T> appendMode(int blockSize) {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("Block size must be greater than 0.");
+		}
+		this.indexBlockSize = blockSize;
+		return this;
+	}
+
+	/**
+	 * Sets up {@link #addAll(Collection)} to write values in chunks of given size, with up to given number of
+	 * chunks written concurrently. By default values are written in chunks of 1000, one chunk after another.
+	 *
+	 * @param chunkSize        number of values written in a single chunk
+	 * @param concurrentChunks max number of chunks written concurrently
+	 * @return this list
+	 */
+	public BigIndexedList<T> bulkWrites(int chunkSize, int concurrentChunks) {
+		setBulkWrites(chunkSize, concurrentChunks);
+		return this;
+	}
+
+	/**
+	 * @return name of the bin holding the index counter in append mode
+	 */
+	protected String getCounterBinName() {
+		return counterBinName(binName);
+	}
+
+	/**
+	 * @param binName name of the list bin
+	 * @return name of the bin holding the index counter of given list bin
+	 */
+	static String counterBinName(String binName) {
+		// bin names are limited to 14 chars: longer names are shortened with a hash of the full name,
+		// so that lists with a common prefix do not share a counter
+		if (binName.length() < 14) {
+			return binName + "#";
+		}
+		return binName.substring(0, 8) + String.format("%05x", binName.hashCode() & 0xFFFFF) + "#";
+	}
+
+	/**
+	 * @return value of the counter bin, null if counter bin does not exist
+	 */
+	private Long readCounter() {
+		String counterBin = getCounterBinName();
+		Record record = client.get(null, key, counterBin);
+		return record == null || record.getValue(counterBin) == null ? null : record.getLong(counterBin);
+	}
+
+	/**
+	 * @return true if counter bin exists, read from database only on first call
+	 */
+	private boolean hasCounter() {
+		if (counterExists == null) {
+			counterExists = readCounter() != null;
+		}
+		return counterExists;
+	}
 
-		if (!(new InfoFetcher(client).isUDFEnabled(key.namespace))) {
-			throw new SpikeifyError("Error: LDT support not enabled on namespace '" + key.namespace + "'. Please add 'ldt-enabled true' to namespace section in your aerospike.conf file.");
+	/**
+	 * @return index following the last index that could be taken: counter if it exists, list size otherwise
+	 */
+	private int endIndex() {
+		Long counter = hasCounter() ? readCounter() : null;
+		return counter != null ? counter.intValue() : innerSize();
+	}
+
+	/**
+	 * Takes indexes for added values: reserved from the counter bin in append mode or when the counter bin exists,
+	 * so that indexes reserved by other appenders are never reused, otherwise following the list size.
+	 *
+	 * @param count number of indexes
+	 * @return first index
+	 */
+	private int takeIndexes(int count) {
+
+		if (indexBlockSize > 0) {
+			return reserveIndexes(count);
+		}
+
+		if (hasCounter()) {
+			return (int) (incrementCounter(count) - count);
 		}
+		return innerSize();
+	}
+
+	/**
+	 * Reserves a range of indexes in append mode.
+	 *
+	 * @param count number of indexes
+	 * @return first reserved index
+	 */
+	private synchronized int reserveIndexes(int count) {
+
+		if (reservedEnd - nextIndex < count) {
+			int reserve = Math.max(count, indexBlockSize);
+			reservedEnd = incrementCounter(reserve);
+			nextIndex = reservedEnd - reserve;
+		}
+
+		int first = (int) nextIndex;
+		nextIndex += count;
+		return first;
+	}
+
+	private long incrementCounter(int count) {
+
+		if (!counterSeeded) {
+			seedCounter();
+			counterSeeded = true;
+			counterExists = true;
+		}
+
+		String counterBin = getCounterBinName();
+		Record record = client.operate(wp, key, Operation.add(new Bin(counterBin, count)), Operation.get(counterBin));
+		return record.getLong(counterBin);
+	}
+
+	/**
+	 * Creates counter bin, if missing, starting after the last index in list.
+	 */
+	private void seedCounter() {
+
+		String counterBin = getCounterBinName();
+
+		for (int retries = 10; retries > 0; retries--) {
 
+			Record record = client.get(null, key, counterBin);
+			if (record != null && record.getValue(counterBin) != null) {
+				return;
+			}
+
+			WritePolicy seedPolicy = new WritePolicy(wp);
+			if (record == null) {
+				seedPolicy.recordExistsAction = RecordExistsAction.CREATE_ONLY;
+			} else {
+				seedPolicy.generationPolicy = GenerationPolicy.EXPECT_GEN_EQUAL;
+				seedPolicy.generation = record.generation;
+			}
+
+			try {
+				client.put(seedPolicy, key, new Bin(counterBin, lastIndex() + 1));
+				return;
+			} catch (AerospikeException ae) {
+				// someone else changed the record in the meantime
+				if (ae.getResultCode() != ResultCode.GENERATION_ERROR && ae.getResultCode() != ResultCode.KEY_EXISTS_ERROR) {
+					throw ae;
+				}
+			}
+		}
+
+		throw new SpikeifyError("Concurrency error: could not create index counter due to too-high concurrent updates.");
+	}
+
+	/**
+	 * @return highest index in list, -1 if list is empty
+	 */
+	private long lastIndex() {
 		try {
-			inner.size();
+			List last = inner().findLast(1);
+			if (last == null || last.isEmpty()) {
+				return -1;
+			}
+			return ((Number) ((Map) last.get(0)).get("key")).longValue();
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
-				isEmpty = true;
+				return -1;
 			}
+			throw ae;
 		}
 	}
 
@@ -81,7 +278,7 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 		if (value == null) {
 			throw new IllegalArgumentException("Can not add 'null' to BigList.");
 		}
-		int lastIndex = isEmpty ? 0 : inner.size();
+		int lastIndex = takeIndexes(1);
 		int retries = 10;
 
 		Map<String, Object> valMap = new HashMap<>(2);
@@ -91,7 +288,7 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 		while (retries > 0) {
 
 			try {
-				inner.add(Value.get(valMap));
+				inner().add(Value.get(valMap));
 				isEmpty = false;
 				return lastIndex;
 			} catch (AerospikeException ae) {
@@ -124,27 +321,15 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 		}
 
 		List<Value> values = new ArrayList<>(collection.size());
-		int inLoop = 0;
-		int lastIndex = isEmpty ? 0 : inner.size();
+		int lastIndex = takeIndexes(collection.size());
 
 		for (T value : collection) {
-			inLoop++;
-			Map<String, Object> valMap = new HashMap<>(2);
-			valMap.put("key", lastIndex);
-			valMap.put("value", converter == null ? value : converter.fromField(value));
-			values.add(Value.get(valMap));
+			values.add(Value.get(new LdtEntry(lastIndex, converter == null ? value : converter.fromField(value))));
 			lastIndex++;
-			if (inLoop % step == 0) {
-				addTransactionally(values); // add in chunks
-				values.clear();
-			}
-		}
-		if (!values.isEmpty()) {
-			addTransactionally(values);  // add remaining chunk
-			return lastIndex;
-		} else {
-			return lastIndex;
 		}
+
+		addInChunks(values);
+		return lastIndex;
 	}
 
 
@@ -160,7 +345,8 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 		if (value == null) {
 			throw new IllegalArgumentException("Can not add 'null' to BigList.");
 		}
-		int lastIndex = isEmpty ? 0 : inner.size();
+		// indexes taken from counter can have gaps, so counter is the end of list
+		int lastIndex = endIndex();
 
 		if (index > lastIndex) {
 			throw new IllegalArgumentException("Error: index out of bounds. Can not add value past the end of list.");
@@ -174,7 +360,7 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 			valMap.put("key", index);
 			valMap.put("value", converter == null ? value : converter.fromField(value));
 			try {
-				inner.update(Value.get(valMap));
+				inner().update(Value.get(valMap));
 				isEmpty = false;
 				return;
 			} catch (AerospikeException ae) {
@@ -201,7 +387,7 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 
 		try {
 
-			List found = inner.find(Value.get(index));
+			List found = inner().find(Value.get(index));
 
 			if (found == null || found.isEmpty()) {
 				return null;
@@ -227,38 +413,47 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 
 	/**
 	 * Returns a list of all values.
+	 * Values are read in pages, for big lists consider iterating via {@link #iterator(int)} instead.
 	 *
 	 * @return A list of all values.
 	 */
-	@SuppressWarnings("unchecked")
 	public List<T> getAll() {
 
-		List found = null;
-
-		try {
-			found = inner.scan();
-		} catch (AerospikeException ae) {
-			if (ae.getResultCode() == 1417) {
-				return new ArrayList<>(0);
-			}
-			throw ae;
+		List<T> results = new ArrayList<>();
+		Iterator<T> iterator = iterator(step);
+		while (iterator.hasNext()) {
+			results.add(iterator.next());
 		}
+		return results;
+	}
 
-		if (found == null || found.isEmpty()) {
-			return new ArrayList<>(0);  // return empty list if no results
-		}
+	/**
+	 * Returns an iterator over all values, reading values from database in pages.
+	 * Values are converted as they are iterated.
+	 *
+	 * @param pageSize number of values read from database at once
+	 * @return iterator over values in index order
+	 */
+	public BigIterator<T> iterator(int pageSize) {
+		return new ValueIterator(null, null, pageSize);
+	}
 
-		List<T> results = new ArrayList<>(found.size());
-		for (Object obj : found) {
-			Object val = ((Map<String, Object>) obj).get("value");
-			if (converter != null) {
-				results.add((T) converter.fromProperty(val));
-			} else {
-				results.add((T) val);
-			}
+	/**
+	 * Returns an iterator over values between from and to positions, reading values from database in pages.
+	 * Values are converted as they are iterated.
+	 *
+	 * @param from     Starting position
+	 * @param to       Ending position
+	 * @param pageSize number of values read from database at once
+	 * @return iterator over values in index order
+	 */
+	public BigIterator<T> iterator(int from, int to, int pageSize) {
 
+		if (to < from) {
+			throw new IllegalArgumentException("Inverted range: 'to' is smaller then 'from'");
 		}
-		return results;
+
+		return new ValueIterator(Value.get(from), Value.get(to), pageSize);
 	}
 
 	/**
@@ -279,7 +474,7 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 		List found = null;
 
 		try {
-			found = inner.range(Value.get(from), Value.get(to));
+			found = inner().range(Value.get(from), Value.get(to));
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return new ArrayList<>();
@@ -315,7 +510,7 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 		List found = null;
 
 		try {
-			found = inner.range(Value.get(from), Value.get(to), count);
+			found = inner().range(Value.get(from), Value.get(to), count);
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return new ArrayList<>();
@@ -349,11 +544,15 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 	public int trim(int from) {
 
 		try {
-			int to = inner.size() - 1;
+			// indexes taken from counter can have gaps, so size is not the end of list
+			long to = lastIndex();
+			if (to < 0) {
+				return 0;  // nothing to trim
+			}
 			if (to < from) {
 				throw new IndexOutOfBoundsException("Parameter 'from' is out of range.");
 			}
-			return inner.remove(Value.get(from), Value.get(to));
+			return inner().remove(Value.get(from), Value.get(to));
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return 0;
@@ -372,7 +571,7 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 	public boolean exists(int index) throws AerospikeException {
 
 		try {
-			return index >= 0 && inner.exists(Value.get(index));
+			return index >= 0 && inner().exists(Value.get(index));
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return false;
@@ -382,14 +581,36 @@ public class BigIndexedList<T> extends BigDatatypeWrapper {
 	}
 
 	/**
-	 * Removes all values.
+	 * Removes all values. Index counter bin is removed too, so indexes of added values start at 0 again.
 	 */
 	public void removeAll() {
 		// destroy LDT field...
-		inner.destroy();
+		inner().destroy();
 		// re-initialize
 		inner = new LargeList((AerospikeClient) client, wp, key, binName);
 		isEmpty = true;
+
+		client.put(wp, key, Bin.asNull(getCounterBinName()));
+		synchronized (this) {
+			counterSeeded = false;
+			counterExists = false;
+			nextIndex = 0;
+			reservedEnd = 0;
+		}
 	}
 
+
+	private class ValueIterator extends BigIterator<T> {
+
+		ValueIterator(Value from, Value to, int pageSize) {
+			super(BigIndexedList.this, from, to, pageSize);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected T convert(Map<String, Object> entry) {
+			Object val = entry.get("value");
+			return converter != null ? (T) converter.fromProperty(val) : (T) val;
+		}
+	}
 }
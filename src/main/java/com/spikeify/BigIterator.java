@@ -0,0 +1,124 @@
+package com.spikeify;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Value;
+import com.aerospike.client.large.LargeList;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over values of a LDT wrapper, reading them from database in pages of given size.
+ * Only a single page is held in memory at once and values are converted as they are iterated.
+ * Every page is read starting at the last key of previous page, so values added or removed during iteration
+ * may or may not be returned, but no value is returned twice.
+ *
+ * @param <E> type of iterated elements
+ */
+public abstract class BigIterator<E> implements Iterator<E> {
+
+	private final BigDatatypeWrapper wrapper;
+	private final Value from;
+	private final Value to;
+	private final int pageSize;
+
+	private List<?> page;
+	private int position;
+	private Object lastKey;
+	private boolean lastPage;
+
+	/**
+	 * @param wrapper  wrapper to iterate over
+	 * @param from     first key (inclusive), null to start at the beginning
+	 * @param to       last key (inclusive), null to iterate until the end, can only be given together with from
+	 * @param pageSize number of values read from database at once
+	 */
+	protected BigIterator(BigDatatypeWrapper wrapper, Value from, Value to, int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be greater than 0.");
+		}
+		if (to != null && from == null) {
+			throw new IllegalArgumentException("Range end can only be given together with range start.");
+		}
+
+		this.wrapper = wrapper;
+		this.from = from;
+		this.to = to;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Converts a single LDT entry (a map with 'key' and 'value') to iterated element.
+	 *
+	 * @param entry entry as stored in database
+	 * @return converted element
+	 */
+	protected abstract E convert(Map<String, Object> entry);
+
+	@Override
+	public boolean hasNext() {
+		while (page == null || position >= page.size()) {
+			if (lastPage) {
+				return false;
+			}
+			readPage();
+		}
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return convert((Map<String, Object>) page.get(position++));
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Removing values while iterating is not supported.");
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readPage() {
+
+		// next page starts at last key of previous page, which is skipped
+		boolean skipFirst = lastKey != null;
+		int count = skipFirst ? pageSize + 1 : pageSize;
+		Value begin = skipFirst ? Value.get(lastKey) : from;
+
+		List<?> found;
+		try {
+			LargeList inner = wrapper.inner();
+			if (begin == null) {
+				found = inner.findFirst(count);
+			} else if (to == null) {
+				found = inner.findFrom(begin, count);
+			} else {
+				found = inner.range(begin, to, count);
+			}
+		} catch (AerospikeException ae) {
+			if (ae.getResultCode() != 1417) {
+				throw ae;
+			}
+			found = null;  // LDT bin does not exist yet
+		}
+
+		if (found == null || found.isEmpty()) {
+			page = null;
+			lastPage = true;
+			return;
+		}
+
+		// previous last key could have been removed in the meantime
+		Object firstKey = ((Map<String, Object>) found.get(0)).get("key");
+		position = skipFirst && lastKey.equals(firstKey) ? 1 : 0;
+
+		lastPage = found.size() < count;
+		lastKey = ((Map<String, Object>) found.get(found.size() - 1)).get("key");
+		page = found;
+	}
+}
@@ -9,12 +9,13 @@ import com.aerospike.client.large.LargeList;
 import com.aerospike.client.policy.RecordExistsAction;
 import com.aerospike.client.policy.WritePolicy;
 import com.spikeify.annotations.AsJson;
-import com.spikeify.commands.InfoFetcher;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -65,19 +66,21 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 		wp.timeout = 10_000;  // 10s
 
 		// retards from AS
-		inner = new LargeList((AerospikeClient) asynClient, wp, key, binName);
-
-		if (!(new InfoFetcher(client).isUDFEnabled(key.namespace))) {
-			throw new SpikeifyError("Error: LDT support not enabled on namespace '" + key.namespace + "'. Please add 'ldt-enabled true' to namespace section in your aerospike.conf file.");
-		}
+		// connects on first use
+		bind(client, key, binName, wp);
+	}
 
-		try {
-			inner.size();
-		} catch (AerospikeException ae) {
-			if (ae.getResultCode() == 1417) {
-				isEmpty = true;
-			}
-		}
+	/**
+	 * Sets up {@link #putAll(Map)} to write mappings in chunks of given size, with up to given number of
+	 * chunks written concurrently. By default mappings are written in chunks of 1000, one chunk after another.
+	 *
+	 * @param chunkSize        number of mappings written in a single chunk
+	 * @param concurrentChunks max number of chunks written concurrently
+	 * @return this map
+	 */
+	public BigMap<K, V> bulkWrites(int chunkSize, int concurrentChunks) {
+		setBulkWrites(chunkSize, concurrentChunks);
+		return this;
 	}
 
 	/**
@@ -89,7 +92,7 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 	public boolean containsKey(K key) {
 
 		try {
-			return inner.exists(Value.get(key));
+			return inner().exists(Value.get(key));
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				isEmpty = true;
@@ -114,7 +117,7 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 		Map<String, Object> valMap = new HashMap<>(2);
 		valMap.put("key", key);
 		valMap.put("value", converter == null ? value : converter.fromField(value));
-		inner.update(Value.get(valMap));
+		inner().update(Value.get(valMap));
 		isEmpty = false;
 	}
 
@@ -135,24 +138,12 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 		}
 
 		List<Value> values = new ArrayList<>(map.size());
-		int inLoop = 0;
-
 		for (Map.Entry<K, V> entry : map.entrySet()) {
-			K key = entry.getKey();
 			V value = entry.getValue();
-			inLoop++;
-			Map<String, Object> valMap = new HashMap<>(2);
-			valMap.put("key", key);
-			valMap.put("value", converter == null ? value : converter.fromField(value));
-			values.add(Value.get(valMap));
-			if (inLoop % step == 0) {
-				addTransactionally(values); // add in chunks
-				values.clear();
-			}
-		}
-		if (!values.isEmpty()) {
-			addTransactionally(values);  // add remaining chunk
+			values.add(Value.get(new LdtEntry(entry.getKey(), converter == null ? value : converter.fromField(value))));
 		}
+
+		addInChunks(values);
 	}
 
 	/**
@@ -165,7 +156,7 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 	 */
 	@SuppressWarnings("unchecked")
 	public V get(K key) {
-		List found = inner.find(Value.get(key));
+		List found = inner().find(Value.get(key));
 
 		if (found == null || found.isEmpty()) {
 			return null;
@@ -184,24 +175,43 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 
 	/**
 	 * Returns a map of all keys, values.
+	 * Values are read in pages, for big maps consider iterating via {@link #iterator(int)} instead.
 	 *
 	 * @return A map of all keys, values.
 	 */
-	@SuppressWarnings("unchecked")
 	public Map<K, V> getAll() {
 
-		List found = null;
-
-		try {
-			found = inner.scan();
-		} catch (AerospikeException ae) {
-			if (ae.getResultCode() == 1417) {
-				return new HashMap<>(0);
-			}
-			throw ae;
+		Map<K, V> results = new HashMap<>();
+		Iterator<Map.Entry<K, V>> iterator = iterator(step);
+		while (iterator.hasNext()) {
+			Map.Entry<K, V> entry = iterator.next();
+			results.put(entry.getKey(), entry.getValue());
 		}
+		return results;
+	}
 
-		return toTypedResults(found);
+	/**
+	 * Returns an iterator over all mappings, reading them from database in pages.
+	 * Values are converted as they are iterated.
+	 *
+	 * @param pageSize number of mappings read from database at once
+	 * @return iterator over mappings in key order
+	 */
+	public BigIterator<Map.Entry<K, V>> iterator(int pageSize) {
+		return new EntryIterator(null, null, pageSize);
+	}
+
+	/**
+	 * Returns an iterator over mappings with keys between from and to, reading them from database in pages.
+	 * Values are converted as they are iterated.
+	 *
+	 * @param from     Starting key
+	 * @param to       Ending key
+	 * @param pageSize number of mappings read from database at once
+	 * @return iterator over mappings in key order
+	 */
+	public BigIterator<Map.Entry<K, V>> iterator(K from, K to, int pageSize) {
+		return new EntryIterator(Value.get(from), Value.get(to), pageSize);
 	}
 
 	/**
@@ -219,7 +229,7 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 
 		List found = null;
 		try {
-			found = inner.range(fromValue, toValue);
+			found = inner().range(fromValue, toValue);
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return new HashMap<>(0);
@@ -242,7 +252,7 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 
 		List found = null;
 		try {
-			found = inner.findLast(count);
+			found = inner().findLast(count);
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return new HashMap<>(0);
@@ -264,7 +274,7 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 
 		List found = null;
 		try {
-			found = inner.findFirst(count);
+			found = inner().findFirst(count);
 		} catch (AerospikeException ae) {
 			if (ae.getResultCode() == 1417) {
 				return new HashMap<>(0);
@@ -299,7 +309,7 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 	 * @param key key whose mapping is to be removed from the map
 	 */
 	public void remove(K key) {
-		inner.remove(Value.get(key));
+		inner().remove(Value.get(key));
 	}
 
 	/**
@@ -309,7 +319,7 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 	 */
 	public void remove(List<K> keys) {
 		// no need to use Value.get(keys) as this is already done by the underlying client
-		inner.remove(keys);
+		inner().remove(keys);
 	}
 
 	/**
@@ -317,8 +327,23 @@ public class BigMap<K, V> extends BigDatatypeWrapper {
 	 */
 	public void removeAll() {
 		// destroy LDT field...
-		inner.destroy();
+		inner().destroy();
 		// re-initialize
 		inner = new LargeList((AerospikeClient) asynClient, wp, key, binName);
 	}
+
+	private class EntryIterator extends BigIterator<Map.Entry<K, V>> {
+
+		EntryIterator(Value from, Value to, int pageSize) {
+			super(BigMap.this, from, to, pageSize);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Map.Entry<K, V> convert(Map<String, Object> entry) {
+			K key = (K) entry.get("key");
+			Object val = entry.get("value");
+			return new AbstractMap.SimpleImmutableEntry<>(key, converter != null ? (V) converter.fromProperty(val) : (V) val);
+		}
+	}
 }
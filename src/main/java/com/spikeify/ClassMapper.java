@@ -3,18 +3,24 @@ package com.spikeify;
 import com.aerospike.client.Key;
 import com.aerospike.client.async.AsyncClient;
 import com.aerospike.client.async.IAsyncClient;
-import com.spikeify.annotations.Namespace;
-import com.spikeify.annotations.SetName;
+import com.spikeify.annotations.*;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public class ClassMapper<TYPE> {
 
 	private final Map<String/** field name **/, FieldMapper> mappers;
-	private final Map<String/** field name **/, Class<? extends BigDatatypeWrapper>> ldtMappers;
+	private final FieldMapper[] fieldMappers;  // indexed by bin ordinal
+	private final String[] binNames; // indexed by bin ordinal
+	private final Map<String/** bin name **/, Integer> binOrdinals;
+	private final LdtField[] ldtFields;
+	private final Set<String> counterBins;  // index counter bins of BigIndexedList fields
+	private final boolean replaceable;
 
 	private final Class<TYPE> type;
 	private final String classSetName;
@@ -29,6 +35,14 @@ public class ClassMapper<TYPE> {
 	private final FieldMapper anyPropertyMapper;
 
 	public ClassMapper(Class<TYPE> clazz) {
+		this(clazz, null);
+	}
+
+	/**
+	 * @param clazz   mapped class
+	 * @param mapping mapping precompiled by the annotation processor, if null the class is mapped via reflection
+	 */
+	public ClassMapper(Class<TYPE> clazz, EntityMapping mapping) {
 		this.type = clazz;
 
 		// parse @Namespace class annotation
@@ -39,19 +53,52 @@ public class ClassMapper<TYPE> {
 		SetName setNameAnnotation = clazz.getAnnotation(SetName.class);
 		classSetName = setNameAnnotation != null ? setNameAnnotation.value() : null;
 
-		Map<String, FieldMapper> fieldMappers = MapperUtils.getFieldMappers(clazz);
+		Map<String, FieldMapper> fieldMappers = mapping != null ? MapperUtils.getFieldMappers(clazz, mapping) : MapperUtils.getFieldMappers(clazz);
 //		fieldMappers.putAll(MapperUtils.getJsonMappers(clazz));
 		mappers = fieldMappers;
+		this.fieldMappers = fieldMappers.values().toArray(new FieldMapper[fieldMappers.size()]);
+		this.binNames = new String[this.fieldMappers.length];
+		this.binOrdinals = new HashMap<>(this.fieldMappers.length);
+		for (int ordinal = 0; ordinal < this.fieldMappers.length; ordinal++) {
+			binNames[ordinal] = this.fieldMappers[ordinal].binName;
+			binOrdinals.put(binNames[ordinal], ordinal);
+		}
 
-		ldtMappers = MapperUtils.getLDTClasses(clazz);
-
-		generationFieldMapper = MapperUtils.getGenerationFieldMapper(clazz);
-		expirationFieldMapper = MapperUtils.getExpirationFieldMapper(clazz);
-		ttlFieldMapper = MapperUtils.getTtlFieldMapper(clazz);
-		namespaceFieldMapper = MapperUtils.getNamespaceFieldMapper(clazz);
-		setNameFieldMapper = MapperUtils.getSetNameFieldMapper(clazz);
-		userKeyFieldMapper = MapperUtils.getUserKeyFieldMapper(clazz);
-		anyPropertyMapper = MapperUtils.getAnyFieldMapper(clazz);
+		Map<String, Class<? extends BigDatatypeWrapper>> ldtMappers = MapperUtils.getLDTClasses(clazz);
+		ldtFields = new LdtField[ldtMappers.size()];
+		int ldtIndex = 0;
+		counterBins = new HashSet<>();
+		for (Map.Entry<String, Class<? extends BigDatatypeWrapper>> entry : ldtMappers.entrySet()) {
+			LdtField ldtField = new LdtField(clazz, entry.getKey(), entry.getValue());
+			ldtFields[ldtIndex++] = ldtField;
+			if (BigIndexedList.class.isAssignableFrom(entry.getValue())) {
+				String counterBin = BigIndexedList.counterBinName(ldtField.binName);
+				if (!counterBins.add(counterBin) || binOrdinals.containsKey(counterBin)) {
+					throw new SpikeifyError("Error: index counter bin '" + counterBin + "' of field '" + entry.getKey() +
+							"' on class " + clazz.getName() + " clashes with another bin, rename the field or its bin.");
+				}
+			}
+		}
+		replaceable = counterBins.isEmpty();
+
+		if (mapping != null) {
+			// annotations were validated at build time
+			generationFieldMapper = MapperUtils.getAnnotatedFieldMapper(clazz, mapping, Generation.class);
+			expirationFieldMapper = MapperUtils.getAnnotatedFieldMapper(clazz, mapping, Expires.class);
+			ttlFieldMapper = MapperUtils.getAnnotatedFieldMapper(clazz, mapping, TimeToLive.class);
+			namespaceFieldMapper = MapperUtils.getAnnotatedFieldMapper(clazz, mapping, Namespace.class);
+			setNameFieldMapper = MapperUtils.getAnnotatedFieldMapper(clazz, mapping, SetName.class);
+			userKeyFieldMapper = MapperUtils.getAnnotatedFieldMapper(clazz, mapping, UserKey.class);
+			anyPropertyMapper = MapperUtils.getAnnotatedFieldMapper(clazz, mapping, AnyProperty.class);
+		} else {
+			generationFieldMapper = MapperUtils.getGenerationFieldMapper(clazz);
+			expirationFieldMapper = MapperUtils.getExpirationFieldMapper(clazz);
+			ttlFieldMapper = MapperUtils.getTtlFieldMapper(clazz);
+			namespaceFieldMapper = MapperUtils.getNamespaceFieldMapper(clazz);
+			setNameFieldMapper = MapperUtils.getSetNameFieldMapper(clazz);
+			userKeyFieldMapper = MapperUtils.getUserKeyFieldMapper(clazz);
+			anyPropertyMapper = MapperUtils.getAnyFieldMapper(clazz);
+		}
 	}
 
 	public Class<TYPE> getType() {
@@ -131,8 +178,8 @@ public class ClassMapper<TYPE> {
 
 	public Map<String, Object> getProperties(TYPE object) {
 
-		Map<String, Object> props = new HashMap<>(mappers.size());
-		for (FieldMapper fieldMapper : mappers.values()) {
+		Map<String, Object> props = new HashMap<>(fieldMappers.length);
+		for (FieldMapper fieldMapper : fieldMappers) {
 			Object propertyValue = fieldMapper.getPropertyValue(object);
 			props.put(fieldMapper.binName, propertyValue);
 		}
@@ -141,33 +188,117 @@ public class ClassMapper<TYPE> {
 		if (anyPropertyMapper != null) {
 			Map<String, Object> unmappedProperties = (Map<String, Object>) anyPropertyMapper.getPropertyValue(object);
 			for (String propName : unmappedProperties.keySet()) {
-				props.put(propName, unmappedProperties.get(propName));
+				if (!counterBins.contains(propName)) {
+					props.put(propName, unmappedProperties.get(propName));
+				}
 			}
 		}
 
 		return props;
 	}
 
+	/**
+	 * Reads bin values of given object into an array based layout, avoiding creation of property maps.
+	 *
+	 * @param object object to read values from
+	 * @return bin values indexed by bin ordinal, followed by unmapped (@AnyProperty) values
+	 */
+	public RecordValues getRecordValues(TYPE object) {
+
+		String[] extraNames = null;
+		Map<String, Object> unmappedProperties = null;
+		if (anyPropertyMapper != null) {
+			unmappedProperties = (Map<String, Object>) anyPropertyMapper.getPropertyValue(object);
+			if (unmappedProperties != null && !unmappedProperties.isEmpty()) {
+				int count = 0;
+				for (String propName : unmappedProperties.keySet()) {
+					if (!binOrdinals.containsKey(propName) && !counterBins.contains(propName)) {
+						count++;
+					}
+				}
+				extraNames = new String[count];
+			}
+		}
+
+		RecordValues values = new RecordValues(binNames, binOrdinals, extraNames);
+		for (int ordinal = 0; ordinal < fieldMappers.length; ordinal++) {
+			values.setValue(ordinal, fieldMappers[ordinal].getPropertyValue(object));
+		}
+
+		// unmapped properties: append new bins, or override mapped bins (as with getProperties)
+		if (extraNames != null) {
+			int index = 0;
+			for (Map.Entry<String, Object> entry : unmappedProperties.entrySet()) {
+				if (counterBins.contains(entry.getKey())) {
+					continue;  // index counters are written only by their lists
+				}
+				Integer ordinal = binOrdinals.get(entry.getKey());
+				if (ordinal != null) {
+					values.setValue(ordinal, entry.getValue());
+				} else {
+					extraNames[index] = entry.getKey();
+					values.setValue(binNames.length + index, entry.getValue());
+					index++;
+				}
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * @return bin names indexed by bin ordinal
+	 */
+	String[] getBinLayout() {
+		return binNames;
+	}
+
+	/**
+	 * Replacing a record deletes all bins not written, including index counters of {@link BigIndexedList} fields.
+	 * Records of classes with such fields must be updated instead, with bins of null fields deleted.
+	 *
+	 * @return true if records of this class can be written with {@link com.aerospike.client.policy.RecordExistsAction#REPLACE}
+	 */
+	public boolean isReplaceable() {
+		return replaceable;
+	}
+
+	/**
+	 * @return ordinals of mapped bins by bin name, must not be modified
+	 */
+	Map<String, Integer> getBinOrdinals() {
+		return binOrdinals;
+	}
+
+	/**
+	 * @return ordinal of mapped bin or null if bin is not mapped to a field
+	 */
+	Integer getBinOrdinal(String binName) {
+		return binOrdinals.get(binName);
+	}
+
 	public FieldMapper getFieldMapper(String fieldName) {
 		return mappers.get(fieldName);
 	}
 
 	public void setFieldValues(TYPE object, Map<String, Object> properties) {
 
-		// create a copy
-		Map<String, Object> mappedProps = new HashMap<>(properties);
-
-		for (FieldMapper fieldMapper : mappers.values()) {
-			Object prop = mappedProps.get(fieldMapper.binName);
-			mappedProps.remove(fieldMapper.binName);
+		for (FieldMapper fieldMapper : fieldMappers) {
+			Object prop = properties.get(fieldMapper.binName);
 			if (prop != null) {
 				fieldMapper.setFieldValue(object, prop);
 			}
 		}
 
-		// at this point mappedProps should only contain unmapped properties
+		// collect unmapped properties
 		if (anyPropertyMapper != null) {
-			anyPropertyMapper.setFieldValue(object, mappedProps);
+			Map<String, Object> unmappedProps = new HashMap<>();
+			for (Map.Entry<String, Object> entry : properties.entrySet()) {
+				if (!binOrdinals.containsKey(entry.getKey()) && !counterBins.contains(entry.getKey())) {
+					unmappedProps.put(entry.getKey(), entry.getValue());
+				}
+			}
+			anyPropertyMapper.setFieldValue(object, unmappedProps);
 		}
 	}
 
@@ -178,29 +309,46 @@ public class ClassMapper<TYPE> {
 			return;  // only real client can be used, mocks do not support LDTs
 		}
 
-		for (Map.Entry<String, Class<? extends BigDatatypeWrapper>> entry : ldtMappers.entrySet()) {
-			Field field = null;
-			try {
-				field = object.getClass().getDeclaredField(entry.getKey()); // to see all fields not just public ones
-			} catch (NoSuchFieldException e) {
-				// should not happen
-				throw new SpikeifyError("Field '" + entry.getKey() + "' on class " + object.getClass() + " not found!");
-			}
-
+		for (LdtField ldtField : ldtFields) {
 			try {
-				field.setAccessible(true); // to allow setting private fields
-				BigDatatypeWrapper wrapper = (BigDatatypeWrapper) field.get(object);
-				if (wrapper == null || !wrapper.isInitialized()) {
-					wrapper = (new NoArgClassConstructor()).construct(entry.getValue());
-					wrapper.init(client, key, MapperUtils.getBinName(field), field);
+				BigDatatypeWrapper wrapper = (BigDatatypeWrapper) ldtField.field.get(object);
+				if (wrapper == null) {
+					wrapper = ldtField.wrapperConstructor.construct(ldtField.wrapperClass);
 				}
-				field.set(object, wrapper);
+				if (!wrapper.isInitialized()) {
+					// wrapper connects to database on first use
+					wrapper.init(client, key, ldtField.binName, ldtField.field);
+				}
+				ldtField.field.set(object, wrapper);
 			} catch (IllegalAccessException e) {
 				e.printStackTrace();
 			}
 		}
 	}
 
+	/**
+	 * LDT field, resolved once per class.
+	 */
+	private static final class LdtField {
+
+		private final Field field;
+		private final String binName;
+		private final Class<? extends BigDatatypeWrapper> wrapperClass;
+		private final ClassConstructor wrapperConstructor = new NoArgClassConstructor();
+
+		LdtField(Class clazz, String fieldName, Class<? extends BigDatatypeWrapper> wrapperClass) {
+			try {
+				this.field = clazz.getDeclaredField(fieldName); // to see all fields not just public ones
+			} catch (NoSuchFieldException e) {
+				// should not happen
+				throw new SpikeifyError("Field '" + fieldName + "' on class " + clazz + " not found!");
+			}
+			this.field.setAccessible(true); // to allow setting private fields
+			this.binName = MapperUtils.getBinName(field);
+			this.wrapperClass = wrapperClass;
+		}
+	}
+
 	/**
 	 * Translates bin names/values into field names/values.
 	 *
@@ -300,6 +448,24 @@ public class ClassMapper<TYPE> {
 		return MapperUtils.getBinName(fieldMapper.field);
 	}
 
+	/**
+	 * Resolves names of mapped fields to names of bins, i.e. to load only given fields.
+	 *
+	 * @param fieldNames names of mapped fields
+	 * @return bin names, in order of field names
+	 */
+	public String[] getBinNames(String... fieldNames) {
+		String[] bins = new String[fieldNames.length];
+		for (int i = 0; i < fieldNames.length; i++) {
+			FieldMapper fieldMapper = mappers.get(fieldNames[i]);
+			if (fieldMapper == null) {
+				throw new SpikeifyError("Error: field '" + fieldNames[i] + "' is not mapped in class " + type.getName() + ".");
+			}
+			bins[i] = fieldMapper.binName;
+		}
+		return bins;
+	}
+
 	public void checkKeyType(Key key) {
 		try {
 			userKeyFieldMapper.converter.fromProperty(key.userKey.getObject());
@@ -0,0 +1,35 @@
+package com.spikeify;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Precompiled mapping of an entity class, generated at build time by the spikeify annotation processor
+ * and discovered by {@link MapperService} via {@link java.util.ServiceLoader}.
+ * Mapping annotations are already validated by the processor, so the {@link ClassMapper} can be created
+ * without scanning all declared fields of the class.
+ */
+public interface EntityMapping {
+
+	/**
+	 * @return mapped entity class
+	 */
+	Class<?> getType();
+
+	/**
+	 * @return names of fields mapped to bins
+	 */
+	String[] getMappedFields();
+
+	/**
+	 * @param annotation one of field annotations: @UserKey, @Generation, @Expires, @TimeToLive, @Namespace, @SetName or @AnyProperty
+	 * @return name of the field carrying given annotation or null if there is none
+	 */
+	String getAnnotatedField(Class<? extends Annotation> annotation);
+
+	/**
+	 * @param fieldName name of field
+	 * @return generated accessor or null if field can not be accessed directly (i.e. private fields)
+	 */
+	FieldAccessor getAccessor(String fieldName);
+
+}
@@ -0,0 +1,37 @@
+package com.spikeify;
+
+/**
+ * Reads and writes the value of a single mapped field.
+ * Implementations are created once per field by a {@link FieldAccessorFactory} and are then reused for every entity instance.
+ * <p>
+ * Primitive fields can be accessed via the primitive-specialized methods, which avoid boxing:
+ * integral fields (long, int, short, byte, char) via {@link #getLong(Object)}/{@link #setLong(Object, long)},
+ * floating point fields (double, float) via {@link #getDouble(Object)}/{@link #setDouble(Object, double)}
+ * and boolean fields via {@link #getBoolean(Object)}/{@link #setBoolean(Object, boolean)}.
+ */
+public interface FieldAccessor {
+
+	/**
+	 * @param target object holding the field
+	 * @return field value, primitive values are boxed
+	 */
+	Object get(Object target);
+
+	/**
+	 * @param target object holding the field
+	 * @param value  value to set, primitive fields expect a boxed value
+	 */
+	void set(Object target, Object value);
+
+	long getLong(Object target);
+
+	void setLong(Object target, long value);
+
+	double getDouble(Object target);
+
+	void setDouble(Object target, double value);
+
+	boolean getBoolean(Object target);
+
+	void setBoolean(Object target, boolean value);
+}
@@ -0,0 +1,16 @@
+package com.spikeify;
+
+import java.lang.reflect.Field;
+
+/**
+ * Strategy creating {@link FieldAccessor}s for mapped fields. Set via {@link MapperService#setAccessorFactory(FieldAccessorFactory)}.
+ */
+public interface FieldAccessorFactory {
+
+	/**
+	 * @param field field to be accessed, already made accessible
+	 * @return accessor for given field
+	 */
+	FieldAccessor create(Field field);
+
+}
@@ -8,12 +8,21 @@ import java.lang.reflect.Field;
 public class FieldMapper<F, P> {
 
 	public FieldMapper(String binName, Converter<F, P> converter, Field field) {
+		this(binName, converter, field, null);
+	}
+
+	/**
+	 * @param accessor field accessor to use, if null accessor is created via {@link MapperService#getAccessorFactory()}
+	 */
+	public FieldMapper(String binName, Converter<F, P> converter, Field field, FieldAccessor accessor) {
 		this.binName = binName;
 		this.converter = converter;
-		this.field = field;
 
 		field.setAccessible(true);
 		this.field = field;
+		this.accessor = accessor != null ? accessor : MapperService.getAccessorFactory().create(field);
+		this.primitive = field.getType().isPrimitive();
+		this.primitiveKind = primitiveKind(field.getType(), converter);
 		try {
 			this.getter = MethodHandles.lookup().unreflectGetter(field);
 			this.setter = MethodHandles.lookup().unreflectSetter(field);
@@ -31,39 +40,107 @@ public class FieldMapper<F, P> {
 	}
 
 	public P getPropertyValue(Object object) {
-		try {
-			F fieldValue = (F) field.get(object);
-			if (fieldValue == null) {
-				return null;
-			}
-			return converter.fromField(fieldValue);
-		} catch (IllegalAccessException e) {
-			throw new SpikeifyError(e); //todo nicer error
+		if (primitiveKind != null) {
+			return (P) getPrimitivePropertyValue(object);
+		}
+
+		F fieldValue = (F) accessor.get(object);
+		if (fieldValue == null) {
+			return null;
 		}
+		return converter.fromField(fieldValue);
 	}
 
 	public void setFieldValue(Object targetObject, P propertyValue) {
-		try {
-			F value = converter.fromProperty(propertyValue);
-			if (!(value == null && field.getType().isPrimitive())) { // do not set value if primitive type, leave it default
-				field.set(targetObject, value);
+		if (primitiveKind != null) {
+			if (propertyValue != null) { // do not set value if null, leave it default
+				setPrimitiveFieldValue(targetObject, propertyValue);
 			}
-		} catch (IllegalAccessException e) {
-			throw new SpikeifyError(e); //todo nicer error
+			return;
+		}
+
+		F value = converter.fromProperty(propertyValue);
+		if (!(value == null && primitive)) { // do not set value if primitive type, leave it default
+			accessor.set(targetObject, value);
+		}
+	}
+
+	private Object getPrimitivePropertyValue(Object object) {
+		switch (primitiveKind) {
+			case LONG:
+				return ((PrimitiveLongConverter) converter).fromLong(accessor.getLong(object));
+			case DOUBLE:
+				return ((PrimitiveDoubleConverter) converter).fromDouble(accessor.getDouble(object));
+			default:
+				return ((PrimitiveLongConverter) converter).fromLong(accessor.getBoolean(object) ? 1 : 0);
+		}
+	}
+
+	private void setPrimitiveFieldValue(Object targetObject, Object propertyValue) {
+		switch (primitiveKind) {
+			case LONG:
+				accessor.setLong(targetObject, ((PrimitiveLongConverter) converter).toLong(propertyValue));
+				break;
+			case DOUBLE:
+				accessor.setDouble(targetObject, ((PrimitiveDoubleConverter) converter).toDouble(propertyValue));
+				break;
+			default:
+				accessor.setBoolean(targetObject, ((PrimitiveLongConverter) converter).toLong(propertyValue) != 0);
+				break;
+		}
+	}
+
+	/**
+	 * Primitive fields with a primitive-aware converter bypass the boxed {@link Converter} path.
+	 *
+	 * @return kind of primitive access or null if field must be accessed via boxed values
+	 */
+	private static PrimitiveKind primitiveKind(Class type, Converter converter) {
+		if (!type.isPrimitive()) {
+			return null;
+		}
+		if (type == boolean.class) {
+			return converter instanceof PrimitiveLongConverter ? PrimitiveKind.BOOLEAN : null;
+		}
+		if (type == double.class || type == float.class) {
+			return converter instanceof PrimitiveDoubleConverter ? PrimitiveKind.DOUBLE : null;
 		}
+		return converter instanceof PrimitiveLongConverter ? PrimitiveKind.LONG : null;
 	}
 
 	public F getFieldValue(P propertyValue) {
 		return converter.fromProperty(propertyValue);
 	}
 
+	public FieldAccessor getAccessor() {
+		return accessor;
+	}
+
 	public final String binName;
 	//	public Class<P> propType;
 	public final Converter<F, P> converter;
 
 	//	public Class<F> fieldType;
 	public Field field;
+
+	/**
+	 * @deprecated fields are accessed via {@link #getAccessor()}, kept for compatibility
+	 */
+	@Deprecated
 	public MethodHandle getter;
+
+	/**
+	 * @deprecated fields are accessed via {@link #getAccessor()}, kept for compatibility
+	 */
+	@Deprecated
 	public MethodHandle setter;
 
+	protected final FieldAccessor accessor;
+	protected final boolean primitive;
+	protected final PrimitiveKind primitiveKind;
+
+	protected enum PrimitiveKind {
+		LONG, DOUBLE, BOOLEAN
+	}
+
 }
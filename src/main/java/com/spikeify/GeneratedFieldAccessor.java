@@ -0,0 +1,38 @@
+package com.spikeify;
+
+/**
+ * Base class of field accessors generated by the spikeify annotation processor.
+ * Primitive access methods are overridden only for fields of matching type.
+ */
+public abstract class GeneratedFieldAccessor implements FieldAccessor {
+
+	@Override
+	public long getLong(Object target) {
+		throw new IllegalArgumentException("Field is not of integral type.");
+	}
+
+	@Override
+	public void setLong(Object target, long value) {
+		throw new IllegalArgumentException("Field is not of integral type.");
+	}
+
+	@Override
+	public double getDouble(Object target) {
+		throw new IllegalArgumentException("Field is not of floating point type.");
+	}
+
+	@Override
+	public void setDouble(Object target, double value) {
+		throw new IllegalArgumentException("Field is not of floating point type.");
+	}
+
+	@Override
+	public boolean getBoolean(Object target) {
+		throw new IllegalArgumentException("Field is not of boolean type.");
+	}
+
+	@Override
+	public void setBoolean(Object target, boolean value) {
+		throw new IllegalArgumentException("Field is not of boolean type.");
+	}
+}
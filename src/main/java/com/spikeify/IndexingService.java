@@ -7,6 +7,7 @@ import com.aerospike.client.query.IndexCollectionType;
 import com.aerospike.client.query.IndexType;
 import com.aerospike.client.task.IndexTask;
 import com.spikeify.annotations.*;
+import com.spikeify.commands.InfoCache;
 import com.spikeify.commands.InfoFetcher;
 
 import java.lang.reflect.Array;
@@ -78,6 +79,9 @@ public class IndexingService {
 					if (found == null) {
 						// we have all the data to create the index ... let's do it
 						createIndex(clazz, sfy.getClient(), policy, sfy.getNamespace(), indexName, field, indexType, collectionType);
+
+						// indexes are not cached until built, see InfoFetcher
+						InfoCache.of(sfy.getClient()).invalidateIndexes(sfy.getNamespace());
 					}
 				}
 			}
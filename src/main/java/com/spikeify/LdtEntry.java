@@ -0,0 +1,87 @@
+package com.spikeify;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact immutable map of a single LDT element, holding only 'key' and 'value' entries as expected by LargeList.
+ * Used instead of a HashMap per element when writing elements in bulk.
+ */
+final class LdtEntry extends AbstractMap<String, Object> {
+
+	static final String KEY = "key";
+	static final String VALUE = "value";
+
+	private final Object key;
+	private final Object value;
+
+	LdtEntry(Object key, Object value) {
+		this.key = key;
+		this.value = value;
+	}
+
+	@Override
+	public Object get(Object name) {
+		if (KEY.equals(name)) {
+			return key;
+		}
+		if (VALUE.equals(name)) {
+			return value;
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object name) {
+		return KEY.equals(name) || VALUE.equals(name);
+	}
+
+	@Override
+	public int size() {
+		return 2;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Object>>() {
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new Iterator<Map.Entry<String, Object>>() {
+
+					private int position;
+
+					@Override
+					public boolean hasNext() {
+						return position < 2;
+					}
+
+					@Override
+					public Map.Entry<String, Object> next() {
+						switch (position++) {
+							case 0:
+								return new SimpleImmutableEntry<>(KEY, key);
+							case 1:
+								return new SimpleImmutableEntry<>(VALUE, value);
+							default:
+								throw new NoSuchElementException();
+						}
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return 2;
+			}
+		};
+	}
+}
@@ -4,7 +4,7 @@ import com.aerospike.client.Key;
 import com.aerospike.client.Record;
 import com.aerospike.client.command.ParticleType;
 
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("unchecked")
@@ -12,16 +12,71 @@ public class MapperService {
 
 	private static final Map<Class, ClassMapper> classMappers = new ConcurrentHashMap<>();
 
+	private static volatile FieldAccessorFactory accessorFactory = new MethodHandleAccessorFactory();
+
+	/**
+	 * Sets the strategy used to access fields of mapped classes. Must be set before any class is mapped,
+	 * as already created mappers keep their accessors.
+	 * Defaults to {@link MethodHandleAccessorFactory}, use {@link ReflectionAccessorFactory} to access fields via reflection.
+	 *
+	 * @param factory field accessor factory
+	 */
+	public static void setAccessorFactory(FieldAccessorFactory factory) {
+		if (factory == null) {
+			throw new IllegalArgumentException("Field accessor factory must not be null.");
+		}
+		accessorFactory = factory;
+	}
+
+	public static FieldAccessorFactory getAccessorFactory() {
+		return accessorFactory;
+	}
+
 	public static <T> ClassMapper<T> getMapper(Class<T> clazz) {
 
 		ClassMapper<T> classMapper = classMappers.get(clazz);
 		if (classMapper == null) {
-			classMapper = new ClassMapper<>(clazz);
+			classMapper = new ClassMapper<>(clazz, GeneratedMappings.mappings.get(clazz));
 			classMappers.put(clazz, classMapper);
 		}
 		return classMapper;
 	}
 
+	/**
+	 * Creates class mappers for all entities with a mapping generated by the annotation processor.
+	 * Call on application startup, so that first requests do not pay for the creation of class mappers.
+	 *
+	 * @return number of mapped classes
+	 */
+	public static int warmUp() {
+		for (Class type : GeneratedMappings.mappings.keySet()) {
+			getMapper(type);
+		}
+		return GeneratedMappings.mappings.size();
+	}
+
+	/**
+	 * Mappings generated at build time, discovered via {@link ServiceLoader} on first use.
+	 */
+	private static class GeneratedMappings {
+
+		private static final Map<Class, EntityMapping> mappings = load();
+
+		private static Map<Class, EntityMapping> load() {
+			Map<Class, EntityMapping> found = new HashMap<>();
+			Iterator<EntityMapping> iterator = ServiceLoader.load(EntityMapping.class, MapperService.class.getClassLoader()).iterator();
+			while (iterator.hasNext()) {
+				try {
+					EntityMapping mapping = iterator.next();
+					found.put(mapping.getType(), mapping);
+				} catch (ServiceConfigurationError e) {
+					// stale entry (i.e. entity class was removed), such classes are mapped at runtime
+				}
+			}
+			return found;
+		}
+	}
+
 	/**
 	 * Performs common mapping task when loading an entity ... used in loaders
 	 * see {@link com.spikeify.commands.SingleLoader} {@link com.spikeify.commands.MultiLoader} {@link com.spikeify.commands.ScanLoader}
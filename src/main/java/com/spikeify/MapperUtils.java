@@ -4,6 +4,7 @@ import com.aerospike.client.Key;
 import com.spikeify.annotations.*;
 import com.spikeify.converters.*;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -68,54 +69,114 @@ public class MapperUtils {
 		Map<String, FieldMapper> mappers = new HashMap<>();
 
 		for (Field field : clazz.getDeclaredFields()) {
+			FieldMapper mapper = getFieldMapper(field, null);
+			if (mapper != null) {
+				mappers.put(field.getName(), mapper);
+			}
+		}
 
-			AsJson asJson = field.getAnnotation(AsJson.class);
-			Class fieldType = field.getType();
+		return mappers;
+	}
 
-			// AsJson with default target are handled via JsonConverter
-			if (asJson != null && asJson.target() == ConversionTarget.DEFAULT) {
+	/**
+	 * Creates field mappers out of a mapping precompiled by the annotation processor.
+	 * Only mapped fields are looked up, declared fields of the class are not scanned.
+	 */
+	public static Map<String /** field name **/, FieldMapper> getFieldMappers(Class clazz, EntityMapping mapping) {
 
-				if (BigIndexedList.class.isAssignableFrom(fieldType) || BigMap.class.isAssignableFrom(fieldType)) {
-					throw new SpikeifyError("@AsJson(target=ConversionTarget.DEFAULT) can not be used on fields of type com.spikeify.BigMap or com.spikeify.BigIndexedList");
-				}
+		String[] fieldNames = mapping.getMappedFields();
+		Map<String, FieldMapper> mappers = new HashMap<>(fieldNames.length);
 
-				mappers.put(field.getName(), new FieldMapper(getBinName(field), new JsonConverter(field), field));
-			} else if (asJson != null && asJson.target() == ConversionTarget.MAPVALUES) {
+		for (String fieldName : fieldNames) {
+			FieldMapper mapper = getFieldMapper(getDeclaredField(clazz, fieldName), mapping.getAccessor(fieldName));
+			if (mapper != null) {
+				mappers.put(fieldName, mapper);
+			}
+		}
 
-				// ConversionTarget.MAPVALUES must be used only on Maps
-				if (!Map.class.isAssignableFrom(fieldType) && !BigMap.class.isAssignableFrom(fieldType)) {
-					throw new SpikeifyError("@AsJson(target=ConversionTarget.MAPVALUES) can be used only on fields of type java.util.Map or com.spikeify.BigMap");
-				}
+		return mappers;
+	}
 
-				// BigIndexedList mapping is handled elsewhere
-				if(!BigMap.class.isAssignableFrom(fieldType)){
-					mappers.put(field.getName(), new FieldMapper(getBinName(field), new JsonConverter(field), field));
-				}
-			} else if (asJson != null && asJson.target() == ConversionTarget.LIST) {
+	/**
+	 * Creates a mapper for a field carrying given annotation, as listed by a precompiled mapping.
+	 *
+	 * @return field mapper or null if there is no such field
+	 */
+	public static FieldMapper getAnnotatedFieldMapper(Class clazz, EntityMapping mapping, Class<? extends Annotation> annotation) {
 
-				// ConversionTarget.LIST must be used only on Lists
-				if (!List.class.isAssignableFrom(fieldType) && !BigIndexedList.class.isAssignableFrom(fieldType)) {
-					throw new SpikeifyError("@AsJson(target=ConversionTarget.LIST) can be used only on fields of typex java.util.List or com.spikeify.BigIndexedList");
-				}
+		String fieldName = mapping.getAnnotatedField(annotation);
+		if (fieldName == null) {
+			return null;
+		}
 
-				// BigIndexedList mapping is handled elsewhere
-				if(!BigIndexedList.class.isAssignableFrom(fieldType)){
-					mappers.put(field.getName(), new FieldMapper(getBinName(field), new JsonConverter(field), field));
-				}
+		Field field = getDeclaredField(clazz, fieldName);
+		Converter converter = Generation.class.equals(annotation) ? new PassThroughConverter() : findConverter(field);
+		return new FieldMapper(null, converter, field, mapping.getAccessor(fieldName));
+	}
 
-			} else if (mappableField(field)) {
+	private static Field getDeclaredField(Class clazz, String fieldName) {
+		try {
+			return clazz.getDeclaredField(fieldName);
+		} catch (NoSuchFieldException e) {
+			throw new SpikeifyError("Error: field '" + clazz.getName() + "." + fieldName + "' listed in generated mapping not found. " +
+					"Generated mapping is out of date, recompile class " + clazz.getName() + ".");
+		}
+	}
 
-				Converter fieldConverter = findConverter(field);
+	/**
+	 * Creates a mapper for a field that is mapped to a bin.
+	 *
+	 * @param field    field to be mapped
+	 * @param accessor field accessor, if null it is created via {@link MapperService#getAccessorFactory()}
+	 * @return field mapper or null if field is not mapped to a bin
+	 */
+	public static FieldMapper getFieldMapper(Field field, FieldAccessor accessor) {
 
-				if (fieldConverter == null) {
-					throw new SpikeifyError("Error: unable to map field '" + field.getDeclaringClass() + "." + field.getName() + "' " +
-							"of unsupported type '" + fieldType + "'.");
-				}
-				mappers.put(field.getName(), new FieldMapper(getBinName(field), fieldConverter, field));
+		AsJson asJson = field.getAnnotation(AsJson.class);
+		Class fieldType = field.getType();
+
+		// AsJson with default target are handled via JsonConverter
+		if (asJson != null && asJson.target() == ConversionTarget.DEFAULT) {
+
+			if (BigIndexedList.class.isAssignableFrom(fieldType) || BigMap.class.isAssignableFrom(fieldType)) {
+				throw new SpikeifyError("@AsJson(target=ConversionTarget.DEFAULT) can not be used on fields of type com.spikeify.BigMap or com.spikeify.BigIndexedList");
 			}
-		}
 
-		return mappers;
+			return new FieldMapper(getBinName(field), new JsonConverter(field), field, accessor);
+		} else if (asJson != null && asJson.target() == ConversionTarget.MAPVALUES) {
+
+			// ConversionTarget.MAPVALUES must be used only on Maps
+			if (!Map.class.isAssignableFrom(fieldType) && !BigMap.class.isAssignableFrom(fieldType)) {
+				throw new SpikeifyError("@AsJson(target=ConversionTarget.MAPVALUES) can be used only on fields of type java.util.Map or com.spikeify.BigMap");
+			}
+
+			// BigIndexedList mapping is handled elsewhere
+			if(!BigMap.class.isAssignableFrom(fieldType)){
+				return new FieldMapper(getBinName(field), new JsonConverter(field), field, accessor);
+			}
+		} else if (asJson != null && asJson.target() == ConversionTarget.LIST) {
+
+			// ConversionTarget.LIST must be used only on Lists
+			if (!List.class.isAssignableFrom(fieldType) && !BigIndexedList.class.isAssignableFrom(fieldType)) {
+				throw new SpikeifyError("@AsJson(target=ConversionTarget.LIST) can be used only on fields of typex java.util.List or com.spikeify.BigIndexedList");
+			}
+
+			// BigIndexedList mapping is handled elsewhere
+			if(!BigIndexedList.class.isAssignableFrom(fieldType)){
+				return new FieldMapper(getBinName(field), new JsonConverter(field), field, accessor);
+			}
+
+		} else if (mappableField(field)) {
+
+			Converter fieldConverter = findConverter(field);
+
+			if (fieldConverter == null) {
+				throw new SpikeifyError("Error: unable to map field '" + field.getDeclaringClass() + "." + field.getName() + "' " +
+						"of unsupported type '" + fieldType + "'.");
+			}
+			return new FieldMapper(getBinName(field), fieldConverter, field, accessor);
+		}
+		return null;
 	}
 
 	public static Map<String, Class<? extends BigDatatypeWrapper>> getLDTClasses(Class clazz) {
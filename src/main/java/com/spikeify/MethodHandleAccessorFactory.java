@@ -0,0 +1,398 @@
+package com.spikeify;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Default {@link FieldAccessorFactory}. Creates accessors backed by method handles that are resolved once per field.
+ * Handles are adapted to exact types, so primitive fields are read and written without boxing
+ * and no access checks are performed on each invocation.
+ * Falls back to {@link ReflectionAccessorFactory} when a field can not be unreflected.
+ */
+public class MethodHandleAccessorFactory implements FieldAccessorFactory {
+
+	private final FieldAccessorFactory fallback = new ReflectionAccessorFactory();
+
+	@Override
+	public FieldAccessor create(Field field) {
+
+		field.setAccessible(true);
+
+		MethodHandle getter;
+		MethodHandle setter;
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			getter = lookup.unreflectGetter(field);
+			setter = lookup.unreflectSetter(field);
+		} catch (IllegalAccessException e) {
+			return fallback.create(field);
+		}
+
+		Class type = field.getType();
+		if (type == long.class) {
+			return new LongAccessor(getter, setter);
+		} else if (type == int.class) {
+			return new IntAccessor(getter, setter);
+		} else if (type == short.class) {
+			return new ShortAccessor(getter, setter);
+		} else if (type == byte.class) {
+			return new ByteAccessor(getter, setter);
+		} else if (type == char.class) {
+			return new CharAccessor(getter, setter);
+		} else if (type == double.class) {
+			return new DoubleAccessor(getter, setter);
+		} else if (type == float.class) {
+			return new FloatAccessor(getter, setter);
+		} else if (type == boolean.class) {
+			return new BooleanAccessor(getter, setter);
+		}
+		return new ObjectAccessor(getter, setter);
+	}
+
+	/**
+	 * Wraps checked throwable of a handle invocation, unchecked ones are rethrown as they are by callers.
+	 */
+	private static SpikeifyError error(Throwable t) {
+		return new SpikeifyError("Error: failed to access field.", t instanceof Exception ? (Exception) t : new Exception(t));
+	}
+
+	/**
+	 * Base accessor: boxed access for all fields, primitive access is not supported.
+	 */
+	private static class ObjectAccessor implements FieldAccessor {
+
+		protected final MethodHandle objectGetter;
+		protected final MethodHandle objectSetter;
+
+		ObjectAccessor(MethodHandle getter, MethodHandle setter) {
+			this.objectGetter = getter.asType(MethodType.methodType(Object.class, Object.class));
+			this.objectSetter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		}
+
+		@Override
+		public Object get(Object target) {
+			try {
+				return (Object) objectGetter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			try {
+				objectSetter.invokeExact(target, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public long getLong(Object target) {
+			throw new IllegalArgumentException("Field is not of integral type.");
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			throw new IllegalArgumentException("Field is not of integral type.");
+		}
+
+		@Override
+		public double getDouble(Object target) {
+			throw new IllegalArgumentException("Field is not of floating point type.");
+		}
+
+		@Override
+		public void setDouble(Object target, double value) {
+			throw new IllegalArgumentException("Field is not of floating point type.");
+		}
+
+		@Override
+		public boolean getBoolean(Object target) {
+			throw new IllegalArgumentException("Field is not of boolean type.");
+		}
+
+		@Override
+		public void setBoolean(Object target, boolean value) {
+			throw new IllegalArgumentException("Field is not of boolean type.");
+		}
+	}
+
+	private static class LongAccessor extends ObjectAccessor {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		LongAccessor(MethodHandle getter, MethodHandle setter) {
+			super(getter, setter);
+			this.getter = getter.asType(MethodType.methodType(long.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+		}
+
+		@Override
+		public long getLong(Object target) {
+			try {
+				return (long) getter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+	}
+
+	private static class IntAccessor extends ObjectAccessor {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		IntAccessor(MethodHandle getter, MethodHandle setter) {
+			super(getter, setter);
+			this.getter = getter.asType(MethodType.methodType(int.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+		}
+
+		@Override
+		public long getLong(Object target) {
+			try {
+				return (int) getter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			try {
+				setter.invokeExact(target, (int) value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+	}
+
+	private static class ShortAccessor extends ObjectAccessor {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		ShortAccessor(MethodHandle getter, MethodHandle setter) {
+			super(getter, setter);
+			this.getter = getter.asType(MethodType.methodType(short.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, short.class));
+		}
+
+		@Override
+		public long getLong(Object target) {
+			try {
+				return (short) getter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			try {
+				setter.invokeExact(target, (short) value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+	}
+
+	private static class ByteAccessor extends ObjectAccessor {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		ByteAccessor(MethodHandle getter, MethodHandle setter) {
+			super(getter, setter);
+			this.getter = getter.asType(MethodType.methodType(byte.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, byte.class));
+		}
+
+		@Override
+		public long getLong(Object target) {
+			try {
+				return (byte) getter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			try {
+				setter.invokeExact(target, (byte) value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+	}
+
+	private static class CharAccessor extends ObjectAccessor {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		CharAccessor(MethodHandle getter, MethodHandle setter) {
+			super(getter, setter);
+			this.getter = getter.asType(MethodType.methodType(char.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, char.class));
+		}
+
+		@Override
+		public long getLong(Object target) {
+			try {
+				return (char) getter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			try {
+				setter.invokeExact(target, (char) value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+	}
+
+	private static class DoubleAccessor extends ObjectAccessor {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		DoubleAccessor(MethodHandle getter, MethodHandle setter) {
+			super(getter, setter);
+			this.getter = getter.asType(MethodType.methodType(double.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+		}
+
+		@Override
+		public double getDouble(Object target) {
+			try {
+				return (double) getter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void setDouble(Object target, double value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+	}
+
+	private static class FloatAccessor extends ObjectAccessor {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		FloatAccessor(MethodHandle getter, MethodHandle setter) {
+			super(getter, setter);
+			this.getter = getter.asType(MethodType.methodType(float.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, float.class));
+		}
+
+		@Override
+		public double getDouble(Object target) {
+			try {
+				return (float) getter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void setDouble(Object target, double value) {
+			try {
+				setter.invokeExact(target, (float) value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+	}
+
+	private static class BooleanAccessor extends ObjectAccessor {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		BooleanAccessor(MethodHandle getter, MethodHandle setter) {
+			super(getter, setter);
+			this.getter = getter.asType(MethodType.methodType(boolean.class, Object.class));
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+		}
+
+		@Override
+		public boolean getBoolean(Object target) {
+			try {
+				return (boolean) getter.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+
+		@Override
+		public void setBoolean(Object target, boolean value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw error(t);
+			}
+		}
+	}
+}
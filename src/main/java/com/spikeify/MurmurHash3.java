@@ -7,6 +7,9 @@ import java.nio.ByteOrder;
  * An incremental hasher implementing Murmur3 hash function
  * <p>
  * From: https://code.google.com/p/cumulusrdf/source/browse/trunk/src/edu/kit/aifb/cumulus/store/MurmurHash3.java?r=122
+ * <p>
+ * Values are streamed into a fixed buffer, so adding primitives, chars and arrays does not allocate.
+ * A hasher can be reused via {@link #reset()}. Instances are not thread safe.
  */
 public class MurmurHash3 {
 
@@ -18,15 +21,30 @@ public class MurmurHash3 {
 	public MurmurHash3(long seed) {
 		this.SEED = seed;
 		state = new State();
+		reset();
+	}
+
+	public MurmurHash3() {
+		this(0);
+	}
+
+	/**
+	 * Resets hasher to initial state, so it can be reused for a new hash.
+	 *
+	 * @return this hasher
+	 */
+	public MurmurHash3 reset() {
 		state.h1 = 0x9368e53c2f6af274L ^ SEED;
 		state.h2 = 0x586dcd208f7cd3fdL ^ SEED;
 
 		state.c1 = 0x87c37b91114253d5L;
 		state.c2 = 0x4cf5ad432745937fL;
-	}
 
-	public MurmurHash3() {
-		this(0);
+		state.k1 = 0;
+		state.k2 = 0;
+		keyLen = 0;
+
+		return this;
 	}
 
 	static class State {
@@ -48,22 +66,46 @@ public class MurmurHash3 {
 	}
 
 	public MurmurHash3 add(final long data) {
+		add((byte) (data >> 56));
+		add((byte) (data >> 48));
+		add((byte) (data >> 40));
+		add((byte) (data >> 32));
+		add((byte) (data >> 24));
+		add((byte) (data >> 16));
+		add((byte) (data >> 8));
+		add((byte) data);
+		return this;
+	}
 
-		byte[] bytes = new byte[]{
-				(byte) (data >> 56),
-				(byte) (data >> 48),
-				(byte) (data >> 40),
-				(byte) (data >> 32),
-				(byte) (data >> 24),
-				(byte) (data >> 16),
-				(byte) (data >> 8),
-				(byte) data
-		};
-		add(bytes);
+	public MurmurHash3 addInt(final int data) {
+		add((byte) (data >> 24));
+		add((byte) (data >> 16));
+		add((byte) (data >> 8));
+		add((byte) data);
 		return this;
 	}
 
-	public synchronized MurmurHash3 add(byte byteData) {
+	public MurmurHash3 addDouble(final double data) {
+		return add(Double.doubleToLongBits(data));
+	}
+
+	public MurmurHash3 addChar(final char data) {
+		add((byte) (data >> 8));
+		add((byte) data);
+		return this;
+	}
+
+	/**
+	 * Adds UTF-16 chars of given sequence, without encoding it to bytes.
+	 */
+	public MurmurHash3 add(final CharSequence chars) {
+		for (int i = 0; i < chars.length(); i++) {
+			addChar(chars.charAt(i));
+		}
+		return this;
+	}
+
+	public MurmurHash3 add(byte byteData) {
 
 		key[keyLen++ % 16] = byteData;
 
@@ -76,7 +118,7 @@ public class MurmurHash3 {
 		return this;
 	}
 
-	public synchronized MurmurHash3 add(byte[] byteArray) {
+	public MurmurHash3 add(byte[] byteArray) {
 
 		for (byte byteData : byteArray) {
 			key[keyLen++ % 16] = byteData;
@@ -92,6 +134,21 @@ public class MurmurHash3 {
 	}
 
 	public long[] hash() {
+		finish();
+		return new long[]{state.h1, state.h2};
+	}
+
+	/**
+	 * Same as first value of {@link #hash()}, without allocating the result array.
+	 *
+	 * @return 64-bit hash
+	 */
+	public long hash64() {
+		finish();
+		return state.h1;
+	}
+
+	private void finish() {
 		state.k1 = 0;
 		state.k2 = 0;
 //		int tail = (keyLen >>> 4) << 4;
@@ -142,8 +199,6 @@ public class MurmurHash3 {
 
 		state.h1 += state.h2;
 		state.h2 += state.h1;
-
-		return new long[]{state.h1, state.h2};
 	}
 
 	private static void bmix(State state) {
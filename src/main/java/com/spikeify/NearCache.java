@@ -0,0 +1,392 @@
+package com.spikeify;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.Policy;
+import com.spikeify.async.ChunkedBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An optional in-process cache of loaded records, used by {@link com.spikeify.commands.SingleLoader} and
+ * {@link com.spikeify.commands.MultiLoader} to serve hot keys without a round trip to the database.
+ * Caching is enabled per entity class, classes not enabled are always loaded from database:
+ * <pre>
+ * SpikeifyService.getRecordsCache().getNearCache().enable(User.class, 10000, 60, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * Records are kept until evicted (least recently used first), until cache TTL passes or until the record itself expires
+ * (as set via {@link com.spikeify.annotations.Expires} or {@link com.spikeify.annotations.TimeToLive}).
+ * Writes and deletes through Spikeify invalidate cached records (when issued and again when completed),
+ * but writes done by other clients are not seen.
+ * To bound staleness, records older than given age can be revalidated with a header-only generation check,
+ * see {@link #revalidateAfter(Class, long, TimeUnit)}.
+ */
+public class NearCache {
+
+	private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+
+	private static final int STRIPES = 256;
+
+	/**
+	 * Invalidation counters striped by key: a load is not cached if its key was invalidated while it was loading,
+	 * so writes only affect loads of keys sharing a stripe.
+	 */
+	private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+	/**
+	 * Enables caching of records loaded into given class.
+	 *
+	 * @param type     mapped class
+	 * @param capacity max number of cached records of this class
+	 * @param ttl      time after records are dropped from cache, 0 to keep them until evicted or expired
+	 * @param unit     unit of ttl
+	 * @return this near cache
+	 */
+	public NearCache enable(Class<?> type, int capacity, long ttl, TimeUnit unit) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		}
+		if (ttl < 0) {
+			throw new IllegalArgumentException("TTL must not be negative.");
+		}
+		regions.put(type, new Region(capacity, unit.toMillis(ttl)));
+		return this;
+	}
+
+	/**
+	 * Records of given class cached longer than given age are checked against database before being used:
+	 * only record header is read and the record is used if its generation did not change.
+	 *
+	 * @param type mapped class, caching must be enabled for this class
+	 * @param age  age after cached records are revalidated
+	 * @param unit unit of age
+	 * @return this near cache
+	 */
+	public NearCache revalidateAfter(Class<?> type, long age, TimeUnit unit) {
+		Region region = regions.get(type);
+		if (region == null) {
+			throw new SpikeifyError("Error: near cache is not enabled for class " + type.getName() + ".");
+		}
+		region.revalidateMillis = unit.toMillis(age);
+		return this;
+	}
+
+	/**
+	 * Disables caching of records loaded into given class, cached records are dropped.
+	 *
+	 * @param type mapped class
+	 */
+	public void disable(Class<?> type) {
+		regions.remove(type);
+	}
+
+	/**
+	 * @param type mapped class
+	 * @return true if caching is enabled for given class
+	 */
+	public boolean isEnabled(Class<?> type) {
+		return regions.containsKey(type);
+	}
+
+	/**
+	 * Marks start of a database load. Value must be given to {@link #put(Class, Key, Record, long)} when load completes.
+	 *
+	 * @param key key of record to be loaded
+	 * @return current invalidation stamp of key
+	 */
+	public long stamp(Key key) {
+		return invalidations.get(stripe(key));
+	}
+
+	private static int stripe(Key key) {
+		return (key.hashCode() & Integer.MAX_VALUE) % STRIPES;
+	}
+
+	/**
+	 * Returns a copy of cached record.
+	 *
+	 * @param type   class record is loaded into
+	 * @param key    record key
+	 * @param client client used to revalidate records, if null records needing revalidation are not returned
+	 * @param policy policy used to revalidate records
+	 * @return cached record or null if not cached
+	 */
+	public Record get(Class<?> type, Key key, IAsyncClient client, Policy policy) {
+
+		Region region = regions.get(type);
+		if (region == null) {
+			return null;
+		}
+
+		Entry entry = region.get(key);
+		if (entry == null) {
+			return null;
+		}
+
+		if (region.needsRevalidation(entry)) {
+			if (client == null) {
+				return null;
+			}
+			Record header = client.getHeader(policy, key);
+			if (!revalidated(region, key, entry, header)) {
+				return null;
+			}
+		}
+
+		return entry.copy();
+	}
+
+	/**
+	 * Returns copies of cached records.
+	 *
+	 * @param type   class records are loaded into
+	 * @param keys   record keys
+	 * @param client client used to revalidate records, if null records needing revalidation are not returned
+	 * @param policy policy used to revalidate records
+	 * @return cached records in order of keys, null for records not cached
+	 */
+	public Record[] getAll(Class<?> type, Key[] keys, IAsyncClient client, BatchPolicy policy) {
+
+		Record[] records = new Record[keys.length];
+
+		Region region = regions.get(type);
+		if (region == null) {
+			return records;
+		}
+
+		Entry[] entries = new Entry[keys.length];
+		List<Integer> stale = null;
+		for (int i = 0; i < keys.length; i++) {
+			Entry entry = region.get(keys[i]);
+			if (entry != null && region.needsRevalidation(entry)) {
+				if (client == null) {
+					continue;
+				}
+				if (stale == null) {
+					stale = new ArrayList<>();
+				}
+				stale.add(i);
+			}
+			entries[i] = entry;
+		}
+
+		// revalidate with header batches, chunked to the max batch size
+		if (stale != null) {
+			Key[] staleKeys = new Key[stale.size()];
+			for (int i = 0; i < staleKeys.length; i++) {
+				staleKeys[i] = keys[stale.get(i)];
+			}
+
+			Record[] headers = new ChunkedBatch(client, policy, ChunkedBatch.MAX_BATCH_SIZE, ChunkedBatch.DEFAULT_CONCURRENCY).getHeaders(staleKeys);
+			for (int i = 0; i < staleKeys.length; i++) {
+				int index = stale.get(i);
+				if (!revalidated(region, staleKeys[i], entries[index], headers[i])) {
+					entries[index] = null;
+				}
+			}
+		}
+
+		for (int i = 0; i < keys.length; i++) {
+			if (entries[i] != null) {
+				records[i] = entries[i].copy();
+			}
+		}
+		return records;
+	}
+
+	private static boolean revalidated(Region region, Key key, Entry entry, Record header) {
+		if (header == null || header.generation != entry.record.generation) {
+			region.remove(key, entry);
+			return false;
+		}
+		entry.validatedAt = System.currentTimeMillis();
+		return true;
+	}
+
+	/**
+	 * Caches a loaded record, if caching is enabled for given class.
+	 *
+	 * @param type   class record is loaded into
+	 * @param key    record key
+	 * @param record loaded record, if null nothing is cached
+	 * @param stamp  stamp taken before record was loaded, see {@link #stamp(Key)}
+	 */
+	public void put(Class<?> type, Key key, Record record, long stamp) {
+
+		Region region = regions.get(type);
+		if (region == null || record == null) {
+			return;
+		}
+
+		Entry entry = new Entry(copy(record), region.ttlMillis);
+		if (entry.expiresAt == Long.MIN_VALUE) {
+			return;  // record already expired
+		}
+
+		region.put(key, entry);
+
+		// record could have been changed while it was loaded
+		if (invalidations.get(stripe(key)) != stamp) {
+			region.remove(key, entry);
+		}
+	}
+
+	/**
+	 * Drops a record from cache, for all classes.
+	 *
+	 * @param key record key
+	 */
+	public void invalidate(Key key) {
+		invalidations.incrementAndGet(stripe(key));
+		for (Region region : regions.values()) {
+			region.remove(key, null);
+		}
+	}
+
+	/**
+	 * Drops all cached records.
+	 */
+	public void clear() {
+		for (int i = 0; i < STRIPES; i++) {
+			invalidations.incrementAndGet(i);
+		}
+		for (Region region : regions.values()) {
+			region.clear();
+		}
+	}
+
+	/**
+	 * Copies a record, so cached bin values (lists, maps, byte arrays) are never shared with mapped objects.
+	 */
+	private static Record copy(Record record) {
+		return new Record(copyBins(record.bins), record.generation, record.expiration);
+	}
+
+	private static Map<String, Object> copyBins(Map<String, Object> bins) {
+		if (bins == null) {
+			return null;
+		}
+		Map<String, Object> copy = new HashMap<>(bins.size());
+		for (Map.Entry<String, Object> bin : bins.entrySet()) {
+			copy.put(bin.getKey(), copyValue(bin.getValue()));
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object copyValue(Object value) {
+		if (value instanceof List) {
+			List<Object> list = (List<Object>) value;
+			List<Object> copy = new ArrayList<>(list.size());
+			for (Object item : list) {
+				copy.add(copyValue(item));
+			}
+			return copy;
+		}
+		if (value instanceof Map) {
+			Map<Object, Object> map = (Map<Object, Object>) value;
+			Map<Object, Object> copy = new HashMap<>(map.size());
+			for (Map.Entry<Object, Object> item : map.entrySet()) {
+				copy.put(item.getKey(), copyValue(item.getValue()));
+			}
+			return copy;
+		}
+		if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		}
+		return value;
+	}
+
+	/**
+	 * Cached record.
+	 */
+	private static final class Entry {
+
+		private final Record record;
+		private final long expiresAt;  // 0 for no expiration
+		private volatile long validatedAt;
+
+		Entry(Record record, long ttlMillis) {
+			this.record = record;
+			this.validatedAt = System.currentTimeMillis();
+
+			long expires = ttlMillis == 0 ? 0 : validatedAt + ttlMillis;
+
+			// never keep record longer than it lives in database
+			long recordExpires = ExpirationUtils.getExpirationMillisAbs(record.expiration);
+			if (recordExpires > 0) {
+				expires = expires == 0 ? recordExpires : Math.min(expires, recordExpires);
+			}
+			this.expiresAt = expires != 0 && expires <= validatedAt ? Long.MIN_VALUE : expires;
+		}
+
+		boolean isExpired(long now) {
+			return expiresAt != 0 && expiresAt <= now;
+		}
+
+		Record copy() {
+			return NearCache.copy(record);
+		}
+	}
+
+	/**
+	 * Cached records of a single class, LRU ordered and guarded by its own monitor.
+	 */
+	private static final class Region {
+
+		private final long ttlMillis;
+		private volatile long revalidateMillis;
+		private final LinkedHashMap<Key, Entry> entries;
+
+		Region(final int capacity, long ttlMillis) {
+			this.ttlMillis = ttlMillis;
+			this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, NearCache.Entry> eldest) {
+					return size() > capacity;
+				}
+			};
+		}
+
+		synchronized Entry get(Key key) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+				entries.remove(key);
+				return null;
+			}
+			return entry;
+		}
+
+		synchronized void put(Key key, Entry entry) {
+			entries.put(key, entry);
+		}
+
+		/**
+		 * Removes record from region, only if it is still given entry (or any entry if null).
+		 */
+		synchronized void remove(Key key, Entry entry) {
+			if (entry == null || entries.get(key) == entry) {
+				entries.remove(key);
+			}
+		}
+
+		synchronized void clear() {
+			entries.clear();
+		}
+
+		boolean needsRevalidation(Entry entry) {
+			long revalidate = revalidateMillis;
+			return revalidate > 0 && System.currentTimeMillis() - entry.validatedAt > revalidate;
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package com.spikeify;
+
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.query.KeyRecord;
+import com.aerospike.client.query.RecordSet;
+import com.aerospike.client.query.Statement;
+import com.spikeify.commands.EntityConsumer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes a query on every cluster node in parallel and maps queried records on a pool of worker threads.
+ * Node readers hand records to workers through a bounded queue, so readers wait while all workers are busy.
+ * Readers and workers run on given executor, which must be able to run all of them at once.
+ */
+class ParallelQuery<T> {
+
+	private static final KeyRecord END = new KeyRecord(null, null);
+
+	/**
+	 * Max number of threads of the default executor, tasks are rejected when all of them are busy.
+	 */
+	static final int SHARED_EXECUTOR_MAX_THREADS = 256;
+
+	/**
+	 * Default executor of readers and workers shared by all queries: threads are reused and terminated when idle.
+	 * Tasks are never queued, so a query can not wait forever for its readers, but it fails with {@link SpikeifyError}
+	 * when there are more than {@value #SHARED_EXECUTOR_MAX_THREADS} readers and workers of running queries.
+	 */
+	static final ExecutorService SHARED_EXECUTOR = new ThreadPoolExecutor(0, SHARED_EXECUTOR_MAX_THREADS, 60L, TimeUnit.SECONDS,
+			new SynchronousQueue<Runnable>(), new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "spikeify-query");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private final IAsyncClient asynClient;
+	private final QueryPolicy policy;
+	private final Statement statement;
+	private final ClassMapper<T> mapper;
+	private final ClassConstructor classConstructor;
+	private final RecordsCache recordsCache;
+	private final String[] binNames;
+	private final RecordFilter recordFilter;
+	private final int threads;
+	private final Executor executor;
+	private final BlockingQueue<KeyRecord> queue;
+
+	private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+	private volatile boolean stopped;
+
+	ParallelQuery(IAsyncClient asynClient, QueryPolicy policy, Statement statement,
+	              ClassMapper<T> mapper, ClassConstructor classConstructor, RecordsCache recordsCache, String[] binNames,
+	              RecordFilter recordFilter, int threads, int bufferSize, Executor executor) {
+
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be greater than 0.");
+		}
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be greater than 0.");
+		}
+
+		this.asynClient = asynClient;
+		this.policy = policy;
+		this.statement = statement;
+		this.mapper = mapper;
+		this.classConstructor = classConstructor;
+		this.recordsCache = recordsCache;
+		this.binNames = binNames;
+		this.recordFilter = recordFilter;
+		this.threads = threads;
+		this.executor = executor != null ? executor : SHARED_EXECUTOR;
+		this.queue = new ArrayBlockingQueue<>(bufferSize);
+	}
+
+	/**
+	 * Executes the query and passes mapped objects to given consumer, concurrently from all worker threads.
+	 * Returns when all records are consumed, the consumer returns false or the query fails.
+	 *
+	 * @param consumer consumer of mapped objects
+	 */
+	void forEach(final EntityConsumer<? super T> consumer) {
+
+		Node[] nodes = asynClient.getNodes();
+		if (nodes == null || nodes.length == 0) {
+			throw new SpikeifyError("No Aerospike nodes found.");
+		}
+
+		CountDownLatch readers = new CountDownLatch(nodes.length);
+		for (final Node node : nodes) {
+			start(new Runnable() {
+				@Override
+				public void run() {
+					read(node);
+				}
+			}, readers);
+		}
+
+		CountDownLatch workers = new CountDownLatch(threads);
+		for (int i = 0; i < threads; i++) {
+			start(new Runnable() {
+				@Override
+				public void run() {
+					map(consumer);
+				}
+			}, workers);
+		}
+
+		await(readers);
+
+		// every worker stops on its own end marker
+		for (int i = 0; i < threads; i++) {
+			put(END);
+		}
+
+		await(workers);
+
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+	}
+
+	private void read(Node node) {
+
+		RecordSet recordSet = null;
+		try {
+			recordSet = asynClient.queryNode(policy, statement, node);
+			while (!stopped && recordSet.next()) {
+				put(new KeyRecord(recordSet.getKey(), recordSet.getRecord()));
+			}
+		}
+		catch (RuntimeException e) {
+			fail(e);
+		}
+		finally {
+			if (recordSet != null) {
+				recordSet.close();
+			}
+		}
+	}
+
+	private void map(EntityConsumer<? super T> consumer) {
+
+		try {
+			KeyRecord keyRecord;
+			while ((keyRecord = take()) != END) {
+				if (recordFilter != null && !recordFilter.accept(keyRecord.key, keyRecord.record)) {
+					continue;
+				}
+				T object = ResultSet.map(mapper, classConstructor, recordsCache, asynClient, binNames, keyRecord.key, keyRecord.record);
+				if (!consumer.consume(object)) {
+					stopped = true;
+					return;
+				}
+			}
+		}
+		catch (RuntimeException e) {
+			fail(e);
+		}
+	}
+
+	private void fail(RuntimeException exception) {
+		failure.compareAndSet(null, exception);
+		stopped = true;
+	}
+
+	private void put(KeyRecord keyRecord) {
+		try {
+			while (!stopped) {
+				if (queue.offer(keyRecord, 100, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stopped = true;
+		}
+	}
+
+	private KeyRecord take() {
+		try {
+			while (!stopped) {
+				KeyRecord keyRecord = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (keyRecord != null) {
+					return keyRecord;
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return END;
+	}
+
+	/**
+	 * Runs given task on the executor, counts down given latch once task completes or if it can not be run.
+	 */
+	private void start(final Runnable task, final CountDownLatch done) {
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						task.run();
+					}
+					finally {
+						done.countDown();
+					}
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			fail(new SpikeifyError("Query task was rejected by executor.", e));
+			done.countDown();
+		}
+	}
+
+	private void await(CountDownLatch done) {
+		try {
+			done.await();
+		}
+		catch (InterruptedException e) {
+			stopped = true;
+			Thread.currentThread().interrupt();
+			throw new SpikeifyError("Interrupted while waiting for query to complete.");
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.spikeify;
+
+/**
+ * Implemented by converters of floating point fields.
+ * Allows {@link FieldMapper} to move values between record bins and primitive fields without
+ * boxing the field value.
+ */
+public interface PrimitiveDoubleConverter {
+
+	/**
+	 * @param property database value (Double or Long holding double bits), never null
+	 * @return value to be set to the primitive field
+	 */
+	double toDouble(Object property);
+
+	/**
+	 * @param fieldValue value of the primitive field
+	 * @return database value
+	 */
+	Object fromDouble(double fieldValue);
+
+}
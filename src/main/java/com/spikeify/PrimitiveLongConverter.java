@@ -0,0 +1,22 @@
+package com.spikeify;
+
+/**
+ * Implemented by converters of integral and boolean fields (stored as Long in the database).
+ * Allows {@link FieldMapper} to move values between record bins and primitive fields without
+ * boxing the field value.
+ */
+public interface PrimitiveLongConverter {
+
+	/**
+	 * @param property database value, never null
+	 * @return value to be set to the primitive field
+	 */
+	long toLong(Object property);
+
+	/**
+	 * @param fieldValue value of the primitive field
+	 * @return database value
+	 */
+	Object fromLong(long fieldValue);
+
+}
@@ -0,0 +1,117 @@
+package com.spikeify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Hashes bin values for change detection in {@link RecordsCache}.
+ * Values are streamed into a reusable per-thread {@link MurmurHash3}, nested lists and maps are hashed in a single pass
+ * without intermediate hashes being boxed. Map hashes do not depend on iteration order of entries.
+ */
+final class PropertyHasher {
+
+	private static final byte NULL = 0;
+	private static final byte LONG = 1;
+	private static final byte DOUBLE = 2;
+	private static final byte STRING = 3;
+	private static final byte BYTES = 4;
+	private static final byte BOOLEAN = 5;
+	private static final byte LIST = 6;
+	private static final byte MAP = 7;
+	private static final byte OBJECT = 8;
+
+	private static final ThreadLocal<PropertyHasher> hashers = new ThreadLocal<PropertyHasher>() {
+		@Override
+		protected PropertyHasher initialValue() {
+			return new PropertyHasher();
+		}
+	};
+
+	private MurmurHash3[] hashersByDepth = new MurmurHash3[]{new MurmurHash3(), new MurmurHash3()};
+
+	private PropertyHasher() {
+	}
+
+	/**
+	 * @param property AS-supported value: Long, Double, String, byte[], List, Map or a POJO serialized by the client
+	 * @return hash of the value
+	 */
+	static long hash(Object property) {
+		// numbers are their own hash
+		if (property instanceof Long || property instanceof Integer || property instanceof Short || property instanceof Byte) {
+			return ((Number) property).longValue();
+		} else if (property instanceof Double || property instanceof Float) {
+			return Double.doubleToLongBits(((Number) property).doubleValue());
+		}
+
+		PropertyHasher hasher = hashers.get();
+		MurmurHash3 murmur = hasher.hasher(0);
+		hasher.add(murmur, property, 0);
+		return murmur.hash64();
+	}
+
+	/**
+	 * @return reset hasher for given nesting depth of maps
+	 */
+	private MurmurHash3 hasher(int depth) {
+		if (depth >= hashersByDepth.length) {
+			MurmurHash3[] grown = new MurmurHash3[depth + 2];
+			System.arraycopy(hashersByDepth, 0, grown, 0, hashersByDepth.length);
+			for (int i = hashersByDepth.length; i < grown.length; i++) {
+				grown[i] = new MurmurHash3();
+			}
+			hashersByDepth = grown;
+		}
+		return hashersByDepth[depth].reset();
+	}
+
+	private void add(MurmurHash3 murmur, Object value, int depth) {
+
+		if (value == null) {
+			murmur.add(NULL);
+		} else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			// DB returns all integers as Long
+			murmur.add(LONG).add(((Number) value).longValue());
+		} else if (value instanceof Double || value instanceof Float) {
+			murmur.add(DOUBLE).addDouble(((Number) value).doubleValue());
+		} else if (value instanceof String) {
+			String string = (String) value;
+			murmur.add(STRING).addInt(string.length()).add(string);
+		} else if (value instanceof byte[]) {
+			byte[] bytes = (byte[]) value;
+			murmur.add(BYTES).addInt(bytes.length).add(bytes);
+		} else if (value instanceof Boolean) {
+			murmur.add(BOOLEAN).add((byte) ((Boolean) value ? 1 : 0));
+		} else if (value instanceof List) {
+			List<?> list = (List<?>) value;
+			murmur.add(LIST).addInt(list.size());
+			if (list instanceof RandomAccess) {
+				for (int i = 0; i < list.size(); i++) {
+					add(murmur, list.get(i), depth);
+				}
+			} else {
+				for (Object item : list) {
+					add(murmur, item, depth);
+				}
+			}
+		} else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			murmur.add(MAP).addInt(map.size());
+
+			// entries are hashed separately and summed, so that order of entries does not matter
+			long entriesHash = 0;
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				MurmurHash3 entryMurmur = hasher(depth + 1);
+				add(entryMurmur, entry.getKey(), depth + 1);
+				add(entryMurmur, entry.getValue(), depth + 1);
+				entriesHash += entryMurmur.hash64();
+			}
+			murmur.add(entriesHash);
+		} else {
+			// this happens if POJOs are directly saved to database or when POJOs are added to Maps/Lists
+			// AS client then serializes & saves them
+			murmur.add(OBJECT).addInt(value.getClass().getName().hashCode()).addInt(value.hashCode());  // a simplistic hash for POJOs
+		}
+	}
+}
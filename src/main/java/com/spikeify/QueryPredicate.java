@@ -0,0 +1,214 @@
+package com.spikeify;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.query.Filter;
+import com.aerospike.client.query.IndexCollectionType;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single query condition on a bin: equality, range or IN. On list bins (and map keys or values) the condition
+ * matches if any element matches. One indexed predicate of a query is executed by the server as a {@link Filter},
+ * remaining predicates are evaluated on queried records before they are mapped.
+ */
+class QueryPredicate implements RecordFilter {
+
+	enum Kind {
+		EQUAL,
+		RANGE,
+		IN
+	}
+
+	final Field field;
+	final String binName;
+	final IndexCollectionType collectionType;
+	final Kind kind;
+	final Object[] values;
+
+	/**
+	 * name of index on bin, null if bin is not indexed
+	 */
+	String indexName;
+
+	private QueryPredicate(Field field, IndexCollectionType collectionType, Kind kind, Object... values) {
+		this.field = field;
+		this.binName = IndexingService.getFieldName(field);
+		this.collectionType = collectionType;
+		this.kind = kind;
+		this.values = values;
+	}
+
+	static QueryPredicate equal(Field field, IndexCollectionType collectionType, Object value) {
+		return new QueryPredicate(field, collectionType, Kind.EQUAL, value);
+	}
+
+	static QueryPredicate range(Field field, IndexCollectionType collectionType, long begin, long end) {
+		return new QueryPredicate(field, collectionType, Kind.RANGE, begin, end);
+	}
+
+	static QueryPredicate in(Field field, IndexCollectionType collectionType, Object... values) {
+		if (values == null || values.length == 0) {
+			throw new SpikeifyError("Error: at least one value must be given.");
+		}
+		if (values.length == 1) {
+			return equal(field, collectionType, values[0]);
+		}
+		return new QueryPredicate(field, collectionType, Kind.IN, values);
+	}
+
+	/**
+	 * @return true if predicate can be executed by the server
+	 */
+	boolean isIndexed() {
+		return indexName != null && kind != Kind.IN;
+	}
+
+	/**
+	 * Estimated selectivity of predicate, lower is more selective: equality before collection contains,
+	 * before ranges (narrower ranges first).
+	 */
+	long rank() {
+		boolean collection = !IndexCollectionType.DEFAULT.equals(collectionType);
+		switch (kind) {
+			case EQUAL:
+				return collection ? 1 : 0;
+			default:
+				long width = (Long) values[1] - (Long) values[0];
+				return width < 0 || width > Long.MAX_VALUE - 2 ? Long.MAX_VALUE : width + 2;
+		}
+	}
+
+	Filter toFilter() {
+
+		boolean collection = !IndexCollectionType.DEFAULT.equals(collectionType);
+		switch (kind) {
+			case EQUAL:
+				Object value = values[0];
+				if (value instanceof String) {
+					return collection ? Filter.contains(binName, collectionType, (String) value) : Filter.equal(binName, (String) value);
+				}
+				long longValue = (Long) value;
+				return collection ? Filter.contains(binName, collectionType, longValue) : Filter.equal(binName, longValue);
+
+			case RANGE:
+				long begin = (Long) values[0];
+				long end = (Long) values[1];
+				return collection ? Filter.range(binName, collectionType, begin, end) : Filter.range(binName, begin, end);
+
+			default:
+				throw new SpikeifyError("Error: IN predicate on '" + binName + "' can not be executed by server.");
+		}
+	}
+
+	/**
+	 * Values are not part of the expression, so generated code does not change with them.
+	 *
+	 * @param values Lua expression of the list of values of this predicate, see {@link #luaValues()}
+	 * @return Lua expression evaluating predicate on record 'rec', using functions 'any' and 'member' of generated aggregation script
+	 */
+	String toLuaCondition(String values) {
+
+		String test;
+		switch (kind) {
+			case RANGE:
+				test = "function(e) return type(e) == \"number\" and e >= " + values + "[1] and e <= " + values + "[2] end";
+				break;
+
+			default:
+				test = "function(e) return member(e, " + values + ") end";
+		}
+
+		return "any(rec[" + toLua(binName) + "], " + test + ", " + IndexCollectionType.MAPVALUES.equals(collectionType) + ")";
+	}
+
+	/**
+	 * @return values of predicate as passed to generated aggregation script
+	 */
+	List<Object> luaValues() {
+		return Arrays.asList(values);
+	}
+
+	/**
+	 * @param value string or long value
+	 * @return Lua literal of value, string characters other than letters, digits, spaces and underscores are escaped
+	 */
+	static String toLua(Object value) {
+
+		if (value instanceof Long) {
+			return value.toString();
+		}
+
+		StringBuilder literal = new StringBuilder("\"");
+		for (byte b : value.toString().getBytes(StandardCharsets.UTF_8)) {
+			if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == ' ' || b == '_') {
+				literal.append((char) b);
+			}
+			else {
+				literal.append(String.format("\\%03d", b & 0xFF)); // always three digits, so following digits are not part of escape
+			}
+		}
+		return literal.append('"').toString();
+	}
+
+	@Override
+	public boolean accept(Key key, Record record) {
+
+		Object bin = record.bins == null ? null : record.bins.get(binName);
+		if (bin == null) {
+			return false;
+		}
+
+		if (bin instanceof Collection) {
+			return matchesAny((Collection<?>) bin);
+		}
+
+		if (bin instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) bin;
+			return matchesAny(IndexCollectionType.MAPVALUES.equals(collectionType) ? map.values() : map.keySet());
+		}
+
+		return matches(bin);
+	}
+
+	private boolean matchesAny(Collection<?> elements) {
+		for (Object element : elements) {
+			if (element != null && matches(element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matches(Object value) {
+
+		switch (kind) {
+			case RANGE:
+				if (!(value instanceof Long || value instanceof Integer)) {
+					return false;
+				}
+				long longValue = ((Number) value).longValue();
+				return (Long) values[0] <= longValue && longValue <= (Long) values[1];
+
+			default:
+				for (Object expected : values) {
+					if (equal(expected, value)) {
+						return true;
+					}
+				}
+				return false;
+		}
+	}
+
+	private static boolean equal(Object expected, Object value) {
+		if (expected instanceof Long) {
+			return (value instanceof Long || value instanceof Integer) && (Long) expected == ((Number) value).longValue();
+		}
+		return expected.equals(value);
+	}
+}
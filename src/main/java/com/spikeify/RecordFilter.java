@@ -0,0 +1,18 @@
+package com.spikeify;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+
+/**
+ * Decides if a loaded record is mapped to an entity, before the entity is constructed.
+ * Might be called concurrently from multiple threads.
+ */
+public interface RecordFilter {
+
+	/**
+	 * @param key    key of loaded record
+	 * @param record loaded record: bins, generation and expiration
+	 * @return true to map the record, false to skip it
+	 */
+	boolean accept(Key key, Record record);
+}
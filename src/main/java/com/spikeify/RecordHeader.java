@@ -0,0 +1,43 @@
+package com.spikeify;
+
+import com.aerospike.client.Record;
+
+/**
+ * Metadata of a record (generation and expiration), as read without record bins.
+ */
+public class RecordHeader {
+
+	private final int generation;
+	private final int expiration;
+
+	public RecordHeader(Record record) {
+		this.generation = record.generation;
+		this.expiration = record.expiration;
+	}
+
+	/**
+	 * @return record generation, i.e. number of times record was written
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @return Unix timestamp in milliseconds when record expires, -1 if record never expires
+	 */
+	public long getExpires() {
+		return ExpirationUtils.getExpirationMillisAbs(expiration);
+	}
+
+	/**
+	 * @return time to live of record in seconds from now, -1 if record never expires
+	 */
+	public long getTtl() {
+		return ExpirationUtils.getExpirationMillisRelative(expiration);
+	}
+
+	@Override
+	public String toString() {
+		return "RecordHeader{generation=" + generation + ", expires=" + getExpires() + "}";
+	}
+}
@@ -0,0 +1,149 @@
+package com.spikeify;
+
+import com.aerospike.client.Bin;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Array based holder of bin values of a single mapped object, as produced by {@link ClassMapper#getRecordValues(Object)}.
+ * Mapped bins are addressed by their ordinal in the class layout, unmapped bins (from the @AnyProperty field)
+ * are appended after them. Changed bins are tracked in a bitset, set by {@link RecordsCache#update(com.aerospike.client.Key, RecordValues, boolean)}.
+ */
+public class RecordValues {
+
+	private final String[] binNames;
+	private final Map<String, Integer> ordinals;
+	private final String[] extraNames;
+	private final Object[] values;
+	private final long[] changed;
+
+	RecordValues(String[] binNames, Map<String, Integer> ordinals, String[] extraNames) {
+		this.binNames = binNames;
+		this.ordinals = ordinals;
+		this.extraNames = extraNames;
+		int size = binNames.length + (extraNames == null ? 0 : extraNames.length);
+		this.values = new Object[size];
+		this.changed = new long[(size + 63) >>> 6];
+	}
+
+	/**
+	 * @return number of bins: mapped and unmapped
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * @return names of mapped bins, indexed by ordinal
+	 */
+	String[] getLayout() {
+		return binNames;
+	}
+
+	/**
+	 * @return ordinals of mapped bins, by bin name
+	 */
+	Map<String, Integer> getOrdinals() {
+		return ordinals;
+	}
+
+	public String getBinName(int ordinal) {
+		return ordinal < binNames.length ? binNames[ordinal] : extraNames[ordinal - binNames.length];
+	}
+
+	public Object getValue(int ordinal) {
+		return values[ordinal];
+	}
+
+	void setValue(int ordinal, Object value) {
+		values[ordinal] = value;
+	}
+
+	public boolean isChanged(int ordinal) {
+		return (changed[ordinal >>> 6] & (1L << ordinal)) != 0;
+	}
+
+	public void setChanged(int ordinal) {
+		changed[ordinal >>> 6] |= 1L << ordinal;
+	}
+
+	public void setAllChanged() {
+		for (int i = 0; i < values.length; i++) {
+			setChanged(i);
+		}
+	}
+
+	/**
+	 * @return number of changed bins
+	 */
+	public int getChangedCount() {
+		int count = 0;
+		for (long word : changed) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * @return true if at least one changed bin has a non-null value
+	 */
+	public boolean hasChangedValues() {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null && isChanged(i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates bins out of changed values.
+	 *
+	 * @param skipNulls if true changed null values are not written (i.e. when replacing whole record)
+	 * @return bins to be written to database
+	 */
+	public Bin[] getChangedBins(boolean skipNulls) {
+
+		int count = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (isChanged(i) && (values[i] != null || !skipNulls)) {
+				count++;
+			}
+		}
+
+		Bin[] bins = new Bin[count];
+		int index = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (!isChanged(i)) {
+				continue;
+			}
+			String binName = getBinName(i);
+			Object value = values[i];
+			if (value == null) {
+				if (!skipNulls) {
+					bins[index++] = Bin.asNull(binName);
+				}
+			} else if (value instanceof List<?>) {
+				bins[index++] = new Bin(binName, (List) value);
+			} else if (value instanceof Map<?, ?>) {
+				bins[index++] = new Bin(binName, (Map) value);
+			} else {
+				bins[index++] = new Bin(binName, value);
+			}
+		}
+		return bins;
+	}
+
+	/**
+	 * @return values as a map of bin names to values
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new HashMap<>(values.length);
+		for (int i = 0; i < values.length; i++) {
+			map.put(getBinName(i), values[i]);
+		}
+		return map;
+	}
+}
@@ -1,24 +1,102 @@
 package com.spikeify;
 
+import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
+import com.aerospike.client.listener.DeleteListener;
+import com.aerospike.client.listener.WriteListener;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A cache of records, used to calculate changes between loaded and saved objects.
  * This is needed because Aerospike encourages saving only changed bins (records).
+ *
+ * The cache is shared between threads, so objects can be loaded and saved on different threads
+ * (i.e. when loaded via scan callbacks). It holds at most 'capacity' records, least recently used
+ * records are evicted first, and records older than 'ttl' are expired.
+ * An evicted record is simply written as a whole on next update.
+ *
+ * A snapshot of a record holds hashes of bin values, indexed by bin ordinal of the mapped class (see {@link ClassMapper}).
+ * Optionally, snapshots can be scoped to a unit of work, see {@link #beginUnitOfWork()}.
+ *
+ * Records written or removed through this cache are also invalidated in the {@link NearCache} of loaded records.
+ *
+ * Objects loaded with only some of their bins (a projection) are remembered for as long as they are reachable,
+ * independently of snapshots. Such an object is not saved once its snapshot is evicted or discarded,
+ * as all its fields would be written and bins of fields that were not loaded would be deleted.
  */
 public class RecordsCache {
 
-	private final ThreadLocal<Map<Key/*key of mapped object*/, Map<String, Long>/*record properties*/>> cache =
-			new ThreadLocal<Map<Key/*key of mapped object*/, Map<String, Long>/*record properties*/>>() {
-				@Override
-				protected Map<Key, Map<String, Long>> initialValue() {
-					return new HashMap<>();
-				}
-			};
+	public static final int DEFAULT_CAPACITY = 100000;
+
+	private static final int SEGMENTS = 16;
+
+	private static final String[] NO_LAYOUT = new String[0];
+
+	private final Segment[] segments;
+	private final long ttlMillis;
+
+	private final ThreadLocal<UnitOfWork> unitOfWork = new ThreadLocal<>();
+
+	private final NearCache nearCache = new NearCache();
+
+	private final ProjectedObjects projected = new ProjectedObjects();
+
+	/**
+	 * Creates a cache with default capacity and no expiration.
+	 */
+	public RecordsCache() {
+		this(DEFAULT_CAPACITY, 0, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param capacity max number of cached records
+	 * @param ttl      time after records are expired from cache, 0 for no expiration
+	 * @param unit     unit of ttl
+	 */
+	public RecordsCache(int capacity, long ttl, TimeUnit unit) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		}
+		if (ttl < 0) {
+			throw new IllegalArgumentException("TTL must not be negative.");
+		}
+
+		this.ttlMillis = unit.toMillis(ttl);
+		this.segments = new Segment[SEGMENTS];
+		int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment(segmentCapacity);
+		}
+	}
+
+	/**
+	 * @return near cache of loaded records, caching is disabled for all classes until enabled
+	 */
+	public NearCache getNearCache() {
+		return nearCache;
+	}
 
-//	private static Map<Key/*key of mapped object*/, Map<String, String>/*record properties*/> propertiesCache = new HashMap<>();
+	/**
+	 * Starts a unit of work on current thread. Until the unit of work is closed, records loaded and saved on this thread
+	 * are tracked only within the unit of work and are discarded when it is closed:
+	 * <pre>
+	 * try (RecordsCache.UnitOfWork work = cache.beginUnitOfWork()) {
+	 *     // load, change and save objects
+	 * }
+	 * </pre>
+	 *
+	 * @return unit of work, must be closed on the same thread
+	 */
+	public UnitOfWork beginUnitOfWork() {
+		UnitOfWork work = new UnitOfWork(unitOfWork.get());
+		unitOfWork.set(work);
+		return work;
+	}
 
 	/**
 	 * Insert a set of properties linked to a Key
@@ -28,18 +106,88 @@ public class RecordsCache {
 	 */
 	public void insert(Key key, Map<String, Object> properties) {
 
-		Map<String, Long> propertiesKeys = new HashMap<>(properties.size());
+		Map<String, Long> hashes = new HashMap<>(properties.size());
 		for (Map.Entry<String, Object> prop : properties.entrySet()) {
 			Object property = prop.getValue();
 			if (property != null) {
-				Long propertyHash = getPropertyHash(property);
-				if (propertyHash != null) {
-					propertiesKeys.put(prop.getKey(), propertyHash);
+				hashes.put(prop.getKey(), getPropertyHash(property));
+			}
+		}
+
+		put(key, new Snapshot(NO_LAYOUT, Collections.<String, Integer>emptyMap(), new long[0], new long[0], hashes, expiresAt()));
+	}
+
+	/**
+	 * Insert record bins linked to a Key, as loaded for given mapped class.
+	 *
+	 * @param key    The Key
+	 * @param mapper Mapper of the class record is loaded into
+	 * @param bins   Record bins
+	 */
+	public void insert(Key key, ClassMapper mapper, Map<String, Object> bins) {
+		insert(key, mapper, bins, null, null);
+	}
+
+	/**
+	 * Insert record bins linked to a Key, as loaded for given mapped class with only given bins (a projection).
+	 * Fields of bins that were not loaded are tracked with values they have on the loaded object,
+	 * so a later update writes them only if they were changed.
+	 *
+	 * @param key        The Key
+	 * @param mapper     Mapper of the class record is loaded into
+	 * @param bins       Record bins
+	 * @param loadedBins Names of loaded bins, null if all bins were loaded
+	 * @param object     Object record was loaded into, used for bins that were not loaded
+	 */
+	@SuppressWarnings("unchecked")
+	public void insert(Key key, ClassMapper mapper, Map<String, Object> bins, String[] loadedBins, Object object) {
+
+		String[] layout = mapper.getBinLayout();
+		long[] hashes = new long[layout.length];
+		long[] present = new long[bitsetLength(layout.length)];
+
+		// values of fields not loaded, as left on the object
+		RecordValues unloaded = null;
+		boolean[] loaded = null;
+		if (loadedBins != null) {
+			unloaded = mapper.getRecordValues(object);
+			loaded = new boolean[layout.length];
+			for (String binName : loadedBins) {
+				Integer ordinal = mapper.getBinOrdinal(binName);
+				if (ordinal != null) {
+					loaded[ordinal] = true;
+				}
+			}
+		}
+
+		int found = 0;
+		for (int ordinal = 0; ordinal < layout.length; ordinal++) {
+			Object value = loaded == null || loaded[ordinal] ? bins.get(layout[ordinal]) : unloaded.getValue(ordinal);
+			if (value != null) {
+				hashes[ordinal] = getPropertyHash(value);
+				present[ordinal >>> 6] |= 1L << ordinal;
+				found++;
+			}
+		}
+
+		// bins not mapped to fields (i.e. @AnyProperty)
+		Map<String, Long> extras = null;
+		if (loaded != null || bins.size() > found) {
+			for (Map.Entry<String, Object> bin : bins.entrySet()) {
+				if (bin.getValue() != null && mapper.getBinOrdinal(bin.getKey()) == null) {
+					if (extras == null) {
+						extras = new HashMap<>(bins.size());
+					}
+					extras.put(bin.getKey(), getPropertyHash(bin.getValue()));
 				}
 			}
 		}
 
-		cache.get().put(key, propertiesKeys);
+		put(key, new Snapshot(layout, mapper.getBinOrdinals(), hashes, present, extras, expiresAt()));
+
+		if (loadedBins != null && object != null) {
+			projected.add(object);
+		}
 	}
 
 	/**
@@ -48,7 +196,113 @@ public class RecordsCache {
 	 * @param key The Key
 	 */
 	public void remove(Key key) {
-		cache.get().remove(key);
+		nearCache.invalidate(key);
+
+		UnitOfWork work = unitOfWork.get();
+		if (work != null) {
+			work.snapshots.remove(key);
+		}
+
+		Segment segment = segment(key);
+		synchronized (segment) {
+			segment.remove(key);
+		}
+	}
+
+	/**
+	 * Remove a record that was not found in the database. Given object is no longer treated as partially loaded,
+	 * as there are no bins of the record left to be preserved.
+	 *
+	 * @param key    The Key
+	 * @param object Object to be written as a record
+	 */
+	public void notFound(Key key, Object object) {
+		remove(key);
+		projected.remove(object);
+	}
+
+	/**
+	 * Marks completion of a write or delete of a record, successful or not. Near cache is invalidated again,
+	 * as a load running concurrently with the write could have cached the record as it was before the write.
+	 *
+	 * @param key The Key
+	 */
+	public void written(Key key) {
+		nearCache.invalidate(key);
+	}
+
+	/**
+	 * Wraps listener of an asynchronous write, so {@link #written(Key)} is called before the listener.
+	 *
+	 * @param key      key of written record
+	 * @param listener listener of the write, can be null
+	 * @return listener to be given to the write
+	 */
+	public WriteListener written(final Key key, final WriteListener listener) {
+		return new WriteListener() {
+			@Override
+			public void onSuccess(Key written) {
+				written(key);
+				if (listener != null) {
+					listener.onSuccess(written);
+				}
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				written(key);
+				if (listener != null) {
+					listener.onFailure(exception);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Wraps listener of an asynchronous delete, so {@link #written(Key)} is called before the listener.
+	 *
+	 * @param key      key of deleted record
+	 * @param listener listener of the delete
+	 * @return listener to be given to the delete
+	 */
+	public DeleteListener deleted(final Key key, final DeleteListener listener) {
+		return new DeleteListener() {
+			@Override
+			public void onSuccess(Key deleted, boolean existed) {
+				written(key);
+				listener.onSuccess(deleted, existed);
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				written(key);
+				listener.onFailure(exception);
+			}
+		};
+	}
+
+	/**
+	 * Removes all records from cache.
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * @return number of records in shared cache (records tracked by units of work are not included)
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
 	}
 
 	/**
@@ -62,7 +316,9 @@ public class RecordsCache {
 	 */
 	public Set<String> update(Key key, Map<String, Object> newProperties, boolean forceReplace) {
 
-		Map<String, Long> existing = cache.get().get(key);
+		nearCache.invalidate(key);
+
+		Snapshot existing = get(key);
 
 		if (existing != null && !forceReplace) {
 
@@ -70,13 +326,13 @@ public class RecordsCache {
 
 			for (Map.Entry<String, Object> newEntry : newProperties.entrySet()) {
 				String newEntryKey = newEntry.getKey();
-				Object existingPropHash = existing.get(newEntryKey);
+				Long existingPropHash = existing.getHash(newEntryKey);
 
 				// property does not exist yet or has different value then new property
 				Object newEntryValue = newEntry.getValue();
 				if (newEntryValue != null) {
-					Long newEntryHash = getPropertyHash(newEntryValue);
-					if (existingPropHash == null || !existingPropHash.equals(newEntryHash)) {
+					long newEntryHash = getPropertyHash(newEntryValue);
+					if (existingPropHash == null || existingPropHash != newEntryHash) {
 						changed.add(newEntryKey);
 					}
 				} else { // set to null, write it
@@ -95,52 +351,284 @@ public class RecordsCache {
 	}
 
 	/**
-	 * Returns a hash of AS-supported properties: Long, Double, String, byte[]
+	 * Updates a set of possibly existing properties.
+	 * Changes between new and existing property sets are marked on given values.
 	 *
-	 * @param property
-	 * @return
+	 * @param key          The Key
+	 * @param values       New object values
+	 * @param forceReplace Skip smart cache check for changes and replace all property values
 	 */
-	private Long getPropertyHash(Object property) {
-		if (property instanceof Long) {
+	public void update(Key key, RecordValues values, boolean forceReplace) {
+		update(key, values, forceReplace, null);
+	}
 
-			return (Long) property;
-		} else if (property instanceof Double) {
+	/**
+	 * Updates a set of possibly existing properties of given object.
+	 * Changes between new and existing property sets are marked on given values.
+	 *
+	 * @param key          The Key
+	 * @param values       New object values
+	 * @param forceReplace Skip smart cache check for changes and replace all property values
+	 * @param object       Object values are taken from, can be null
+	 * @throws SpikeifyError if object was partially loaded and its snapshot is no longer cached
+	 */
+	public void update(Key key, RecordValues values, boolean forceReplace, Object object) {
 
-			return Double.doubleToLongBits((Double) property);
-		} else if (property instanceof byte[]) {
+		Snapshot existing = get(key);
+		if (existing == null && !forceReplace && object != null && projected.contains(object)) {
+			throw new SpikeifyError("Error: object of record " + key + " was loaded with only some of its fields " +
+					"and is no longer tracked, it must be loaded again before it is saved.");
+		}
 
-			return new MurmurHash3().add((byte[]) property).hash()[0];
-		} else if (property instanceof String) {
+		nearCache.invalidate(key);
 
-			return new MurmurHash3().add(((String) property).getBytes()).hash()[0];
-		} else if (property instanceof Map) {
+		String[] layout = values.getLayout();
+		long[] hashes = new long[layout.length];
+		long[] present = new long[bitsetLength(layout.length)];
+		Map<String, Long> extras = null;
 
-			Map<Object, Object> propMap = (Map<Object, Object>) property;
-			MurmurHash3 hasher = new MurmurHash3();
-			for (Map.Entry entry : propMap.entrySet()) {
-				Long valueHash = entry.getValue() == null ? Long.MAX_VALUE : getPropertyHash(entry.getValue());
-				Long keyHash = entry.getKey() == null ? Long.MAX_VALUE : getPropertyHash(entry.getKey());
-				hasher.add(keyHash);
-				hasher.add(valueHash);
+		for (int ordinal = 0; ordinal < values.size(); ordinal++) {
+			Object value = values.getValue(ordinal);
+			if (value == null) {
+				continue;
 			}
+			long hash = getPropertyHash(value);
+			if (ordinal < layout.length) {
+				hashes[ordinal] = hash;
+				present[ordinal >>> 6] |= 1L << ordinal;
+			} else {
+				if (extras == null) {
+					extras = new HashMap<>(values.size() - layout.length);
+				}
+				extras.put(values.getBinName(ordinal), hash);
+			}
+		}
 
-			return hasher.hash()[0];
-		} else if (property instanceof List) {
+		if (existing == null || forceReplace) {
+			values.setAllChanged();
+		} else {
+			for (int ordinal = 0; ordinal < values.size(); ordinal++) {
+
+				boolean isPresent;
+				long hash;
+				if (ordinal < layout.length) {
+					isPresent = (present[ordinal >>> 6] & (1L << ordinal)) != 0;
+					hash = hashes[ordinal];
+				} else {
+					Long extraHash = extras == null ? null : extras.get(values.getBinName(ordinal));
+					isPresent = extraHash != null;
+					hash = isPresent ? extraHash : 0;
+				}
 
-			List<Object> propMap = (List<Object>) property;
-			MurmurHash3 hasher = new MurmurHash3();
-			for (Object entry : propMap) {
-				Long propertyHash = entry == null ? Long.MAX_VALUE : getPropertyHash(entry);
-				hasher.add(propertyHash);
+				boolean existingPresent;
+				long existingHash;
+				if (existing.layout == layout && ordinal < layout.length) {
+					existingPresent = existing.isPresent(ordinal);
+					existingHash = existing.hashes[ordinal];
+				} else {
+					Long found = existing.getHash(values.getBinName(ordinal));
+					existingPresent = found != null;
+					existingHash = existingPresent ? found : 0;
+				}
+
+				// property does not exist yet or has different value then new property, or was set to null
+				if (isPresent ? (!existingPresent || hash != existingHash) : existingPresent) {
+					values.setChanged(ordinal);
+				}
 			}
+		}
 
-			return hasher.hash()[0];
-		} else {
-			// this happens if POJOs are directly saved to database or when POJOs are added to Maps/Lists
-			// AS client then serializes & saves them
-			return getPropertyHash(property.getClass().getName() + property.hashCode());  // a simplistic hash for POJOs
+		put(key, new Snapshot(layout, values.getOrdinals(), hashes, present, extras, expiresAt()));
+	}
+
+	private Snapshot get(Key key) {
+		UnitOfWork work = unitOfWork.get();
+		if (work != null) {
+			return work.snapshots.get(key);
+		}
+
+		Segment segment = segment(key);
+		synchronized (segment) {
+			Snapshot snapshot = segment.get(key);
+			if (snapshot != null && snapshot.expiresAt != 0 && snapshot.expiresAt < System.currentTimeMillis()) {
+				segment.remove(key);
+				return null;
+			}
+			return snapshot;
+		}
+	}
+
+	private void put(Key key, Snapshot snapshot) {
+		UnitOfWork work = unitOfWork.get();
+		if (work != null) {
+			work.snapshots.put(key, snapshot);
+			return;
+		}
+
+		Segment segment = segment(key);
+		synchronized (segment) {
+			segment.put(key, snapshot);
+		}
+	}
+
+	private Segment segment(Key key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return segments[(hash & 0x7fffffff) % SEGMENTS];
+	}
+
+	private long expiresAt() {
+		return ttlMillis == 0 ? 0 : System.currentTimeMillis() + ttlMillis;
+	}
+
+	private static int bitsetLength(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	/**
+	 * Returns a hash of AS-supported properties: Long, Double, String, byte[], List, Map
+	 */
+	private long getPropertyHash(Object property) {
+		return PropertyHasher.hash(property);
+	}
+
+	/**
+	 * Scope of records tracked on a single thread, see {@link #beginUnitOfWork()}.
+	 */
+	public class UnitOfWork implements AutoCloseable {
+
+		private final UnitOfWork parent;
+		private final Map<Key, Snapshot> snapshots = new HashMap<>();
+
+		private UnitOfWork(UnitOfWork parent) {
+			this.parent = parent;
+		}
+
+		/**
+		 * Ends unit of work, tracked records are discarded.
+		 */
+		@Override
+		public void close() {
+			if (unitOfWork.get() != this) {
+				throw new IllegalStateException("Unit of work must be closed on the thread it was started, in reverse order of starting.");
+			}
+			if (parent != null) {
+				unitOfWork.set(parent);
+			} else {
+				unitOfWork.remove();
+			}
+		}
+	}
+
+	/**
+	 * Hashes of bin values of a single record.
+	 */
+	private static final class Snapshot {
+
+		private final String[] layout;    // bin names by ordinal, shared with ClassMapper
+		private final Map<String, Integer> ordinals;  // ordinals by bin name, shared with ClassMapper
+		private final long[] hashes;      // bin hashes by ordinal
+		private final long[] present;     // bitset of non-null bins
+		private final Map<String, Long> extras;  // bins not in layout, may be null
+		private final long expiresAt;
+
+		Snapshot(String[] layout, Map<String, Integer> ordinals, long[] hashes, long[] present, Map<String, Long> extras, long expiresAt) {
+			this.layout = layout;
+			this.ordinals = ordinals;
+			this.hashes = hashes;
+			this.present = present;
+			this.extras = extras;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isPresent(int ordinal) {
+			return (present[ordinal >>> 6] & (1L << ordinal)) != 0;
+		}
+
+		Long getHash(String binName) {
+			Integer ordinal = ordinals.get(binName);
+			if (ordinal != null) {
+				return isPresent(ordinal) ? hashes[ordinal] : null;
+			}
+			return extras == null ? null : extras.get(binName);
+		}
+	}
+
+	/**
+	 * Set of partially loaded objects, compared by identity and not keeping objects reachable.
+	 */
+	private static final class ProjectedObjects {
+
+		private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+		private final Set<ObjectReference> objects = new HashSet<>();
+
+		synchronized void add(Object object) {
+			purge();
+			objects.add(new ObjectReference(object, queue));
+		}
+
+		synchronized void remove(Object object) {
+			purge();
+			objects.remove(new ObjectReference(object, null));
+		}
+
+		synchronized boolean contains(Object object) {
+			purge();
+			return objects.contains(new ObjectReference(object, null));
+		}
+
+		private void purge() {
+			Reference<?> cleared;
+			while ((cleared = queue.poll()) != null) {
+				objects.remove(cleared);
+			}
+		}
+	}
+
+	private static final class ObjectReference extends WeakReference<Object> {
+
+		private final int hash;
+
+		ObjectReference(Object object, ReferenceQueue<Object> queue) {
+			super(object, queue);
+			this.hash = System.identityHashCode(object);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ObjectReference)) {
+				return false;
+			}
+			Object object = get();
+			return object != null && object == ((ObjectReference) other).get();
 		}
 	}
 
+	/**
+	 * LRU ordered part of the cache, guarded by its own monitor.
+	 */
+	private static final class Segment extends LinkedHashMap<Key, Snapshot> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
 
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Snapshot> eldest) {
+			return size() > capacity;
+		}
+	}
 }
@@ -0,0 +1,115 @@
+package com.spikeify;
+
+import java.lang.reflect.Field;
+
+/**
+ * Creates {@link FieldAccessor}s that access fields via {@link Field#get(Object)}/{@link Field#set(Object, Object)}.
+ * Used as a fallback when a field can not be accessed via method handles.
+ */
+public class ReflectionAccessorFactory implements FieldAccessorFactory {
+
+	@Override
+	public FieldAccessor create(Field field) {
+		field.setAccessible(true);
+		return new ReflectionAccessor(field);
+	}
+
+	private static class ReflectionAccessor implements FieldAccessor {
+
+		private final Field field;
+		private final Class type;
+
+		ReflectionAccessor(Field field) {
+			this.field = field;
+			this.type = field.getType();
+		}
+
+		@Override
+		public Object get(Object target) {
+			try {
+				return field.get(target);
+			} catch (IllegalAccessException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+
+		@Override
+		public void set(Object target, Object value) {
+			try {
+				field.set(target, value);
+			} catch (IllegalAccessException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+
+		@Override
+		public long getLong(Object target) {
+			try {
+				return field.getLong(target);
+			} catch (IllegalAccessException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+
+		@Override
+		public void setLong(Object target, long value) {
+			try {
+				if (type == long.class) {
+					field.setLong(target, value);
+				} else if (type == int.class) {
+					field.setInt(target, (int) value);
+				} else if (type == short.class) {
+					field.setShort(target, (short) value);
+				} else if (type == byte.class) {
+					field.setByte(target, (byte) value);
+				} else if (type == char.class) {
+					field.setChar(target, (char) value);
+				} else {
+					throw new IllegalArgumentException("Field " + field.getDeclaringClass().getName() + "." + field.getName() + " is not of integral type.");
+				}
+			} catch (IllegalAccessException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+
+		@Override
+		public double getDouble(Object target) {
+			try {
+				return field.getDouble(target);
+			} catch (IllegalAccessException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+
+		@Override
+		public void setDouble(Object target, double value) {
+			try {
+				if (type == float.class) {
+					field.setFloat(target, (float) value);
+				} else {
+					field.setDouble(target, value);
+				}
+			} catch (IllegalAccessException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+
+		@Override
+		public boolean getBoolean(Object target) {
+			try {
+				return field.getBoolean(target);
+			} catch (IllegalAccessException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+
+		@Override
+		public void setBoolean(Object target, boolean value) {
+			try {
+				field.setBoolean(target, value);
+			} catch (IllegalAccessException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+	}
+}
@@ -5,10 +5,12 @@ import com.aerospike.client.Record;
 import com.aerospike.client.async.IAsyncClient;
 import com.aerospike.client.command.ParticleType;
 import com.aerospike.client.query.RecordSet;
+import com.spikeify.commands.ScanIterator;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @SuppressWarnings("WeakerAccess")
 public class ResultSet<T> implements Iterable<T> {
@@ -16,35 +18,92 @@ public class ResultSet<T> implements Iterable<T> {
 	private final ClassMapper<T> mapper;
 	private final ClassConstructor classConstructor;
 	private final RecordsCache recordsCache;
+
+	/**
+	 * Underlying record set, null for results of a {@link Scanner#parallel(int, int) parallel} query,
+	 * which are read from a record set per cluster node: use {@link #getRecordSet()} to fail with an explanation instead.
+	 */
 	public final RecordSet recordSet;
 	private IAsyncClient asynClient;
+	private final String[] binNames;
+	private final RecordFilter recordFilter;
+	private final ScanIterator<T> parallelIterator;
 
 	private Boolean hasNext;
 	private T nextRecord;
 
 	protected ResultSet(ClassMapper<T> mapper, ClassConstructor classConstructor,
 	                    RecordsCache recordsCache, RecordSet recordSet, IAsyncClient client) {
+		this(mapper, classConstructor, recordsCache, recordSet, client, null);
+	}
+
+	/**
+	 * @param binNames names of bins queried, null if all bins were queried
+	 */
+	protected ResultSet(ClassMapper<T> mapper, ClassConstructor classConstructor,
+	                    RecordsCache recordsCache, RecordSet recordSet, IAsyncClient client, String[] binNames) {
+		this(mapper, classConstructor, recordsCache, recordSet, client, binNames, null);
+	}
+
+	/**
+	 * @param binNames     names of bins queried, null if all bins were queried
+	 * @param recordFilter filter of records to be mapped, null to map all records
+	 */
+	protected ResultSet(ClassMapper<T> mapper, ClassConstructor classConstructor,
+	                    RecordsCache recordsCache, RecordSet recordSet, IAsyncClient client, String[] binNames, RecordFilter recordFilter) {
 		this.mapper = mapper;
 		this.classConstructor = classConstructor;
 		this.recordsCache = recordsCache;
 		this.recordSet = recordSet;
 		this.asynClient = client;
+		this.binNames = binNames;
+		this.recordFilter = recordFilter;
+		this.parallelIterator = null;
+	}
+
+	/**
+	 * @param iterator iterator over objects mapped by a parallel query
+	 */
+	protected ResultSet(ScanIterator<T> iterator) {
+		this.mapper = null;
+		this.classConstructor = null;
+		this.recordsCache = null;
+		this.recordSet = null;
+		this.binNames = null;
+		this.recordFilter = null;
+		this.parallelIterator = iterator;
 	}
 
 	public final Key getKey() {
-		return recordSet.getKey();
+		return getRecordSet().getKey();
+	}
+
+	/**
+	 * @return underlying record set
+	 * @throws SpikeifyError for results of a parallel query, which have no single record set
+	 */
+	public final RecordSet getRecordSet() {
+		if (recordSet == null) {
+			throw new SpikeifyError("Error: record set is not available on results of a parallel query.");
+		}
+		return recordSet;
 	}
 
 	private T getObject() {
+		return map(mapper, classConstructor, recordsCache, asynClient, binNames, recordSet.getKey(), recordSet.getRecord());
+	}
 
-		Record record = recordSet.getRecord();
-		Key key = recordSet.getKey();
+	/**
+	 * Maps a queried record to a new object.
+	 */
+	static <T> T map(ClassMapper<T> mapper, ClassConstructor classConstructor, RecordsCache recordsCache, IAsyncClient asynClient,
+	                 String[] binNames, Key key, Record record) {
 
 		// construct the entity object via provided ClassConstructor
 		T object = classConstructor.construct(mapper.getType());
 
 		// save record hash into cache - used later for differential updating
-		recordsCache.insert(key, record.bins);
+		recordsCache.insert(key, mapper, record.bins, binNames, object);
 
 		// set UserKey field
 		switch (key.userKey.getType()) {
@@ -70,12 +129,16 @@ public class ResultSet<T> implements Iterable<T> {
 	}
 
 	public final void close() {
-		recordSet.close();
+		if (parallelIterator != null) {
+			parallelIterator.close();
+		} else {
+			recordSet.close();
+		}
 	}
 
 	@Override
 	public Iterator<T> iterator() {
-		return new Itr();
+		return parallelIterator != null ? parallelIterator : new Itr();
 	}
 
 	private class Itr implements Iterator<T> {
@@ -83,9 +146,14 @@ public class ResultSet<T> implements Iterable<T> {
 		@Override
 		public boolean hasNext() {
 			if (hasNext == null) {
-				hasNext = recordSet.next();
-				if (hasNext) {
-					nextRecord = getObject();
+				hasNext = false;
+				while (recordSet.next()) {
+					// records not matching filter are skipped without being mapped
+					if (recordFilter == null || recordFilter.accept(recordSet.getKey(), recordSet.getRecord())) {
+						hasNext = true;
+						nextRecord = getObject();
+						break;
+					}
 				}
 			}
 			return hasNext;
@@ -93,14 +161,13 @@ public class ResultSet<T> implements Iterable<T> {
 
 		@Override
 		public T next() {
-			hasNext = null;
-			if (nextRecord == null) {
-				return getObject();
-			} else {
-				T nextRecordRef = nextRecord;
-				nextRecord = null;
-				return nextRecordRef;
+			if (!hasNext()) {
+				throw new NoSuchElementException();
 			}
+			hasNext = null;
+			T nextRecordRef = nextRecord;
+			nextRecord = null;
+			return nextRecordRef;
 		}
 
 		@Override
@@ -1,5 +1,7 @@
 package com.spikeify;
 
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
 import com.aerospike.client.async.IAsyncClient;
 import com.aerospike.client.policy.QueryPolicy;
 import com.aerospike.client.query.Filter;
@@ -8,13 +10,23 @@ import com.aerospike.client.query.RecordSet;
 import com.aerospike.client.query.Statement;
 import com.spikeify.annotations.BinName;
 import com.spikeify.annotations.Indexed;
+import com.spikeify.commands.EntityConsumer;
 import com.spikeify.commands.InfoFetcher;
+import com.spikeify.commands.Page;
+import com.spikeify.commands.PageCursors;
+import com.spikeify.commands.ScanIterator;
 
+import java.io.Closeable;
 import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @SuppressWarnings("WeakerAccess")
 public class Scanner<T> {
 
+	public static final int DEFAULT_BUFFER_SIZE = 1000;
+
 	protected final Class<T> type;
 
 	protected final IAsyncClient asynClient;
@@ -22,13 +34,18 @@ public class Scanner<T> {
 	protected final RecordsCache recordsCache;
 	protected final ClassMapper<T> mapper;
 
-	protected String fieldName;
-	protected Field field;
+	protected final List<QueryPredicate> predicates = new ArrayList<>();
 	protected String indexName;
 	protected String namespace;
 	protected String setName;
 	protected QueryPolicy policy = new QueryPolicy();
 	protected Filter[] filters;
+	protected String[] binNames;
+	protected RecordFilter recordFilter;
+	protected List<QueryPredicate> residual = Collections.emptyList();
+	protected int threads;
+	protected int bufferSize = DEFAULT_BUFFER_SIZE;
+	protected Executor executor;
 
 	public Scanner(Class<T> type,
 	               IAsyncClient asyncClient,
@@ -57,12 +74,6 @@ public class Scanner<T> {
 	public Scanner<T> setName(String setName) {
 
 		this.setName = setName;
-
-		if (indexName != null && field != null) {
-			// set name has changed ... index name must be refreshed
-			setIndexName(type, setName, namespace, fieldName);
-		}
-
 		return this;
 	}
 
@@ -74,30 +85,180 @@ public class Scanner<T> {
 	}
 
 	/**
-	 * Sets query filters. From {@link com.aerospike.client.query.Statement#setFilters(Filter... filters) Statement.setFilters(..)}
+	 * Loads only given fields, other fields of the objects are left unset.
+	 * A later update of such objects does not remove bins of fields that were not loaded, unless they are set.
+	 * If a record is no longer tracked by the records cache, the update fails with {@link SpikeifyError}.
+	 *
+	 * @param fieldNames names of fields to be loaded
+	 * @return This command chain
+	 */
+	public Scanner<T> fields(String... fieldNames) {
+
+		if (fieldNames == null || fieldNames.length == 0) {
+			throw new SpikeifyError("Error: at least one field name must be given.");
+		}
+		this.binNames = mapper.getBinNames(fieldNames);
+		return this;
+	}
+
+	/**
+	 * Executes the query on all cluster nodes in parallel, records are mapped to objects on given number of threads.
+	 * Objects are returned in no particular order. Node readers and mapping threads are taken from a bounded pool shared by all queries,
+	 * the query fails with {@link SpikeifyError} when the pool has no free thread, see {@link #parallel(int, int, Executor)}.
+	 *
+	 * @param threads    number of threads mapping records
+	 * @param bufferSize max number of queried records waiting to be mapped, and of mapped objects waiting to be iterated
+	 * @return This command chain
+	 */
+	public Scanner<T> parallel(int threads, int bufferSize) {
+		return parallel(threads, bufferSize, null);
+	}
+
+	/**
+	 * Executes the query on all cluster nodes in parallel, records are mapped to objects on given number of threads.
+	 * Objects are returned in no particular order. Node readers and mapping threads run on given executor,
+	 * which must be able to run a reader for every cluster node, given number of mapping threads
+	 * and (for {@link #now()}) a thread driving the query at once, otherwise the query waits forever.
 	 *
-	 * @param filters An array of filters
+	 * @param threads    number of threads mapping records
+	 * @param bufferSize max number of queried records waiting to be mapped, and of mapped objects waiting to be iterated
+	 * @param executor   executor running readers and mapping threads, null for a pool shared by all queries
 	 * @return This command chain
 	 */
-	private Scanner<T> setFilters(Filter... filters) {
+	public Scanner<T> parallel(int threads, int bufferSize, Executor executor) {
 
-		this.filters = filters;
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be greater than 0.");
+		}
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be greater than 0.");
+		}
+		this.threads = threads;
+		this.bufferSize = bufferSize;
+		this.executor = executor;
 		return this;
 	}
 
+	/**
+	 * Executes the query. In {@link #parallel(int, int)} mode the query runs in background and mapped objects are buffered,
+	 * the query waits while the buffer is full. Result set must be closed if not iterated to the end.
+	 *
+	 * @return queried objects
+	 */
 	public ResultSet<T> now() {
 
+		Statement statement = statement();
+
+		if (threads > 0) {
+			final ScanIterator<T> iterator = new ScanIterator<>(bufferSize);
+			final ParallelQuery<T> query = parallelQuery(statement, threads);
+
+			Runnable driver = new Runnable() {
+				@Override
+				public void run() {
+					RuntimeException failure = null;
+					try {
+						query.forEach(new EntityConsumer<T>() {
+							@Override
+							public boolean consume(T item) {
+								return iterator.offer(item);
+							}
+						});
+					}
+					catch (RuntimeException e) {
+						failure = e;
+					}
+					iterator.finish(failure);
+				}
+			};
+
+			try {
+				(executor != null ? executor : ParallelQuery.SHARED_EXECUTOR).execute(driver);
+			}
+			catch (RejectedExecutionException e) {
+				throw new SpikeifyError("Query was rejected by executor.", e);
+			}
+
+			return new ResultSet<>(iterator);
+		}
+
+		RecordSet recordSet = asynClient.query(policy, statement);
+
+		return new ResultSet<>(mapper, classConstructor, recordsCache, recordSet, asynClient, binNames, recordFilter);
+	}
+
+	/**
+	 * Executes the query on all cluster nodes in parallel, passing mapped objects to given consumer in no particular order.
+	 * Records are mapped on {@link #parallel(int, int)} threads (single thread if not set) and the consumer is called from these threads concurrently.
+	 * Query stops when the consumer returns false.
+	 *
+	 * @param consumer consumer of queried objects
+	 */
+	public void forEach(EntityConsumer<? super T> consumer) {
+
+		parallelQuery(statement(), threads > 0 ? threads : 1).forEach(consumer);
+	}
+
+	/**
+	 * Starts an aggregation over queried records, computed on the server by a generated stream UDF.
+	 * Filters of this command chain select aggregated records.
+	 *
+	 * @return aggregation command chain
+	 */
+	public Aggregation<T> aggregate() {
+
+		return new Aggregation<>(this);
+	}
+
+	/**
+	 * Loads a page of queried objects. The first page executes the query, which is then paused until the next page
+	 * is requested with the returned cursor and continues where it stopped, so records are not read again.
+	 * When continuing with a cursor, filters and settings of this command chain are ignored.
+	 * Cursors are valid only in this JVM. Cursors left open are closed after {@link PageCursors#setIdleTimeout(long, java.util.concurrent.TimeUnit) idle timeout}
+	 * or when there are more than {@link PageCursors#setMaxOpenCursors(int) max open cursors}, or can be closed with {@link PageCursors#close(String)}.
+	 *
+	 * @param cursor   cursor of previous page, or null to load the first page
+	 * @param pageSize max number of objects in page
+	 * @return queried objects and cursor of next page
+	 */
+	public Page<T> page(String cursor, int pageSize) {
+
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be greater than 0.");
+		}
+
+		if (cursor != null) {
+			return PageCursors.next(type, cursor, pageSize);
+		}
+
+		final ResultSet<T> resultSet = now();
+		return PageCursors.first(type, resultSet.iterator(), new Closeable() {
+			@Override
+			public void close() {
+				resultSet.close();
+			}
+		}, pageSize);
+	}
+
+	private ParallelQuery<T> parallelQuery(Statement statement, int threads) {
+		return new ParallelQuery<>(asynClient, policy, statement, mapper, classConstructor, recordsCache, binNames, recordFilter, threads, bufferSize, executor);
+	}
+
+	Statement statement() {
+
+		String customSetName = setName;
 		collectMetaData();
+		selectFilter(customSetName);
 
 		Statement statement = new Statement();
 		statement.setIndexName(indexName);
 		statement.setNamespace(namespace);
 		statement.setSetName(setName);
 		statement.setFilters(filters);
-
-		RecordSet recordSet = asynClient.query(policy, statement);
-
-		return new ResultSet<>(mapper, classConstructor, recordsCache, recordSet, asynClient);
+		if (binNames != null) {
+			statement.setBinNames(binNames);
+		}
+		return statement;
 	}
 
 	protected void collectMetaData() {
@@ -114,80 +275,172 @@ public class Scanner<T> {
 			throw new SpikeifyError("Error: SetName not defined.");
 		}
 
-		if (indexName == null && field != null) {
-			setIndexName(type, setName, namespace, field.getName());
-		}
-
-		if (indexName == null) {
+		if (predicates.isEmpty()) {
 			throw new SpikeifyError("Error: Index name not defined. Missing filter() expression!");
 		}
 	}
 
-	public Scanner<T> filter(String nameOfField, String fieldValue) {
+	/**
+	 * Picks the most selective indexed predicate to be executed by the server,
+	 * remaining predicates are checked on queried records.
+	 *
+	 * @param customSetName set name given by user, null if set name is taken from entity
+	 */
+	private void selectFilter(String customSetName) {
+
+		QueryPredicate serverPredicate = null;
+		for (QueryPredicate predicate : predicates) {
+			predicate.indexName = findIndexName(customSetName, namespace, predicate.field);
+			if (predicate.isIndexed() && (serverPredicate == null || predicate.rank() < serverPredicate.rank())) {
+				serverPredicate = predicate;
+			}
+		}
+
+		if (serverPredicate == null) {
+			if (customSetName != null) {
+				throw new SpikeifyError("Index in namespace: " + namespace + ", for set: " + customSetName + " and any of filtered fields of: '" + type.getName() + "', not found!");
+			}
+			throw new SpikeifyError("Can't query: missing @Indexed annotation on any of filtered fields in: '" + type.getName() + "'!");
+		}
+
+		indexName = serverPredicate.indexName;
+		filters = new Filter[]{serverPredicate.toFilter()};
+
+		final List<QueryPredicate> residual = new ArrayList<>(predicates);
+		residual.remove(serverPredicate);
+		this.residual = residual;
 
-		setIndexName(type, setName, namespace, nameOfField);
+		if (residual.isEmpty()) {
+			recordFilter = null;
+			return;
+		}
 
-		IndexCollectionType collectionType = IndexingService.getIndexCollectionType(type, field.getName());
+		recordFilter = new RecordFilter() {
+			@Override
+			public boolean accept(Key key, Record record) {
+				for (QueryPredicate predicate : residual) {
+					if (!predicate.accept(key, record)) {
+						return false;
+					}
+				}
+				return true;
+			}
+		};
 
-		if (IndexCollectionType.DEFAULT.equals(collectionType)) {
-			return setFilters(Filter.equal(fieldName, fieldValue));
+		// bins of residual predicates must be loaded
+		if (binNames != null) {
+			Set<String> bins = new LinkedHashSet<>(Arrays.asList(binNames));
+			for (QueryPredicate predicate : residual) {
+				bins.add(predicate.binName);
+			}
+			binNames = bins.toArray(new String[bins.size()]);
 		}
+	}
+
+	/**
+	 * Adds an equality condition, on collection fields the collection must contain given value.
+	 * Conditions of multiple filter calls are combined: the most selective indexed condition is executed by the server,
+	 * remaining conditions are checked on queried records before they are mapped.
+	 *
+	 * @param nameOfField field or bin name
+	 * @param fieldValue  value
+	 * @return This command chain
+	 */
+	public Scanner<T> filter(String nameOfField, String fieldValue) {
 
-		return setFilters(Filter.contains(fieldName, collectionType, fieldValue));
+		Field field = findField(nameOfField);
+		return where(QueryPredicate.equal(field, getCollectionType(field), fieldValue));
 	}
 
+	/**
+	 * Adds an equality condition on a boolean field, see {@link #filter(String, String)}.
+	 *
+	 * @param nameOfField field or bin name
+	 * @param fieldValue  value
+	 * @return This command chain
+	 */
 	public Scanner<T> filter(String nameOfField, boolean fieldValue) {
 
-		setIndexName(type, setName, namespace, nameOfField);
+		Field field = findField(nameOfField);
 
 		if (!boolean.class.isAssignableFrom(field.getType()) && !Boolean.class.isAssignableFrom(field.getType())) {
 			throw new SpikeifyError("Can't query with boolean filter on: " + type + "#" + nameOfField + ", not a boolean field!");
 		}
 
-		IndexCollectionType collectionType = IndexingService.getIndexCollectionType(type, field.getName());
-
-		if (IndexCollectionType.DEFAULT.equals(collectionType)) {
-			return setFilters(Filter.equal(fieldName, fieldValue ? 1 : 0));
-		}
-
-		return setFilters(Filter.contains(fieldName, collectionType, fieldValue ? 1 : 0));
+		return where(QueryPredicate.equal(field, getCollectionType(field), fieldValue ? 1L : 0L));
 	}
 
+	/**
+	 * Adds an equality condition, see {@link #filter(String, String)}.
+	 *
+	 * @param nameOfField field or bin name
+	 * @param fieldValue  value
+	 * @return This command chain
+	 */
 	public Scanner<T> filter(String nameOfField, long fieldValue) {
 
-		setIndexName(type, setName, namespace, nameOfField);
-
-		IndexCollectionType collectionType = IndexingService.getIndexCollectionType(type, field.getName());
+		Field field = findField(nameOfField);
+		return where(QueryPredicate.equal(field, getCollectionType(field), fieldValue));
+	}
 
-		if (IndexCollectionType.DEFAULT.equals(collectionType)) {
-			return setFilters(Filter.equal(fieldName, fieldValue));
-		}
+	/**
+	 * Adds a range condition (inclusive), see {@link #filter(String, String)}.
+	 *
+	 * @param nameOfField field or bin name
+	 * @param begin       lower bound
+	 * @param end         upper bound
+	 * @return This command chain
+	 */
+	public Scanner<T> filter(String nameOfField, long begin, long end) {
 
-		return setFilters(Filter.contains(fieldName, collectionType, fieldValue));
+		Field field = findField(nameOfField);
+		return where(QueryPredicate.range(field, getCollectionType(field), begin, end));
 	}
 
-	public Scanner<T> filter(String nameOfField, long begin, long end) {
+	/**
+	 * Adds a condition matching any of given values. Unless a single value is given, condition is always checked
+	 * on queried records and at least one other indexed condition is needed, see {@link #filter(String, String)}.
+	 *
+	 * @param nameOfField field or bin name
+	 * @param values      values
+	 * @return This command chain
+	 */
+	public Scanner<T> filterIn(String nameOfField, String... values) {
 
-		setIndexName(type, setName, namespace, nameOfField);
+		Field field = findField(nameOfField);
+		return where(QueryPredicate.in(field, getCollectionType(field), (Object[]) values));
+	}
 
-		IndexCollectionType collectionType = IndexingService.getIndexCollectionType(type, field.getName());
+	/**
+	 * Adds a condition matching any of given values, see {@link #filterIn(String, String...)}.
+	 *
+	 * @param nameOfField field or bin name
+	 * @param values      values
+	 * @return This command chain
+	 */
+	public Scanner<T> filterIn(String nameOfField, long... values) {
 
-		if (IndexCollectionType.DEFAULT.equals(collectionType)) {
-			return setFilters(Filter.range(fieldName, begin, end));
+		Field field = findField(nameOfField);
+
+		Object[] boxed = new Object[values == null ? 0 : values.length];
+		for (int i = 0; i < boxed.length; i++) {
+			boxed[i] = values[i];
 		}
+		return where(QueryPredicate.in(field, getCollectionType(field), boxed));
+	}
 
-		return setFilters(Filter.range(fieldName, collectionType, begin, end));
+	private Scanner<T> where(QueryPredicate predicate) {
+
+		predicates.add(predicate);
+		return this;
 	}
 
-	private void setIndexName(Class<T> type, String setName, String namespace, String nameOfField) {
+	private IndexCollectionType getCollectionType(Field field) {
 
-		// set correct global field and index name
-		field = findField(nameOfField);
-		fieldName = IndexingService.getFieldName(field);
-		indexName = getIndexName(setName, namespace, type, field);
+		return IndexingService.getIndexCollectionType(type, field.getName());
 	}
 
-	private Field findField(String nameOfField) {
+	Field findField(String nameOfField) {
 
 		Field foundField = null;
 		try {
@@ -218,27 +471,21 @@ public class Scanner<T> {
 	 *
 	 * @param setName   custom set name
 	 * @param namespace custom namespace
-	 * @param type      class
 	 * @param field     field
-	 * @return index name
+	 * @return index name, null if field is not indexed
 	 */
-	private String getIndexName(String setName, String namespace, Class type, Field field) {
+	private String findIndexName(String setName, String namespace, Field field) {
 
 		if (setName != null) {
 			// explicit set name filtering (index was created manually) ... @Indexed annotation is ignored
 			// index name can not be resolved from annotations we must look up in information
 			InfoFetcher.IndexInfo info = IndexingService.findIndex(asynClient, namespace, setName, field);
-
-			if (info == null) {
-				throw new SpikeifyError("Index in namespace: " + namespace + ", for set: " + setName + " and field: " + field.getName() + ", not found!");
-			}
-
-			return info.name;
+			return info == null ? null : info.name;
 		}
 
 		Indexed indexed = field.getAnnotation(Indexed.class);
 		if (indexed == null) {
-			throw new SpikeifyError("Can't query: missing @Indexed annotation on: '" + field.getName() + "' in: '" + type.getName() + "'!");
+			return null;
 		}
 
 		String name = indexed.name();
@@ -70,6 +70,13 @@ public interface Spikeify {
 	 */
 	<T> MultiLoader<T, String> getAll(Class<T> type, String... userKeys);
 
+	/**
+	 * Starts a command chain for loading records of different classes in a single batch request.
+	 *
+	 * @return the command chain
+	 */
+	BatchLoader batch();
+
 	/**
 	 * @param <T>  type
 	 * @param type entity type
@@ -408,6 +415,14 @@ public interface Spikeify {
 	 */
 	<T> Key key(T object);
 
+	/**
+	 * Starts a command chain for deleting all records of a set or namespace,
+	 * with configurable number of pending deletes, rate limit and progress counters.
+	 *
+	 * @return the command chain
+	 */
+	Truncater truncate();
+
 	/**
 	 * Delete all records with given SetName.
 	 *
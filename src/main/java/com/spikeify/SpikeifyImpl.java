@@ -2,6 +2,7 @@ package com.spikeify;
 
 import com.aerospike.client.*;
 import com.aerospike.client.async.IAsyncClient;
+import com.spikeify.async.ChunkedBatch;
 import com.spikeify.commands.*;
 
 import java.util.ConcurrentModificationException;
@@ -16,9 +17,17 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 	private static final Logger log = Logger.getLogger(SpikeifyImpl.class.getSimpleName());
 
 	public SpikeifyImpl(IAsyncClient asyncClient, ClassConstructor classConstructor, String defaultNamespace) {
+		this(asyncClient, classConstructor, defaultNamespace, new RecordsCache());
+	}
+
+	/**
+	 * @param recordsCache cache of loaded records used for differential updates, can be shared between instances
+	 */
+	public SpikeifyImpl(IAsyncClient asyncClient, ClassConstructor classConstructor, String defaultNamespace, RecordsCache recordsCache) {
 		this.asynClient = asyncClient;
 		this.classConstructor = classConstructor;
 		this.defaultNamespace = defaultNamespace;
+		this.recordsCache = recordsCache;
 	}
 
 	private final IAsyncClient asynClient;
@@ -26,7 +35,7 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 	private final String defaultNamespace;
 
 	private final ThreadLocal<Boolean> tlTransaction = new ThreadLocal<>();
-	private final RecordsCache recordsCache = new RecordsCache();
+	private final RecordsCache recordsCache;
 
 	@Override
 	public InfoFetcher info() {
@@ -63,6 +72,11 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 		return new MultiLoader<>(type, asynClient, classConstructor, recordsCache, defaultNamespace, keys);
 	}
 
+	@Override
+	public BatchLoader batch() {
+		return new BatchLoader(asynClient, classConstructor, recordsCache, defaultNamespace);
+	}
+
 	@Override
 	public <T> ScanLoader<T> scanAll(Class<T> type) {
 		return new ScanLoader<>(type, asynClient, classConstructor, recordsCache, defaultNamespace);
@@ -305,7 +319,7 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 
 	@Override
 	public Map<Key, Boolean> exist(Key... keys) {
-		boolean[] exist = asynClient.exists(null, keys);
+		boolean[] exist = existInChunks(keys);
 
 		Map<Key, Boolean> results = new HashMap<>(keys.length);
 		for (int i = 0; i < keys.length; i++) {
@@ -330,7 +344,7 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 			String id = ids[i];
 			keys[i] = new Key(namespace, setName, id);
 		}
-		boolean[] exist = asynClient.exists(null, keys);
+		boolean[] exist = existInChunks(keys);
 
 		Map<String, Boolean> results = new HashMap<>(keys.length);
 		for (int i = 0; i < ids.length; i++) {
@@ -356,7 +370,7 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 			Long id = ids[i];
 			keys[i] = new Key(namespace, setName, id);
 		}
-		boolean[] exist = asynClient.exists(null, keys);
+		boolean[] exist = existInChunks(keys);
 
 		Map<Long, Boolean> results = new HashMap<>(keys.length);
 		for (int i = 0; i < ids.length; i++) {
@@ -365,6 +379,13 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 		return results;
 	}
 
+	/**
+	 * Checks existence of any number of records, big batches are split in chunks checked in parallel.
+	 */
+	private boolean[] existInChunks(Key[] keys) {
+		return new ChunkedBatch(asynClient, null, ChunkedBatch.MAX_BATCH_SIZE, ChunkedBatch.DEFAULT_CONCURRENCY).exists(keys);
+	}
+
 	private String getNamespace(ClassMapper mapper) {
 		String useNamespace = mapper.getNamespace();
 		useNamespace = useNamespace == null ? defaultNamespace : useNamespace;
@@ -417,9 +438,14 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 		}
 	}
 
+	@Override
+	public Truncater truncate() {
+		return new Truncater(asynClient, recordsCache);
+	}
+
 	@Override
 	public void truncateSet(String namespace, String setName) {
-		Truncater.truncateSet(namespace, setName, asynClient);
+		truncate().truncateSet(namespace, setName);
 	}
 
 	@Override
@@ -433,12 +459,12 @@ public class SpikeifyImpl<P extends Spikeify> implements Spikeify {
 		if (setName == null) {
 			throw new SpikeifyError("Error: @SetName annotation not defined on class " + type.getName());
 		}
-		Truncater.truncateSet(ns, setName, asynClient);
+		truncate().truncateSet(ns, setName);
 	}
 
 	@Override
 	public void truncateNamespace(String namespace) {
-		Truncater.truncateNamespace(namespace, asynClient);
+		truncate().truncateNamespace(namespace);
 	}
 
 	@Override
@@ -9,6 +9,9 @@ import com.aerospike.client.policy.ClientPolicy;
 import com.aerospike.client.policy.Policy;
 import com.spikeify.commands.InfoFetcher;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * This is a helper service that provides a Spikeify instance with a default single-cluster configuration.
  */
@@ -39,8 +42,60 @@ public class SpikeifyService {
 		SpikeifyService.defaultNamespace = defaultNamespace;
 	}
 
-	private static IAsyncClient asyncClient;
+	private static volatile IAsyncClient asyncClient;
 	public static String defaultNamespace;
+	/**
+	 * records caches by client, so records loaded through one client (cluster) are never compared with or
+	 * served to another client
+	 */
+	private static final Map<IAsyncClient, RecordsCache> recordsCaches = new WeakHashMap<>();
+
+	/**
+	 * Sets the records cache shared by all instances returned by {@link #sfy()}.
+	 * Use to configure capacity and expiration of cached records.
+	 *
+	 * @param cache records cache
+	 */
+	public static void setRecordsCache(RecordsCache cache) {
+		setRecordsCache(requireClient(), cache);
+	}
+
+	/**
+	 * Sets the records cache shared by all instances using given client, see {@link #mock(IAsyncClient)}.
+	 *
+	 * @param client Native Aerospike client
+	 * @param cache  records cache
+	 */
+	public static void setRecordsCache(IAsyncClient client, RecordsCache cache) {
+		if (cache == null) {
+			throw new IllegalArgumentException("Records cache must not be null.");
+		}
+		synchronized (recordsCaches) {
+			recordsCaches.put(client, cache);
+		}
+	}
+
+	/**
+	 * @return records cache shared by all instances returned by {@link #sfy()}
+	 */
+	public static RecordsCache getRecordsCache() {
+		return getRecordsCache(requireClient());
+	}
+
+	/**
+	 * @param client Native Aerospike client
+	 * @return records cache shared by all instances using given client, created on first use
+	 */
+	public static RecordsCache getRecordsCache(IAsyncClient client) {
+		synchronized (recordsCaches) {
+			RecordsCache cache = recordsCaches.get(client);
+			if (cache == null) {
+				cache = new RecordsCache();
+				recordsCaches.put(client, cache);
+			}
+			return cache;
+		}
+	}
 
 	public static IAsyncClient getClient() {
 		return asyncClient;
@@ -52,10 +107,16 @@ public class SpikeifyService {
 	 * @return Spikeify instance
 	 */
 	public static Spikeify sfy() {
-		if (asyncClient == null) {
+		IAsyncClient client = requireClient();
+		return new SpikeifyImpl(client, new NoArgClassConstructor(), defaultNamespace, getRecordsCache(client));
+	}
+
+	private static IAsyncClient requireClient() {
+		IAsyncClient client = asyncClient;
+		if (client == null) {
 			throw new SpikeifyError("Missing configuration: you must call SpikeifyService.globalConfig(..) once, before using SpikeifyService.sfy().");
 		}
-		return new SpikeifyImpl(asyncClient, new NoArgClassConstructor(), defaultNamespace);
+		return client;
 	}
 
 	/**
@@ -65,7 +126,7 @@ public class SpikeifyService {
 	 * @return A mock Spikeify instance
 	 */
 	public static Spikeify mock(IAsyncClient client) {
-		return new SpikeifyImpl(client, new NoArgClassConstructor(), defaultNamespace);
+		return new SpikeifyImpl(client, new NoArgClassConstructor(), defaultNamespace, getRecordsCache(client));
 	}
 
 	/**
@@ -1,17 +1,20 @@
 package com.spikeify.async;
 
-import com.aerospike.client.Key;
-
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public abstract class AbstractPendingFuture<K> implements ListenableFuture<K> {
 
-public abstract class AbstractPendingFuture<K> implements Future<K> {
+	private static final Logger log = Logger.getLogger(AbstractPendingFuture.class.getSimpleName());
 
 	private Exception exception;
 	private K result;
 	private CountDownLatch latch;
-
-
-	public abstract K prepareResult(Key key);
+	private volatile boolean cancelled;
+	private List<Runnable> callbacks;
 
 
 	private volatile boolean haveResult;
@@ -41,6 +44,7 @@ public abstract class AbstractPendingFuture<K> implements Future<K> {
 
 			}
 		}
+		runCallbacks();
 	}
 
 	void setFailure(Exception exc) {
@@ -55,6 +59,7 @@ public abstract class AbstractPendingFuture<K> implements Future<K> {
 
 			}
 		}
+		runCallbacks();
 	}
 
 	public K get() throws ExecutionException, InterruptedException {
@@ -65,7 +70,9 @@ public abstract class AbstractPendingFuture<K> implements Future<K> {
 			}
 		}
 
-		if (this.exception != null) {
+		if (this.cancelled) {
+			throw new CancellationException();
+		} else if (this.exception != null) {
 			throw new ExecutionException(this.exception);
 		} else {
 			return this.result;
@@ -80,7 +87,9 @@ public abstract class AbstractPendingFuture<K> implements Future<K> {
 			}
 		}
 
-		if (this.exception != null) {
+		if (this.cancelled) {
+			throw new CancellationException();
+		} else if (this.exception != null) {
 			throw new ExecutionException(this.exception);
 		} else {
 			return this.result;
@@ -88,7 +97,7 @@ public abstract class AbstractPendingFuture<K> implements Future<K> {
 	}
 
 	public boolean isCancelled() {
-		return this.exception != null;
+		return this.cancelled;
 	}
 
 	public boolean isDone() {
@@ -100,13 +109,137 @@ public abstract class AbstractPendingFuture<K> implements Future<K> {
 			if (this.haveResult) {
 				return false;
 			}
+			this.cancelled = true;
 			this.haveResult = true;
-		}
 
-		if (this.latch != null) {
-			this.latch.countDown();
+			if (this.latch != null) {
+				this.latch.countDown();
+			}
 		}
 
+		runCallbacks();
 		return true;
 	}
+
+	@Override
+	public ListenableFuture<K> onComplete(FutureCallback<? super K> callback) {
+		return onComplete(callback, DirectExecutor.INSTANCE);
+	}
+
+	@Override
+	public ListenableFuture<K> onComplete(final FutureCallback<? super K> callback, final Executor executor) {
+
+		Runnable notify = new Runnable() {
+			@Override
+			public void run() {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						if (cancelled) {
+							callback.onFailure(new CancellationException());
+						} else if (exception != null) {
+							callback.onFailure(exception);
+						} else {
+							callback.onSuccess(result);
+						}
+					}
+				});
+			}
+		};
+
+		synchronized (this) {
+			if (!this.haveResult) {
+				if (this.callbacks == null) {
+					this.callbacks = new ArrayList<>(1);
+				}
+				this.callbacks.add(notify);
+				return this;
+			}
+		}
+
+		notify.run();
+		return this;
+	}
+
+	@Override
+	public <R> ListenableFuture<R> then(Transform<? super K, ? extends R> transform) {
+		return then(transform, DirectExecutor.INSTANCE);
+	}
+
+	@Override
+	public <R> ListenableFuture<R> then(final Transform<? super K, ? extends R> transform, Executor executor) {
+
+		final SettableFuture<R> next = new SettableFuture<>();
+		onComplete(new FutureCallback<K>() {
+			@Override
+			public void onSuccess(K value) {
+				try {
+					next.set(transform.apply(value));
+				} catch (Exception e) {
+					next.setException(e);
+				}
+			}
+
+			@Override
+			public void onFailure(Exception e) {
+				next.setException(e);
+			}
+		}, executor);
+		return next;
+	}
+
+	@Override
+	public <R> ListenableFuture<R> thenAsync(final Transform<? super K, ? extends ListenableFuture<R>> transform) {
+
+		final SettableFuture<R> next = new SettableFuture<>();
+		final FutureCallback<R> forward = new FutureCallback<R>() {
+			@Override
+			public void onSuccess(R value) {
+				next.set(value);
+			}
+
+			@Override
+			public void onFailure(Exception e) {
+				next.setException(e);
+			}
+		};
+
+		onComplete(new FutureCallback<K>() {
+			@Override
+			public void onSuccess(K value) {
+				try {
+					transform.apply(value).onComplete(forward);
+				} catch (Exception e) {
+					next.setException(e);
+				}
+			}
+
+			@Override
+			public void onFailure(Exception e) {
+				next.setException(e);
+			}
+		});
+		return next;
+	}
+
+	private void runCallbacks() {
+
+		List<Runnable> run;
+		synchronized (this) {
+			run = this.callbacks;
+			this.callbacks = null;
+		}
+
+		if (run != null) {
+			for (Runnable callback : run) {
+				try {
+					callback.run();
+				} catch (RuntimeException e) {
+					// a failing callback or rejecting executor must not keep other callbacks from running,
+					// nor fail the thread completing this future
+					log.log(Level.WARNING, "Callback of completed future failed.", e);
+				}
+			}
+		}
+	}
 }
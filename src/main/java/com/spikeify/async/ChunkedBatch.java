@@ -0,0 +1,211 @@
+package com.spikeify.async;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.ExistsArrayListener;
+import com.aerospike.client.listener.RecordArrayListener;
+import com.aerospike.client.policy.BatchPolicy;
+import com.spikeify.SpikeifyError;
+
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes batch reads of any number of keys: keys are split into chunks of at most 'chunkSize' keys,
+ * up to 'concurrency' chunks are read in parallel as asynchronous batch commands and results are merged back in order of keys.
+ * Batches not bigger than a single chunk are executed as a single synchronous command.
+ */
+public class ChunkedBatch {
+
+	/**
+	 * Max number of keys in a single batch command accepted by the server
+	 */
+	public static final int MAX_BATCH_SIZE = 5000;
+
+	public static final int DEFAULT_CONCURRENCY = 4;
+
+	private final IAsyncClient client;
+	private final BatchPolicy policy;
+	private final int chunkSize;
+	private final int concurrency;
+
+	/**
+	 * @param client      client to read with
+	 * @param policy      batch policy, null for client default
+	 * @param chunkSize   max number of keys in a single batch command
+	 * @param concurrency max number of batch commands in flight
+	 */
+	public ChunkedBatch(IAsyncClient client, BatchPolicy policy, int chunkSize, int concurrency) {
+		if (chunkSize <= 0 || chunkSize > MAX_BATCH_SIZE) {
+			throw new IllegalArgumentException("Chunk size must be between 1 and " + MAX_BATCH_SIZE + ".");
+		}
+		if (concurrency <= 0) {
+			throw new IllegalArgumentException("Concurrency must be greater than 0.");
+		}
+		this.client = client;
+		this.policy = policy != null ? policy : new BatchPolicy(client.getBatchPolicyDefault());
+		this.chunkSize = chunkSize;
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Reads records.
+	 *
+	 * @param keys     record keys
+	 * @param binNames bins to read, none to read all bins
+	 * @return records in order of keys, null for records not found
+	 */
+	public Record[] get(Key[] keys, final String... binNames) {
+
+		final boolean allBins = binNames == null || binNames.length == 0;
+		if (keys.length <= chunkSize) {
+			return allBins ? client.get(policy, keys) : client.get(policy, keys, binNames);
+		}
+
+		final Record[] records = new Record[keys.length];
+		execute(keys, new Chunk() {
+			@Override
+			public void read(final int offset, Key[] part, final Listener listener) {
+				RecordArrayListener recordListener = recordListener(records, offset, listener);
+				if (allBins) {
+					client.get(policy, recordListener, part);
+				} else {
+					client.get(policy, recordListener, part, binNames);
+				}
+			}
+		});
+		return records;
+	}
+
+	/**
+	 * Reads record headers (generation and expiration) without bins.
+	 *
+	 * @param keys record keys
+	 * @return record headers in order of keys, null for records not found
+	 */
+	public Record[] getHeaders(Key[] keys) {
+
+		if (keys.length <= chunkSize) {
+			return client.getHeader(policy, keys);
+		}
+
+		final Record[] records = new Record[keys.length];
+		execute(keys, new Chunk() {
+			@Override
+			public void read(int offset, Key[] part, Listener listener) {
+				client.getHeader(policy, recordListener(records, offset, listener), part);
+			}
+		});
+		return records;
+	}
+
+	/**
+	 * Checks if records exist.
+	 *
+	 * @param keys record keys
+	 * @return existence flags in order of keys
+	 */
+	public boolean[] exists(Key[] keys) {
+
+		if (keys.length <= chunkSize) {
+			return client.exists(policy, keys);
+		}
+
+		final boolean[] exist = new boolean[keys.length];
+		execute(keys, new Chunk() {
+			@Override
+			public void read(final int offset, Key[] part, final Listener listener) {
+				client.exists(policy, new ExistsArrayListener() {
+					@Override
+					public void onSuccess(Key[] keys, boolean[] existsArray) {
+						System.arraycopy(existsArray, 0, exist, offset, existsArray.length);
+						listener.done(null);
+					}
+
+					@Override
+					public void onFailure(AerospikeException exception) {
+						listener.done(exception);
+					}
+				}, part);
+			}
+		});
+		return exist;
+	}
+
+	private static RecordArrayListener recordListener(final Record[] records, final int offset, final Listener listener) {
+		return new RecordArrayListener() {
+			@Override
+			public void onSuccess(Key[] keys, Record[] chunk) {
+				System.arraycopy(chunk, 0, records, offset, chunk.length);
+				listener.done(null);
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				listener.done(exception);
+			}
+		};
+	}
+
+	/**
+	 * Reads all chunks, waits until all are read.
+	 */
+	private void execute(Key[] keys, Chunk chunk) {
+
+		final Semaphore window = new Semaphore(concurrency);
+		final AtomicReference<RuntimeException> error = new AtomicReference<>();
+
+		Listener listener = new Listener() {
+			@Override
+			public void done(AerospikeException exception) {
+				if (exception != null) {
+					error.compareAndSet(null, exception);
+				}
+				window.release();
+			}
+		};
+
+		for (int offset = 0; offset < keys.length && error.get() == null; offset += chunkSize) {
+			Key[] part = Arrays.copyOfRange(keys, offset, Math.min(offset + chunkSize, keys.length));
+
+			acquire(window, 1);
+			try {
+				chunk.read(offset, part, listener);
+			} catch (AerospikeException e) {
+				listener.done(e);
+			} catch (RuntimeException e) {
+				// listener is never called, its permit must be released here
+				error.compareAndSet(null, e);
+				window.release();
+			}
+		}
+
+		// wait for pending chunks, results are visible after permits are acquired
+		acquire(window, concurrency);
+		window.release(concurrency);
+
+		if (error.get() != null) {
+			throw error.get();
+		}
+	}
+
+	private static void acquire(Semaphore window, int permits) {
+		try {
+			window.acquire(permits);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SpikeifyError("Interrupted while waiting for pending batch reads.");
+		}
+	}
+
+	private interface Chunk {
+		void read(int offset, Key[] part, Listener listener);
+	}
+
+	private interface Listener {
+		void done(AerospikeException exception);
+	}
+}
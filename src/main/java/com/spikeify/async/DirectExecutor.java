@@ -0,0 +1,16 @@
+package com.spikeify.async;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor running tasks on calling thread.
+ */
+public enum DirectExecutor implements Executor {
+
+	INSTANCE;
+
+	@Override
+	public void execute(Runnable command) {
+		command.run();
+	}
+}
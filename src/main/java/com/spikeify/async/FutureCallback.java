@@ -0,0 +1,19 @@
+package com.spikeify.async;
+
+/**
+ * Callback invoked when a {@link ListenableFuture} is completed.
+ *
+ * @param <T> type of result
+ */
+public interface FutureCallback<T> {
+
+	/**
+	 * @param result result of the future
+	 */
+	void onSuccess(T result);
+
+	/**
+	 * @param exception cause of failure, {@link java.util.concurrent.CancellationException} if future was cancelled
+	 */
+	void onFailure(Exception exception);
+}
@@ -0,0 +1,59 @@
+package com.spikeify.async;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link Future} that accepts completion callbacks and can be composed with further processing,
+ * so results of asynchronous commands can be handled without blocking a thread on {@link #get()}.
+ *
+ * @param <T> type of result
+ */
+public interface ListenableFuture<T> extends Future<T> {
+
+	/**
+	 * Registers a callback, invoked on the thread that completes this future
+	 * (or on calling thread if future is already completed).
+	 *
+	 * @param callback callback
+	 * @return this future
+	 */
+	ListenableFuture<T> onComplete(FutureCallback<? super T> callback);
+
+	/**
+	 * Registers a callback, invoked on given executor once this future is completed.
+	 *
+	 * @param callback callback
+	 * @param executor executor to invoke callback on
+	 * @return this future
+	 */
+	ListenableFuture<T> onComplete(FutureCallback<? super T> callback, Executor executor);
+
+	/**
+	 * Transforms result of this future on the thread that completes it.
+	 *
+	 * @param transform transformation of the result
+	 * @param <R>       type of transformed result
+	 * @return future of transformed result, failed if this future fails or transformation throws an exception
+	 */
+	<R> ListenableFuture<R> then(Transform<? super T, ? extends R> transform);
+
+	/**
+	 * Transforms result of this future on given executor.
+	 *
+	 * @param transform transformation of the result
+	 * @param executor  executor to run transformation on
+	 * @param <R>       type of transformed result
+	 * @return future of transformed result, failed if this future fails or transformation throws an exception
+	 */
+	<R> ListenableFuture<R> then(Transform<? super T, ? extends R> transform, Executor executor);
+
+	/**
+	 * Chains another asynchronous operation, started with result of this future.
+	 *
+	 * @param transform starts next operation out of the result
+	 * @param <R>       type of result of the next operation
+	 * @return future completed with result of the next operation
+	 */
+	<R> ListenableFuture<R> thenAsync(Transform<? super T, ? extends ListenableFuture<R>> transform);
+}
@@ -0,0 +1,86 @@
+package com.spikeify.async;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.listener.DeleteListener;
+import com.spikeify.SpikeifyError;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Future of multiple asynchronous deletes, completed by delete listeners once every delete has finished.
+ * Results and failures are collected per deleted item (key or object).
+ * If any delete failed the future fails with a {@link SpikeifyError}, failures can be inspected via {@link #getFailures()}.
+ *
+ * @param <T> type of deleted items
+ */
+public class MultiDeleteFuture<T> extends AbstractPendingFuture<Map<T, Boolean>> {
+
+	private final int count;
+	private final AtomicInteger pending;
+	private final Map<T, Boolean> results;
+	private final Map<T, AerospikeException> failures = new ConcurrentHashMap<>();
+
+	/**
+	 * @param count number of deletes to wait for
+	 */
+	public MultiDeleteFuture(int count) {
+		this.count = count;
+		this.pending = new AtomicInteger(count);
+		this.results = new ConcurrentHashMap<>(count);
+
+		if (count == 0) {
+			setResult(results);
+		}
+	}
+
+	/**
+	 * @param item deleted item
+	 * @return listener to be given to a single asynchronous delete of given item
+	 */
+	public DeleteListener listener(final T item) {
+		return new DeleteListener() {
+			@Override
+			public void onSuccess(Key key, boolean existed) {
+				results.put(item, existed);
+				completed();
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				failures.put(item, exception);
+				completed();
+			}
+		};
+	}
+
+	/**
+	 * @return successful deletes, pairs of item and flag telling whether record existed prior to deletion
+	 */
+	public Map<T, Boolean> getResults() {
+		return Collections.unmodifiableMap(results);
+	}
+
+	/**
+	 * @return failed deletes, empty if all deletes succeeded
+	 */
+	public Map<T, AerospikeException> getFailures() {
+		return Collections.unmodifiableMap(failures);
+	}
+
+	private void completed() {
+		if (pending.decrementAndGet() != 0) {
+			return;
+		}
+
+		if (failures.isEmpty()) {
+			setResult(results);
+		} else {
+			AerospikeException cause = failures.values().iterator().next();
+			setFailure(new SpikeifyError("Error: " + failures.size() + " of " + count + " deletes failed.", cause));
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.spikeify.async;
+
+import com.spikeify.SpikeifyError;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out operations evenly to at most 'permitsPerSecond' operations per second.
+ * Callers of {@link #acquire()} are blocked until their slot is due, unused slots are not saved up for bursts.
+ */
+public class RateLimiter {
+
+	private final long intervalNanos;
+	private long next;
+
+	/**
+	 * @param permitsPerSecond max number of operations per second
+	 */
+	public RateLimiter(int permitsPerSecond) {
+		if (permitsPerSecond <= 0) {
+			throw new IllegalArgumentException("Rate must be greater than 0.");
+		}
+		this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+		this.next = System.nanoTime();
+	}
+
+	/**
+	 * Waits until next operation may be executed.
+	 */
+	public void acquire() {
+
+		long wait;
+		synchronized (this) {
+			long now = System.nanoTime();
+			if (next - now < 0) {
+				next = now;
+			}
+			wait = next - now;
+			next += intervalNanos;
+		}
+
+		if (wait > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(wait);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SpikeifyError("Interrupted while waiting for rate limit.");
+			}
+		}
+	}
+}
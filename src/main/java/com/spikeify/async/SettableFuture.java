@@ -0,0 +1,55 @@
+package com.spikeify.async;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A {@link ListenableFuture} completed explicitly, usually from a listener of an asynchronous command.
+ *
+ * @param <T> type of result
+ */
+public class SettableFuture<T> extends AbstractPendingFuture<T> {
+
+	/**
+	 * Completes future with given result, has no effect if future is already completed.
+	 *
+	 * @param result result
+	 */
+	public void set(T result) {
+		setResult(result);
+	}
+
+	/**
+	 * Fails future with given exception, has no effect if future is already completed.
+	 *
+	 * @param exception cause of failure
+	 */
+	public void setException(Exception exception) {
+		setFailure(exception);
+	}
+
+	/**
+	 * Completes future with result of given task, run on given executor.
+	 * Used to move processing of results (i.e. mapping of records) off the async client's listener thread.
+	 *
+	 * @param executor executor to run task on
+	 * @param task     produces the result
+	 */
+	public void setFrom(Executor executor, final Callable<? extends T> task) {
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						set(task.call());
+					} catch (Exception e) {
+						setException(e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			setException(e);
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.spikeify.async;
+
+/**
+ * Transformation of a result of a {@link ListenableFuture}.
+ *
+ * @param <S> source type
+ * @param <T> target type
+ */
+public interface Transform<S, T> {
+
+	/**
+	 * @param source result to be transformed
+	 * @return transformed result
+	 * @throws Exception fails the transformed future
+	 */
+	T apply(S source) throws Exception;
+}
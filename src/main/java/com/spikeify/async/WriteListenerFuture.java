@@ -6,6 +6,12 @@ import com.aerospike.client.listener.WriteListener;
 
 public abstract class WriteListenerFuture<K> extends AbstractPendingFuture<K> implements WriteListener {
 
+	/**
+	 * @param key key of written record
+	 * @return result of the future, once the write succeeded
+	 */
+	public abstract K prepareResult(Key key);
+
 	@Override
 	public synchronized void onSuccess(Key key) {
 		K res = prepareResult(key);
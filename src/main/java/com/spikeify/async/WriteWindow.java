@@ -0,0 +1,160 @@
+package com.spikeify.async;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.WriteListener;
+import com.aerospike.client.policy.WritePolicy;
+import com.spikeify.SpikeifyError;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pipelines asynchronous writes: at most 'size' writes are in flight at once,
+ * a new write waits until one of the pending writes completes.
+ * Failures are collected per key and returned by {@link #await()}, a write failing with other than
+ * {@link AerospikeException} is collected as an {@link AerospikeException} caused by it.
+ * Alternatively, completion of all writes can be awaited without blocking via {@link #whenDone(Runnable)}.
+ */
+public class WriteWindow {
+
+	private final int size;
+	private final Semaphore permits;
+	private final Map<Key, AerospikeException> failures = new ConcurrentHashMap<>();
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicReference<Runnable> completion = new AtomicReference<>();
+
+	/**
+	 * @param size max number of writes in flight
+	 */
+	public WriteWindow(int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Window size must be greater than 0.");
+		}
+		this.size = size;
+		this.permits = new Semaphore(size);
+	}
+
+	/**
+	 * Asynchronously writes bins of given record, waits if window is full.
+	 *
+	 * @param client client to write with
+	 * @param policy write policy, must not be changed until write completes
+	 * @param key    record key
+	 * @param bins   bins to be written
+	 */
+	public void put(IAsyncClient client, WritePolicy policy, Key key, Bin... bins) {
+		WriteListener listener = acquire(key);
+		try {
+			client.put(policy, listener, key, bins);
+		} catch (AerospikeException e) {
+			listener.onFailure(e);
+		} catch (RuntimeException e) {
+			// listener is never called otherwise, so its permit would never be released
+			listener.onFailure(new AerospikeException(e));
+		}
+	}
+
+	/**
+	 * Asynchronously touches given record, waits if window is full.
+	 *
+	 * @param client client to write with
+	 * @param policy write policy, must not be changed until write completes
+	 * @param key    record key
+	 */
+	public void touch(IAsyncClient client, WritePolicy policy, Key key) {
+		WriteListener listener = acquire(key);
+		try {
+			client.touch(policy, listener, key);
+		} catch (AerospikeException e) {
+			listener.onFailure(e);
+		} catch (RuntimeException e) {
+			// listener is never called otherwise, so its permit would never be released
+			listener.onFailure(new AerospikeException(e));
+		}
+	}
+
+	/**
+	 * Waits for a free slot in window.
+	 *
+	 * @param key key of record to be written
+	 * @return listener to be given to a single asynchronous write of given key
+	 */
+	public WriteListener acquire(final Key key) {
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SpikeifyError("Interrupted while waiting for pending writes.");
+		}
+		pending.incrementAndGet();
+
+		return new WriteListener() {
+			@Override
+			public void onSuccess(Key written) {
+				release();
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				failures.put(key, exception);
+				release();
+			}
+		};
+	}
+
+	private void release() {
+		permits.release();
+		if (pending.decrementAndGet() == 0) {
+			complete();
+		}
+	}
+
+	/**
+	 * Runs given task once all pending writes complete, on the thread completing the last write
+	 * (or on calling thread if there are no pending writes). No more writes may be issued after this call.
+	 *
+	 * @param task task to run, i.e. to inspect {@link #getFailures()}
+	 */
+	public void whenDone(Runnable task) {
+		completion.set(task);
+		if (pending.get() == 0) {
+			complete();
+		}
+	}
+
+	private void complete() {
+		Runnable task = completion.getAndSet(null);
+		if (task != null) {
+			task.run();
+		}
+	}
+
+	/**
+	 * @return writes failed so far
+	 */
+	public Map<Key, AerospikeException> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Waits until all pending writes complete.
+	 *
+	 * @return failed writes, empty if all writes succeeded
+	 */
+	public Map<Key, AerospikeException> await() {
+		try {
+			permits.acquire(size);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SpikeifyError("Interrupted while waiting for pending writes.");
+		}
+		permits.release(size);
+		return failures;
+	}
+}
@@ -0,0 +1,291 @@
+package com.spikeify.commands;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.Key;
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.BatchListListener;
+import com.aerospike.client.policy.BatchPolicy;
+import com.spikeify.*;
+import com.spikeify.async.DirectExecutor;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * A command chain for loading records of different classes (and with different projections) in a single batch request.
+ * Every requested record is represented by an {@link Item}, holding the loaded object once the batch is executed:
+ * <pre>
+ * BatchLoader batch = sfy.batch();
+ * BatchLoader.Item&lt;User&gt; user = batch.get(User.class, userId);
+ * BatchLoader.Item&lt;Settings&gt; settings = batch.get(Settings.class, userId).fields("theme");
+ * batch.now();
+ * render(user.get(), settings.get());
+ * </pre>
+ * This class is not intended to be instantiated by user.
+ */
+@SuppressWarnings("WeakerAccess")
+public class BatchLoader {
+
+	/**
+	 * Used internally to create a command chain. Not intended to be used by the user directly. Use {@link Spikeify#batch()} instead.
+	 */
+	public BatchLoader(IAsyncClient asynClient,
+	                   ClassConstructor classConstructor,
+	                   RecordsCache recordsCache,
+	                   String namespace) {
+		this.asynClient = asynClient;
+		this.classConstructor = classConstructor;
+		this.recordsCache = recordsCache;
+		this.namespace = namespace;
+	}
+
+	protected final IAsyncClient asynClient;
+	protected final ClassConstructor classConstructor;
+	protected final RecordsCache recordsCache;
+	protected final String namespace;
+	protected final List<Item<?>> items = new ArrayList<>();
+	protected BatchPolicy overridePolicy;
+
+	/**
+	 * Adds a record to be loaded.
+	 *
+	 * @param type The class to map the record to.
+	 * @param key  Key of the record.
+	 * @param <T>  type
+	 * @return item holding the loaded object
+	 */
+	public <T> Item<T> get(Class<T> type, Key key) {
+		Item<T> item = new Item<>(type, key, null);
+		items.add(item);
+		return item;
+	}
+
+	/**
+	 * Adds a record to be loaded.
+	 *
+	 * @param type    The class to map the record to.
+	 * @param userKey User key of the record.
+	 * @param <T>     type
+	 * @return item holding the loaded object
+	 */
+	public <T> Item<T> get(Class<T> type, Long userKey) {
+		Item<T> item = new Item<>(type, null, userKey);
+		items.add(item);
+		return item;
+	}
+
+	/**
+	 * Adds a record to be loaded.
+	 *
+	 * @param type    The class to map the record to.
+	 * @param userKey User key of the record.
+	 * @param <T>     type
+	 * @return item holding the loaded object
+	 */
+	public <T> Item<T> get(Class<T> type, String userKey) {
+		Item<T> item = new Item<>(type, null, userKey);
+		items.add(item);
+		return item;
+	}
+
+	/**
+	 * Sets the {@link BatchPolicy} to be used when getting the records from the database.
+	 * Internally the 'sendKey' property of the policy will always be set to true.
+	 *
+	 * @param policy The policy.
+	 */
+	public BatchLoader policy(BatchPolicy policy) {
+		this.overridePolicy = policy;
+		this.overridePolicy.sendKey = true;
+		return this;
+	}
+
+	private BatchPolicy getPolicy() {
+		return overridePolicy != null ? overridePolicy : new BatchPolicy(asynClient.getBatchPolicyDefault());
+	}
+
+	private List<BatchRead> collectReads() {
+
+		if (items.isEmpty()) {
+			throw new SpikeifyError("Error: no records to load, at least one get() must be called.");
+		}
+
+		List<BatchRead> reads = new ArrayList<>(items.size());
+		for (Item<?> item : items) {
+			Key key = item.getKey();
+			reads.add(item.binNames != null ? new BatchRead(key, item.binNames) : new BatchRead(key, true));
+		}
+		return reads;
+	}
+
+	/**
+	 * Synchronously loads all records in a single batch request, loaded objects are set on items.
+	 *
+	 * @return loaded objects in order records were added, null for records not found
+	 */
+	public List<Object> now() {
+
+		List<BatchRead> reads = collectReads();
+		asynClient.get(getPolicy(), reads);
+
+		return map(reads);
+	}
+
+	/**
+	 * Asynchronously loads all records in a single batch request. Records are mapped on the async client's listener thread.
+	 *
+	 * @return The future of loaded objects in order records were added, null for records not found
+	 */
+	public ListenableFuture<List<Object>> async() {
+		return async(DirectExecutor.INSTANCE);
+	}
+
+	/**
+	 * Asynchronously loads all records in a single batch request.
+	 *
+	 * @param executor executor records are mapped on
+	 * @return The future of loaded objects in order records were added, null for records not found
+	 */
+	public ListenableFuture<List<Object>> async(final Executor executor) {
+
+		final SettableFuture<List<Object>> future = new SettableFuture<>();
+
+		asynClient.get(getPolicy(), new BatchListListener() {
+			@Override
+			public void onSuccess(final List<BatchRead> reads) {
+				future.setFrom(executor, new Callable<List<Object>>() {
+					@Override
+					public List<Object> call() {
+						return map(reads);
+					}
+				});
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				future.setException(exception);
+			}
+		}, collectReads());
+
+		return future;
+	}
+
+	private List<Object> map(List<BatchRead> reads) {
+
+		List<Object> result = new ArrayList<>(reads.size());
+		for (int i = 0; i < reads.size(); i++) {
+			result.add(items.get(i).map(reads.get(i)));
+		}
+		return result;
+	}
+
+	/**
+	 * A single record of a batch.
+	 *
+	 * @param <T> type of loaded object
+	 */
+	public class Item<T> {
+
+		private final Class<T> type;
+		private final ClassMapper<T> mapper;
+		private final Key key;
+		private final Object userKey;
+		private String itemNamespace;
+		private String setName;
+		private String[] binNames;
+
+		private volatile boolean loaded;
+		private volatile T object;
+
+		private Item(Class<T> type, Key key, Object userKey) {
+			this.type = type;
+			this.mapper = MapperService.getMapper(type);
+			this.key = key;
+			this.userKey = userKey;
+		}
+
+		/**
+		 * Sets the Namespace. Overrides the default namespace and the namespace defined on the Class via {@link com.spikeify.annotations.Namespace} annotation.
+		 *
+		 * @param namespace The namespace.
+		 */
+		public Item<T> namespace(String namespace) {
+			this.itemNamespace = namespace;
+			return this;
+		}
+
+		/**
+		 * Sets the SetName. Overrides any SetName defined on the Class via {@link com.spikeify.annotations.SetName} annotation.
+		 *
+		 * @param setName The name of the set.
+		 */
+		public Item<T> setName(String setName) {
+			this.setName = setName;
+			return this;
+		}
+
+		/**
+		 * Loads only given fields, other fields of the object are left unset.
+		 *
+		 * @param fieldNames names of fields to be loaded
+		 */
+		public Item<T> fields(String... fieldNames) {
+			if (fieldNames == null || fieldNames.length == 0) {
+				throw new SpikeifyError("Error: at least one field name must be given.");
+			}
+			this.binNames = mapper.getBinNames(fieldNames);
+			return this;
+		}
+
+		/**
+		 * @return loaded object, null if record was not found
+		 */
+		public T get() {
+			if (!loaded) {
+				throw new SpikeifyError("Error: batch was not loaded yet.");
+			}
+			return object;
+		}
+
+		private Key getKey() {
+			if (key != null) {
+				return key;
+			}
+
+			String useNamespace = itemNamespace != null ? itemNamespace : (mapper.getNamespace() != null ? mapper.getNamespace() : namespace);
+			if (useNamespace == null) {
+				throw new SpikeifyError("Namespace not set.");
+			}
+			String useSetName = setName != null ? setName : mapper.getSetName();
+
+			return userKey instanceof Long ?
+					new Key(useNamespace, useSetName, (Long) userKey) :
+					new Key(useNamespace, useSetName, (String) userKey);
+		}
+
+		private T map(BatchRead read) {
+
+			T mapped = null;
+			if (read.record != null) {
+				mapped = classConstructor.construct(type);
+
+				// save record hash into cache - used later for differential updating
+				recordsCache.insert(read.key, mapper, read.record.bins, binNames, mapped);
+
+				MapperService.map(mapper, read.key, read.record, mapped);
+
+				// set LDT fields
+				mapper.setBigDatatypeFields(mapped, asynClient, read.key);
+			}
+
+			object = mapped;
+			loaded = true;
+			return mapped;
+		}
+	}
+}
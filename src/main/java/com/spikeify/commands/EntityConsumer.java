@@ -0,0 +1,12 @@
+package com.spikeify.commands;
+
+public interface EntityConsumer<T> {
+
+	/**
+	 * Called for every loaded entity, possibly concurrently from multiple scan threads.
+	 *
+	 * @param item loaded entity
+	 * @return true to continue loading, false to stop
+	 */
+	boolean consume(T item);
+}
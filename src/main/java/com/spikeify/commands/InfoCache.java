@@ -0,0 +1,238 @@
+package com.spikeify.commands;
+
+import com.aerospike.client.IAerospikeClient;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache of cluster metadata (namespace configuration, secondary indexes, sets, server build) used by {@link InfoFetcher}.
+ * A single cache is shared by all fetchers of the same client, see {@link #of(IAerospikeClient)}.
+ * <p>
+ * Entries are fetched again once older than {@link #ttl(long, TimeUnit)}. Optionally all cached entries can be refreshed
+ * in background via {@link #refreshEvery(long, TimeUnit)}, so callers never wait for info requests.
+ * Background refresh stops once the client is closed or garbage collected.
+ * Index definitions are invalidated when indexes are created or dropped through Spikeify,
+ * and are not cached while any index of the namespace is still being built.
+ * <p>
+ * Cache holds its client only weakly and loaders are given the client on each load (so they must not capture it),
+ * otherwise caches would keep their clients reachable and never be removed.
+ */
+@SuppressWarnings("WeakerAccess")
+public class InfoCache {
+
+	private static final Logger log = Logger.getLogger(InfoCache.class.getSimpleName());
+
+	public static final long DEFAULT_TTL_SECONDS = 60;
+
+	static final String BUILD = "build";
+	static final String NAMESPACES = "namespaces";
+	static final String SETS = "sets";
+	static final String CONFIG = "config/";
+	static final String INDEXES = "sindex/";
+
+	private static final Map<IAerospikeClient, InfoCache> caches = new WeakHashMap<>();
+
+	/**
+	 * @param client client
+	 * @return cache shared by all info fetchers of given client
+	 */
+	public static InfoCache of(IAerospikeClient client) {
+		synchronized (caches) {
+			InfoCache cache = caches.get(client);
+			if (cache == null) {
+				cache = new InfoCache(client);
+				caches.put(client, cache);
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Fetches a cached value from database
+	 */
+	public interface Loader<T> {
+		T load(IAerospikeClient client);
+	}
+
+	/**
+	 * Fetches a value that is cached only once complete (i.e. indexes that are still being built are fetched again).
+	 */
+	public interface PartialLoader<T> extends Loader<T> {
+
+		/**
+		 * @param value fetched value
+		 * @return true if value can be cached
+		 */
+		boolean isComplete(T value);
+	}
+
+	private static class Entry<T> {
+
+		final Loader<T> loader;
+		volatile T value;
+		volatile long fetched;
+
+		Entry(Loader<T> loader) {
+			this.loader = loader;
+		}
+
+		/**
+		 * @return true if loaded value can be cached
+		 */
+		boolean load(IAerospikeClient client) {
+			value = loader.load(client);
+			fetched = System.nanoTime();
+			return !(loader instanceof PartialLoader) || ((PartialLoader<T>) loader).isComplete(value);
+		}
+	}
+
+	private final WeakReference<IAerospikeClient> client;
+	private final ConcurrentMap<String, Entry<?>> entries = new ConcurrentHashMap<>();
+	private final AtomicLong invalidations = new AtomicLong();
+	private volatile long ttlNanos = TimeUnit.SECONDS.toNanos(DEFAULT_TTL_SECONDS);
+	private ScheduledExecutorService refresher;
+
+	/**
+	 * @param client client values are fetched with
+	 */
+	public InfoCache(IAerospikeClient client) {
+		this.client = new WeakReference<>(client);
+	}
+
+	/**
+	 * Sets max age of cached entries, defaults to {@value #DEFAULT_TTL_SECONDS} seconds.
+	 *
+	 * @param ttl  max age, 0 to disable caching
+	 * @param unit time unit
+	 */
+	public InfoCache ttl(long ttl, TimeUnit unit) {
+		if (ttl < 0) {
+			throw new IllegalArgumentException("TTL must not be negative.");
+		}
+		this.ttlNanos = unit.toNanos(ttl);
+		return this;
+	}
+
+	/**
+	 * Starts refreshing all cached entries in background. Replaces previously started refresh.
+	 *
+	 * @param period time between refreshes, should be shorter than TTL
+	 * @param unit   time unit
+	 */
+	public synchronized InfoCache refreshEvery(long period, TimeUnit unit) {
+		if (period <= 0) {
+			throw new IllegalArgumentException("Refresh period must be greater than 0.");
+		}
+
+		stopRefresh();
+		refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "spikeify-info-refresh");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		refresher.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				refresh();
+			}
+		}, period, period, unit);
+		return this;
+	}
+
+	/**
+	 * Stops background refresh, if started.
+	 */
+	public synchronized void stopRefresh() {
+		if (refresher != null) {
+			refresher.shutdownNow();
+			refresher = null;
+		}
+	}
+
+	/**
+	 * Fetches all cached entries again. Stops background refresh if client is closed.
+	 */
+	public void refresh() {
+
+		IAerospikeClient current = client.get();
+		if (current == null || !current.isConnected()) {
+			stopRefresh();
+			return;
+		}
+
+		for (Map.Entry<String, Entry<?>> entry : entries.entrySet()) {
+			try {
+				if (!entry.getValue().load(current)) {
+					entries.remove(entry.getKey(), entry.getValue());
+				}
+			}
+			catch (RuntimeException e) {
+				// entry is fetched again when requested
+				log.log(Level.FINE, "Failed to refresh cluster info: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Removes cached index definitions of given namespace.
+	 *
+	 * @param namespace namespace
+	 */
+	public void invalidateIndexes(String namespace) {
+		invalidations.incrementAndGet();
+		entries.remove(INDEXES + namespace);
+	}
+
+	/**
+	 * Removes all cached entries.
+	 */
+	public void invalidate() {
+		invalidations.incrementAndGet();
+		entries.clear();
+	}
+
+	/**
+	 * Returns cached value, fetches it with given loader if not cached or expired.
+	 *
+	 * @param name   name of cached value
+	 * @param loader fetches value from database
+	 * @param <T>    value type
+	 * @return cached or fetched value
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String name, Loader<T> loader) {
+
+		Entry<T> entry = (Entry<T>) entries.get(name);
+		if (entry != null && entry.fetched != 0 && System.nanoTime() - entry.fetched < ttlNanos) {
+			return entry.value;
+		}
+
+		// value fetched while invalidated is not cached, it might be stale already
+		long invalidated = invalidations.get();
+		IAerospikeClient current = client.get();
+		if (current == null) {
+			throw new IllegalStateException("Client of info cache was garbage collected.");
+		}
+
+		entry = new Entry<>(loader);
+		boolean complete = entry.load(current);
+		if (complete && ttlNanos > 0 && invalidated == invalidations.get()) {
+			entries.put(name, entry);
+		}
+		return entry.value;
+	}
+}
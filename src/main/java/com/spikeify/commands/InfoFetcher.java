@@ -12,11 +12,13 @@ import java.util.*;
 
 /**
  * A command chain for fetching various information from database.
+ * Cluster metadata (namespace configuration, indexes, sets and server build) is cached, see {@link InfoCache}.
  */
 @SuppressWarnings("WeakerAccess")
 public class InfoFetcher {
 
 	protected final IAerospikeClient synClient;
+	protected final InfoCache cache;
 
 	public static final String CONFIG_SET_NAME = "set_name";
 	public static final String CONFIG_NS_NAME = "ns_name";
@@ -30,7 +32,30 @@ public class InfoFetcher {
 
 	public InfoFetcher(IAsyncClient synClient) {
 
+		this(synClient, InfoCache.of(synClient));
+	}
+
+	public InfoFetcher(IAsyncClient synClient, InfoCache cache) {
+
 		this.synClient = synClient;
+		this.cache = cache;
+	}
+
+	/**
+	 * @return cache of cluster metadata used by this fetcher
+	 */
+	public InfoCache getCache() {
+
+		return cache;
+	}
+
+	private static Node getNode(IAerospikeClient client) {
+
+		Node[] nodes = client.getNodes();
+		if (nodes == null || nodes.length == 0) {
+			throw new IllegalStateException("No Aerospike nodes found.");
+		}
+		return nodes[0];
 	}
 
 	public static class Build {
@@ -54,53 +79,28 @@ public class InfoFetcher {
 	 */
 	public Build getServerBuild() {
 
-		String build = null;
-		Node[] nodes = synClient.getNodes();
-		if (nodes == null || nodes.length == 0) {
-			throw new IllegalStateException("No Aerospike nodes found.");
-		}
-		build = Info.request(synClient.getInfoPolicyDefault(), nodes[0], CONFIG_BUILD);
-		String[] buildNumbers = build.split("\\.");
-
-		return new Build(Integer.valueOf(buildNumbers[0]), Integer.valueOf(buildNumbers[1]), Integer.valueOf(buildNumbers[2]));
+		return cache.get(InfoCache.BUILD, new BuildLoader());
 	}
 
-	public String[] getNamespaceConfig(String namespace) {
+	public String[] getNamespaceConfig(final String namespace) {
 
-		String build = null;
-		Node[] nodes = synClient.getNodes();
-		if (nodes == null || nodes.length == 0) {
-			throw new IllegalStateException("No Aerospike nodes found.");
-		}
-		return Info.request(synClient.getInfoPolicyDefault(), nodes[0], CONFIG_NAMESPACE + namespace).split(";");
+		return cache.get(InfoCache.CONFIG + namespace, new NamespaceConfigLoader(namespace)).clone();
 	}
 
 	public long getDefaultTTL(String namespace) {
-		Node[] nodes = synClient.getNodes();
-		if (nodes == null || nodes.length == 0) {
-			throw new IllegalStateException("No Aerospike nodes found.");
-		}
-		String[] config = Info.request(synClient.getInfoPolicyDefault(), nodes[0], CONFIG_NAMESPACE + namespace).split(";");
+		String[] config = getNamespaceConfig(namespace);
 
 		return Long.valueOf(parseConfigString(config, "default-ttl", "0"));
 	}
 
 	public boolean isUDFEnabled(String namespace) {
-		Node[] nodes = synClient.getNodes();
-		if (nodes == null || nodes.length == 0) {
-			throw new IllegalStateException("No Aerospike nodes found.");
-		}
-		String[] config = Info.request(synClient.getInfoPolicyDefault(), nodes[0], CONFIG_NAMESPACE + namespace).split(";");
+		String[] config = getNamespaceConfig(namespace);
 
 		return Boolean.valueOf(parseConfigString(config, "ldt-enabled", "false"));
 	}
 
 	public int getReplicationFactor(String namespace) {
-		Node[] nodes = synClient.getNodes();
-		if (nodes == null || nodes.length == 0) {
-			throw new IllegalStateException("No Aerospike nodes found.");
-		}
-		String[] configStrings = Info.request(synClient.getInfoPolicyDefault(), nodes[0], CONFIG_NAMESPACE + namespace).split(";");
+		String[] configStrings = getNamespaceConfig(namespace);
 		for (String configString : configStrings) {
 			String[] configLine = configString.split("=");
 			if (configLine.length == 2 && configLine[0].equals(REPLICATION_FACTOR)) {
@@ -151,14 +151,7 @@ public class InfoFetcher {
 	 */
 	public Set<String> getNamespaces() {
 
-		Set<String> nsNames = new HashSet<>();
-		Node[] nodes = synClient.getNodes();
-		for (Node node : nodes) {
-			String nodeNsNames = Info.request(synClient.getInfoPolicyDefault(), node, CONFIG_NAMESPACES_PARAM);
-			String[] nsNamesArray = nodeNsNames.split(";");
-			Collections.addAll(nsNames, nsNamesArray);
-		}
-		return nsNames;
+		return new HashSet<>(cache.get(InfoCache.NAMESPACES, new NamespacesLoader()));
 	}
 
 	/**
@@ -168,19 +161,7 @@ public class InfoFetcher {
 	 */
 	public Map<String /** set **/, String /** namespace **/> getSets() {
 
-		Map<String, String> setNames = new HashMap<>();
-
-		Node[] nodes = synClient.getNodes();
-		for (Node node : nodes) {
-			String nodeSets = Info.request(synClient.getInfoPolicyDefault(), node, CONFIG_SET_PARAM);
-			String[] set = nodeSets.split(";");
-			for (String setString : set) {
-				Map<String, String> config = parseConfigString(setString);
-				setNames.put(config.get(CONFIG_SET_NAME), config.get(CONFIG_NS_NAME));
-			}
-		}
-
-		return setNames;
+		return new HashMap<>(cache.get(InfoCache.SETS, new SetsLoader()));
 	}
 
 	/**
@@ -213,26 +194,16 @@ public class InfoFetcher {
 	 * @param setName   entity name / table name
 	 * @return map of index info (index_name / info)
 	 */
-	public Map<String, IndexInfo> getIndexes(String namespace, String setName) {
-
-		Map<String, IndexInfo> indexInfoSet = new HashMap<>();
-		Node[] nodes = synClient.getNodes();
-		for (Node node : nodes) {
+	public Map<String, IndexInfo> getIndexes(final String namespace, String setName) {
 
-			String indexInfo = Info.request(synClient.getInfoPolicyDefault(), node, CONFIG_SET_INDEXES + "/" + namespace);
-			String[] set = indexInfo.split(";");
+		Map<String, IndexInfo> namespaceIndexes = cache.get(InfoCache.INDEXES + namespace, new IndexesLoader(namespace));
 
-			for (String setString : set) {
-				IndexInfo info = new IndexInfo(setString);
-
-				// only if all data is given add to list
-				if ((setName == null || setName.equals(info.setName)) &&
-						info.isComplete()) {
-					indexInfoSet.put(info.name, info);
-				}
+		Map<String, IndexInfo> indexInfoSet = new HashMap<>();
+		for (IndexInfo info : namespaceIndexes.values()) {
+			if (setName == null || setName.equals(info.setName)) {
+				indexInfoSet.put(info.name, info);
 			}
 		}
-
 		return indexInfoSet;
 	}
 
@@ -250,7 +221,7 @@ public class InfoFetcher {
 	}
 
 
-	private Map<String, String> parseConfigString(String configString) {
+	private static Map<String, String> parseConfigString(String configString) {
 
 		Map<String, String> result = new HashMap<>();
 		String[] chunks = configString.split(":");
@@ -275,10 +246,115 @@ public class InfoFetcher {
 		return defaultValue;
 	}
 
+	/*
+	 * Loaders of cached values must not capture the fetcher, which holds the client, see InfoCache.
+	 */
+
+	private static class BuildLoader implements InfoCache.Loader<Build> {
+
+		@Override
+		public Build load(IAerospikeClient client) {
+			String build = Info.request(client.getInfoPolicyDefault(), getNode(client), CONFIG_BUILD);
+			String[] buildNumbers = build.split("\\.");
+
+			return new Build(Integer.valueOf(buildNumbers[0]), Integer.valueOf(buildNumbers[1]), Integer.valueOf(buildNumbers[2]));
+		}
+	}
+
+	private static class NamespaceConfigLoader implements InfoCache.Loader<String[]> {
+
+		private final String namespace;
+
+		NamespaceConfigLoader(String namespace) {
+			this.namespace = namespace;
+		}
+
+		@Override
+		public String[] load(IAerospikeClient client) {
+			return Info.request(client.getInfoPolicyDefault(), getNode(client), CONFIG_NAMESPACE + namespace).split(";");
+		}
+	}
+
+	private static class NamespacesLoader implements InfoCache.Loader<Set<String>> {
+
+		@Override
+		public Set<String> load(IAerospikeClient client) {
+			Set<String> nsNames = new HashSet<>();
+			Node[] nodes = client.getNodes();
+			for (Node node : nodes) {
+				String nodeNsNames = Info.request(client.getInfoPolicyDefault(), node, CONFIG_NAMESPACES_PARAM);
+				String[] nsNamesArray = nodeNsNames.split(";");
+				Collections.addAll(nsNames, nsNamesArray);
+			}
+			return nsNames;
+		}
+	}
+
+	private static class SetsLoader implements InfoCache.Loader<Map<String, String>> {
+
+		@Override
+		public Map<String, String> load(IAerospikeClient client) {
+			Map<String, String> setNames = new HashMap<>();
+
+			Node[] nodes = client.getNodes();
+			for (Node node : nodes) {
+				String nodeSets = Info.request(client.getInfoPolicyDefault(), node, CONFIG_SET_PARAM);
+				String[] set = nodeSets.split(";");
+				for (String setString : set) {
+					Map<String, String> config = parseConfigString(setString);
+					setNames.put(config.get(CONFIG_SET_NAME), config.get(CONFIG_NS_NAME));
+				}
+			}
+
+			return setNames;
+		}
+	}
+
+	private static class IndexesLoader implements InfoCache.PartialLoader<Map<String, IndexInfo>> {
+
+		private final String namespace;
+
+		IndexesLoader(String namespace) {
+			this.namespace = namespace;
+		}
+
+		@Override
+		public Map<String, IndexInfo> load(IAerospikeClient client) {
+			Map<String, IndexInfo> indexInfoSet = new HashMap<>();
+			Node[] nodes = client.getNodes();
+			for (Node node : nodes) {
+
+				String indexInfo = Info.request(client.getInfoPolicyDefault(), node, CONFIG_SET_INDEXES + "/" + namespace);
+				String[] set = indexInfo.split(";");
+
+				for (String setString : set) {
+					IndexInfo info = new IndexInfo(setString);
+
+					// only if all data is given add to list
+					if (info.isComplete()) {
+						indexInfoSet.put(info.name, info);
+					}
+				}
+			}
+			return indexInfoSet;
+		}
+
+		@Override
+		public boolean isComplete(Map<String, IndexInfo> indexes) {
+			// indexes being built are fetched again, so their state is not cached
+			for (IndexInfo info : indexes.values()) {
+				if (!info.canRead || !info.canWrite) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 	/**
 	 * Holds information about index
 	 */
-	public class IndexInfo {
+	public static class IndexInfo {
 
 		public String namespace;
 
@@ -8,10 +8,12 @@ import com.aerospike.client.listener.DeleteListener;
 import com.spikeify.*;
 import com.spikeify.annotations.Namespace;
 import com.spikeify.annotations.SetName;
+import com.spikeify.async.MultiDeleteFuture;
 
 import java.util.*;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A command chain for deleting multiple objects from database.
@@ -176,7 +178,11 @@ public class MultiKeyDeleter<T, K> {
 
 		for (Key key : keys) {
 			recordsCache.remove(key);
-			result.put(key, asynClient.delete(null, key));
+			try {
+				result.put(key, asynClient.delete(null, key));
+			} finally {
+				recordsCache.written(key);
+			}
 		}
 
 		return result;
@@ -184,54 +190,69 @@ public class MultiKeyDeleter<T, K> {
 
 	/**
 	 * Asynchronously executes multiple delete commands.
+	 * Deletes are issued on calling thread, the returned future is completed by delete listeners.
+	 * The returned future is a {@link MultiDeleteFuture}, use {@link #async(Executor)} with {@link com.spikeify.async.DirectExecutor}
+	 * to get it typed as such.
 	 *
 	 * @return The {code Future} which you can use to check when deletion is finished.
 	 * The resulting map of Key, Boolean pairs tells whether record existed in the database prior to deletion.
 	 */
 	public Future<Map<Key, Boolean>> async() {
 
-		collectKeys();
+		MultiDeleteFuture<Key> future = prepareAsync();
+		deleteAsync(future);
+		return future;
+	}
 
-		FutureTask<Map<Key, Boolean>> futureTask = new FutureTask<>(new Callable<Map<Key, Boolean>>() {
-			@Override
-			public Map<Key, Boolean> call() throws InterruptedException {
-
-				final AtomicReference<AerospikeException> failureException = new AtomicReference<>(null);
-				final Map<Key, Boolean> results = new ConcurrentHashMap<>(keys.size());
-
-				DeleteListener deleteListener = new DeleteListener() {
-					@Override
-					public void onSuccess(Key key, boolean existed) {
-						results.put(key, existed);
-					}
-
-					@Override
-					public void onFailure(AerospikeException exception) {
-						// save exception to be re-thrown on calling thread
-						failureException.set(exception);
-					}
-				};
-
-				for (Key key : keys) {
-					recordsCache.remove(key);
-					asynClient.delete(null, deleteListener, key);
+	/**
+	 * Asynchronously executes multiple delete commands.
+	 * Deletes are issued on given executor, the returned future is completed by delete listeners.
+	 * If executor rejects the deletes, the future fails with every delete failed.
+	 *
+	 * @param executor executor to issue deletes on
+	 * @return The {code Future} which you can use to check when deletion is finished.
+	 * The resulting map of Key, Boolean pairs tells whether record existed in the database prior to deletion.
+	 */
+	public MultiDeleteFuture<Key> async(Executor executor) {
+
+		final MultiDeleteFuture<Key> future = prepareAsync();
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					deleteAsync(future);
 				}
+			});
+		} catch (RejectedExecutionException e) {
+			for (Key key : keys) {
+				future.listener(key).onFailure(new AerospikeException(e));
+			}
+		}
+		return future;
+	}
 
-				// wait until all listeners are called and there is no failure
-				while (results.size() < keys.size()) {
-					// check for errors
-					if (failureException.get() != null) {
-						throw failureException.get(); // rethrow original exception
-					}
-				}
+	private MultiDeleteFuture<Key> prepareAsync() {
 
-				return results;
-			}
-		});
+		collectKeys();
+
+		// cache is cleared on calling thread, as it might be scoped to it
+		for (Key key : keys) {
+			recordsCache.remove(key);
+		}
+
+		return new MultiDeleteFuture<>(keys.size());
+	}
 
-		Executors.newCachedThreadPool().execute(futureTask);
+	private void deleteAsync(MultiDeleteFuture<Key> future) {
 
-		return futureTask;
+		for (Key key : keys) {
+			DeleteListener listener = recordsCache.deleted(key, future.listener(key));
+			try {
+				asynClient.delete(null, listener, key);
+			} catch (AerospikeException e) {
+				listener.onFailure(e);
+			}
+		}
 	}
 
 }
@@ -9,6 +9,7 @@ import com.aerospike.client.policy.WritePolicy;
 import com.spikeify.*;
 import com.spikeify.annotations.Namespace;
 import com.spikeify.annotations.SetName;
+import com.spikeify.async.WriteWindow;
 
 import java.util.*;
 
@@ -21,6 +22,8 @@ public class MultiKeyUpdater {
 
 	private boolean forceReplace = false;
 
+	private int inFlight = 0;
+
 	/*
 	 * Used internally to create a command chain. Not intended to be used by the user directly.
 	 * Instead use {@link Spikeify#createAll(Key[], Object[])} (Object...)} method.
@@ -219,6 +222,23 @@ public class MultiKeyUpdater {
 		return this;
 	}
 
+	/**
+	 * Sets updater to send writes asynchronously, with at most given number of writes in flight,
+	 * instead of waiting for each write to complete before sending the next one.
+	 * Writes that fail are not rethrown: keys of failed records are mapped to the {@link AerospikeException} in the resulting map.
+	 *
+	 * @param inFlight max number of pending writes
+	 * @return updater
+	 */
+	public MultiKeyUpdater pipelined(int inFlight) {
+
+		if (inFlight <= 0) {
+			throw new SpikeifyError("Error: number of writes in flight must be greater than 0.");
+		}
+		this.inFlight = inFlight;
+		return this;
+	}
+
 	protected void collectKeys() {
 
 		if (namespace == null) {
@@ -272,32 +292,72 @@ public class MultiKeyUpdater {
 
 		Map<Key, Object> result = new HashMap<>(objects.length);
 
-		for (int i = 0; i < objects.length; i++) {
+		WriteWindow window = inFlight > 0 ? new WriteWindow(inFlight) : null;
 
-			Object object = objects[i];
-			Key key = keys.get(i);
+		try {
+			for (int i = 0; i < objects.length; i++) {
 
-			try {
+				Object object = objects[i];
+				Key key = keys.get(i);
 
-				nowInternalSingle(usePolicy, isReplace, result, object, key);
+				try {
 
-			} catch (AerospikeException e) {
-				// Error Code 2: Key not found
-				if (e.getResultCode() == 2) {
-					recordsCache.remove(key);
-					nowInternalSingle(usePolicy, isReplace, result, object, key);
-				}
-				else {
-					throw e;
+					nowInternalSingle(usePolicy, isReplace, result, object, key, window);
+
+				} catch (AerospikeException e) {
+					// Error Code 2: Key not found
+					if (e.getResultCode() == 2) {
+						recordsCache.notFound(key, object);
+						nowInternalSingle(usePolicy, isReplace, result, object, key, window);
+					}
+					else {
+						throw e;
+					}
 				}
+
 			}
 
+			if (window != null) {
+				retryFailed(window.await(), usePolicy, isReplace, result);
+			}
+		} finally {
+			// loads running concurrently with the writes could have cached records as they were before the writes
+			for (Key key : result.keySet()) {
+				recordsCache.written(key);
+			}
 		}
 
 		return result;
 	}
 
-	private void nowInternalSingle(WritePolicy usePolicy, boolean isReplace, Map<Key, Object> result, Object object, Key key) {
+	/**
+	 * Synchronously retries pipelined writes that failed because record was not found,
+	 * other failures are put into the resulting map.
+	 */
+	private void retryFailed(Map<Key, AerospikeException> failures, WritePolicy usePolicy, boolean isReplace, Map<Key, Object> result) {
+
+		for (Map.Entry<Key, AerospikeException> failure : failures.entrySet()) {
+
+			Key key = failure.getKey();
+			AerospikeException e = failure.getValue();
+
+			// Error Code 2: Key not found
+			if (e.getResultCode() == 2) {
+				recordsCache.notFound(key, result.get(key));
+				try {
+					nowInternalSingle(usePolicy, isReplace, result, result.get(key), key, null);
+					continue;
+				} catch (AerospikeException retryException) {
+					e = retryException;
+				}
+			}
+
+			recordsCache.remove(key);
+			result.put(key, e);
+		}
+	}
+
+	private void nowInternalSingle(WritePolicy usePolicy, boolean isReplace, Map<Key, Object> result, Object object, Key key, WriteWindow window) {
 		if (key == null || object == null) {
             throw new SpikeifyError("Error: with multi-put all objects and keys must NOT be null");
         }
@@ -306,34 +366,29 @@ public class MultiKeyUpdater {
 
 		ClassMapper mapper = MapperService.getMapper(object.getClass());
 
-		Map<String, Object> props = mapper.getProperties(object);
-		Set<String> changedProps = recordsCache.update(key, props, forceReplace);
-
-		List<Bin> bins = new ArrayList<>();
-		boolean nonNullField = false;
-		for (String propName : changedProps) {
-			Object value = props.get(propName);
-			if (value == null) {
-				if (!isReplace) {
-					bins.add(Bin.asNull(propName));
-				}
-			} else if (value instanceof List<?>) {
-				bins.add(new Bin(propName, (List) value));
-				nonNullField = true;
-			} else if (value instanceof Map<?, ?>) {
-				bins.add(new Bin(propName, (Map) value));
-				nonNullField = true;
-			} else {
-				bins.add(new Bin(propName, value));
-				nonNullField = true;
-			}
+		if (isReplace && !mapper.isReplaceable()) {
+			// bins of null fields are deleted instead, so that index counters are kept
+			usePolicy = new WritePolicy(usePolicy);
+			usePolicy.recordExistsAction = RecordExistsAction.UPDATE;
+			isReplace = false;
 		}
 
-		if (!nonNullField && props.size() == changedProps.size()) {
+		RecordValues props = mapper.getRecordValues(object);
+		recordsCache.update(key, props, forceReplace, object);
+
+		Bin[] bins = props.getChangedBins(isReplace);
+		boolean nonNullField = props.hasChangedValues();
+
+		if (!nonNullField && props.size() == props.getChangedCount()) {
 			throw new SpikeifyError("Error: cannot create object with no writable properties. " +
 					"At least one object property other then UserKey must be different from NULL.");
 		}
 
+		// pending writes hold on to their policy
+		if (window != null) {
+			usePolicy = new WritePolicy(usePolicy);
+		}
+
 		// if both TTL and Expires is defined TTL is preferred
 		Long ttl = mapper.getRecordTtl(object);
 		Integer recordExpiration = ttl != null ? Integer.valueOf(ttl.intValue()) : mapper.getRecordExpiration(object);
@@ -343,12 +398,20 @@ public class MultiKeyUpdater {
 
         // if we are updating an existing record and no bins are to be updated,
 		// then just touch the entity to update expiry timestamp
-		if (!create && bins.isEmpty()) {
+		if (!create && bins.length == 0) {
 			if(recordExpiration != null){
-				asynClient.touch(usePolicy, key);
+				if (window == null) {
+					asynClient.touch(usePolicy, key);
+				} else {
+					window.touch(asynClient, usePolicy, key);
+				}
 			}
 		} else {
-			asynClient.put(usePolicy, key, bins.toArray(new Bin[bins.size()]));
+			if (window == null) {
+				asynClient.put(usePolicy, key, bins);
+			} else {
+				window.put(asynClient, usePolicy, key, bins);
+			}
 		}
 
 		// set LDT fields
@@ -1,15 +1,23 @@
 package com.spikeify.commands;
 
+import com.aerospike.client.AerospikeException;
 import com.aerospike.client.IAerospikeClient;
 import com.aerospike.client.Key;
 import com.aerospike.client.Record;
 import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.RecordArrayListener;
 import com.aerospike.client.policy.BatchPolicy;
 import com.spikeify.*;
 import com.spikeify.annotations.Namespace;
 import com.spikeify.annotations.SetName;
+import com.spikeify.async.ChunkedBatch;
+import com.spikeify.async.DirectExecutor;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * A command chain for getting multiple records from database.
@@ -68,6 +76,9 @@ public class MultiLoader<T, K> {
 	protected final RecordsCache recordsCache;
 
 	protected BatchPolicy overridePolicy;
+	protected String[] binNames;
+	protected int chunkSize = ChunkedBatch.MAX_BATCH_SIZE;
+	protected int concurrentChunks = ChunkedBatch.DEFAULT_CONCURRENCY;
 
 	protected final ClassMapper<T> mapper;
 
@@ -97,6 +108,43 @@ public class MultiLoader<T, K> {
 		return this;
 	}
 
+	/**
+	 * Loads only given fields, other fields of the objects are left unset.
+	 * A later update of such objects does not remove bins of fields that were not loaded, unless they are set.
+	 * If a record is no longer tracked by the records cache, the update fails with {@link SpikeifyError}.
+	 *
+	 * @param fieldNames names of fields to be loaded
+	 */
+	public MultiLoader<T, K> fields(String... fieldNames) {
+
+		if (fieldNames == null || fieldNames.length == 0) {
+			throw new SpikeifyError("Error: at least one field name must be given.");
+		}
+		this.binNames = mapper.getBinNames(fieldNames);
+		return this;
+	}
+
+	/**
+	 * Sets how batches with many keys are split: synchronous loads of more keys than chunk size
+	 * are executed as multiple batch commands, up to given number in parallel.
+	 * By default chunks are of max size accepted by server (5000 keys), 4 loaded in parallel.
+	 *
+	 * @param chunkSize        max number of keys in a single batch command
+	 * @param concurrentChunks max number of batch commands executed in parallel
+	 */
+	public MultiLoader<T, K> chunks(int chunkSize, int concurrentChunks) {
+
+		if (chunkSize <= 0 || chunkSize > ChunkedBatch.MAX_BATCH_SIZE) {
+			throw new SpikeifyError("Error: chunk size must be between 1 and " + ChunkedBatch.MAX_BATCH_SIZE + ".");
+		}
+		if (concurrentChunks <= 0) {
+			throw new SpikeifyError("Error: number of concurrent chunks must be greater than 0.");
+		}
+		this.chunkSize = chunkSize;
+		this.concurrentChunks = concurrentChunks;
+		return this;
+	}
+
 	/**
 	 * Sets the {@link BatchPolicy} to be used when getting the record from the database.
 	 * Internally the 'sendKey' property of the policy will always be set to true.
@@ -148,6 +196,7 @@ public class MultiLoader<T, K> {
 
 	/**
 	 * Synchronously executes multiple get commands.
+	 * Any number of keys can be loaded, big batches are split in chunks, see {@link #chunks(int, int)}.
 	 *
 	 * @return The map of Keys and Java objects mapped from records
 	 */
@@ -155,16 +204,147 @@ public class MultiLoader<T, K> {
 
 		collectKeys();
 
+		Key[] keysArray = keys.toArray(new Key[keys.size()]);
+		Record[] records = load(keysArray);
+
+		return map(keysArray, records);
+	}
+
+	/**
+	 * Asynchronously executes multiple get commands. Records are mapped on the async client's listener thread.
+	 *
+	 * @return The future of map of Keys and Java objects mapped from records
+	 */
+	public ListenableFuture<Map<K, T>> async() {
+
+		return async(DirectExecutor.INSTANCE);
+	}
+
+	/**
+	 * Asynchronously executes multiple get commands.
+	 *
+	 * @param executor executor records are mapped on
+	 * @return The future of map of Keys and Java objects mapped from records
+	 */
+	public ListenableFuture<Map<K, T>> async(final Executor executor) {
+
+		collectKeys();
+
 		if (keys.size() > 5000) {
-			throw new SpikeifyError("Cannot request more then 5000 keys in single batch request. Check out: https://www.aerospike.com/docs/guide/batch.html");
+			throw new SpikeifyError("Cannot request more then 5000 keys in single asynchronous batch request, use now() to load keys in chunks. Check out: https://www.aerospike.com/docs/guide/batch.html");
+		}
+
+		final SettableFuture<Map<K, T>> future = new SettableFuture<>();
+		final Key[] keysArray = keys.toArray(new Key[keys.size()]);
+
+		// cached records needing revalidation are loaded again, revalidation would block
+		final NearCache nearCache = recordsCache.getNearCache();
+		final Record[] records = binNames == null ? nearCache.getAll(type, keysArray, null, null) : new Record[keysArray.length];
+		final Key[] missing = missingKeys(keysArray, records);
+
+		if (missing.length == 0) {
+			future.setFrom(executor, new Callable<Map<K, T>>() {
+				@Override
+				public Map<K, T> call() {
+					return map(keysArray, records);
+				}
+			});
+			return future;
+		}
+
+		final long[] stamps = stamps(nearCache, missing);
+		RecordArrayListener listener = new RecordArrayListener() {
+			@Override
+			public void onSuccess(Key[] loadedKeys, final Record[] loaded) {
+				merge(nearCache, stamps, keysArray, records, missing, loaded);
+				future.setFrom(executor, new Callable<Map<K, T>>() {
+					@Override
+					public Map<K, T> call() {
+						return map(keysArray, records);
+					}
+				});
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				future.setException(exception);
+			}
+		};
+
+		if (binNames == null) {
+			asynClient.get(getPolicy(), listener, missing);
+		} else {
+			asynClient.get(getPolicy(), listener, missing, binNames);
 		}
 
+		return future;
+	}
+
+	/**
+	 * Loads records, cached records are taken from near cache and only the rest is loaded from database.
+	 */
+	private Record[] load(Key[] keysArray) {
+
 		BatchPolicy usePolicy = getPolicy();
+		ChunkedBatch batch = new ChunkedBatch(asynClient, usePolicy, chunkSize, concurrentChunks);
+		if (binNames != null) {
+			return batch.get(keysArray, binNames);
+		}
 
-		Key[] keysArray = keys.toArray(new Key[keys.size()]);
-		Record[] records = asynClient.get(usePolicy, keysArray);
+		NearCache nearCache = recordsCache.getNearCache();
+		if (!nearCache.isEnabled(type)) {
+			return batch.get(keysArray);
+		}
+
+		Record[] records = nearCache.getAll(type, keysArray, asynClient, usePolicy);
+		Key[] missing = missingKeys(keysArray, records);
+		if (missing.length == 0) {
+			return records;
+		}
+
+		long[] stamps = stamps(nearCache, missing);
+		Record[] loaded = batch.get(missing);
+		merge(nearCache, stamps, keysArray, records, missing, loaded);
+		return records;
+	}
+
+	private static Key[] missingKeys(Key[] keysArray, Record[] records) {
+		List<Key> missing = new ArrayList<>();
+		for (int i = 0; i < keysArray.length; i++) {
+			if (records[i] == null) {
+				missing.add(keysArray[i]);
+			}
+		}
+		return missing.toArray(new Key[missing.size()]);
+	}
 
-		Map<K, T> result = new HashMap<>(keys.size());
+	private static long[] stamps(NearCache nearCache, Key[] missing) {
+		long[] stamps = new long[missing.length];
+		for (int i = 0; i < missing.length; i++) {
+			stamps[i] = nearCache.stamp(missing[i]);
+		}
+		return stamps;
+	}
+
+	/**
+	 * Fills loaded records into places of missing records and caches them.
+	 */
+	private void merge(NearCache nearCache, long[] stamps, Key[] keysArray, Record[] records, Key[] missing, Record[] loaded) {
+		int next = 0;
+		for (int i = 0; i < keysArray.length && next < missing.length; i++) {
+			if (records[i] == null) {
+				records[i] = loaded[next];
+				if (binNames == null) {
+					nearCache.put(type, missing[next], loaded[next], stamps[next]);
+				}
+				next++;
+			}
+		}
+	}
+
+	private Map<K, T> map(Key[] keysArray, Record[] records) {
+
+		Map<K, T> result = new HashMap<>(keysArray.length);
 
 		Record record;
 		for (int i = 0; i < records.length; i++) {
@@ -176,25 +356,14 @@ public class MultiLoader<T, K> {
 				T object = classConstructor.construct(type);
 
 				// save record hash into cache - used later for differential updating
-				recordsCache.insert(key, record.bins);
+				recordsCache.insert(key, mapper, record.bins, binNames, object);
 
 				MapperService.map(mapper, key, record, object);
 
 				// set LDT wrappers
 				mapper.setBigDatatypeFields(object, asynClient, key);
 
-				switch (keyType) {
-					case KEY:
-						result.put((K) key, object);
-						break;
-					case LONG:
-						Long longKey = key.userKey.toLong();
-						result.put((K) longKey, object);
-						break;
-					case STRING:
-						result.put((K) key.userKey.toString(), object);
-						break;
-				}
+				result.put(resultKey(key), object);
 			}
 		}
 
@@ -202,22 +371,53 @@ public class MultiLoader<T, K> {
 	}
 
 	/**
-	 * Generic method to convert iterator to list
+	 * @return key as given to this loader: Key, Long or String user key
+	 */
+	@SuppressWarnings("unchecked")
+	private K resultKey(Key key) {
+		switch (keyType) {
+			case LONG:
+				return (K) (Long) key.userKey.toLong();
+			case STRING:
+				return (K) key.userKey.toString();
+			default:
+				return (K) key;
+		}
+	}
+
+	/**
+	 * Synchronously reads only metadata of records (generation and expiration), without transferring bins.
+	 * Keys are read in chunks, see {@link #chunks(int, int)}.
 	 *
-	 * @return list of values or empty list if none present
+	 * @return The map of keys and record headers, records not found are not included
 	 */
-	public List<T> toList() {
+	public Map<K, RecordHeader> headers() {
 
 		collectKeys();
 
-		if (keys.size() > 5000) {
-			throw new SpikeifyError("Cannot request more then 5000 keys in single batch request. Check out: https://www.aerospike.com/docs/guide/batch.html");
+		Key[] keysArray = keys.toArray(new Key[keys.size()]);
+		Record[] records = new ChunkedBatch(asynClient, getPolicy(), chunkSize, concurrentChunks).getHeaders(keysArray);
+
+		Map<K, RecordHeader> result = new HashMap<>(keysArray.length);
+		for (int i = 0; i < records.length; i++) {
+			if (records[i] != null) {
+				result.put(resultKey(keysArray[i]), new RecordHeader(records[i]));
+			}
 		}
+		return result;
+	}
 
-		BatchPolicy usePolicy = getPolicy();
+	/**
+	 * Generic method to convert iterator to list
+	 *
+	 * @return list of values or empty list if none present
+	 */
+	public List<T> toList() {
+
+		collectKeys();
 
 		Key[] keysArray = keys.toArray(new Key[keys.size()]);
-		Record[] records = asynClient.get(usePolicy, keysArray);
+		Record[] records = load(keysArray);
 
 		List<T> result = new ArrayList<>(keys.size());
 
@@ -231,7 +431,7 @@ public class MultiLoader<T, K> {
 				T object = classConstructor.construct(type);
 
 				// save record hash into cache - used later for differential updating
-				recordsCache.insert(key, record.bins);
+				recordsCache.insert(key, mapper, record.bins, binNames, object);
 
 				MapperService.map(mapper, key, record, object);
 
@@ -1,15 +1,20 @@
 package com.spikeify.commands;
 
+import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
 import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.DeleteListener;
 import com.aerospike.client.policy.WritePolicy;
 import com.spikeify.MapperService;
 import com.spikeify.ObjectMetadata;
 import com.spikeify.RecordsCache;
 import com.spikeify.Spikeify;
+import com.spikeify.async.MultiDeleteFuture;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A command chain for deleting multiple objects from database.
@@ -84,10 +89,78 @@ public class MultiObjectDeleter<T> {
 		for (T obj : data.keySet()) {
 			Key key = data.get(obj);
 			recordsCache.remove(key);
-			result.put(obj, asynClient.delete(getPolicy(), key));
+			try {
+				result.put(obj, asynClient.delete(getPolicy(), key));
+			} finally {
+				recordsCache.written(key);
+			}
 		}
 
 		return result;
 	}
 
+	/**
+	 * Asynchronously executes multiple delete commands.
+	 * Deletes are issued on calling thread, the returned future is completed by delete listeners.
+	 *
+	 * @return The {code Future} which you can use to check when deletion is finished.
+	 * The resulting map of object, Boolean pairs tells whether object existed in the database prior to deletion.
+	 */
+	public MultiDeleteFuture<T> async() {
+
+		MultiDeleteFuture<T> future = prepareAsync();
+		deleteAsync(future, getPolicy());
+		return future;
+	}
+
+	/**
+	 * Asynchronously executes multiple delete commands.
+	 * Deletes are issued on given executor, the returned future is completed by delete listeners.
+	 * If executor rejects the deletes, the future fails with every delete failed.
+	 *
+	 * @param executor executor to issue deletes on
+	 * @return The {code Future} which you can use to check when deletion is finished.
+	 * The resulting map of object, Boolean pairs tells whether object existed in the database prior to deletion.
+	 */
+	public MultiDeleteFuture<T> async(Executor executor) {
+
+		final MultiDeleteFuture<T> future = prepareAsync();
+		final WritePolicy policy = getPolicy();
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					deleteAsync(future, policy);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			for (T object : data.keySet()) {
+				future.listener(object).onFailure(new AerospikeException(e));
+			}
+		}
+		return future;
+	}
+
+	private MultiDeleteFuture<T> prepareAsync() {
+
+		// cache is cleared on calling thread, as it might be scoped to it
+		for (Key key : data.values()) {
+			recordsCache.remove(key);
+		}
+
+		return new MultiDeleteFuture<>(data.size());
+	}
+
+	private void deleteAsync(MultiDeleteFuture<T> future, WritePolicy policy) {
+
+		for (Map.Entry<T, Key> entry : data.entrySet()) {
+			DeleteListener listener = recordsCache.deleted(entry.getValue(), future.listener(entry.getKey()));
+			try {
+				asynClient.delete(policy, listener, entry.getValue());
+			} catch (AerospikeException e) {
+				listener.onFailure(e);
+			}
+		}
+	}
+
 }
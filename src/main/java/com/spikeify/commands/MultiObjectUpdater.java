@@ -6,8 +6,14 @@ import com.aerospike.client.policy.GenerationPolicy;
 import com.aerospike.client.policy.RecordExistsAction;
 import com.aerospike.client.policy.WritePolicy;
 import com.spikeify.*;
+import com.spikeify.async.DirectExecutor;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
+import com.spikeify.async.WriteWindow;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * A command chain for creating or updating multiple objects in database.
@@ -18,6 +24,7 @@ public class MultiObjectUpdater {
 
 	final Object[] objects;
 	private boolean forceReplace = false;
+	private int inFlight = 0;
 
 	/**
 	 * Used internally to create a command chain. Not intended to be used by the user directly.
@@ -77,6 +84,22 @@ public class MultiObjectUpdater {
 		return this;
 	}
 
+	/**
+	 * Sets updater to send writes asynchronously, with at most given number of writes in flight,
+	 * instead of waiting for each write to complete before sending the next one.
+	 * Writes that fail are not rethrown: keys of failed records are mapped to the {@link AerospikeException} in the resulting map.
+	 *
+	 * @param inFlight max number of pending writes
+	 * @return multi object updater instance
+	 */
+	public MultiObjectUpdater pipelined(int inFlight) {
+		if (inFlight <= 0) {
+			throw new SpikeifyError("Error: number of writes in flight must be greater than 0.");
+		}
+		this.inFlight = inFlight;
+		return this;
+	}
+
 	private WritePolicy getPolicy() {
 		WritePolicy writePolicy = overridePolicy != null ? overridePolicy : new WritePolicy(asynClient.getWritePolicyDefault());
 		// must be set in order for later queries to return record keys
@@ -133,6 +156,152 @@ public class MultiObjectUpdater {
 
 		Map<Key, Object> result = new HashMap<>(objects.length);
 
+		WriteWindow window = inFlight > 0 ? new WriteWindow(inFlight) : null;
+
+		try {
+			writeAll(keys, usePolicy, isReplace, result, window);
+
+			if (window != null) {
+				retryFailed(window.await(), usePolicy, isReplace, result);
+			}
+		} finally {
+			written(result.keySet());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Asynchronously executes multiple create or update commands, the returned future is completed on the async client's listener thread.
+	 * Failed writes are handled as with {@link #pipelined(int)}, if number of writes in flight is not set all writes are sent at once.
+	 *
+	 * @return The future of Map of Key, object pairs.
+	 */
+	public ListenableFuture<Map<Key, Object>> async() {
+		return async(DirectExecutor.INSTANCE);
+	}
+
+	/**
+	 * Asynchronously executes multiple create or update commands.
+	 * Failed writes are handled as with {@link #pipelined(int)}, if number of writes in flight is not set all writes are sent at once.
+	 *
+	 * @param executor executor the returned future is completed on
+	 * @return The future of Map of Key, object pairs.
+	 */
+	public ListenableFuture<Map<Key, Object>> async(final Executor executor) {
+
+		List<Key> keys = collectKeys();
+
+		if (objects.length != keys.size()) {
+			throw new SpikeifyError("Error: with multi-put you need to provide equal number of objects and keys");
+		}
+
+		final WritePolicy usePolicy = getPolicy();
+		final boolean isReplace = usePolicy.recordExistsAction == RecordExistsAction.REPLACE;
+
+		final Map<Key, Object> result = new HashMap<>(objects.length);
+
+		// window of at least one write, so that an empty list of objects completes immediately
+		final WriteWindow window = new WriteWindow(inFlight > 0 ? inFlight : Math.max(1, objects.length));
+
+		writeAll(keys, usePolicy, isReplace, result, window);
+
+		final SettableFuture<Map<Key, Object>> future = new SettableFuture<>();
+		window.whenDone(new Runnable() {
+			@Override
+			public void run() {
+				retryFailedAsync(window.getFailures(), 1, usePolicy, isReplace, result, future, executor);
+			}
+		});
+
+		return future;
+	}
+
+	/**
+	 * Retries failed writes as {@link #retryFailed(Map, WritePolicy, boolean, Map)} does, but asynchronously so that
+	 * the async client's listener thread is never blocked: retried writes are sent at once and once they complete
+	 * their failures are retried again (generated ids at most {@link SingleObjectUpdater#MAX_CREATE_GENERATE_RETRIES} times).
+	 * Future is completed on given executor once there is nothing more to retry.
+	 */
+	private void retryFailedAsync(Map<Key, AerospikeException> failures,
+	                              final int attempt,
+	                              final WritePolicy usePolicy,
+	                              final boolean isReplace,
+	                              final Map<Key, Object> result,
+	                              final SettableFuture<Map<Key, Object>> future,
+	                              final Executor executor) {
+
+		final WriteWindow retries = new WriteWindow(Math.max(1, failures.size()));
+
+		try {
+			for (Map.Entry<Key, AerospikeException> failure : failures.entrySet()) {
+
+				Key key = failure.getKey();
+				AerospikeException e = failure.getValue();
+				Object object = result.get(key);
+
+				recordsCache.remove(key);
+
+				// Error Code 2: Key not found
+				if (e.getResultCode() == 2 && attempt == 1) {
+					recordsCache.notFound(key, object);
+					nowInternalSingle(usePolicy, isReplace, result, object, key, retries);
+					continue;
+				}
+
+				if (e.getResultCode() == ResultCode.KEY_EXISTS_ERROR && create && IdGenerator.shouldGenerateId(object) &&
+						attempt < SingleObjectUpdater.MAX_CREATE_GENERATE_RETRIES) {
+					result.remove(key);
+					IdGenerator.generateId(object);
+					key = SingleObjectUpdater.collectKey(object, namespace);
+					nowInternalSingle(usePolicy, isReplace, result, object, key, retries);
+					continue;
+				}
+
+				result.put(key, e);
+			}
+		} catch (RuntimeException e) {
+			retries.whenDone(new Runnable() {
+				@Override
+				public void run() {
+					written(result.keySet());
+				}
+			});
+			future.setException(e);
+			return;
+		}
+
+		retries.whenDone(new Runnable() {
+			@Override
+			public void run() {
+
+				if (!retries.getFailures().isEmpty()) {
+					retryFailedAsync(retries.getFailures(), attempt + 1, usePolicy, isReplace, result, future, executor);
+					return;
+				}
+
+				future.setFrom(executor, new Callable<Map<Key, Object>>() {
+					@Override
+					public Map<Key, Object> call() {
+						written(result.keySet());
+						return result;
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Loads running concurrently with the writes could have cached records as they were before the writes.
+	 */
+	private void written(Collection<Key> keys) {
+		for (Key key : keys) {
+			recordsCache.written(key);
+		}
+	}
+
+	private void writeAll(List<Key> keys, WritePolicy usePolicy, boolean isReplace, Map<Key, Object> result, WriteWindow window) {
+
 		for (int i = 0; i < objects.length; i++) {
 
 			Object object = objects[i];
@@ -140,13 +309,13 @@ public class MultiObjectUpdater {
 
 			try {
 
-				nowInternalSingle(usePolicy, isReplace, result, object, key);
+				nowInternalSingle(usePolicy, isReplace, result, object, key, window);
 
 			} catch (AerospikeException e) {
 				// Error Code 2: Key not found
 				if (e.getResultCode() == 2) {
-					recordsCache.remove(key);
-					nowInternalSingle(usePolicy, isReplace, result, object, key);
+					recordsCache.notFound(key, object);
+					nowInternalSingle(usePolicy, isReplace, result, object, key, window);
 				}
 				else {
 					throw e;
@@ -154,11 +323,46 @@ public class MultiObjectUpdater {
 			}
 
 		}
+	}
 
-		return result;
+	/**
+	 * Synchronously retries pipelined writes that failed because record was not found or generated id already existed,
+	 * other failures are put into the resulting map.
+	 */
+	private void retryFailed(Map<Key, AerospikeException> failures, WritePolicy usePolicy, boolean isReplace, Map<Key, Object> result) {
+
+		for (Map.Entry<Key, AerospikeException> failure : failures.entrySet()) {
+
+			Key key = failure.getKey();
+			AerospikeException e = failure.getValue();
+			Object object = result.get(key);
+
+			try {
+				// Error Code 2: Key not found
+				if (e.getResultCode() == 2) {
+					recordsCache.notFound(key, object);
+					nowInternalSingle(usePolicy, isReplace, result, object, key, null);
+					continue;
+				}
+
+				if (e.getResultCode() == ResultCode.KEY_EXISTS_ERROR && create && IdGenerator.shouldGenerateId(object)) {
+					recordsCache.remove(key);
+					result.remove(key);
+					IdGenerator.generateId(object);
+					key = SingleObjectUpdater.collectKey(object, namespace);
+					nowInternalSingle(usePolicy, isReplace, result, object, key, null);
+					continue;
+				}
+			} catch (AerospikeException retryException) {
+				e = retryException;
+			}
+
+			recordsCache.remove(key);
+			result.put(key, e);
+		}
 	}
 
-	private void nowInternalSingle(WritePolicy usePolicy, boolean isReplace, Map<Key, Object> result, Object object, Key key) {
+	private void nowInternalSingle(WritePolicy usePolicy, boolean isReplace, Map<Key, Object> result, Object object, Key key, WriteWindow window) {
 
 		if (key == null || object == null) {
 			throw new SpikeifyError("Error: with multi-put all objects and keys must NOT be null");
@@ -168,27 +372,22 @@ public class MultiObjectUpdater {
 
 		ClassMapper mapper = MapperService.getMapper(object.getClass());
 
-		Map<String, Object> props = mapper.getProperties(object);
-		Set<String> changedProps = recordsCache.update(key, props, forceReplace);
+		if (isReplace && !mapper.isReplaceable()) {
+			// bins of null fields are deleted instead, so that index counters are kept
+			usePolicy = new WritePolicy(usePolicy);
+			usePolicy.recordExistsAction = RecordExistsAction.UPDATE;
+			isReplace = false;
+		}
 
-		List<Bin> bins = new ArrayList<>();
-		boolean nonNullField = false;
-		for (String propName : changedProps) {
-			Object value = props.get(propName);
-			if (value == null) {
-				if (!isReplace) {
-					bins.add(Bin.asNull(propName));
-				}
-			} else if (value instanceof List<?>) {
-				bins.add(new Bin(propName, (List) value));
-				nonNullField = true;
-			} else if (value instanceof Map<?, ?>) {
-				bins.add(new Bin(propName, (Map) value));
-				nonNullField = true;
-			} else {
-				bins.add(new Bin(propName, value));
-				nonNullField = true;
-			}
+		RecordValues props = mapper.getRecordValues(object);
+		recordsCache.update(key, props, forceReplace, object);
+
+		Bin[] bins = props.getChangedBins(isReplace);
+		boolean nonNullField = props.hasChangedValues();
+
+		// pending writes hold on to their policy
+		if (window != null) {
+			usePolicy = new WritePolicy(usePolicy);
 		}
 
 		// must be set so that user key can be retrieved in queries
@@ -213,16 +412,16 @@ public class MultiObjectUpdater {
 			}
 		}
 
-		if (!nonNullField && props.size() == changedProps.size()) {
+		if (!nonNullField && props.size() == props.getChangedCount()) {
 			throw new SpikeifyError("Error: cannot create object with no writable properties. " +
 					"At least one object property other then UserKey must be different from NULL.");
 		}
 
-		if (create && IdGenerator.shouldGenerateId(object)) {
+		if (create && IdGenerator.shouldGenerateId(object) && window == null) {
 			// retry 5 times in case same id is generated ...
 			for (int count = 1; count <= SingleObjectUpdater.MAX_CREATE_GENERATE_RETRIES; count++) {
 				try {
-					asynClient.put(usePolicy, key, bins.toArray(new Bin[bins.size()]));
+					asynClient.put(usePolicy, key, bins);
 					break;
 				} catch (AerospikeException e) {
 					// let's retry or not ?
@@ -238,12 +437,21 @@ public class MultiObjectUpdater {
 		} else {
 			// if we are updating an existing record and no bins are to be updated,
 			// then just touch the entity to update expiry timestamp
-			if (!create && bins.isEmpty()) {
+			if (!create && bins.length == 0) {
 				if(recordExpiration != null){
-					asynClient.touch(usePolicy, key);
+					if (window == null) {
+						asynClient.touch(usePolicy, key);
+					} else {
+						window.touch(asynClient, usePolicy, key);
+					}
 				}
 			} else {
-				asynClient.put(usePolicy, key, bins.toArray(new Bin[bins.size()]));
+				if (window == null) {
+					asynClient.put(usePolicy, key, bins);
+				} else {
+					// colliding generated ids are regenerated after all pending writes complete
+					window.put(asynClient, usePolicy, key, bins);
+				}
 			}
 		}
 
@@ -0,0 +1,40 @@
+package com.spikeify.commands;
+
+import java.util.List;
+
+/**
+ * A page of scanned or queried objects, with a cursor to load the next page.
+ *
+ * @param <T> entity type
+ */
+public class Page<T> {
+
+	private final List<T> items;
+	private final String cursor;
+
+	public Page(List<T> items, String cursor) {
+		this.items = items;
+		this.cursor = cursor;
+	}
+
+	/**
+	 * @return objects of this page
+	 */
+	public List<T> getItems() {
+		return items;
+	}
+
+	/**
+	 * @return opaque cursor to load the next page with, null if this is the last page
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * @return true if there are more objects to be loaded
+	 */
+	public boolean hasMore() {
+		return cursor != null;
+	}
+}
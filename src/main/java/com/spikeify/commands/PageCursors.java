@@ -0,0 +1,250 @@
+package com.spikeify.commands;
+
+import com.spikeify.SpikeifyError;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Open cursors of paged scans and queries. A cursor keeps its scan or query running: the scan is paused while
+ * the next page is buffered and resumes where it stopped when the next page is requested, so no record is read twice.
+ * Cursors not used for longer than the idle timeout are closed and their scans stopped by a background daemon thread,
+ * which checks open cursors every {@value #SWEEP_SECONDS} second(s).
+ * <p>
+ * A cursor is not a position: it is valid only in the JVM that loaded the previous page. Each open cursor holds a
+ * paused server scan, so the number of open cursors is limited and the least recently used cursor is closed when
+ * the limit is exceeded. The server may stop a paused scan on its own, in which case requesting the next page fails
+ * with {@link SpikeifyError} and paging must be restarted from the first page.
+ */
+public class PageCursors {
+
+	private static final Logger log = Logger.getLogger(PageCursors.class.getSimpleName());
+
+	public static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 60;
+
+	public static final int DEFAULT_MAX_OPEN_CURSORS = 100;
+
+	static final long SWEEP_SECONDS = 1;
+
+	private static final ConcurrentMap<String, Cursor> cursors = new ConcurrentHashMap<>();
+	private static volatile long idleTimeoutNanos = TimeUnit.SECONDS.toNanos(DEFAULT_IDLE_TIMEOUT_SECONDS);
+	private static volatile int maxOpenCursors = DEFAULT_MAX_OPEN_CURSORS;
+
+	private static ScheduledExecutorService sweeper;
+
+	private static class Cursor {
+
+		final Class<?> type;
+		final Iterator<?> iterator;
+		final Closeable closeable;
+		volatile long lastUsed = System.nanoTime();
+
+		Cursor(Class<?> type, Iterator<?> iterator, Closeable closeable) {
+			this.type = type;
+			this.iterator = iterator;
+			this.closeable = closeable;
+		}
+
+		void close() {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+				throw new SpikeifyError(e);
+			}
+		}
+	}
+
+	private PageCursors() {
+	}
+
+	/**
+	 * Sets time after which unused cursors are closed, defaults to {@value #DEFAULT_IDLE_TIMEOUT_SECONDS} seconds.
+	 *
+	 * @param timeout idle timeout
+	 * @param unit    time unit
+	 */
+	public static void setIdleTimeout(long timeout, TimeUnit unit) {
+		if (timeout <= 0) {
+			throw new IllegalArgumentException("Idle timeout must be greater than 0.");
+		}
+		idleTimeoutNanos = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Sets max number of open cursors, defaults to {@value #DEFAULT_MAX_OPEN_CURSORS}.
+	 * When exceeded, the least recently used cursor is closed.
+	 *
+	 * @param max max number of open cursors
+	 */
+	public static void setMaxOpenCursors(int max) {
+		if (max <= 0) {
+			throw new IllegalArgumentException("Max open cursors must be greater than 0.");
+		}
+		maxOpenCursors = max;
+	}
+
+	/**
+	 * Used internally to read the first page of a running scan or query. Not intended to be used by the user directly.
+	 *
+	 * @param type      entity type
+	 * @param iterator  iterator over scanned objects
+	 * @param closeable stops the scan
+	 * @param pageSize  max number of objects in page
+	 * @return first page, with a cursor if there are more objects
+	 */
+	public static <T> Page<T> first(Class<T> type, Iterator<T> iterator, Closeable closeable, int pageSize) {
+		return read(new Cursor(type, iterator, closeable), null, pageSize);
+	}
+
+	/**
+	 * Used internally to read the next page of an open cursor. Not intended to be used by the user directly.
+	 *
+	 * @param type     entity type
+	 * @param cursor   cursor of previous page
+	 * @param pageSize max number of objects in page
+	 * @return next page, with a cursor if there are more objects
+	 */
+	public static <T> Page<T> next(Class<T> type, String cursor, int pageSize) {
+
+		Cursor open = cursors.remove(cursor);
+		if (open == null) {
+			throw new SpikeifyError("Error: cursor '" + cursor + "' is closed or has expired.");
+		}
+		if (!open.type.equals(type)) {
+			open.close();
+			throw new SpikeifyError("Error: cursor '" + cursor + "' does not load entities of type: " + type.getName());
+		}
+		return read(open, cursor, pageSize);
+	}
+
+	/**
+	 * Closes given cursor and stops its scan, if still open.
+	 *
+	 * @param cursor cursor of a page
+	 */
+	public static void close(String cursor) {
+		Cursor open = cursors.remove(cursor);
+		if (open != null) {
+			open.close();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Page<T> read(Cursor cursor, String id, int pageSize) {
+
+		if (pageSize <= 0) {
+			cursor.close();
+			throw new IllegalArgumentException("Page size must be greater than 0.");
+		}
+
+		List<T> items = new ArrayList<>(pageSize);
+		boolean more;
+		try {
+			Iterator<T> iterator = (Iterator<T>) cursor.iterator;
+			while (items.size() < pageSize && iterator.hasNext()) {
+				items.add(iterator.next());
+			}
+			more = iterator.hasNext();
+		}
+		catch (RuntimeException e) {
+			cursor.close();
+			if (id == null) {
+				throw e;
+			}
+			// scan paused by this cursor was stopped, i.e. timed out on the server
+			throw new SpikeifyError("Error: scan of cursor '" + id + "' failed, paging must be restarted from the first page.", e);
+		}
+
+		if (!more) {
+			cursor.close();
+			return new Page<>(items, null);
+		}
+
+		String next = id != null ? id : UUID.randomUUID().toString();
+		cursor.lastUsed = System.nanoTime();
+		cursors.put(next, cursor);
+		evictOverLimit();
+		startSweeper();
+		return new Page<>(items, next);
+	}
+
+	/**
+	 * Closes least recently used cursors while there are more than max open cursors.
+	 */
+	private static void evictOverLimit() {
+
+		while (cursors.size() > maxOpenCursors) {
+
+			Map.Entry<String, Cursor> oldest = null;
+			for (Map.Entry<String, Cursor> entry : cursors.entrySet()) {
+				if (oldest == null || entry.getValue().lastUsed - oldest.getValue().lastUsed < 0) {
+					oldest = entry;
+				}
+			}
+
+			if (oldest != null && cursors.remove(oldest.getKey(), oldest.getValue())) {
+				closeQuietly(oldest.getKey(), oldest.getValue());
+			}
+		}
+	}
+
+	private static void closeQuietly(String id, Cursor cursor) {
+		try {
+			cursor.close();
+		}
+		catch (RuntimeException e) {
+			log.log(Level.WARNING, "Failed to close cursor: " + id, e);
+		}
+	}
+
+	private static synchronized void startSweeper() {
+
+		if (sweeper != null) {
+			return;
+		}
+
+		sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "spikeify-page-cursors");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		sweeper.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				expire();
+			}
+		}, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Closes cursors idle for longer than the idle timeout.
+	 */
+	static void expire() {
+
+		long now = System.nanoTime();
+		for (Map.Entry<String, Cursor> entry : cursors.entrySet()) {
+			if (now - entry.getValue().lastUsed > idleTimeoutNanos && cursors.remove(entry.getKey(), entry.getValue())) {
+				// keep sweeping, a failure would cancel the scheduled task
+				closeQuietly(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.spikeify.commands;
+
+import com.spikeify.SpikeifyError;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterator over entities loaded by a running scan or query, see {@link ScanLoader#iterator(int)} and {@link com.spikeify.Scanner#parallel(int, int)}.
+ * Entities are buffered in a bounded queue: when the buffer is full scan threads wait until entities are consumed.
+ * Iterator must be closed if not iterated to the end, so the scan is stopped.
+ *
+ * @param <T> entity type
+ */
+public class ScanIterator<T> implements Iterator<T>, Closeable {
+
+	private static final Object END = new Object();
+
+	private final BlockingQueue<Object> queue;
+
+	private volatile boolean closed;
+	private volatile RuntimeException failure;
+
+	private Object next;
+
+	/**
+	 * Used internally to create an iterator. Not intended to be used by the user directly.
+	 *
+	 * @param bufferSize max number of loaded entities waiting to be iterated
+	 */
+	public ScanIterator(int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be greater than 0.");
+		}
+		this.queue = new ArrayBlockingQueue<>(bufferSize);
+	}
+
+	/**
+	 * Used internally to add a loaded entity, waits while buffer is full. Not intended to be used by the user directly.
+	 *
+	 * @return false if iterator was closed and scan should stop
+	 */
+	public boolean offer(T item) {
+		return put(item);
+	}
+
+	/**
+	 * Used internally to mark end of scan. Not intended to be used by the user directly.
+	 *
+	 * @param exception reason scan failed, or null
+	 */
+	public void finish(RuntimeException exception) {
+		failure = exception;
+		put(END);
+	}
+
+	private boolean put(Object item) {
+		try {
+			while (!closed) {
+				if (queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		if (next == null) {
+			if (closed) {
+				return false;
+			}
+			try {
+				next = queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SpikeifyError("Interrupted while waiting for scanned records.");
+			}
+		}
+
+		if (next == END) {
+			if (failure != null) {
+				throw failure;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T next() {
+
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		T item = (T) next;
+		next = null;
+		return item;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Stops the scan and discards buffered entities.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		queue.clear();
+	}
+}
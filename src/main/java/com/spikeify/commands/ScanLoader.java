@@ -2,13 +2,29 @@ package com.spikeify.commands;
 
 import com.aerospike.client.*;
 import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.RecordSequenceListener;
 import com.aerospike.client.policy.ScanPolicy;
 import com.spikeify.*;
 import com.spikeify.annotations.Namespace;
+import com.spikeify.async.DirectExecutor;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A command chain for getting all records from database.
@@ -17,6 +33,26 @@ import java.util.List;
  */
 public class ScanLoader<T> {
 
+	/**
+	 * Max number of threads of the default executor, scans are rejected when all of them are busy.
+	 */
+	static final int SHARED_EXECUTOR_MAX_THREADS = 256;
+
+	/**
+	 * Default executor of background scans shared by all iterators: threads are reused and terminated when idle.
+	 * Scans are never queued, a scan fails with {@link SpikeifyError} when there are more than
+	 * {@value #SHARED_EXECUTOR_MAX_THREADS} running scans.
+	 */
+	static final ExecutorService SHARED_EXECUTOR = new ThreadPoolExecutor(0, SHARED_EXECUTOR_MAX_THREADS, 60L, TimeUnit.SECONDS,
+			new SynchronousQueue<Runnable>(), new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "spikeify-scan");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
 	public ScanLoader(Class<T> type,
 	                  IAsyncClient asynClient,
 	                  ClassConstructor classConstructor,
@@ -47,10 +83,12 @@ public class ScanLoader<T> {
 
 	protected ScanPolicy overridePolicy;
 	protected long maxRecords;
+	protected String[] binNames;
 
 	protected final ClassMapper<T> mapper;
 	protected final Class<T> type;
 	private AcceptFilter<T> acceptFilter;
+	private RecordFilter recordFilter;
 
 	/**
 	 * Sets the Namespace. Overrides the default namespace and the namespace defined on the Class via {@link Namespace} annotation.
@@ -97,12 +135,46 @@ public class ScanLoader<T> {
 		return this;
 	}
 
+	/**
+	 * Loads only given fields, other fields of the objects are left unset.
+	 * A later update of such objects does not remove bins of fields that were not loaded, unless they are set.
+	 * If a record is no longer tracked by the records cache, the update fails with {@link SpikeifyError}.
+	 *
+	 * @param fieldNames names of fields to be loaded
+	 */
+	public ScanLoader<T> fields(String... fieldNames) {
+
+		if (fieldNames == null || fieldNames.length == 0) {
+			throw new SpikeifyError("Error: at least one field name must be given.");
+		}
+		this.binNames = mapper.getBinNames(fieldNames);
+		return this;
+	}
+
+	/**
+	 * Sets a filter of mapped Java objects. Prefer {@link #filterRecords(RecordFilter)} where possible,
+	 * as records are mapped before this filter is consulted.
+	 *
+	 * @param filter filter of loaded objects
+	 */
 	public ScanLoader<T> filter(AcceptFilter<T> filter) {
 
 		acceptFilter = filter;
 		return this;
 	}
 
+	/**
+	 * Sets a filter of raw records (key, bins, generation and expiration), consulted before records are mapped.
+	 * Rejected records are not mapped nor stored into records cache. Filter also applies to {@link #keys()}.
+	 *
+	 * @param filter filter of scanned records
+	 */
+	public ScanLoader<T> filterRecords(RecordFilter filter) {
+
+		recordFilter = filter;
+		return this;
+	}
+
 	protected String getNamespace() {
 
 		String useNamespace = namespace != null ? namespace : mapper.getNamespace();
@@ -124,49 +196,316 @@ public class ScanLoader<T> {
 	 */
 	public List<T> now() {
 
-		final List<T> list = Collections.synchronizedList(new ArrayList<T>());
+		final Queue<T> loaded = new ConcurrentLinkedQueue<>();
+
+		forEach(new EntityConsumer<T>() {
+			@Override
+			public boolean consume(T item) {
+				loaded.add(item);
+				return true;
+			}
+		});
+
+		return new ArrayList<>(loaded);
+	}
+
+	/**
+	 * Synchronously scans all records, passing Java objects mapped from records to given consumer as they are loaded.
+	 * Records are mapped on scan threads, so the consumer might be called concurrently.
+	 * Scan stops when the maximum number of records is reached or when the consumer returns false.
+	 *
+	 * @param consumer consumer of loaded objects
+	 */
+	public void forEach(EntityConsumer<? super T> consumer) {
+
+		ScanPolicy policy = overridePolicy != null ? overridePolicy : copyScanPolicy(asynClient.getScanPolicyDefault());
+
+		scan(policy, getNamespace(), getSetName(), new EntitySink(consumer));
+	}
+
+	/**
+	 * Starts scanning all records in background and returns an iterator over Java objects mapped from records.
+	 * Loaded objects are buffered, scan waits while the buffer is full.
+	 * Scan runs on a bounded pool shared by all scans, see {@link #iterator(int, Executor)}.
+	 * Iterator must be closed if not iterated to the end.
+	 *
+	 * @param bufferSize max number of loaded objects waiting to be iterated
+	 * @return iterator over loaded objects
+	 */
+	public ScanIterator<T> iterator(int bufferSize) {
+		return iterator(bufferSize, null);
+	}
+
+	/**
+	 * Starts scanning all records in background on given executor and returns an iterator over Java objects mapped from records.
+	 * Loaded objects are buffered, scan waits while the buffer is full and occupies an executor thread until it completes
+	 * or the iterator is closed. Iterator must be closed if not iterated to the end.
+	 *
+	 * @param bufferSize max number of loaded objects waiting to be iterated
+	 * @param executor   executor running the scan, null for a pool shared by all scans
+	 * @return iterator over loaded objects
+	 */
+	public ScanIterator<T> iterator(int bufferSize, Executor executor) {
+
+		final ScanIterator<T> iterator = new ScanIterator<>(bufferSize);
+
+		final ScanPolicy policy = overridePolicy != null ? overridePolicy : copyScanPolicy(asynClient.getScanPolicyDefault());
+		final String useNamespace = getNamespace();
+		final String useSetName = getSetName();
+		final EntitySink sink = new EntitySink(new EntityConsumer<T>() {
+			@Override
+			public boolean consume(T item) {
+				return iterator.offer(item);
+			}
+		});
+
+		Runnable scanner = new Runnable() {
+			@Override
+			public void run() {
+				RuntimeException failure = null;
+				try {
+					scan(policy, useNamespace, useSetName, sink);
+				} catch (RuntimeException e) {
+					failure = e;
+				}
+				iterator.finish(failure);
+			}
+		};
 
 		try {
+			(executor != null ? executor : SHARED_EXECUTOR).execute(scanner);
+		}
+		catch (RejectedExecutionException e) {
+			throw new SpikeifyError("Scan was rejected by executor.", e);
+		}
 
-			ScanPolicy policy = overridePolicy != null ? overridePolicy : copyScanPolicy(asynClient.getScanPolicyDefault());
+		return iterator;
+	}
 
-			asynClient.scanAll(policy, getNamespace(), getSetName(), new ScanCallback() {
-				@Override
-				public void scanCallback(Key key, Record record) throws AerospikeException {
+	/**
+	 * Loads a page of objects. The first page starts the scan, which then waits in background until the next page
+	 * is requested with the returned cursor and continues where it stopped, so records are not read again.
+	 * When continuing with a cursor, settings of this command chain are ignored.
+	 * Cursors are valid only in this JVM. Cursors left open are closed after {@link PageCursors#setIdleTimeout(long, java.util.concurrent.TimeUnit) idle timeout}
+	 * or when there are more than {@link PageCursors#setMaxOpenCursors(int) max open cursors}, or can be closed with {@link PageCursors#close(String)}.
+	 *
+	 * @param cursor   cursor of previous page, or null to load the first page
+	 * @param pageSize max number of objects in page
+	 * @return loaded objects and cursor of next page
+	 */
+	public Page<T> page(String cursor, int pageSize) {
 
-					T object = classConstructor.construct(type);
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be greater than 0.");
+		}
 
-					recordsCache.insert(key, record.bins);
+		if (cursor != null) {
+			return PageCursors.next(type, cursor, pageSize);
+		}
+
+		ScanIterator<T> iterator = iterator(pageSize);
+		return PageCursors.first(type, iterator, iterator, pageSize);
+	}
 
-					MapperService.map(mapper, key, record, object);
+	private void scan(ScanPolicy policy, String useNamespace, String useSetName, EntitySink sink) {
 
-					// set LDT fields
-					mapper.setBigDatatypeFields(object, asynClient, key);
+		try {
+			asynClient.scanAll(policy, useNamespace, useSetName, sink, getBinNames());
+		} catch (AerospikeException.ScanTerminated e) {
+			// scan can only be stopped by throwing from callback, propagate if it was not stopped by us
+			if (!sink.terminated) {
+				throw e;
+			}
+		}
+	}
 
-					// if filter is given then check if item fits, otherwise simple add
-					boolean add = (acceptFilter == null || acceptFilter.accept(object));
+	/**
+	 * Maps, filters and counts scanned records on scan threads, without locking.
+	 */
+	private class EntitySink implements ScanCallback {
+
+		private final EntityConsumer<? super T> consumer;
+		private final AtomicLong accepted = new AtomicLong();
+		private volatile boolean terminated;
+
+		EntitySink(EntityConsumer<? super T> consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void scanCallback(Key key, Record record) throws AerospikeException {
+
+			if (terminated) {
+				throw new AerospikeException.ScanTerminated();
+			}
+
+			// rejected records are not mapped
+			if (recordFilter != null && !recordFilter.accept(key, record)) {
+				return;
+			}
 
-					if (add) {
-						// save record hash into cache - used later for differential updating
+			T object = map(key, record);
 
+			// if filter is given then check if item fits
+			if (acceptFilter != null && !acceptFilter.accept(object)) {
+				return;
+			}
+
+			long count = maxRecords > 0 ? accepted.incrementAndGet() : 0;
+			if (maxRecords > 0 && count > maxRecords) {
+				terminate();  // other scan thread already loaded enough
+			}
+
+			if (!consumer.consume(object) || (maxRecords > 0 && count == maxRecords)) {
+				terminate();
+			}
+		}
+
+		private void terminate() {
+			terminated = true;
+			throw new AerospikeException.ScanTerminated();
+		}
+	}
+
+	/**
+	 * Asynchronously scans all records. Records are mapped on the async client's listener thread as they arrive,
+	 * so only accepted objects are kept in memory and scan is terminated early once maximum number of objects is accepted.
+	 *
+	 * @return The future of list of Java objects mapped from records
+	 */
+	public ListenableFuture<List<T>> async() {
+
+		return async(DirectExecutor.INSTANCE);
+	}
+
+	/**
+	 * Asynchronously scans all records. Records are mapped on given executor once scan completes,
+	 * so all raw records passing the record filter are buffered until then: use {@link #iterator(int)}
+	 * or {@link #page(String, int)} for large scans. Scan is terminated early when maximum number of records is reached,
+	 * unless a filter is set. If given executor is {@link DirectExecutor} records are mapped as they arrive, see {@link #async()}.
+	 *
+	 * @param executor executor records are mapped on
+	 * @return The future of list of Java objects mapped from records
+	 */
+	public ListenableFuture<List<T>> async(final Executor executor) {
+
+		// listener thread is used anyway, no need to buffer raw records
+		final boolean mapNow = executor == DirectExecutor.INSTANCE;
+
+		final List<Key> keys = Collections.synchronizedList(new ArrayList<Key>());
+		final List<Record> records = Collections.synchronizedList(new ArrayList<Record>());
+		final List<T> mapped = new ArrayList<>();
+		final SettableFuture<List<T>> future = new SettableFuture<>();
+
+		final Callable<List<T>> mapAll = new Callable<List<T>>() {
+			@Override
+			public List<T> call() {
+
+				if (mapNow) {
+					synchronized (mapped) {
+						// other scan threads could have added objects before scan was terminated
+						return new ArrayList<>(maxRecords > 0 && mapped.size() > maxRecords ? mapped.subList(0, (int) maxRecords) : mapped);
+					}
+				}
+
+				List<T> list = new ArrayList<>(records.size());
+				for (int i = 0; i < records.size(); i++) {
+
+					T object = map(keys.get(i), records.get(i));
+
+					if (acceptFilter == null || acceptFilter.accept(object)) {
 						list.add(object);
 
 						if (maxRecords > 0 && list.size() >= maxRecords) {
+							break;
+						}
+					}
+				}
+				return list;
+			}
+		};
+
+		ScanPolicy policy = overridePolicy != null ? overridePolicy : copyScanPolicy(asynClient.getScanPolicyDefault());
+
+		asynClient.scanAll(policy, new RecordSequenceListener() {
+
+			private volatile boolean terminated;
+
+			@Override
+			public void onRecord(Key key, Record record) throws AerospikeException {
+
+				if (recordFilter != null && !recordFilter.accept(key, record)) {
+					return;
+				}
+
+				if (mapNow) {
+					T object = map(key, record);
+					if (acceptFilter != null && !acceptFilter.accept(object)) {
+						return;
+					}
+
+					synchronized (mapped) {
+						mapped.add(object);
+
+						if (maxRecords > 0 && mapped.size() >= maxRecords) {
 							// quit scanning if we have enough
+							terminated = true;
 							throw new AerospikeException.ScanTerminated();
 						}
 					}
+					return;
+				}
+
+				synchronized (records) {
+					keys.add(key);
+					records.add(record);
+
+					if (acceptFilter == null && maxRecords > 0 && records.size() >= maxRecords) {
+						// quit scanning if we have enough
+						terminated = true;
+						throw new AerospikeException.ScanTerminated();
+					}
 				}
-			});
-		} catch (AerospikeException.ScanTerminated e) {
-			// this is not the best way to do this ...
-			// check if exception was thrown from ScanLoader ... if not propagate
-			if (list.size() < maxRecords) {
-				throw e;
 			}
-		}
 
-		return list;
+			@Override
+			public void onSuccess() {
+				future.setFrom(executor, mapAll);
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				if (terminated) {
+					future.setFrom(executor, mapAll);
+				} else {
+					future.setException(exception);
+				}
+			}
+		}, getNamespace(), getSetName(), getBinNames());
+
+		return future;
+	}
+
+	private T map(Key key, Record record) {
+
+		T object = classConstructor.construct(type);
+
+		// save record hash into cache - used later for differential updating
+		recordsCache.insert(key, mapper, record.bins, binNames, object);
+
+		MapperService.map(mapper, key, record, object);
+
+		// set LDT fields
+		mapper.setBigDatatypeFields(object, asynClient, key);
+
+		return object;
+	}
+
+	/**
+	 * @return names of bins to be scanned, empty to scan all bins
+	 */
+	private String[] getBinNames() {
+		return binNames != null ? binNames : new String[0];
 	}
 
 	private ScanPolicy copyScanPolicy(ScanPolicy original) {
@@ -183,20 +522,23 @@ public class ScanLoader<T> {
 
 	private ScanPolicy getPolicy(){
 		ScanPolicy policy = overridePolicy != null ? overridePolicy : copyScanPolicy(asynClient.getScanPolicyDefault());
-		// make sure only keys get retrieved
-		policy.includeBinData = false;
+		// make sure only keys get retrieved, unless bins are needed by record filter
+		policy.includeBinData = recordFilter != null;
 		policy.includeLDT = false;
 		return policy;
 	}
 
 	/**
 	 * Synchronously executes multiple get commands.
+	 * If a record filter is set, only keys of accepted records are returned; records are never mapped.
 	 *
 	 * @return List of record Keys only
 	 */
 	public List<Value> keys() {
 
-		final List<Value> list = Collections.synchronizedList(new ArrayList<Value>());
+		final Queue<Value> list = new ConcurrentLinkedQueue<>();
+		final AtomicLong count = new AtomicLong();
+		final AtomicBoolean terminated = new AtomicBoolean();
 
 		try {
 
@@ -204,23 +546,37 @@ public class ScanLoader<T> {
 				@Override
 				public void scanCallback(Key key, Record record) throws AerospikeException {
 
-					list.add(key.userKey);
+					if (recordFilter != null && !recordFilter.accept(key, record)) {
+						return;
+					}
 
-					if (maxRecords > 0 && list.size() >= maxRecords) {
-						// quit scanning if we have enough
-						throw new AerospikeException.ScanTerminated();
+					if (maxRecords > 0) {
+						long loaded = count.incrementAndGet();
+						if (loaded > maxRecords) {
+							terminated.set(true);
+							throw new AerospikeException.ScanTerminated();
+						}
+
+						list.add(key.userKey);
+
+						if (loaded == maxRecords) {
+							// quit scanning if we have enough
+							terminated.set(true);
+							throw new AerospikeException.ScanTerminated();
+						}
+					} else {
+						list.add(key.userKey);
 					}
 				}
-			});
+			}, recordFilter != null ? getBinNames() : new String[0]);
 		} catch (AerospikeException.ScanTerminated e) {
-			// this is not the best way to do this ...
-			// check if exception was thrown from ScanLoader ... if not propagate
-			if (list.size() < maxRecords) {
+			// scan can only be stopped by throwing from callback, propagate if it was not stopped by us
+			if (!terminated.get()) {
 				throw e;
 			}
 		}
 
-		return list;
+		return new ArrayList<>(list);
 	}
 
 }
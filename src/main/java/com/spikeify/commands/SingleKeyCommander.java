@@ -2,14 +2,20 @@ package com.spikeify.commands;
 
 import com.aerospike.client.*;
 import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.RecordListener;
 import com.aerospike.client.policy.WritePolicy;
 import com.spikeify.*;
 import com.spikeify.annotations.Namespace;
 import com.spikeify.annotations.SetName;
+import com.spikeify.async.DirectExecutor;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * A command chain to execute a series of atomic commands on a single Record.
@@ -279,7 +285,64 @@ public class SingleKeyCommander<T> {
 
 		collectKeys();
 
-		Record rec = asynClient.operate(getPolicy(), key, operations.toArray(new Operation[operations.size()]));
+		Record rec;
+		try {
+			rec = asynClient.operate(getPolicy(), key, operations.toArray(new Operation[operations.size()]));
+		} finally {
+			recordsCache.written(key);
+		}
+
+		return map(rec);
+	}
+
+	/**
+	 * Asynchronously executes a set of atomic commands. Result is mapped on the async client's listener thread.
+	 *
+	 * @return The future of Map of field name, field value if there is a read operation in the set of commands, otherwise of null.
+	 */
+	public ListenableFuture<Map<String, Object>> async() {
+		return async(DirectExecutor.INSTANCE);
+	}
+
+	/**
+	 * Asynchronously executes a set of atomic commands.
+	 *
+	 * @param executor executor result is mapped on
+	 * @return The future of Map of field name, field value if there is a read operation in the set of commands, otherwise of null.
+	 */
+	public ListenableFuture<Map<String, Object>> async(final Executor executor) {
+
+		if (operations.isEmpty()) {
+			throw new SpikeifyError("Error missing command: at least one command method must be called: set(), add(), append(), touch() or prepend()");
+		}
+
+		collectKeys();
+
+		final SettableFuture<Map<String, Object>> future = new SettableFuture<>();
+
+		asynClient.operate(getPolicy(), new RecordListener() {
+			@Override
+			public void onSuccess(Key key, final Record rec) {
+				recordsCache.written(key);
+				future.setFrom(executor, new Callable<Map<String, Object>>() {
+					@Override
+					public Map<String, Object> call() {
+						return map(rec);
+					}
+				});
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				recordsCache.written(key);
+				future.setException(exception);
+			}
+		}, key, operations.toArray(new Operation[operations.size()]));
+
+		return future;
+	}
+
+	private Map<String, Object> map(Record rec) {
 
 		if (rec == null || rec.bins == null) {
 			return null;
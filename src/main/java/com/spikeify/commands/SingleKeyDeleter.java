@@ -1,12 +1,20 @@
 package com.spikeify.commands;
 
+import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
 import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.DeleteListener;
 import com.spikeify.RecordsCache;
 import com.spikeify.Spikeify;
 import com.spikeify.SpikeifyError;
 import com.spikeify.annotations.Namespace;
 import com.spikeify.annotations.SetName;
+import com.spikeify.async.DirectExecutor;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * A command chain for deleting object from database.
@@ -123,7 +131,54 @@ public class SingleKeyDeleter<T> {
 		collectKeys();
 
 		recordsCache.remove(key);
-		return asynClient.delete(null, key);
+		try {
+			return asynClient.delete(null, key);
+		} finally {
+			recordsCache.written(key);
+		}
+	}
+
+	/**
+	 * Asynchronously executes the delete command, the returned future is completed on the async client's listener thread.
+	 *
+	 * @return The future telling whether record existed on server before deletion
+	 */
+	public ListenableFuture<Boolean> async() {
+		return async(DirectExecutor.INSTANCE);
+	}
+
+	/**
+	 * Asynchronously executes the delete command.
+	 *
+	 * @param executor executor the returned future is completed on
+	 * @return The future telling whether record existed on server before deletion
+	 */
+	public ListenableFuture<Boolean> async(final Executor executor) {
+
+		collectKeys();
+
+		recordsCache.remove(key);
+
+		final SettableFuture<Boolean> future = new SettableFuture<>();
+
+		asynClient.delete(null, recordsCache.deleted(key, new DeleteListener() {
+			@Override
+			public void onSuccess(Key key, final boolean existed) {
+				future.setFrom(executor, new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						return existed;
+					}
+				});
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				future.setException(exception);
+			}
+		}), key);
+
+		return future;
 	}
 
 }
@@ -11,14 +11,9 @@ import com.aerospike.client.policy.WritePolicy;
 import com.spikeify.*;
 import com.spikeify.annotations.Namespace;
 import com.spikeify.annotations.SetName;
+import com.spikeify.async.ListenableFuture;
 import com.spikeify.async.WriteListenerFuture;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.Future;
-
 /**
  * A command chain for creating or updating a single object in database.
  * This class is not intended to be instantiated by user.
@@ -142,7 +137,8 @@ public class SingleKeyUpdater<T, K> {
 						"At least one object property other then UserKey must be different from NULL.");
 			}
 		} else {
-			if (forceReplace) {
+			// bins of null fields are deleted instead of replacing records that must keep index counters
+			if (forceReplace && mapper.isReplaceable()) {
 				writePolicy.recordExistsAction = RecordExistsAction.REPLACE;
 			} else {
 				writePolicy.recordExistsAction = RecordExistsAction.UPDATE;
@@ -207,7 +203,7 @@ public class SingleKeyUpdater<T, K> {
 
 		} catch (AerospikeException e) {
 			if (e.getResultCode() == 2) {
-				recordsCache.remove(key);
+				recordsCache.notFound(key, object);
 				return nowInternal(writeListener);
 			}
 			throw e;
@@ -223,49 +219,51 @@ public class SingleKeyUpdater<T, K> {
 			throw new SpikeifyError("Error: parameter 'object' must not be null");
 		}
 
-		Map<String, Object> props = mapper.getProperties(object);
-		Set<String> changedProps = recordsCache.update(key, props, create || forceReplace);
+		RecordValues props = mapper.getRecordValues(object);
+		recordsCache.update(key, props, create || forceReplace, object);
 
-		List<Bin> bins = new ArrayList<>();
-		boolean nonNullField = false;
-		for (String propName : changedProps) {
-			Object value = props.get(propName);
-			if (value == null) {
-				if (!forceReplace) {
-					bins.add(Bin.asNull(propName));
-				}
-			} else if (value instanceof List<?>) {
-				bins.add(new Bin(propName, (List) value));
-				nonNullField = true;
-			} else if (value instanceof Map<?, ?>) {
-				bins.add(new Bin(propName, (Map) value));
-				nonNullField = true;
-			} else {
-				bins.add(new Bin(propName, value));
-				nonNullField = true;
-			}
-		}
+		Bin[] bins = props.getChangedBins(forceReplace && mapper.isReplaceable());
+		boolean nonNullField = props.hasChangedValues();
 
 		WritePolicy usePolicy = getPolicy(nonNullField);
 
 		// if we are updating an existing record and no bins are to be updated,
 		// then just touch the entity to update expiry timestamp
-		if (!create && bins.isEmpty()) {
-			if (recordExpiration != null) {
-				asynClient.touch(usePolicy, key);
+		if (!create && bins.length == 0) {
+			if (recordExpiration == null) {
+				if (writeListener != null) {
+					writeListener.onSuccess(key);  // nothing to write
+				}
+			} else if (writeListener == null) {
+				try {
+					asynClient.touch(usePolicy, key);
+				} finally {
+					recordsCache.written(key);
+				}
+			} else {
+				asynClient.touch(usePolicy, recordsCache.written(key, writeListener), key);
 			}
 		} else {
 			if (writeListener == null) {
-				asynClient.put(usePolicy, key, bins.toArray(new Bin[bins.size()]));  // sync
+				try {
+					asynClient.put(usePolicy, key, bins);  // sync
+				} finally {
+					recordsCache.written(key);
+				}
 			} else {
-				asynClient.put(usePolicy, writeListener, key, bins.toArray(new Bin[bins.size()]));  // async
+				asynClient.put(usePolicy, recordsCache.written(key, writeListener), key, bins);  // async
 			}
 		}
 
 		return prepareKey(key);
 	}
 
-	public Future<K> async() {
+	/**
+	 * Asynchronously executes a single put command, the returned future is completed on the async client's listener thread.
+	 *
+	 * @return The future of the key of the record
+	 */
+	public ListenableFuture<K> async() {
 
 
 		WriteListenerFuture<K> future = new WriteListenerFuture<K>() {
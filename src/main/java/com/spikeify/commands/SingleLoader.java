@@ -1,15 +1,22 @@
 package com.spikeify.commands;
 
+import com.aerospike.client.AerospikeException;
 import com.aerospike.client.Key;
 import com.aerospike.client.Record;
 import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.RecordListener;
 import com.aerospike.client.policy.Policy;
 import com.spikeify.*;
 import com.spikeify.annotations.Namespace;
 import com.spikeify.annotations.SetName;
+import com.spikeify.async.DirectExecutor;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * A command chain for getting a single object from database.
@@ -47,6 +54,7 @@ public class SingleLoader<T> {
 	protected final ClassMapper<T> mapper;
 	protected final Class<T> type;
 	protected Policy overridePolicy;
+	protected String[] binNames;
 
 	/**
 	 * Sets the Namespace. Overrides the default namespace and the namespace defined on the Class via {@link Namespace} annotation.
@@ -98,6 +106,21 @@ public class SingleLoader<T> {
 		return this;
 	}
 
+	/**
+	 * Loads only given fields, other fields of the object are left unset.
+	 * A later update of such object does not remove bins of fields that were not loaded, unless they are set.
+	 * If its record is no longer tracked by the records cache, the update fails with {@link SpikeifyError}.
+	 *
+	 * @param fieldNames names of fields to be loaded
+	 */
+	public SingleLoader<T> fields(String... fieldNames) {
+		if (fieldNames == null || fieldNames.length == 0) {
+			throw new SpikeifyError("Error: at least one field name must be given.");
+		}
+		this.binNames = mapper.getBinNames(fieldNames);
+		return this;
+	}
+
 	/**
 	 * Sets the {@link Policy} to be used when getting the record from the database.
 	 * Internally the 'sendKey' property of the policy will always be set to true.
@@ -153,8 +176,89 @@ public class SingleLoader<T> {
 		// this should be a one-key operation
 		// if multiple keys - use the first key
 		Key key = keys.get(0);
+		Policy policy = getPolicy();
+
+		if (binNames != null) {
+			return map(key, asynClient.get(policy, key, binNames));
+		}
+
+		NearCache nearCache = recordsCache.getNearCache();
+		Record record = nearCache.get(type, key, asynClient, policy);
+		if (record == null) {
+			long stamp = nearCache.stamp(key);
+			record = asynClient.get(policy, key);
+			nearCache.put(type, key, record, stamp);
+		}
+
+		return map(key, record);
+	}
+
+	/**
+	 * Asynchronously executes a single get command. Record is mapped on the async client's listener thread.
+	 *
+	 * @return The future of Java object mapped from record, completed with null if record does not exist
+	 */
+	public ListenableFuture<T> async() {
+		return async(DirectExecutor.INSTANCE);
+	}
+
+	/**
+	 * Asynchronously executes a single get command.
+	 *
+	 * @param executor executor record is mapped on
+	 * @return The future of Java object mapped from record, completed with null if record does not exist
+	 */
+	public ListenableFuture<T> async(final Executor executor) {
+
+		collectKeys();
+
+		final SettableFuture<T> future = new SettableFuture<>();
+		final Key key = keys.get(0);
+
+		// cached records needing revalidation are loaded again, revalidation would block
+		final NearCache nearCache = recordsCache.getNearCache();
+		final Record cached = binNames == null ? nearCache.get(type, key, null, null) : null;
+		if (cached != null) {
+			future.setFrom(executor, new Callable<T>() {
+				@Override
+				public T call() {
+					return map(key, cached);
+				}
+			});
+			return future;
+		}
+
+		final long stamp = nearCache.stamp(key);
+		RecordListener listener = new RecordListener() {
+			@Override
+			public void onSuccess(final Key key, final Record record) {
+				if (binNames == null) {
+					nearCache.put(type, key, record, stamp);
+				}
+				future.setFrom(executor, new Callable<T>() {
+					@Override
+					public T call() {
+						return map(key, record);
+					}
+				});
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				future.setException(exception);
+			}
+		};
+
+		if (binNames == null) {
+			asynClient.get(getPolicy(), listener, key);
+		} else {
+			asynClient.get(getPolicy(), listener, key, binNames);
+		}
+
+		return future;
+	}
 
-		Record record = asynClient.get(getPolicy(), key);
+	private T map(Key key, Record record) {
 
 		if (record == null) {
 			return null;
@@ -163,7 +267,7 @@ public class SingleLoader<T> {
 		T object = classConstructor.construct(type);
 
 		// save raw records into cache - used later for differential updating
-		recordsCache.insert(key, record.bins);
+		recordsCache.insert(key, mapper, record.bins, binNames, object);
 
 		MapperService.map(mapper, key, record, object);
 
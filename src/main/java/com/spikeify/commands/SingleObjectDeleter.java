@@ -77,7 +77,11 @@ public class SingleObjectDeleter {
 		Key key = collectKey(object);
 		recordsCache.remove(key);
 
-		return asynClient.delete(getPolicy(), key);
+		try {
+			return asynClient.delete(getPolicy(), key);
+		} finally {
+			recordsCache.written(key);
+		}
 	}
 
 
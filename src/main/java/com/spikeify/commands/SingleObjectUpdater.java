@@ -10,13 +10,12 @@ import com.aerospike.client.policy.GenerationPolicy;
 import com.aerospike.client.policy.RecordExistsAction;
 import com.aerospike.client.policy.WritePolicy;
 import com.spikeify.*;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
 import com.spikeify.async.WriteListenerFuture;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * A command chain for creating or updating a single object in database.
@@ -147,7 +146,7 @@ public class SingleObjectUpdater<T> {
 			return nowInternal(writeListener);
 		} catch (AerospikeException e) {
 			if (e.getResultCode() == 2) {
-				recordsCache.remove(collectKey(object, defaultNamespace));
+				recordsCache.notFound(collectKey(object, defaultNamespace), object);
 				return nowInternal(writeListener);
 			}
 			throw e;
@@ -171,31 +170,20 @@ public class SingleObjectUpdater<T> {
 
 		WritePolicy usePolicy = getPolicy();
 		boolean isReplace = usePolicy.recordExistsAction == RecordExistsAction.REPLACE;
+		if (isReplace && !mapper.isReplaceable()) {
+			// bins of null fields are deleted instead, so that index counters are kept
+			usePolicy = new WritePolicy(usePolicy);
+			usePolicy.recordExistsAction = RecordExistsAction.UPDATE;
+			isReplace = false;
+		}
 
-		Map<String, Object> props = mapper.getProperties(object);
-		Set<String> changedProps = recordsCache.update(key, props, create || forceReplace);
+		RecordValues props = mapper.getRecordValues(object);
+		recordsCache.update(key, props, create || forceReplace, object);
 
-		List<Bin> bins = new ArrayList<>();
-		boolean nonNullField = false;
-		for (String propName : changedProps) {
-			Object value = props.get(propName);
-			if (value == null) {
-				if (!isReplace) {
-					bins.add(Bin.asNull(propName));
-				}
-			} else if (value instanceof List<?>) {
-				bins.add(new Bin(propName, (List) value));
-				nonNullField = true;
-			} else if (value instanceof Map<?, ?>) {
-				bins.add(new Bin(propName, (Map) value));
-				nonNullField = true;
-			} else {
-				bins.add(new Bin(propName, value));
-				nonNullField = true;
-			}
-		}
+		Bin[] bins = props.getChangedBins(isReplace);
+		boolean nonNullField = props.hasChangedValues();
 
-		if (!nonNullField && props.size() == changedProps.size()) {
+		if (!nonNullField && props.size() == props.getChangedCount()) {
 			throw new SpikeifyError("Error: cannot create object with no writable properties. " +
 					"At least one object property other then UserKey must be different from NULL.");
 		}
@@ -204,7 +192,7 @@ public class SingleObjectUpdater<T> {
 			// retry 5 times in case same id is generated ...
 			for (int count = 1; count <= SingleObjectUpdater.MAX_CREATE_GENERATE_RETRIES; count++) {
 				try {
-					asynClient.put(usePolicy, key, bins.toArray(new Bin[bins.size()]));
+					asynClient.put(usePolicy, key, bins);
 					break;
 				} catch (AerospikeException e) {
 					// let's retry or not ?
@@ -217,19 +205,38 @@ public class SingleObjectUpdater<T> {
 					key = SingleObjectUpdater.collectKey(object, defaultNamespace);
 				}
 			}
+
+			recordsCache.written(key);
+			if (writeListener != null) {
+				writeListener.onSuccess(key);
+			}
 		} else {
 
 			// if we are updating an existing record and no bins are to be updated,
 			// then just touch the entity to update expiry timestamp
-			if (!create && bins.isEmpty()) {
-				if (recordExpiration != null) {
-					asynClient.touch(usePolicy, key);
+			if (!create && bins.length == 0) {
+				if (recordExpiration == null) {
+					if (writeListener != null) {
+						writeListener.onSuccess(key);  // nothing to write
+					}
+				} else if (writeListener == null) {
+					try {
+						asynClient.touch(usePolicy, key);
+					} finally {
+						recordsCache.written(key);
+					}
+				} else {
+					asynClient.touch(usePolicy, recordsCache.written(key, writeListener), key);
 				}
 			} else {
 				if (writeListener == null) {
-					asynClient.put(usePolicy, key, bins.toArray(new Bin[bins.size()]));  // sync
+					try {
+						asynClient.put(usePolicy, key, bins);  // sync
+					} finally {
+						recordsCache.written(key);
+					}
 				} else {
-					asynClient.put(usePolicy, writeListener, key, bins.toArray(new Bin[bins.size()]));  // async
+					asynClient.put(usePolicy, recordsCache.written(key, writeListener), key, bins);  // async
 				}
 			}
 		}
@@ -240,7 +247,12 @@ public class SingleObjectUpdater<T> {
 		return key;
 	}
 
-	public Future<Key> async() {
+	/**
+	 * Asynchronously executes a single put command, the returned future is completed on the async client's listener thread.
+	 *
+	 * @return The future of the Key of the record
+	 */
+	public ListenableFuture<Key> async() {
 
 
 		WriteListenerFuture<Key> future = new WriteListenerFuture<Key>() {
@@ -254,4 +266,34 @@ public class SingleObjectUpdater<T> {
 
 		return future;
 	}
+
+	/**
+	 * Asynchronously executes a single put command.
+	 *
+	 * @param executor executor the returned future is completed on
+	 * @return The future of the Key of the record
+	 */
+	public ListenableFuture<Key> async(final Executor executor) {
+
+		final SettableFuture<Key> future = new SettableFuture<>();
+
+		now(new WriteListener() {
+			@Override
+			public void onSuccess(final Key key) {
+				future.setFrom(executor, new Callable<Key>() {
+					@Override
+					public Key call() {
+						return key;
+					}
+				});
+			}
+
+			@Override
+			public void onFailure(AerospikeException exception) {
+				future.setException(exception);
+			}
+		});
+
+		return future;
+	}
 }
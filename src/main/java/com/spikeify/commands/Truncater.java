@@ -2,39 +2,283 @@ package com.spikeify.commands;
 
 import com.aerospike.client.*;
 import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.DeleteListener;
+import com.aerospike.client.listener.WriteListener;
 import com.aerospike.client.policy.ScanPolicy;
+import com.aerospike.client.policy.WritePolicy;
+import com.spikeify.RecordsCache;
 import com.spikeify.Spikeify;
+import com.spikeify.SpikeifyError;
+import com.spikeify.async.RateLimiter;
+import com.spikeify.async.WriteWindow;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Class implementing truncate commands. This class is not intended to be instantiated by user.
- * Instead use {@link Spikeify#truncateSet(String, String)} or {@link Spikeify#truncateNamespace(String)} methods.
+ * Instead use {@link Spikeify#truncate()}, {@link Spikeify#truncateSet(String, String)} or {@link Spikeify#truncateNamespace(String)} methods.
+ * <p>
+ * If server supports it, records are removed with server side truncate command. Otherwise records are scanned
+ * and deleted with asynchronous deletes, with at most {@link #inFlight(int)} deletes pending at once
+ * and optionally limited to {@link #rateLimit(int)} deletes per second.
+ * Progress of scan and deletes can be followed via {@link #getScanned()}, {@link #getDeleted()} and {@link #getFailed()}.
  */
+@SuppressWarnings("WeakerAccess")
 public class Truncater {
 
-	public static void truncateSet(String namespace, String setName, final IAerospikeClient client) {
+	private static final Logger log = Logger.getLogger(Truncater.class.getSimpleName());
+
+	public static final int DEFAULT_IN_FLIGHT = 128;
+
+	/**
+	 * Used internally to create a command chain. Not intended to be used by the user directly. Use {@link Spikeify#truncate()} instead.
+	 */
+	public Truncater(IAsyncClient client, RecordsCache recordsCache) {
+		this.client = client;
+		this.recordsCache = recordsCache;
+	}
+
+	protected final IAsyncClient client;
+	protected final RecordsCache recordsCache;
+
+	private int inFlight = DEFAULT_IN_FLIGHT;
+	private int rateLimit;
+	private boolean serverTruncate = true;
+	private WritePolicy overridePolicy;
+
+	private final AtomicLong scanned = new AtomicLong();
+	private final AtomicLong deleted = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	/**
+	 * Sets max number of deletes pending at once, defaults to {@value #DEFAULT_IN_FLIGHT}.
+	 *
+	 * @param inFlight max number of pending deletes
+	 */
+	public Truncater inFlight(int inFlight) {
+		if (inFlight <= 0) {
+			throw new IllegalArgumentException("Number of deletes in flight must be greater than 0.");
+		}
+		this.inFlight = inFlight;
+		return this;
+	}
+
+	/**
+	 * Limits number of deletes per second, by default deletes are not limited.
+	 *
+	 * @param deletesPerSecond max number of deletes per second, 0 for unlimited
+	 */
+	public Truncater rateLimit(int deletesPerSecond) {
+		if (deletesPerSecond < 0) {
+			throw new IllegalArgumentException("Rate limit must not be negative.");
+		}
+		this.rateLimit = deletesPerSecond;
+		return this;
+	}
+
+	/**
+	 * Enables or disables server side truncate, enabled by default.
+	 * When disabled (or not supported by server) records are always scanned and deleted one by one.
+	 *
+	 * @param serverTruncate true to use server side truncate if available
+	 */
+	public Truncater serverTruncate(boolean serverTruncate) {
+		this.serverTruncate = serverTruncate;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link WritePolicy} to be used when deleting records.
+	 *
+	 * @param policy The policy.
+	 */
+	public Truncater policy(WritePolicy policy) {
+		this.overridePolicy = policy;
+		return this;
+	}
+
+	/**
+	 * @return number of records scanned so far
+	 */
+	public long getScanned() {
+		return scanned.get();
+	}
+
+	/**
+	 * @return number of records deleted so far
+	 */
+	public long getDeleted() {
+		return deleted.get();
+	}
+
+	/**
+	 * @return number of failed deletes so far
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * Deletes all records with given SetName.
+	 *
+	 * @param namespace The namespace of the records to delete.
+	 * @param setName   The SetName of the records to delete.
+	 */
+	public void truncateSet(String namespace, String setName) {
+		if (setName == null) {
+			throw new SpikeifyError("Error: SetName not defined.");
+		}
+		truncate(namespace, setName);
+	}
+
+	/**
+	 * Deletes all records within given namespace.
+	 *
+	 * @param namespace The namespace of the records to delete.
+	 */
+	public void truncateNamespace(String namespace) {
+		truncate(namespace, null);
+	}
+
+	private void truncate(String namespace, String setName) {
+
+		if (namespace == null) {
+			throw new SpikeifyError("Namespace not set.");
+		}
+
+		try {
+			if (!serverTruncate || !truncateOnServer(namespace, setName)) {
+				scanAndDelete(namespace, setName);
+			}
+		} finally {
+			recordsCache.getNearCache().clear();
+		}
+	}
+
+	/**
+	 * @return true if records were truncated, false if server does not support truncate command
+	 */
+	private boolean truncateOnServer(String namespace, String setName) {
+		try {
+			client.truncate(null, namespace, setName, null);
+			return true;
+		} catch (AerospikeException e) {
+			if (!isUnsupported(e)) {
+				throw e;
+			}
+			log.log(Level.INFO, "Server side truncate not supported, deleting records one by one: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Servers without truncate answer the info command with an empty response or an unrecognized command error,
+	 * other failures (timeouts, network, security) are not a reason to fall back to deleting records.
+	 */
+	static boolean isUnsupported(AerospikeException exception) {
+
+		if (exception.getResultCode() == ResultCode.UNSUPPORTED_FEATURE) {
+			return true;
+		}
+
+		String message = exception.getMessage();
+		return exception.getResultCode() == ResultCode.OK && message != null &&
+				(message.toLowerCase().contains("unrecognized command") || message.trim().endsWith("Truncate failed:"));
+	}
+
+	private void scanAndDelete(String namespace, String setName) {
+
+		final WritePolicy policy = overridePolicy != null ? overridePolicy : new WritePolicy(client.getWritePolicyDefault());
+		final WriteWindow window = new WriteWindow(inFlight);
+		final RateLimiter limiter = rateLimit > 0 ? new RateLimiter(rateLimit) : null;
 
 		ScanPolicy scanPolicy = new ScanPolicy();
 		scanPolicy.concurrentNodes = true;
 		scanPolicy.includeBinData = false;
 
+		// scan threads are blocked while window is full, so scan is throttled by deletes
 		client.scanAll(scanPolicy, namespace, setName, new ScanCallback() {
 			@Override
 			public void scanCallback(Key key, Record record) throws AerospikeException {
-				client.delete(null, key);
+
+				scanned.incrementAndGet();
+				if (limiter != null) {
+					limiter.acquire();
+				}
+
+				final WriteListener done = window.acquire(key);
+				try {
+					client.delete(policy, new DeleteListener() {
+						@Override
+						public void onSuccess(Key key, boolean existed) {
+							deleted.incrementAndGet();
+							done.onSuccess(key);
+						}
+
+						@Override
+						public void onFailure(AerospikeException exception) {
+							failed.incrementAndGet();
+							done.onFailure(exception);
+						}
+					}, key);
+				} catch (AerospikeException e) {
+					failed.incrementAndGet();
+					done.onFailure(e);
+				} catch (RuntimeException e) {
+					// listener is never called otherwise, so its permit would never be released
+					failed.incrementAndGet();
+					done.onFailure(new AerospikeException(e));
+				}
 			}
 		});
+
+		Map<Key, AerospikeException> failures = window.await();
+		if (!failures.isEmpty()) {
+			throw new SpikeifyError("Failed to delete " + failures.size() + " record(s).", failures.values().iterator().next());
+		}
 	}
 
+	/**
+	 * Deletes all records with given SetName.
+	 *
+	 * @param namespace The namespace of the records to delete.
+	 * @param setName   The SetName of the records to delete.
+	 * @param client    client
+	 * @deprecated use {@link Spikeify#truncate()} or {@link Spikeify#truncateSet(String, String)} instead
+	 */
+	@Deprecated
+	public static void truncateSet(String namespace, String setName, final IAerospikeClient client) {
+		truncate(namespace, setName, client);
+	}
 
+	/**
+	 * Deletes all records within given namespace.
+	 *
+	 * @param namespace The namespace of the records to delete.
+	 * @param client    client
+	 * @deprecated use {@link Spikeify#truncate()} or {@link Spikeify#truncateNamespace(String)} instead
+	 */
+	@Deprecated
 	public static void truncateNamespace(String namespace, final IAerospikeClient client) {
+		truncate(namespace, null, client);
+	}
+
+	private static void truncate(String namespace, String setName, final IAerospikeClient client) {
+
+		if (client instanceof IAsyncClient) {
+			new Truncater((IAsyncClient) client, new RecordsCache()).truncate(namespace, setName);
+			return;
+		}
 
+		// synchronous client: scan and delete one by one
 		ScanPolicy scanPolicy = new ScanPolicy();
 		scanPolicy.concurrentNodes = true;
 		scanPolicy.includeBinData = false;
 
-		client.scanAll(scanPolicy, namespace, null, new ScanCallback() {
+		client.scanAll(scanPolicy, namespace, setName, new ScanCallback() {
 			@Override
 			public void scanCallback(Key key, Record record) throws AerospikeException {
 				client.delete(null, key);
@@ -42,7 +286,6 @@ public class Truncater {
 		});
 	}
 
-
 	/**
 	 * Drops all indexes in namespace
 	 *
@@ -51,10 +294,12 @@ public class Truncater {
 	 */
 	public static void dropNamespaceIndexes(String namespace, final IAsyncClient client) {
 
-		Map<String, InfoFetcher.IndexInfo> namespaceIndexes = new InfoFetcher(client).getIndexes(namespace);
+		InfoFetcher fetcher = new InfoFetcher(client);
+		Map<String, InfoFetcher.IndexInfo> namespaceIndexes = fetcher.getIndexes(namespace);
 		for (InfoFetcher.IndexInfo index : namespaceIndexes.values()) {
 			client.dropIndex(null, namespace, index.setName, index.name);
 		}
+		fetcher.getCache().invalidateIndexes(namespace);
 	}
 
 	/**
@@ -66,9 +311,11 @@ public class Truncater {
 	 */
 	public static void dropSetIndexes(String namespace, String setName, final IAsyncClient client) {
 
-		Map<String, InfoFetcher.IndexInfo> namespaceIndexes = new InfoFetcher(client).getIndexes(namespace, setName);
+		InfoFetcher fetcher = new InfoFetcher(client);
+		Map<String, InfoFetcher.IndexInfo> namespaceIndexes = fetcher.getIndexes(namespace, setName);
 		for (InfoFetcher.IndexInfo index : namespaceIndexes.values()) {
 			client.dropIndex(null, namespace, index.setName, index.name);
 		}
+		fetcher.getCache().invalidateIndexes(namespace);
 	}
 }
@@ -2,10 +2,11 @@ package com.spikeify.converters;
 
 import com.spikeify.Converter;
 import com.spikeify.ConverterFactory;
+import com.spikeify.PrimitiveLongConverter;
 
 import java.lang.reflect.Field;
 
-public class BooleanConverter implements Converter<Boolean, Long>, ConverterFactory {
+public class BooleanConverter implements Converter<Boolean, Long>, ConverterFactory, PrimitiveLongConverter {
 
 	@Override
 	public Converter init(Field field) {
@@ -24,4 +25,14 @@ public class BooleanConverter implements Converter<Boolean, Long>, ConverterFact
 		return (long) (fieldValue ? 1 : 0);
 	}
 
+	@Override
+	public long toLong(Object property) {
+		return ((Number) property).longValue() != 0 ? 1 : 0;
+	}
+
+	@Override
+	public Object fromLong(long fieldValue) {
+		return fieldValue != 0 ? 1L : 0L;
+	}
+
 }
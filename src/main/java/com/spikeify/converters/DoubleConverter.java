@@ -3,10 +3,11 @@ package com.spikeify.converters;
 import com.aerospike.client.Value;
 import com.spikeify.Converter;
 import com.spikeify.ConverterFactory;
+import com.spikeify.PrimitiveDoubleConverter;
 
 import java.lang.reflect.Field;
 
-public class DoubleConverter implements Converter<Double, Object>, ConverterFactory {
+public class DoubleConverter implements Converter<Double, Object>, ConverterFactory, PrimitiveDoubleConverter {
 
 	@Override
 	public Converter init(Field field) {
@@ -39,4 +40,28 @@ public class DoubleConverter implements Converter<Double, Object>, ConverterFact
 		}
 	}
 
+	@Override
+	public double toDouble(Object property) {
+		if (property instanceof Double) {
+			return (Double) property;
+		} else if (property instanceof Float) {
+			return (Float) property;
+		} else if (property instanceof Long) {
+			return Double.longBitsToDouble((Long) property);
+		} else {
+			throw new IllegalArgumentException("Fields of type 'double' can only be mapped to DB values of Long or Double.");
+		}
+	}
+
+	@Override
+	public Object fromDouble(double fieldValue) {
+
+		// is double supported by the database
+		if (Value.UseDoubleType) {
+			return fieldValue;  // return Double
+		} else {
+			return Double.doubleToLongBits(fieldValue); // return Long - the old, pre-3.6.0 way of converting Double to Long
+		}
+	}
+
 }
@@ -2,10 +2,11 @@ package com.spikeify.converters;
 
 import com.spikeify.Converter;
 import com.spikeify.ConverterFactory;
+import com.spikeify.PrimitiveLongConverter;
 
 import java.lang.reflect.Field;
 
-public class IntegerConverter implements Converter<Integer, Long>, ConverterFactory {
+public class IntegerConverter implements Converter<Integer, Long>, ConverterFactory, PrimitiveLongConverter {
 
 	@Override
 	public Converter init(Field field) {
@@ -24,4 +25,14 @@ public class IntegerConverter implements Converter<Integer, Long>, ConverterFact
 		return Long.valueOf(fieldValue);
 	}
 
+	@Override
+	public long toLong(Object property) {
+		return ((Number) property).longValue();
+	}
+
+	@Override
+	public Object fromLong(long fieldValue) {
+		return fieldValue;
+	}
+
 }
@@ -2,10 +2,11 @@ package com.spikeify.converters;
 
 import com.spikeify.Converter;
 import com.spikeify.ConverterFactory;
+import com.spikeify.PrimitiveLongConverter;
 
 import java.lang.reflect.Field;
 
-public class LongConverter implements Converter<Long, Long>, ConverterFactory {
+public class LongConverter implements Converter<Long, Long>, ConverterFactory, PrimitiveLongConverter {
 
 	@Override
 	public Converter init(Field field) {
@@ -26,5 +27,14 @@ public class LongConverter implements Converter<Long, Long>, ConverterFactory {
 		return fieldValue;
 	}
 
+	@Override
+	public long toLong(Object property) {
+		return ((Number) property).longValue();
+	}
+
+	@Override
+	public Object fromLong(long fieldValue) {
+		return fieldValue;
+	}
 
 }
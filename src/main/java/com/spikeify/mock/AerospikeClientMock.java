@@ -244,8 +244,15 @@ public class AerospikeClientMock implements IAerospikeClient {
 	}
 
 	@Override
-	public void truncate(InfoPolicy infoPolicy, String s, String s1, Calendar calendar) throws AerospikeException {
+	public void truncate(InfoPolicy infoPolicy, String ns, String setName, Calendar beforeLastUpdate) throws AerospikeException {
+		String nsName = ns == null ? defaultNamespace : ns;
 
+		Map<String, Map<Key, Rec>> namespace = getNamespace(nsName);
+		if (setName == null) {
+			namespace.clear();
+		} else {
+			namespace.remove(setName);
+		}
 	}
 
 	@Override
@@ -0,0 +1,135 @@
+package com.spikeify;
+
+import com.aerospike.client.Value;
+import com.aerospike.client.query.IndexCollectionType;
+import com.spikeify.entity.EntityOne;
+import org.junit.Assert;
+import org.junit.Test;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.jse.JsePlatform;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AggregationTest {
+
+	@Test
+	public void generatesValidScript() throws NoSuchFieldException {
+
+		List<QueryPredicate> residual = Arrays.asList(
+				QueryPredicate.in(EntityOne.class.getDeclaredField("two"), IndexCollectionType.DEFAULT, "a\"b", "c\\d"),
+				QueryPredicate.range(EntityOne.class.getDeclaredField("one"), IndexCollectionType.DEFAULT, 1, 10));
+
+		String code = Aggregation.script("two", Arrays.asList("one", "three"), residual);
+
+		// compiles
+		JsePlatform.standardGlobals().load(code, "aggregation");
+
+		Assert.assertTrue(code.contains("member(e, args[1])"));
+		Assert.assertTrue(code.contains("e >= args[2][1] and e <= args[2][2]"));
+
+		// values are not part of the script, so a new module is not registered for each value
+		List<QueryPredicate> other = Arrays.asList(
+				QueryPredicate.in(EntityOne.class.getDeclaredField("two"), IndexCollectionType.DEFAULT, "x", "y", "z"),
+				QueryPredicate.range(EntityOne.class.getDeclaredField("one"), IndexCollectionType.DEFAULT, 5, 7));
+		Assert.assertEquals(code, Aggregation.script("two", Arrays.asList("one", "three"), other));
+		Assert.assertEquals(Value.get(Arrays.asList(Arrays.asList("a\"b", "c\\d"), Arrays.asList(1L, 10L))), Aggregation.arguments(residual));
+	}
+
+	@Test
+	public void aggregatesRecords() throws NoSuchFieldException {
+
+		List<QueryPredicate> residual = Collections.singletonList(
+				QueryPredicate.in(EntityOne.class.getDeclaredField("two"), IndexCollectionType.DEFAULT, "a", "b"));
+
+		// stand-ins for Aerospike Lua list, map and stream
+		String runtime = "local L, M = {}, {}\n" +
+				"list = setmetatable({iterator = function(l) local i = 0 return function() i = i + 1 return l[i] end end}, {__call = function(_, t) return setmetatable(t or {}, L) end})\n" +
+				"map = setmetatable({}, {__call = function(_, t) return setmetatable(t or {}, M) end})\n" +
+				"local records = {{two = \"a\", one = 5}, {two = \"b\", one = 1}, {two = \"a\", one = 2}, {two = \"c\", one = 100}, {two = \"a\"}}\n" +
+				"local stream = {aggregate = function(self, acc, add) for _, rec in ipairs(records) do acc = add(acc, rec) end return acc end}\n";
+
+		String test = "\nlocal result = aggregate(stream, list({list({\"a\", \"b\"})}))\n" +
+				"return result[\"a\"][\"c\"], result[\"a\"][\"s0\"], result[\"a\"][\"k0\"], result[\"a\"][\"n0\"], result[\"a\"][\"x0\"], result[\"b\"][\"c\"], result[\"c\"]\n";
+
+		Varargs result = JsePlatform.standardGlobals().load(runtime + Aggregation.script("two", Collections.singletonList("one"), residual) + test, "aggregation").invoke();
+
+		Assert.assertEquals(3, result.arg(1).toint());
+		Assert.assertEquals(7, result.arg(2).toint());
+		Assert.assertEquals(2, result.arg(3).toint());
+		Assert.assertEquals(2, result.arg(4).toint());
+		Assert.assertEquals(5, result.arg(5).toint());
+		Assert.assertEquals(1, result.arg(6).toint());
+		Assert.assertTrue(result.arg(7).isnil());
+	}
+
+	@Test
+	public void escapesLiterals() {
+
+		Assert.assertEquals("12", QueryPredicate.toLua(12L));
+		Assert.assertEquals("\"a b_1\"", QueryPredicate.toLua("a b_1"));
+		Assert.assertEquals("\"\\0341\"", QueryPredicate.toLua("\"1"));
+		Assert.assertEquals("\"\\195\\169\"", QueryPredicate.toLua("é"));
+	}
+
+	@Test
+	public void reducesPartials() {
+
+		Map<Object, Object> node1 = new HashMap<>();
+		node1.put("x", group(2, 10L, 2, 3L, 7L));
+		node1.put("y", group(1, null, 0, null, null));
+
+		Map<Object, Object> node2 = new HashMap<>();
+		node2.put("x", group(1, 1.5, 1, 1.5, 1.5));
+
+		List<Aggregate> aggregates = Aggregation.reduce(Arrays.<Object>asList(node1, node2), true, Collections.singletonList("one"));
+		Assert.assertEquals(2, aggregates.size());
+
+		for (Aggregate aggregate : aggregates) {
+			if ("x".equals(aggregate.getGroup())) {
+				Assert.assertEquals(3, aggregate.getCount());
+				Assert.assertEquals(11.5, aggregate.getSum("one").doubleValue(), 0);
+				Assert.assertEquals(1.5, aggregate.getMin("one").doubleValue(), 0);
+				Assert.assertEquals(7L, aggregate.getMax("one"));
+				Assert.assertEquals(11.5 / 3, aggregate.getAverage("one"), 0.0001);
+			}
+			else {
+				Assert.assertEquals("y", aggregate.getGroup());
+				Assert.assertEquals(1, aggregate.getCount());
+				Assert.assertEquals(0L, aggregate.getSum("one"));
+				Assert.assertNull(aggregate.getAverage("one"));
+			}
+		}
+	}
+
+	@Test
+	public void emptyTotal() {
+
+		List<Aggregate> aggregates = Aggregation.reduce(Collections.emptyList(), false, Collections.singletonList("one"));
+		Assert.assertEquals(1, aggregates.size());
+		Assert.assertEquals(0, aggregates.get(0).getCount());
+		Assert.assertNull(aggregates.get(0).getMin("one"));
+	}
+
+	@Test(expected = SpikeifyError.class)
+	public void notAggregatedField() {
+
+		new Aggregate(null, Collections.singletonList("one")).getSum("two");
+	}
+
+	private static Map<String, Object> group(long count, Number sum, long valueCount, Number min, Number max) {
+
+		Map<String, Object> group = new HashMap<>();
+		group.put("c", count);
+		if (valueCount > 0) {
+			group.put("s0", sum);
+			group.put("k0", valueCount);
+			group.put("n0", min);
+			group.put("x0", max);
+		}
+		return group;
+	}
+}
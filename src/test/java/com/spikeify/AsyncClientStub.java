@@ -0,0 +1,97 @@
+package com.spikeify;
+
+import com.aerospike.client.async.IAsyncClient;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link IAsyncClient} answering only stubbed methods, asynchronous commands can be answered on a background thread.
+ * Calling a method without an answer fails with {@link UnsupportedOperationException}.
+ */
+class AsyncClientStub implements InvocationHandler {
+
+	interface Answer {
+		Object answer(Object[] args);
+	}
+
+	/**
+	 * number of commands answered later, not answered yet
+	 */
+	final AtomicInteger inFlight = new AtomicInteger();
+
+	/**
+	 * max number of commands in flight at once
+	 */
+	final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private final Map<String, Answer> answers = new HashMap<>();
+
+	/**
+	 * Answers calls of all methods with given name.
+	 */
+	AsyncClientStub answer(String methodName, Answer answer) {
+		answers.put(methodName, answer);
+		return this;
+	}
+
+	/**
+	 * Answers calls of all methods with given name on a new thread after given delay, call itself returns null.
+	 */
+	AsyncClientStub answerLater(String methodName, final long delayMillis, final Answer answer) {
+		return answer(methodName, new Answer() {
+			@Override
+			public Object answer(final Object[] args) {
+
+				int current = inFlight.incrementAndGet();
+				synchronized (maxInFlight) {
+					maxInFlight.set(Math.max(maxInFlight.get(), current));
+				}
+
+				new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							Thread.sleep(delayMillis);
+						} catch (InterruptedException e) {
+							return;
+						}
+						inFlight.decrementAndGet();
+						answer.answer(args);
+					}
+				}).start();
+				return null;
+			}
+		});
+	}
+
+	IAsyncClient client() {
+		return (IAsyncClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{IAsyncClient.class}, this);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) {
+
+		// identity semantics, so client can be a map key
+		if (method.getDeclaringClass() == Object.class) {
+			switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return "AsyncClientStub@" + Integer.toHexString(System.identityHashCode(proxy));
+			}
+		}
+
+		Answer answer = answers.get(method.getName());
+		if (answer == null) {
+			throw new UnsupportedOperationException(method.getName());
+		}
+		return answer.answer(args);
+	}
+}
@@ -0,0 +1,82 @@
+package com.spikeify;
+
+import com.spikeify.annotations.AnyProperty;
+import com.spikeify.annotations.BinName;
+import com.spikeify.annotations.UserKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Naming of index counter bins of {@link BigIndexedList}, checked without a server.
+ */
+public class BigIndexedListCounterTest {
+
+	public static class TwoLists {
+		@UserKey
+		public String id;
+		public BigIndexedList<Long> listOfValuesAA;
+		public BigIndexedList<Long> listOfValuesBB;
+	}
+
+	public static class ClashingBin {
+		@UserKey
+		public String id;
+		public BigIndexedList<Long> list;
+		@BinName("list#")
+		public Long count;
+	}
+
+	public static class WithAnyProperty {
+		@UserKey
+		public String id;
+		public BigIndexedList<Long> list;
+		@AnyProperty
+		public Map<String, Object> any;
+	}
+
+	@Test
+	public void counterBinNames() {
+
+		Assert.assertEquals("list#", BigIndexedList.counterBinName("list"));
+		Assert.assertEquals("thirteenChars#", BigIndexedList.counterBinName("thirteenChars"));
+
+		// long names with common prefix do not share a counter
+		String first = BigIndexedList.counterBinName("listOfValuesAA");
+		String second = BigIndexedList.counterBinName("listOfValuesBB");
+		Assert.assertEquals(14, first.length());
+		Assert.assertEquals(14, second.length());
+		Assert.assertNotEquals(first, second);
+
+		new ClassMapper<>(TwoLists.class);
+	}
+
+	@Test
+	public void counterBinIsNotUnmappedProperty() {
+
+		ClassMapper<WithAnyProperty> mapper = new ClassMapper<>(WithAnyProperty.class);
+
+		Map<String, Object> bins = new HashMap<>();
+		bins.put("list#", 20L);
+		bins.put("other", "x");
+		WithAnyProperty object = new WithAnyProperty();
+		mapper.setFieldValues(object, bins);
+		Assert.assertEquals(Collections.<String, Object>singletonMap("other", "x"), object.any);
+
+		// a stale counter is never written back
+		object.any.put("list#", 5L);
+		RecordValues values = mapper.getRecordValues(object);
+		for (int ordinal = 0; ordinal < values.size(); ordinal++) {
+			Assert.assertNotEquals("list#", values.getBinName(ordinal));
+		}
+		Assert.assertFalse(mapper.getProperties(object).containsKey("list#"));
+	}
+
+	@Test(expected = SpikeifyError.class)
+	public void counterBinClash() {
+		new ClassMapper<>(ClashingBin.class);
+	}
+}
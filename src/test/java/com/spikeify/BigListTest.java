@@ -338,4 +338,117 @@ public class BigListTest extends SpikeifyTest {
 		Assert.assertEquals(1, afterList.size());
 		Assert.assertEquals(666l, afterList.get(0).longValue());
 	}
+
+	@Test
+	public void testAppendMode() {
+
+		EntityLargeList entity = new EntityLargeList();
+		entity.userId = userKey1;
+		sfy.create(entity).now();
+
+		// existing values are kept, counter starts after them
+		entity.list.add(1L);
+		entity.list.add(2L);
+
+		entity.list.appendMode(10);
+		entity.list.add(3L);
+		entity.list.addAll(Arrays.asList(4L, 5L, 6L));
+
+		assertEquals(6, entity.list.size());
+		assertEquals(3L, (long) entity.list.get(2));
+		assertEquals(6L, (long) entity.list.get(5));
+
+		// second instance reserves its own block
+		EntityLargeList loaded = sfy.get(EntityLargeList.class).key(userKey1).now();
+		loaded.list.appendMode(10);
+		loaded.list.add(7L);
+		entity.list.add(8L);
+
+		List<Long> all = entity.list.getAll();
+		assertEquals(8, all.size());
+		Assert.assertTrue(all.containsAll(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L)));
+		assertEquals(7L, (long) entity.list.get(12));
+		assertEquals(8L, (long) entity.list.get(6));
+	}
+
+	@Test
+	public void testAppendModeGapsAndReplace() {
+
+		EntityLargeList entity = new EntityLargeList();
+		entity.userId = userKey1;
+		sfy.create(entity).now();
+
+		entity.list.appendMode(10);
+		entity.list.add(1L);
+
+		// other instance reserves indexes 10-19
+		EntityLargeList loaded = sfy.get(EntityLargeList.class).key(userKey1).now();
+		loaded.list.appendMode(10);
+		assertEquals(10, loaded.list.add(2L));
+
+		// list not in append mode takes indexes from counter too
+		EntityLargeList plain = sfy.get(EntityLargeList.class).key(userKey1).now();
+		assertEquals(20, plain.list.add(3L));
+		assertEquals(3, plain.list.size());
+
+		// trim is bound by last index, not list size
+		assertEquals(2, plain.list.trim(5));
+		assertEquals(1, plain.list.size());
+
+		// forced replace keeps counter, so indexes are not reused
+		sfy.update(plain).forceReplace().now();
+		assertEquals(11, loaded.list.add(4L));
+		assertEquals(21, plain.list.add(5L));
+		assertEquals(3, plain.list.size());
+	}
+
+	@Test
+	public void testAppendModeRemoveAll() {
+
+		EntityLargeList entity = new EntityLargeList();
+		entity.userId = userKey1;
+		sfy.create(entity).now();
+
+		entity.list.appendMode(10);
+		entity.list.addAll(Arrays.asList(1L, 2L, 3L));
+
+		// counter is removed with values, indexes start at 0 again
+		entity.list.removeAll();
+		assertEquals(0, entity.list.add(4L));
+		assertEquals(4L, (long) entity.list.get(0));
+
+		EntityLargeList plain = sfy.get(EntityLargeList.class).key(userKey1).now();
+		plain.list.removeAll();
+		assertEquals(0, plain.list.add(5L));
+		assertEquals(5L, (long) plain.list.get(0));
+	}
+
+	@Test
+	public void testPagedIterator() {
+
+		EntityLargeList entity = new EntityLargeList();
+		entity.userId = userKey1;
+		sfy.create(entity).now();
+
+		int count = 1000;
+		List<Long> data = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			data.add((long) i);
+		}
+		entity.list.addAll(data);
+
+		Iterator<Long> iterator = entity.list.iterator(64);
+		long expected = 0;
+		while (iterator.hasNext()) {
+			assertEquals(expected++, (long) iterator.next());
+		}
+		assertEquals(count, expected);
+
+		iterator = entity.list.iterator(10, 19, 3);
+		List<Long> range = new ArrayList<>();
+		while (iterator.hasNext()) {
+			range.add(iterator.next());
+		}
+		assertEquals(entity.list.range(10, 19), range);
+	}
 }
@@ -333,4 +333,59 @@ public class BigMapTest extends SpikeifyTest {
 		Assert.assertEquals(1, afterList.size());
 		Assert.assertEquals(666l, afterList.get("after_party").longValue());
 	}
+
+	@Test
+	public void testPagedIterator() {
+
+		EntityLargeMap entity = new EntityLargeMap();
+		entity.userId = userKey1;
+		sfy.create(entity).now();
+
+		// iterating a map not yet stored
+		Assert.assertFalse(entity.map.iterator(10).hasNext());
+
+		int count = 1000;
+		Map<Long, Long> data = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			data.put((long) i, i * 2L);
+		}
+		entity.map.putAll(data);
+
+		Iterator<Map.Entry<Long, Long>> iterator = entity.map.iterator(33);
+		long expected = 0;
+		while (iterator.hasNext()) {
+			Map.Entry<Long, Long> entry = iterator.next();
+			assertEquals(expected, (long) entry.getKey());
+			assertEquals(expected * 2, (long) entry.getValue());
+			expected++;
+		}
+		assertEquals(count, expected);
+
+		iterator = entity.map.iterator(100L, 199L, 30);
+		int found = 0;
+		while (iterator.hasNext()) {
+			assertEquals(100L + found, (long) iterator.next().getKey());
+			found++;
+		}
+		assertEquals(100, found);
+	}
+
+	@Test
+	public void testConcurrentBulkWrites() {
+
+		EntityLargeMap entity = new EntityLargeMap();
+		entity.userId = userKey1;
+		sfy.create(entity).now();
+
+		int count = 10_000;
+		Map<Long, Long> data = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			data.put((long) i, i * 3L);
+		}
+
+		entity.map.bulkWrites(500, 4).putAll(data);
+
+		assertEquals(count, entity.map.size());
+		assertEquals(data, entity.map.getAll());
+	}
 }
@@ -0,0 +1,138 @@
+package com.spikeify;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.ExistsArrayListener;
+import com.aerospike.client.listener.RecordArrayListener;
+import com.aerospike.client.policy.BatchPolicy;
+import com.spikeify.async.ChunkedBatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunkedBatchTest {
+
+	private final AsyncClientStub stub = new AsyncClientStub();
+	private final AtomicInteger commands = new AtomicInteger();
+
+	/**
+	 * Client answering batch commands on a background thread: records have generation equal to user key,
+	 * only records with even keys exist, key 13 fails.
+	 */
+	private IAsyncClient client() {
+
+		AsyncClientStub.Answer batch = new AsyncClientStub.Answer() {
+			@Override
+			public Object answer(Object[] args) {
+
+				commands.incrementAndGet();
+				Key[] keys = (Key[]) args[args.length - 1 - (args[args.length - 1] instanceof String[] ? 1 : 0)];
+
+				boolean failed = false;
+				Record[] records = new Record[keys.length];
+				boolean[] exist = new boolean[keys.length];
+				for (int i = 0; i < keys.length; i++) {
+					long id = keys[i].userKey.toLong();
+					failed |= id == 13;
+					exist[i] = id % 2 == 0;
+					records[i] = exist[i] ? new Record(null, (int) id, 0) : null;
+				}
+
+				if (args[1] instanceof RecordArrayListener) {
+					RecordArrayListener listener = (RecordArrayListener) args[1];
+					if (failed) {
+						listener.onFailure(new AerospikeException(ResultCode.TIMEOUT));
+					} else {
+						listener.onSuccess(keys, records);
+					}
+				} else {
+					((ExistsArrayListener) args[1]).onSuccess(keys, exist);
+				}
+				return null;
+			}
+		};
+
+		for (String method : new String[]{"get", "getHeader", "exists"}) {
+			stub.answerLater(method, 10, batch);
+		}
+
+		return stub.answer("getBatchPolicyDefault", new AsyncClientStub.Answer() {
+			@Override
+			public Object answer(Object[] args) {
+				return new BatchPolicy();
+			}
+		}).client();
+	}
+
+	private static Key[] keys(int from, int count) {
+		Key[] keys = new Key[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = new Key("test", "set", (long) (from + i));
+		}
+		return keys;
+	}
+
+	@Test
+	public void mergesChunksInOrder() {
+
+		ChunkedBatch batch = new ChunkedBatch(client(), null, 10, 3);
+
+		Record[] headers = batch.getHeaders(keys(100, 95));
+		Assert.assertEquals(95, headers.length);
+		for (int i = 0; i < headers.length; i++) {
+			if (i % 2 == 0) {
+				Assert.assertEquals(100 + i, headers[i].generation);
+			} else {
+				Assert.assertNull(headers[i]);
+			}
+		}
+
+		boolean[] exist = batch.exists(keys(100, 95));
+		for (int i = 0; i < exist.length; i++) {
+			Assert.assertEquals(i % 2 == 0, exist[i]);
+		}
+
+		Assert.assertEquals(20, commands.get());
+		Assert.assertTrue(stub.maxInFlight.get() <= 3);
+	}
+
+	@Test
+	public void failsIfChunkFails() {
+
+		ChunkedBatch batch = new ChunkedBatch(client(), null, 5, 2);
+		try {
+			batch.get(keys(0, 50), "bin");
+			Assert.fail();
+		} catch (AerospikeException e) {
+			Assert.assertEquals(ResultCode.TIMEOUT, e.getResultCode());
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void releasesPermitIfChunkThrows() {
+
+		IAsyncClient failing = new AsyncClientStub().answer("getHeader", new AsyncClientStub.Answer() {
+			@Override
+			public Object answer(Object[] args) {
+				throw new IllegalStateException("not connected");
+			}
+		}).client();
+
+		ChunkedBatch batch = new ChunkedBatch(failing, new BatchPolicy(), 5, 1);
+		try {
+			batch.getHeaders(keys(0, 50));
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			Assert.assertEquals("not connected", e.getMessage());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void chunkSizeIsLimited() {
+		new ChunkedBatch(client(), null, ChunkedBatch.MAX_BATCH_SIZE + 1, 1);
+	}
+}
@@ -13,6 +13,8 @@ import org.junit.Test;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 @SuppressWarnings("SuspiciousToArrayCall")
@@ -174,6 +176,28 @@ public class DeleterTest extends SpikeifyTest {
 
 	}
 
+	@Test
+	public void deleteAllObjectsAsync() throws ExecutionException, InterruptedException {
+		Map<Long, EntityOne> entities = TestUtils.randomEntityOne(10, setName);
+		EntityOne[] antArray = entities.values().toArray(new EntityOne[entities.size()]);
+		Map<Key, Object> res = sfy.createAll((Object[])antArray).now();
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Map<EntityOne, Boolean> del = sfy.deleteAll(antArray).async(executor).get();
+			Assert.assertEquals(entities.size(), del.size());
+
+			for (Boolean existed : del.values()) {
+				Assert.assertTrue(existed);
+			}
+			for (Key key : res.keySet()) {
+				Assert.assertFalse(client.exists(null, key));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void deleteAllLongs() {
 		Map<Long, EntityOne> entities = TestUtils.randomEntityOne(10, EntityOne.class.getSimpleName());
@@ -0,0 +1,96 @@
+package com.spikeify;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FieldAccessorTest {
+
+	@SuppressWarnings("unused")
+	public static class Primitives {
+		private long aLong;
+		private int anInt;
+		private short aShort;
+		private byte aByte;
+		private char aChar;
+		private double aDouble;
+		private float aFloat;
+		private boolean aBoolean;
+		private Integer boxed;
+		private String string;
+	}
+
+	@Test
+	public void methodHandleAccessors() throws NoSuchFieldException {
+		checkAccessors(new MethodHandleAccessorFactory());
+	}
+
+	@Test
+	public void reflectionAccessors() throws NoSuchFieldException {
+		checkAccessors(new ReflectionAccessorFactory());
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void methodHandleAccessorRethrowsUnchecked() throws NoSuchFieldException {
+
+		// unchecked exceptions of handle invocation are not wrapped
+		new MethodHandleAccessorFactory().create(Primitives.class.getDeclaredField("string")).set(new Primitives(), 1);
+	}
+
+	private void checkAccessors(FieldAccessorFactory factory) throws NoSuchFieldException {
+
+		Primitives target = new Primitives();
+
+		FieldAccessor aLong = factory.create(Primitives.class.getDeclaredField("aLong"));
+		aLong.setLong(target, 123456789012L);
+		Assert.assertEquals(123456789012L, aLong.getLong(target));
+		Assert.assertEquals(123456789012L, aLong.get(target));
+
+		FieldAccessor anInt = factory.create(Primitives.class.getDeclaredField("anInt"));
+		anInt.setLong(target, 12345L);
+		Assert.assertEquals(12345, target.anInt);
+		Assert.assertEquals(12345L, anInt.getLong(target));
+		anInt.set(target, 42);
+		Assert.assertEquals(42, target.anInt);
+
+		FieldAccessor aShort = factory.create(Primitives.class.getDeclaredField("aShort"));
+		aShort.setLong(target, 234L);
+		Assert.assertEquals((short) 234, target.aShort);
+		Assert.assertEquals(234L, aShort.getLong(target));
+
+		FieldAccessor aByte = factory.create(Primitives.class.getDeclaredField("aByte"));
+		aByte.setLong(target, 100L);
+		Assert.assertEquals((byte) 100, target.aByte);
+		Assert.assertEquals(100L, aByte.getLong(target));
+
+		FieldAccessor aChar = factory.create(Primitives.class.getDeclaredField("aChar"));
+		aChar.setLong(target, 'x');
+		Assert.assertEquals('x', target.aChar);
+		Assert.assertEquals('x', aChar.getLong(target));
+
+		FieldAccessor aDouble = factory.create(Primitives.class.getDeclaredField("aDouble"));
+		aDouble.setDouble(target, 1.5d);
+		Assert.assertEquals(1.5d, target.aDouble, 0.0);
+		Assert.assertEquals(1.5d, aDouble.getDouble(target), 0.0);
+
+		FieldAccessor aFloat = factory.create(Primitives.class.getDeclaredField("aFloat"));
+		aFloat.setDouble(target, 2.5d);
+		Assert.assertEquals(2.5f, target.aFloat, 0.0);
+		Assert.assertEquals(2.5d, aFloat.getDouble(target), 0.0);
+
+		FieldAccessor aBoolean = factory.create(Primitives.class.getDeclaredField("aBoolean"));
+		aBoolean.setBoolean(target, true);
+		Assert.assertTrue(target.aBoolean);
+		Assert.assertTrue(aBoolean.getBoolean(target));
+		Assert.assertEquals(Boolean.TRUE, aBoolean.get(target));
+
+		FieldAccessor boxed = factory.create(Primitives.class.getDeclaredField("boxed"));
+		boxed.set(target, 7);
+		Assert.assertEquals(Integer.valueOf(7), target.boxed);
+		boxed.set(target, null);
+		Assert.assertNull(boxed.get(target));
+
+		FieldAccessor string = factory.create(Primitives.class.getDeclaredField("string"));
+		string.set(target, "test");
+		Assert.assertEquals("test", string.get(target));
+	}
+}
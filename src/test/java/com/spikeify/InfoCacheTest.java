@@ -0,0 +1,141 @@
+package com.spikeify;
+
+import com.aerospike.client.IAerospikeClient;
+import com.spikeify.commands.InfoCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InfoCacheTest {
+
+	private final AtomicInteger fetches = new AtomicInteger();
+
+	private final InfoCache.Loader<Integer> loader = new InfoCache.Loader<Integer>() {
+		@Override
+		public Integer load(IAerospikeClient client) {
+			return fetches.incrementAndGet();
+		}
+	};
+
+	private final AtomicBoolean connected = new AtomicBoolean(true);
+
+	private final IAerospikeClient client = new AsyncClientStub().answer("isConnected", new AsyncClientStub.Answer() {
+		@Override
+		public Object answer(Object[] args) {
+			return connected.get();
+		}
+	}).client();
+
+	@Test
+	public void cachesUntilExpired() throws InterruptedException {
+
+		InfoCache cache = new InfoCache(client).ttl(50, TimeUnit.MILLISECONDS);
+
+		Assert.assertEquals(1, (int) cache.get("sindex/test", loader));
+		Assert.assertEquals(1, (int) cache.get("sindex/test", loader));
+
+		Thread.sleep(100);
+		Assert.assertEquals(2, (int) cache.get("sindex/test", loader));
+	}
+
+	@Test
+	public void disabledCache() {
+
+		InfoCache cache = new InfoCache(client).ttl(0, TimeUnit.SECONDS);
+
+		Assert.assertEquals(1, (int) cache.get("build", loader));
+		Assert.assertEquals(2, (int) cache.get("build", loader));
+	}
+
+	@Test
+	public void invalidatesIndexes() {
+
+		InfoCache cache = new InfoCache(client);
+
+		cache.get("sindex/test", loader);
+		cache.get("build", loader);
+		cache.invalidateIndexes("test");
+
+		Assert.assertEquals(3, (int) cache.get("sindex/test", loader));
+		Assert.assertEquals(2, (int) cache.get("build", loader));
+	}
+
+	@Test
+	public void doesNotCacheIncompleteValues() {
+
+		InfoCache cache = new InfoCache(client);
+		InfoCache.PartialLoader<Integer> partial = new InfoCache.PartialLoader<Integer>() {
+			@Override
+			public Integer load(IAerospikeClient client) {
+				return fetches.incrementAndGet();
+			}
+
+			@Override
+			public boolean isComplete(Integer value) {
+				// i.e. index built on second fetch
+				return value > 1;
+			}
+		};
+
+		Assert.assertEquals(1, (int) cache.get("sindex/test", partial));
+		Assert.assertEquals(2, (int) cache.get("sindex/test", partial));
+		Assert.assertEquals(2, (int) cache.get("sindex/test", partial));
+	}
+
+	@Test
+	public void refreshesInBackground() throws InterruptedException {
+
+		InfoCache cache = new InfoCache(client);
+		cache.get("build", loader);
+
+		cache.refreshEvery(10, TimeUnit.MILLISECONDS);
+		try {
+			Thread.sleep(100);
+		}
+		finally {
+			cache.stopRefresh();
+		}
+
+		int refreshed = cache.get("build", loader);
+		Assert.assertTrue(refreshed > 1);
+		Assert.assertEquals(refreshed, fetches.get());
+	}
+
+	@Test
+	public void stopsRefreshOfClosedClient() throws InterruptedException {
+
+		InfoCache cache = new InfoCache(client);
+		cache.get("build", loader);
+
+		connected.set(false);
+		cache.refreshEvery(10, TimeUnit.MILLISECONDS);
+		try {
+			Thread.sleep(100);
+		}
+		finally {
+			cache.stopRefresh();
+		}
+
+		Assert.assertEquals(1, fetches.get());
+	}
+
+	@Test
+	public void doesNotKeepClientReachable() throws InterruptedException {
+
+		IAerospikeClient other = new AsyncClientStub().client();
+		InfoCache.of(other).get("build", loader);
+
+		WeakReference<IAerospikeClient> reference = new WeakReference<>(other);
+		other = null;
+
+		for (int i = 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assert.assertNull(reference.get());
+	}
+}
@@ -0,0 +1,169 @@
+package com.spikeify;
+
+import com.spikeify.async.FutureCallback;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.SettableFuture;
+import com.spikeify.async.Transform;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ListenableFutureTest {
+
+	@Test
+	public void callbacks() {
+
+		SettableFuture<String> future = new SettableFuture<>();
+		final AtomicReference<Object> before = new AtomicReference<>();
+		final AtomicReference<Object> after = new AtomicReference<>();
+
+		future.onComplete(callback(before));
+		Assert.assertNull(before.get());
+
+		future.set("done");
+		future.onComplete(callback(after));
+
+		Assert.assertEquals("done", before.get());
+		Assert.assertEquals("done", after.get());
+	}
+
+	@Test
+	public void failureAndCancel() {
+
+		final AtomicReference<Object> failed = new AtomicReference<>();
+		final AtomicReference<Object> cancelled = new AtomicReference<>();
+
+		SettableFuture<String> future = new SettableFuture<>();
+		future.onComplete(callback(failed));
+		future.setException(new IllegalStateException());
+		Assert.assertTrue(failed.get() instanceof IllegalStateException);
+
+		SettableFuture<String> other = new SettableFuture<>();
+		other.onComplete(callback(cancelled));
+		Assert.assertTrue(other.cancel(true));
+		Assert.assertTrue(cancelled.get() instanceof CancellationException);
+		Assert.assertTrue(other.isCancelled());
+		Assert.assertFalse(future.isCancelled());
+
+		try {
+			other.get();
+			Assert.fail();
+		} catch (CancellationException e) {
+			// expected
+		} catch (Exception e) {
+			Assert.fail(e.toString());
+		}
+	}
+
+	@Test
+	public void then() throws Exception {
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			SettableFuture<String> future = new SettableFuture<>();
+
+			ListenableFuture<Integer> length = future.then(new Transform<String, Integer>() {
+				@Override
+				public Integer apply(String source) {
+					return source.length();
+				}
+			}, executor);
+
+			ListenableFuture<Integer> failing = length.then(new Transform<Integer, Integer>() {
+				@Override
+				public Integer apply(Integer source) {
+					throw new IllegalArgumentException();
+				}
+			});
+
+			future.set("four");
+
+			Assert.assertEquals(4, (int) length.get(5, TimeUnit.SECONDS));
+			try {
+				failing.get(5, TimeUnit.SECONDS);
+				Assert.fail();
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void thenAsync() throws Exception {
+
+		SettableFuture<String> first = new SettableFuture<>();
+		final SettableFuture<Integer> second = new SettableFuture<>();
+
+		ListenableFuture<Integer> chained = first.thenAsync(new Transform<String, ListenableFuture<Integer>>() {
+			@Override
+			public ListenableFuture<Integer> apply(String source) {
+				return second;
+			}
+		});
+
+		first.set("first");
+		Assert.assertFalse(chained.isDone());
+
+		second.set(2);
+		Assert.assertEquals(2, (int) chained.get());
+	}
+
+	@Test
+	public void throwingCallback() throws Exception {
+
+		SettableFuture<String> future = new SettableFuture<>();
+		future.onComplete(new FutureCallback<String>() {
+			@Override
+			public void onSuccess(String result) {
+				throw new IllegalStateException("callback failed");
+			}
+
+			@Override
+			public void onFailure(Exception exception) {
+			}
+		});
+
+		// rejected callback
+		future.onComplete(callback(new AtomicReference<>()), new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException();
+			}
+		});
+
+		ListenableFuture<Integer> chained = future.then(new Transform<String, Integer>() {
+			@Override
+			public Integer apply(String source) {
+				return source.length();
+			}
+		});
+
+		// completing thread does not fail
+		future.set("done");
+		Assert.assertEquals(4, (int) chained.get(1, TimeUnit.SECONDS));
+	}
+
+	private static FutureCallback<Object> callback(final AtomicReference<Object> outcome) {
+		return new FutureCallback<Object>() {
+			@Override
+			public void onSuccess(Object result) {
+				outcome.set(result);
+			}
+
+			@Override
+			public void onFailure(Exception exception) {
+				outcome.set(exception);
+			}
+		};
+	}
+}
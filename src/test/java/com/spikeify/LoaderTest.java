@@ -13,6 +13,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spikeify.annotations.AsJson;
 import com.spikeify.annotations.Indexed;
 import com.spikeify.annotations.UserKey;
+import com.spikeify.async.ListenableFuture;
+import com.spikeify.async.Transform;
+import com.spikeify.commands.BatchLoader;
 import com.spikeify.entity.*;
 import org.junit.Assert;
 import org.junit.Before;
@@ -20,6 +23,8 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -162,6 +167,115 @@ public class LoaderTest extends SpikeifyTest {
 		assertEquals(userKey2, result.get(saveKey2).userId);
 	}
 
+	@Test
+	public void loadFields() {
+
+		EntityOne entity = new EntityOne();
+		entity.one = 123;
+		entity.two = "a test";
+		entity.three = 123.0d;
+		entity.seven = true;
+		sfy.update(userKey1, entity).namespace(namespace).setName(setName).now();
+
+		EntityOne partial = sfy.get(EntityOne.class).key(userKey1).namespace(namespace).setName(setName).fields("two").now();
+		assertEquals("a test", partial.two);
+		assertEquals(0, partial.one);
+		Assert.assertFalse(partial.seven);
+
+		// bins not loaded are kept
+		partial.two = "changed";
+		sfy.update(partial).now();
+
+		EntityOne reloaded = sfy.get(EntityOne.class).key(userKey1).namespace(namespace).setName(setName).now();
+		assertEquals("changed", reloaded.two);
+		assertEquals(123, reloaded.one);
+		assertEquals(123.0d, reloaded.three, 0.1);
+		Assert.assertTrue(reloaded.seven);
+
+		Map<Long, EntityOne> all = sfy.getAll(EntityOne.class, userKey1).namespace(namespace).setName(setName).fields("one").now();
+		assertEquals(123, all.get(userKey1).one);
+		Assert.assertNull(all.get(userKey1).two);
+	}
+
+	@Test
+	public void loadInChunks() {
+
+		Map<Long, EntityOne> entities = TestUtils.randomEntityOne(50, "EntityOne");
+		sfy.createAll(entities.values().toArray()).now();
+
+		Long[] ids = entities.keySet().toArray(new Long[entities.size()]);
+
+		Map<Long, EntityOne> loaded = sfy.getAll(EntityOne.class, ids).chunks(7, 3).now();
+		assertEquals(entities, loaded);
+
+		Map<Long, RecordHeader> headers = sfy.getAll(EntityOne.class, ids).chunks(7, 3).headers();
+		assertEquals(entities.keySet(), headers.keySet());
+		for (RecordHeader header : headers.values()) {
+			assertEquals(1, header.getGeneration());
+		}
+
+		Map<Long, Boolean> exist = sfy.exist(EntityOne.class, ids);
+		assertEquals(50, exist.size());
+		Assert.assertFalse(exist.containsValue(false));
+	}
+
+	@Test
+	public void batchLoadMixedTypes() {
+
+		EntityOne one = new EntityOne();
+		one.one = 123;
+		one.two = "a test";
+		sfy.create(userKey1, one).namespace(namespace).setName(setName).now();
+
+		EntityTwo two = new EntityTwo();
+		two.one = 456;
+		two.two = "another test";
+		Key key2 = new Key(namespace, setName, "two");
+		sfy.create(key2, two).now();
+
+		BatchLoader batch = sfy.batch();
+		BatchLoader.Item<EntityOne> loadedOne = batch.get(EntityOne.class, userKey1).namespace(namespace).setName(setName);
+		BatchLoader.Item<EntityTwo> loadedTwo = batch.get(EntityTwo.class, key2).fields("two");
+		BatchLoader.Item<EntityOne> missing = batch.get(EntityOne.class, userKey2).namespace(namespace).setName(setName);
+
+		List<Object> all = batch.now();
+		assertEquals(3, all.size());
+		Assert.assertSame(loadedOne.get(), all.get(0));
+		Assert.assertNull(missing.get());
+
+		assertEquals(123, loadedOne.get().one);
+		assertEquals("a test", loadedOne.get().two);
+		assertEquals("another test", loadedTwo.get().two);
+		assertEquals(0, loadedTwo.get().one);
+	}
+
+	@Test
+	public void loadAsync() throws Exception {
+
+		Map<Long, EntityOne> entities = TestUtils.randomEntityOne(10, "EntityOne");
+		sfy.createAll(entities.values().toArray()).now();
+
+		Long[] ids = entities.keySet().toArray(new Long[entities.size()]);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ListenableFuture<EntityOne> single = sfy.get(EntityOne.class).key(ids[0]).async(executor);
+			ListenableFuture<Integer> count = sfy.getAll(EntityOne.class, ids).async(executor)
+					.then(new Transform<Map<Long, EntityOne>, Integer>() {
+						@Override
+						public Integer apply(Map<Long, EntityOne> loaded) {
+							return loaded.size();
+						}
+					});
+
+			Assert.assertEquals(entities.get(ids[0]), single.get());
+			Assert.assertEquals(entities.size(), (int) count.get());
+			Assert.assertNull(sfy.get(EntityOne.class).namespace(namespace).key(0L).async().get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void loadNonExisting() {
 		EntityOne res = sfy.get(EntityOne.class).namespace(namespace).key(0L).now();
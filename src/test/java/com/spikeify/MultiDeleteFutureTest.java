@@ -0,0 +1,59 @@
+package com.spikeify;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.spikeify.async.MultiDeleteFuture;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+public class MultiDeleteFutureTest {
+
+	private final Key key1 = new Key("test", "set", 1L);
+	private final Key key2 = new Key("test", "set", 2L);
+
+	@Test
+	public void completesWhenAllListenersCalled() throws Exception {
+
+		MultiDeleteFuture<Key> future = new MultiDeleteFuture<>(2);
+
+		future.listener(key1).onSuccess(key1, true);
+		Assert.assertFalse(future.isDone());
+
+		future.listener(key2).onSuccess(key2, false);
+		Assert.assertTrue(future.isDone());
+
+		Map<Key, Boolean> result = future.get();
+		Assert.assertEquals(2, result.size());
+		Assert.assertTrue(result.get(key1));
+		Assert.assertFalse(result.get(key2));
+	}
+
+	@Test
+	public void collectsFailures() throws InterruptedException {
+
+		MultiDeleteFuture<Key> future = new MultiDeleteFuture<>(2);
+
+		future.listener(key1).onFailure(new AerospikeException(ResultCode.TIMEOUT));
+		future.listener(key2).onSuccess(key2, true);
+
+		try {
+			future.get();
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof SpikeifyError);
+		}
+
+		Assert.assertEquals(ResultCode.TIMEOUT, future.getFailures().get(key1).getResultCode());
+		Assert.assertTrue(future.getResults().get(key2));
+	}
+
+	@Test
+	public void nothingToDelete() throws Exception {
+
+		Assert.assertTrue(new MultiDeleteFuture<Key>(0).get().isEmpty());
+	}
+}
@@ -0,0 +1,44 @@
+package com.spikeify;
+
+import com.aerospike.client.Key;
+import com.spikeify.async.MultiDeleteFuture;
+import com.spikeify.commands.MultiKeyDeleter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous multi deletes over a stubbed client, so failures are checked without a server.
+ */
+public class MultiKeyDeleterStubTest {
+
+	@Test
+	public void rejectedDeletesFailFuture() throws Exception {
+
+		Key one = new Key("test", "set", 1L);
+		Key two = new Key("test", "set", 2L);
+
+		Executor rejecting = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException("shut down");
+			}
+		};
+
+		MultiDeleteFuture<Key> future = new MultiKeyDeleter<>(new AsyncClientStub().client(), new RecordsCache(), "test", one, two).async(rejecting);
+
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			Assert.fail();
+		}
+		catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof SpikeifyError);
+		}
+		Assert.assertEquals(2, future.getFailures().size());
+		Assert.assertTrue(future.getFailures().get(one).getCause() instanceof RejectedExecutionException);
+	}
+}
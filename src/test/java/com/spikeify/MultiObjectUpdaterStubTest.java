@@ -0,0 +1,85 @@
+package com.spikeify;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.listener.WriteListener;
+import com.aerospike.client.policy.WritePolicy;
+import com.spikeify.commands.MultiObjectUpdater;
+import com.spikeify.entity.EntityOne;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous multi updates over a stubbed client, so retries are checked without a server.
+ */
+public class MultiObjectUpdaterStubTest {
+
+	@Test(expected = SpikeifyError.class)
+	public void asyncWithoutObjects() {
+
+		AsyncClientStub stub = new AsyncClientStub().answer("getWritePolicyDefault", new AsyncClientStub.Answer() {
+			@Override
+			public Object answer(Object[] args) {
+				return new WritePolicy();
+			}
+		});
+
+		// same as synchronous update, not an IllegalArgumentException of an empty write window
+		new MultiObjectUpdater(false, stub.client(), new RecordsCache(), false, "test").async();
+	}
+
+	@Test
+	public void asyncRetriesWithoutBlocking() throws Exception {
+
+		final AtomicInteger asyncPuts = new AtomicInteger();
+		final AtomicInteger syncPuts = new AtomicInteger();
+
+		AsyncClientStub stub = new AsyncClientStub()
+				.answer("getWritePolicyDefault", new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						return new WritePolicy();
+					}
+				})
+				.answerLater("put", 10, new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						if (!(args[1] instanceof WriteListener)) {
+							syncPuts.incrementAndGet();
+							return null;
+						}
+
+						WriteListener listener = (WriteListener) args[1];
+						Key key = (Key) args[2];
+						// first write of the second record fails as not found
+						if (asyncPuts.incrementAndGet() <= 2 && key.userKey.toLong() == 2L) {
+							listener.onFailure(new AerospikeException(ResultCode.KEY_NOT_FOUND_ERROR));
+						} else {
+							listener.onSuccess(key);
+						}
+						return null;
+					}
+				});
+
+		EntityOne one = new EntityOne();
+		one.userId = 1L;
+		one.one = 1;
+		EntityOne two = new EntityOne();
+		two.userId = 2L;
+		two.one = 2;
+
+		Map<Key, Object> result = new MultiObjectUpdater(false, stub.client(), new RecordsCache(), false, "test", one, two).async().get(5, TimeUnit.SECONDS);
+
+		Assert.assertEquals(2, result.size());
+		for (Object object : result.values()) {
+			Assert.assertTrue(object instanceof EntityOne);
+		}
+		Assert.assertEquals(3, asyncPuts.get());
+		Assert.assertEquals(0, syncPuts.get());
+	}
+}
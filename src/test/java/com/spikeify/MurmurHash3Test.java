@@ -0,0 +1,33 @@
+package com.spikeify;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class MurmurHash3Test {
+
+	@Test
+	public void streamingMatchesBytes() {
+
+		long value = 0x0123456789abcdefL;
+		byte[] bytes = ByteBuffer.allocate(8).putLong(value).array();
+
+		Assert.assertEquals(new MurmurHash3().add(bytes).hash()[0], new MurmurHash3().add(value).hash()[0]);
+		Assert.assertEquals(new MurmurHash3().add(bytes).hash()[0], new MurmurHash3().add(bytes).hash64());
+
+		byte[] chars = ByteBuffer.allocate(6).putChar('a').putChar('b').putChar('č').array();
+		Assert.assertEquals(new MurmurHash3().add(chars).hash64(), new MurmurHash3().add("abč").hash64());
+	}
+
+	@Test
+	public void reset() {
+
+		MurmurHash3 hasher = new MurmurHash3();
+		long first = hasher.add("some longer string, spanning multiple blocks").hash64();
+		long second = hasher.reset().add("some longer string, spanning multiple blocks").hash64();
+		Assert.assertEquals(first, second);
+
+		Assert.assertNotEquals(first, hasher.reset().add("some other string").hash64());
+	}
+}
@@ -0,0 +1,147 @@
+package com.spikeify;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.spikeify.entity.EntityOne;
+import com.spikeify.entity.EntityTwo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+public class NearCacheTest {
+
+	private final Key key1 = new Key("namespace1", "set1", "12345");
+	private final Key key2 = new Key("namespace1", "set1", "67890");
+
+	private static Record record(int generation, int expiration) {
+		Map<String, Object> bins = new HashMap<>();
+		bins.put("one", 1L);
+		bins.put("list", new ArrayList<>(Arrays.asList(1L, 2L)));
+		return new Record(bins, generation, expiration);
+	}
+
+	@Test
+	public void testCachedPerClass() {
+
+		NearCache cache = new NearCache();
+		cache.enable(EntityOne.class, 10, 0, TimeUnit.SECONDS);
+
+		cache.put(EntityOne.class, key1, record(3, 0), cache.stamp(key1));
+		cache.put(EntityTwo.class, key1, record(3, 0), cache.stamp(key1));
+
+		Record cached = cache.get(EntityOne.class, key1, null, null);
+		Assert.assertNotNull(cached);
+		Assert.assertEquals(3, cached.generation);
+		Assert.assertEquals(1L, cached.getValue("one"));
+
+		// class not enabled
+		Assert.assertNull(cache.get(EntityTwo.class, key1, null, null));
+		Assert.assertNull(cache.get(EntityOne.class, key2, null, null));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCopiesAreNotShared() {
+
+		NearCache cache = new NearCache();
+		cache.enable(EntityOne.class, 10, 0, TimeUnit.SECONDS);
+
+		Record loaded = record(1, 0);
+		cache.put(EntityOne.class, key1, loaded, cache.stamp(key1));
+		((List<Object>) loaded.getValue("list")).add(3L);
+
+		Record cached = cache.get(EntityOne.class, key1, null, null);
+		((List<Object>) cached.getValue("list")).add(4L);
+
+		Assert.assertEquals(Arrays.asList(1L, 2L), cache.get(EntityOne.class, key1, null, null).getValue("list"));
+	}
+
+	@Test
+	public void testInvalidation() {
+
+		RecordsCache recordsCache = new RecordsCache();
+		NearCache cache = recordsCache.getNearCache();
+		cache.enable(EntityOne.class, 10, 0, TimeUnit.SECONDS);
+
+		cache.put(EntityOne.class, key1, record(1, 0), cache.stamp(key1));
+		cache.put(EntityOne.class, key2, record(1, 0), cache.stamp(key2));
+
+		// writes and deletes invalidate
+		recordsCache.remove(key1);
+		Assert.assertNull(cache.get(EntityOne.class, key1, null, null));
+
+		recordsCache.update(key2, new HashMap<String, Object>(), false);
+		Assert.assertNull(cache.get(EntityOne.class, key2, null, null));
+
+		// load started before invalidation of its key is not cached
+		long stamp = cache.stamp(key1);
+		cache.invalidate(key1);
+		cache.put(EntityOne.class, key1, record(2, 0), stamp);
+		Assert.assertNull(cache.get(EntityOne.class, key1, null, null));
+
+		// invalidation of another key does not affect loads in flight
+		stamp = cache.stamp(key1);
+		cache.invalidate(key2);
+		Assert.assertEquals(stamp, cache.stamp(key1));
+		cache.put(EntityOne.class, key1, record(2, 0), stamp);
+		Assert.assertNotNull(cache.get(EntityOne.class, key1, null, null));
+
+		// write completion invalidates records loaded while the write was in flight
+		recordsCache.update(key1, new HashMap<String, Object>(), false);
+		cache.put(EntityOne.class, key1, record(2, 0), cache.stamp(key1));
+		recordsCache.written(key1);
+		Assert.assertNull(cache.get(EntityOne.class, key1, null, null));
+	}
+
+	@Test
+	public void testEviction() {
+
+		NearCache cache = new NearCache();
+		cache.enable(EntityOne.class, 1, 0, TimeUnit.SECONDS);
+
+		cache.put(EntityOne.class, key1, record(1, 0), cache.stamp(key1));
+		cache.put(EntityOne.class, key2, record(1, 0), cache.stamp(key2));
+
+		Assert.assertNull(cache.get(EntityOne.class, key1, null, null));
+		Assert.assertNotNull(cache.get(EntityOne.class, key2, null, null));
+	}
+
+	@Test
+	public void testExpiration() throws InterruptedException {
+
+		NearCache cache = new NearCache();
+		cache.enable(EntityOne.class, 10, 50, TimeUnit.MILLISECONDS);
+
+		// record expiration in seconds since 2010, already passed
+		int expired = (int) (System.currentTimeMillis() / 1000 - ExpirationUtils.AS_TIMEBASE_SEC - 10);
+		cache.put(EntityOne.class, key1, record(1, expired), cache.stamp(key1));
+		Assert.assertNull(cache.get(EntityOne.class, key1, null, null));
+
+		cache.put(EntityOne.class, key2, record(1, 0), cache.stamp(key2));
+		Assert.assertNotNull(cache.get(EntityOne.class, key2, null, null));
+		Thread.sleep(100);
+		Assert.assertNull(cache.get(EntityOne.class, key2, null, null));
+	}
+
+	@Test
+	public void testRevalidationNeedsClient() throws InterruptedException {
+
+		NearCache cache = new NearCache();
+		cache.enable(EntityOne.class, 10, 0, TimeUnit.SECONDS).revalidateAfter(EntityOne.class, 10, TimeUnit.MILLISECONDS);
+
+		cache.put(EntityOne.class, key1, record(1, 0), cache.stamp(key1));
+		Assert.assertNotNull(cache.get(EntityOne.class, key1, null, null));
+
+		// stale records are not returned without a client to check them
+		Thread.sleep(50);
+		Assert.assertNull(cache.get(EntityOne.class, key1, null, null));
+		Assert.assertNull(cache.getAll(EntityOne.class, new Key[]{key1}, null, null)[0]);
+	}
+
+	@Test(expected = SpikeifyError.class)
+	public void testRevalidationOfDisabledClass() {
+		new NearCache().revalidateAfter(EntityOne.class, 1, TimeUnit.SECONDS);
+	}
+}
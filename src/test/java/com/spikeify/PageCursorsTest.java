@@ -0,0 +1,164 @@
+package com.spikeify;
+
+import com.spikeify.commands.Page;
+import com.spikeify.commands.PageCursors;
+import com.spikeify.commands.ScanIterator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PageCursorsTest {
+
+	@Test
+	public void continuesWhereStopped() {
+
+		List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6, 7);
+		final AtomicBoolean closed = new AtomicBoolean();
+
+		Page<Integer> page = PageCursors.first(Integer.class, items.iterator(), new Closeable() {
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		}, 3);
+
+		List<Integer> loaded = new ArrayList<>(page.getItems());
+		Assert.assertEquals(3, page.getItems().size());
+		Assert.assertTrue(page.hasMore());
+
+		String cursor = page.getCursor();
+		page = PageCursors.next(Integer.class, cursor, 3);
+		loaded.addAll(page.getItems());
+		Assert.assertEquals(cursor, page.getCursor());
+		Assert.assertFalse(closed.get());
+
+		page = PageCursors.next(Integer.class, page.getCursor(), 3);
+		loaded.addAll(page.getItems());
+		Assert.assertFalse(page.hasMore());
+		Assert.assertTrue(closed.get());
+
+		Assert.assertEquals(items, loaded);
+	}
+
+	@Test(expected = SpikeifyError.class)
+	public void closedCursor() {
+
+		ScanIterator<Integer> iterator = new ScanIterator<>(10);
+		iterator.offer(1);
+		iterator.offer(2);
+		iterator.finish(null);
+
+		Page<Integer> page = PageCursors.first(Integer.class, iterator, iterator, 1);
+		Assert.assertTrue(page.hasMore());
+
+		PageCursors.close(page.getCursor());
+		PageCursors.next(Integer.class, page.getCursor(), 1);
+	}
+
+	@Test
+	public void expiresIdleCursors() throws InterruptedException {
+
+		final AtomicBoolean closed = new AtomicBoolean();
+		Page<Integer> page = PageCursors.first(Integer.class, Arrays.asList(1, 2).iterator(), new Closeable() {
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		}, 1);
+
+		PageCursors.setIdleTimeout(50, TimeUnit.MILLISECONDS);
+		try {
+			// closed by background sweep, without further paging
+			long deadline = System.currentTimeMillis() + 5000;
+			while (!closed.get() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			Assert.assertTrue(closed.get());
+		}
+		finally {
+			PageCursors.setIdleTimeout(PageCursors.DEFAULT_IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+
+		try {
+			PageCursors.next(Integer.class, page.getCursor(), 1);
+			Assert.fail();
+		}
+		catch (SpikeifyError e) {
+			// expected
+		}
+	}
+
+	@Test(expected = SpikeifyError.class)
+	public void wrongType() {
+
+		Page<Integer> page = PageCursors.first(Integer.class, Arrays.asList(1, 2).iterator(), new Closeable() {
+			@Override
+			public void close() {
+			}
+		}, 1);
+
+		PageCursors.next(String.class, page.getCursor(), 1);
+	}
+
+	@Test
+	public void closesLeastRecentlyUsedOverLimit() throws InterruptedException {
+
+		final List<Integer> closed = new ArrayList<>();
+		List<Page<Integer>> pages = new ArrayList<>();
+
+		PageCursors.setMaxOpenCursors(2);
+		try {
+			for (int i = 0; i < 3; i++) {
+				final int index = i;
+				pages.add(PageCursors.first(Integer.class, Arrays.asList(1, 2).iterator(), new Closeable() {
+					@Override
+					public void close() {
+						closed.add(index);
+					}
+				}, 1));
+				Thread.sleep(1);
+			}
+		}
+		finally {
+			PageCursors.setMaxOpenCursors(PageCursors.DEFAULT_MAX_OPEN_CURSORS);
+		}
+
+		Assert.assertEquals(Arrays.asList(0), closed);
+		try {
+			PageCursors.next(Integer.class, pages.get(0).getCursor(), 1);
+			Assert.fail();
+		}
+		catch (SpikeifyError e) {
+			// expected
+		}
+
+		Assert.assertEquals(Arrays.asList(2), PageCursors.next(Integer.class, pages.get(2).getCursor(), 1).getItems());
+		PageCursors.close(pages.get(1).getCursor());
+	}
+
+	@Test
+	public void failedScanIsNotTruncatedPage() {
+
+		ScanIterator<Integer> iterator = new ScanIterator<>(10);
+		iterator.offer(1);
+		iterator.offer(2);
+		iterator.finish(new IllegalStateException("scan timed out"));
+
+		Page<Integer> page = PageCursors.first(Integer.class, iterator, iterator, 1);
+		Assert.assertTrue(page.hasMore());
+
+		try {
+			PageCursors.next(Integer.class, page.getCursor(), 5);
+			Assert.fail();
+		}
+		catch (SpikeifyError e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.spikeify;
+
+import com.aerospike.client.Value;
+import com.spikeify.converters.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrimitiveConverterTest {
+
+	@Test
+	public void longRoundTrip() {
+
+		LongConverter converter = new LongConverter();
+		for (long value : new long[]{0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE}) {
+			Object property = converter.fromLong(value);
+			Assert.assertEquals(converter.fromField(value), property);
+			Assert.assertEquals(value, converter.toLong(property));
+		}
+	}
+
+	@Test
+	public void integerRoundTrip() {
+
+		IntegerConverter converter = new IntegerConverter();
+		for (int value : new int[]{0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+			Object property = converter.fromLong(value);
+			Assert.assertEquals(converter.fromField(value), property);
+			Assert.assertEquals(value, (int) converter.toLong(property));
+			Assert.assertEquals(converter.fromProperty((Long) property).intValue(), (int) converter.toLong(property));
+		}
+	}
+
+	@Test
+	public void shortRoundTrip() {
+
+		ShortConverter converter = new ShortConverter();
+		for (short value : new short[]{0, 1, -1, Short.MIN_VALUE, Short.MAX_VALUE}) {
+			Object property = converter.fromLong(value);
+			Assert.assertEquals(converter.fromField(value), property);
+			Assert.assertEquals(value, (short) converter.toLong(property));
+			Assert.assertEquals(converter.fromProperty((Long) property).shortValue(), (short) converter.toLong(property));
+		}
+	}
+
+	@Test
+	public void byteRoundTrip() {
+
+		ByteConverter converter = new ByteConverter();
+		for (byte value : new byte[]{0, 1, -1, Byte.MIN_VALUE, Byte.MAX_VALUE}) {
+			Object property = converter.fromLong(value);
+			Assert.assertEquals(converter.fromField(value), property);
+			Assert.assertEquals(value, (byte) converter.toLong(property));
+			Assert.assertEquals(converter.fromProperty((Long) property).byteValue(), (byte) converter.toLong(property));
+		}
+	}
+
+	@Test
+	public void booleanRoundTrip() {
+
+		BooleanConverter converter = new BooleanConverter();
+		for (boolean value : new boolean[]{true, false}) {
+			Object property = converter.fromLong(value ? 1 : 0);
+			Assert.assertEquals(converter.fromField(value), property);
+			Assert.assertEquals(value, converter.toLong(property) != 0);
+			Assert.assertEquals(converter.fromProperty((Long) property), converter.toLong(property) != 0);
+		}
+
+		// any non zero value is true
+		Assert.assertEquals(1L, converter.toLong(5L));
+		Assert.assertEquals(1L, converter.fromLong(-3L));
+	}
+
+	@Test
+	public void doubleRoundTrip() {
+
+		boolean useDoubleType = Value.UseDoubleType;
+		try {
+			for (boolean doubleType : new boolean[]{true, false}) {
+				Value.UseDoubleType = doubleType;
+
+				DoubleConverter converter = new DoubleConverter();
+				for (double value : new double[]{0d, -0d, 1.5d, -1.5d, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.NEGATIVE_INFINITY}) {
+					Object property = converter.fromDouble(value);
+					Assert.assertEquals(converter.fromField(value), property);
+					Assert.assertEquals(Double.doubleToLongBits(value), Double.doubleToLongBits(converter.toDouble(property)));
+					Assert.assertEquals(converter.fromProperty(property), converter.toDouble(property), 0);
+				}
+			}
+		}
+		finally {
+			Value.UseDoubleType = useDoubleType;
+		}
+	}
+
+	@Test
+	public void floatRoundTrip() {
+
+		boolean useDoubleType = Value.UseDoubleType;
+		try {
+			for (boolean doubleType : new boolean[]{true, false}) {
+				Value.UseDoubleType = doubleType;
+
+				FloatConverter converter = new FloatConverter();
+				for (float value : new float[]{0f, -0f, 1.5f, -1.5f, Float.MIN_VALUE, Float.MAX_VALUE, Float.NaN, Float.NEGATIVE_INFINITY}) {
+					Object property = converter.fromDouble(value);
+					Assert.assertEquals(converter.fromField(value), property);
+					Assert.assertEquals(Float.floatToIntBits(value), Float.floatToIntBits((float) converter.toDouble(property)));
+					Assert.assertEquals(converter.fromProperty(property), (float) converter.toDouble(property), 0);
+				}
+			}
+		}
+		finally {
+			Value.UseDoubleType = useDoubleType;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.spikeify;
 
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
 import com.aerospike.client.Value;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.spikeify.entity.EntityOne;
@@ -57,4 +59,32 @@ public class PropertiesTest {
 		// System.out.println("Entity saved: " + objectMapper.writeValueAsString(entitySave));
 		Assert.assertEquals(entityLoad, entitySave);
 	}
+
+	@Test
+	public void recordValues() {
+
+		EntityOne entity = new EntityOne();
+		entity.one = 123;
+		entity.two = "a test";
+		entity.three = 123.0d;
+
+		ClassMapper<EntityOne> mapper = new ClassMapper<>(EntityOne.class);
+		RecordValues values = mapper.getRecordValues(entity);
+		Assert.assertEquals(mapper.getProperties(entity), values.toMap());
+
+		RecordsCache cache = new RecordsCache();
+		Key key = new Key("namespace", "set", "key");
+		cache.update(key, values, false);
+		Assert.assertEquals(values.size(), values.getChangedCount());
+
+		// only changed field is written
+		entity.two = "changed";
+		values = mapper.getRecordValues(entity);
+		cache.update(key, values, false);
+		Assert.assertEquals(1, values.getChangedCount());
+		Bin[] bins = values.getChangedBins(false);
+		Assert.assertEquals(1, bins.length);
+		Assert.assertEquals("two", bins[0].name);
+		Assert.assertEquals("changed", bins[0].value.getObject());
+	}
 }
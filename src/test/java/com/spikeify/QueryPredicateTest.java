@@ -0,0 +1,83 @@
+package com.spikeify;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.query.IndexCollectionType;
+import com.spikeify.entity.EntityOne;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class QueryPredicateTest {
+
+	private final Key key = new Key("test", "EntityOne", 1L);
+
+	private static Field field(String name) throws NoSuchFieldException {
+		return EntityOne.class.getDeclaredField(name);
+	}
+
+	private static Record record(Object... binsAndValues) {
+		Map<String, Object> bins = new HashMap<>();
+		for (int i = 0; i < binsAndValues.length; i += 2) {
+			bins.put((String) binsAndValues[i], binsAndValues[i + 1]);
+		}
+		return new Record(bins, 1, 0);
+	}
+
+	@Test
+	public void testScalarBins() throws NoSuchFieldException {
+
+		QueryPredicate equal = QueryPredicate.equal(field("two"), IndexCollectionType.DEFAULT, "content");
+		Assert.assertTrue(equal.accept(key, record("two", "content")));
+		Assert.assertFalse(equal.accept(key, record("two", "other")));
+		Assert.assertFalse(equal.accept(key, record("one", 1L)));
+
+		QueryPredicate range = QueryPredicate.range(field("one"), IndexCollectionType.DEFAULT, 10, 20);
+		Assert.assertTrue(range.accept(key, record("one", 10L)));
+		Assert.assertTrue(range.accept(key, record("one", 20L)));
+		Assert.assertFalse(range.accept(key, record("one", 21L)));
+
+		// bin names are used instead of field names
+		QueryPredicate third = QueryPredicate.in(field("three"), IndexCollectionType.DEFAULT, 1L, 3L);
+		Assert.assertTrue(third.accept(key, record("third", 3L)));
+		Assert.assertFalse(third.accept(key, record("three", 3L)));
+	}
+
+	@Test
+	public void testCollectionBins() throws NoSuchFieldException {
+
+		QueryPredicate contains = QueryPredicate.equal(field("nine"), IndexCollectionType.LIST, "content");
+		Assert.assertTrue(contains.accept(key, record("nine", Arrays.asList("a", "content"))));
+		Assert.assertFalse(contains.accept(key, record("nine", Arrays.asList("a", "b"))));
+
+		Map<String, Long> map = new HashMap<>();
+		map.put("content", 5L);
+
+		QueryPredicate mapKeys = QueryPredicate.in(field("ten"), IndexCollectionType.MAPKEYS, "content", "other");
+		Assert.assertTrue(mapKeys.accept(key, record("ten", map)));
+
+		QueryPredicate mapValues = QueryPredicate.range(field("ten"), IndexCollectionType.MAPVALUES, 1, 5);
+		Assert.assertTrue(mapValues.accept(key, record("ten", map)));
+	}
+
+	@Test
+	public void testSelectivity() throws NoSuchFieldException {
+
+		QueryPredicate equal = QueryPredicate.equal(field("two"), IndexCollectionType.DEFAULT, "content");
+		QueryPredicate contains = QueryPredicate.equal(field("nine"), IndexCollectionType.LIST, "content");
+		QueryPredicate narrow = QueryPredicate.range(field("one"), IndexCollectionType.DEFAULT, 1, 2);
+		QueryPredicate wide = QueryPredicate.range(field("one"), IndexCollectionType.DEFAULT, Long.MIN_VALUE, Long.MAX_VALUE);
+
+		Assert.assertTrue(equal.rank() < contains.rank());
+		Assert.assertTrue(contains.rank() < narrow.rank());
+		Assert.assertTrue(narrow.rank() < wide.rank());
+
+		QueryPredicate in = QueryPredicate.in(field("two"), IndexCollectionType.DEFAULT, "a", "b");
+		in.indexName = "idx_EntityOne_two";
+		Assert.assertFalse(in.isIndexed());
+	}
+}
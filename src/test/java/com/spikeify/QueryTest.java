@@ -12,6 +12,7 @@ import com.spikeify.annotations.BinName;
 import com.spikeify.annotations.Generation;
 import com.spikeify.annotations.Indexed;
 import com.spikeify.annotations.UserKey;
+import com.spikeify.commands.EntityConsumer;
 import com.spikeify.entity.EntityIndexed;
 import com.spikeify.entity.EntityOne;
 import com.spikeify.entity.EntitySubJson;
@@ -71,6 +72,125 @@ public class QueryTest extends SpikeifyTest {
 
 	}
 
+	@Test
+	public void testParallelQuery() {
+
+		SpikeifyService.register(EntityOne.class);
+
+		for (int i = 0; i < 500; i++) {
+			EntityOne ent = TestUtils.randomEntityOne(setName);
+			ent.theSetName = setName;
+			if (i % 5 == 0) {
+				ent.two = "parallel";
+			}
+			sfy.create(ent).now();
+		}
+
+		List<EntityOne> list = sfy.query(EntityOne.class)
+				.filter("two", "parallel")
+				.parallel(4, 10)
+				.now()
+				.toList();
+
+		assertEquals(100, list.size());
+		for (EntityOne entity : list) {
+			assertEquals("parallel", entity.two);
+		}
+
+		final Set<Long> consumed = Collections.synchronizedSet(new HashSet<Long>());
+		sfy.query(EntityOne.class)
+				.filter("two", "parallel")
+				.parallel(4, 10)
+				.forEach(new EntityConsumer<EntityOne>() {
+					@Override
+					public boolean consume(EntityOne item) {
+						consumed.add(item.userId);
+						return true;
+					}
+				});
+
+		assertEquals(100, consumed.size());
+	}
+
+	@Test
+	public void testCompoundQuery() {
+
+		SpikeifyService.register(EntityOne.class);
+
+		for (int i = 0; i < 200; i++) {
+			EntityOne ent = TestUtils.randomEntityOne(setName);
+			ent.theSetName = setName;
+			ent.two = i % 2 == 0 ? "compound" : "other";
+			ent.one = i;
+			ent.seven = i % 4 == 0;
+			sfy.create(ent).now();
+		}
+
+		// equality on 'two' is executed by server, range and boolean are checked on records
+		List<EntityOne> list = sfy.query(EntityOne.class)
+				.filter("one", 0, 99)
+				.filter("two", "compound")
+				.filter("seven", true)
+				.now()
+				.toList();
+
+		assertEquals(25, list.size());
+		for (EntityOne entity : list) {
+			assertEquals("compound", entity.two);
+			Assert.assertTrue(entity.seven);
+			Assert.assertTrue(entity.one < 100);
+		}
+
+		List<EntityOne> in = sfy.query(EntityOne.class)
+				.filter("two", "compound")
+				.filterIn("one", 2, 4, 5)
+				.now()
+				.toList();
+
+		assertEquals(2, in.size());
+	}
+
+	@Test
+	public void testAggregation() {
+
+		SpikeifyService.register(EntityOne.class);
+
+		for (int i = 0; i < 100; i++) {
+			EntityOne ent = TestUtils.randomEntityOne(setName);
+			ent.theSetName = setName;
+			ent.two = "aggregated";
+			ent.one = i;
+			ent.seven = i % 2 == 0;
+			sfy.create(ent).now();
+		}
+
+		List<Aggregate> total = sfy.query(EntityOne.class)
+				.filter("two", "aggregated")
+				.filter("one", 10, 19)
+				.aggregate()
+				.stats("one")
+				.now();
+
+		assertEquals(1, total.size());
+		assertEquals(10, total.get(0).getCount());
+		assertEquals(145L, total.get(0).getSum("one"));
+		assertEquals(10L, total.get(0).getMin("one"));
+		assertEquals(19L, total.get(0).getMax("one"));
+
+		List<Aggregate> groups = sfy.query(EntityOne.class)
+				.filter("two", "aggregated")
+				.aggregate()
+				.groupBy("seven")
+				.stats("one")
+				.now();
+
+		assertEquals(2, groups.size());
+		for (Aggregate group : groups) {
+			assertEquals(50, group.getCount());
+			assertEquals(group.getGroup().equals(1L) ? 2450L : 2500L, group.getSum("one"));
+		}
+	}
+
 	@Test
 	public void testListQueryNative() {
 
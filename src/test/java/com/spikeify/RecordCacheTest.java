@@ -5,6 +5,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 public class RecordCacheTest {
 
@@ -183,4 +184,175 @@ public class RecordCacheTest {
 
 	}
 
+	@Test
+	public void testCapacity() {
+
+		RecordsCache cache = new RecordsCache(16, 0, TimeUnit.MILLISECONDS);
+
+		Map<String, Object> props = new HashMap<>();
+		props.put("one", 1L);
+		for (int i = 0; i < 100; i++) {
+			cache.update(new Key("namespace", "set", i), props, false);
+		}
+		Assert.assertTrue(cache.size() <= 16);
+	}
+
+	@Test
+	public void testSharedBetweenThreads() throws InterruptedException {
+
+		final RecordsCache cache = new RecordsCache();
+		final Key key = new Key("namespace", "set", "12345");
+		final Map<String, Object> props = new HashMap<>();
+		props.put("one", 1L);
+		props.put("two", "test");
+
+		// load on another thread
+		Thread loader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				cache.insert(key, props);
+			}
+		});
+		loader.start();
+		loader.join();
+
+		// save on this thread: nothing changed
+		Assert.assertEquals(0, cache.update(key, props, false).size());
+	}
+
+	@Test
+	public void testUnitOfWork() {
+
+		RecordsCache cache = new RecordsCache();
+		Key key = new Key("namespace", "set", "12345");
+		Map<String, Object> props = new HashMap<>();
+		props.put("one", 1L);
+
+		try (RecordsCache.UnitOfWork ignored = cache.beginUnitOfWork()) {
+			cache.insert(key, props);
+			Assert.assertEquals(0, cache.update(key, props, false).size());
+			Assert.assertEquals(0, cache.size());
+		}
+
+		// records tracked in unit of work are discarded
+		Assert.assertEquals(1, cache.update(key, props, false).size());
+	}
+
+	@Test
+	public void testMappedRecords() {
+
+		RecordsCache cache = new RecordsCache();
+		ClassMapper<POJO> mapper = new ClassMapper<>(POJO.class);
+		Key key = new Key("namespace", "set", "12345");
+
+		// record as loaded from database
+		Map<String, Object> bins = new HashMap<>();
+		bins.put("one", "a");
+		bins.put("two", 1L);
+		cache.insert(key, mapper, bins);
+
+		POJO pojo = new POJO("a", 2);
+		RecordValues values = mapper.getRecordValues(pojo);
+		cache.update(key, values, false);
+		Assert.assertEquals(1, values.getChangedCount());
+		Assert.assertEquals("two", values.getChangedBins(false)[0].name);
+
+		// set to null
+		pojo.one = null;
+		values = mapper.getRecordValues(pojo);
+		cache.update(key, values, false);
+		Assert.assertEquals(1, values.getChangedCount());
+		Assert.assertEquals("one", values.getChangedBins(false)[0].name);
+	}
+
+	@Test
+	public void testProjectedRecords() {
+
+		RecordsCache cache = new RecordsCache();
+		ClassMapper<POJO> mapper = new ClassMapper<>(POJO.class);
+		Key key = new Key("namespace", "set", "12345");
+
+		// only bin 'one' is loaded, 'two' is left at its default
+		POJO pojo = new POJO(null, 0);
+		Map<String, Object> bins = new HashMap<>();
+		bins.put("one", "a");
+		cache.insert(key, mapper, bins, new String[]{"one"}, pojo);
+		pojo.one = "a";
+
+		// unloaded primitive is not written
+		RecordValues values = mapper.getRecordValues(pojo);
+		cache.update(key, values, false);
+		Assert.assertEquals(0, values.getChangedCount());
+
+		// unless it is set
+		pojo.two = 5;
+		values = mapper.getRecordValues(pojo);
+		cache.update(key, values, false);
+		Assert.assertEquals(1, values.getChangedCount());
+		Assert.assertEquals("two", values.getChangedBins(false)[0].name);
+	}
+
+	@Test
+	public void testEvictedProjectedRecord() {
+
+		RecordsCache cache = new RecordsCache();
+		ClassMapper<POJO> mapper = new ClassMapper<>(POJO.class);
+		Key key = new Key("namespace", "set", "12345");
+
+		POJO pojo = new POJO("a", 0);
+		Map<String, Object> bins = new HashMap<>();
+		bins.put("one", "a");
+		cache.insert(key, mapper, bins, new String[]{"one"}, pojo);
+		cache.clear();
+
+		// not written as a whole, unloaded bins would be removed
+		try {
+			cache.update(key, mapper.getRecordValues(pojo), false, pojo);
+			Assert.fail();
+		}
+		catch (SpikeifyError e) {
+			// expected
+		}
+
+		// another object of the same record was fully loaded
+		POJO full = new POJO("a", 0);
+		RecordValues values = mapper.getRecordValues(full);
+		cache.update(key, values, false, full);
+		Assert.assertEquals(2, values.getChangedCount());
+
+		// record does not exist, nothing to preserve
+		cache.clear();
+		cache.notFound(key, pojo);
+		values = mapper.getRecordValues(pojo);
+		cache.update(key, values, false, pojo);
+		Assert.assertEquals(2, values.getChangedCount());
+	}
+
+	@Test
+	public void testCollectionHashes() {
+
+		RecordsCache cache = new RecordsCache();
+		Key key = new Key("namespace", "set", "12345");
+
+		// as loaded from database: integers are Longs, maps are HashMaps
+		Map<String, Object> inner = new HashMap<>();
+		for (long i = 0; i < 20; i++) {
+			inner.put("key" + i, Arrays.asList(i, "value" + i));
+		}
+		Map<String, Object> props = new HashMap<>();
+		props.put("map", inner);
+		cache.insert(key, props);
+
+		// same content: different map implementation, insertion order and integer types
+		Map<String, Object> sameInner = new TreeMap<>(Collections.<String>reverseOrder());
+		for (int i = 0; i < 20; i++) {
+			sameInner.put("key" + i, Arrays.<Object>asList(i, "value" + i));
+		}
+		props.put("map", sameInner);
+		Assert.assertEquals(0, cache.update(key, props, false).size());
+
+		sameInner.put("key0", Arrays.<Object>asList(0, "changed"));
+		Assert.assertEquals(1, cache.update(key, props, false).size());
+	}
+
 }
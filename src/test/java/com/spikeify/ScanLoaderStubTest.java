@@ -0,0 +1,177 @@
+package com.spikeify;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ScanCallback;
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.ScanPolicy;
+import com.spikeify.commands.AcceptFilter;
+import com.spikeify.commands.Page;
+import com.spikeify.commands.ScanIterator;
+import com.spikeify.commands.ScanLoader;
+import com.spikeify.entity.EntityOne;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scan loader over a stubbed client, so scan limits are checked without a server.
+ */
+public class ScanLoaderStubTest {
+
+	/**
+	 * Client scanning 'count' records with bin 'one' equal to user key.
+	 */
+	private static IAsyncClient client(final int count) {
+
+		final Policy readPolicy = new Policy();
+		return new AsyncClientStub()
+				.answer("getReadPolicyDefault", new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						return readPolicy;
+					}
+				})
+				.answer("getScanPolicyDefault", new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						return new ScanPolicy();
+					}
+				})
+				.answer("scanAll", new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						if (args[1] instanceof RecordSequenceListener) {
+							// asynchronous scan
+							RecordSequenceListener listener = (RecordSequenceListener) args[1];
+							try {
+								for (long i = 0; i < count; i++) {
+									listener.onRecord(new Key((String) args[2], (String) args[3], i), record(i));
+								}
+							} catch (AerospikeException e) {
+								listener.onFailure(e);
+								return null;
+							}
+							listener.onSuccess();
+							return null;
+						}
+
+						for (long i = 0; i < count; i++) {
+							((ScanCallback) args[3]).scanCallback(new Key((String) args[1], (String) args[2], i), record(i));
+						}
+						return null;
+					}
+				})
+				.client();
+	}
+
+	private static Record record(long one) {
+		Map<String, Object> bins = new HashMap<>();
+		bins.put("one", one);
+		return new Record(bins, 1, 0);
+	}
+
+	private static ScanLoader<EntityOne> loader(int count) {
+		return new ScanLoader<>(EntityOne.class, client(count), new NoArgClassConstructor(), new RecordsCache(), "test");
+	}
+
+	@Test
+	public void scansAllRecordsWithoutLimit() {
+
+		List<EntityOne> all = loader(50).now();
+		Assert.assertEquals(50, all.size());
+
+		Set<Integer> ones = new HashSet<>();
+		for (EntityOne entity : all) {
+			ones.add(entity.one);
+		}
+		Assert.assertEquals(50, ones.size());
+	}
+
+	@Test
+	public void stopsAtMaxRecords() {
+
+		Assert.assertEquals(20, loader(50).maxRecords(20).now().size());
+	}
+
+	@Test
+	public void pagesWithoutLimit() {
+
+		Page<EntityOne> page = loader(25).page(null, 10);
+		int loaded = page.getItems().size();
+		while (page.hasMore()) {
+			page = loader(25).page(page.getCursor(), 10);
+			loaded += page.getItems().size();
+		}
+		Assert.assertEquals(25, loaded);
+	}
+
+	@Test
+	public void asyncStopsAtMaxRecords() throws Exception {
+
+		Assert.assertEquals(50, loader(50).async().get().size());
+		Assert.assertEquals(20, loader(50).maxRecords(20).async().get().size());
+
+		List<EntityOne> filtered = loader(50).maxRecords(5).filter(new AcceptFilter<EntityOne>() {
+			@Override
+			public boolean accept(EntityOne item) {
+				return item.one % 2 == 0;
+			}
+		}).async().get();
+		Assert.assertEquals(5, filtered.size());
+		Assert.assertEquals(8, filtered.get(4).one);
+	}
+
+	@Test
+	public void iteratesOnGivenExecutor() {
+
+		final AtomicInteger executed = new AtomicInteger();
+		Executor executor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				executed.incrementAndGet();
+				new Thread(command).start();
+			}
+		};
+
+		ScanIterator<EntityOne> iterator = loader(30).iterator(5, executor);
+		int loaded = 0;
+		while (iterator.hasNext()) {
+			iterator.next();
+			loaded++;
+		}
+		Assert.assertEquals(30, loaded);
+		Assert.assertEquals(1, executed.get());
+
+		// default shared pool
+		iterator = loader(30).iterator(5);
+		loaded = 0;
+		while (iterator.hasNext()) {
+			iterator.next();
+			loaded++;
+		}
+		Assert.assertEquals(30, loaded);
+	}
+
+	@Test(expected = SpikeifyError.class)
+	public void rejectedIterator() {
+
+		loader(30).iterator(5, new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException();
+			}
+		});
+	}
+}
@@ -1,7 +1,12 @@
 package com.spikeify;
 
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
 import com.aerospike.client.Value;
 import com.spikeify.commands.AcceptFilter;
+import com.spikeify.commands.EntityConsumer;
+import com.spikeify.commands.Page;
+import com.spikeify.commands.ScanIterator;
 import com.spikeify.entity.EntityOne;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,6 +14,7 @@ import org.junit.Test;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -87,6 +93,70 @@ public class ScanLoaderTest extends SpikeifyTest {
 		}
 	}
 
+	@Test
+	public void scanLoaderWithRecordFilterTest() {
+
+		for (int i = 0; i < 100; i++) {
+			EntityOne entity = new EntityOne();
+			entity.userId = (long) i;
+			entity.one = i;
+
+			sfy.create(entity).now();
+		}
+
+		RecordFilter filter = new RecordFilter() {
+			@Override
+			public boolean accept(Key key, Record record) {
+				return record.getLong("one") < 10;
+			}
+		};
+
+		List<EntityOne> all = sfy.scanAll(EntityOne.class).filterRecords(filter).now();
+
+		assertEquals(10, all.size());
+		for (EntityOne one : all) {
+			assertTrue(one.one < 10);
+		}
+
+		// keys of matching records only
+		List<Value> keys = sfy.scanAll(EntityOne.class).filterRecords(filter).fields("one").keys();
+		assertEquals(10, keys.size());
+		for (Value key : keys) {
+			assertTrue(key.toLong() < 10);
+		}
+	}
+
+	@Test
+	public void scanLoaderPagedTest() {
+
+		for (int i = 0; i < 100; i++) {
+			EntityOne entity = new EntityOne();
+			entity.userId = (long) i;
+			entity.one = i;
+
+			sfy.create(entity).now();
+		}
+
+		Set<Long> loaded = new HashSet<>();
+		Page<EntityOne> page = sfy.scanAll(EntityOne.class).page(null, 30);
+		int pages = 1;
+		for (EntityOne one : page.getItems()) {
+			assertTrue(loaded.add(one.userId));
+		}
+
+		while (page.hasMore()) {
+			page = sfy.scanAll(EntityOne.class).page(page.getCursor(), 30);
+			pages++;
+			for (EntityOne one : page.getItems()) {
+				assertTrue(loaded.add(one.userId)); // no record is loaded twice
+			}
+		}
+
+		assertEquals(100, loaded.size());
+		assertEquals(4, pages);
+		assertEquals(10, page.getItems().size());
+	}
+
 	@Test
 	public void scanLoaderKeysOnly() {
 
@@ -110,4 +180,37 @@ public class ScanLoaderTest extends SpikeifyTest {
 			assertTrue(checkExpected.contains(key.toLong()));
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void scanLoaderStreaming() {
+
+		for (int i = 0; i < 100; i++) {
+			EntityOne entity = new EntityOne();
+			entity.userId = (long) i;
+			entity.one = i;
+
+			sfy.create(entity).now();
+		}
+
+		// consumer stops the scan
+		final AtomicInteger consumed = new AtomicInteger();
+		sfy.scanAll(EntityOne.class).forEach(new EntityConsumer<EntityOne>() {
+			@Override
+			public boolean consume(EntityOne item) {
+				return consumed.incrementAndGet() < 30;
+			}
+		});
+		assertTrue(consumed.get() >= 30);
+
+		// iterator with buffer smaller than set
+		Set<Long> iterated = new HashSet<>();
+		try (ScanIterator<EntityOne> iterator = sfy.scanAll(EntityOne.class).maxRecords(50).iterator(10)) {
+			while (iterator.hasNext()) {
+				EntityOne one = iterator.next();
+				assertEquals(one.userId.longValue(), (long) one.one);
+				iterated.add(one.userId);
+			}
+		}
+		assertEquals(50, iterated.size());
+	}
+}
@@ -0,0 +1,46 @@
+package com.spikeify;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.IAsyncClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class SpikeifyServiceTest {
+
+	@Test
+	public void recordsCacheIsScopedToClient() {
+
+		IAsyncClient clientA = new AsyncClientStub().client();
+		IAsyncClient clientB = new AsyncClientStub().client();
+
+		RecordsCache cacheA = SpikeifyService.getRecordsCache(clientA);
+		RecordsCache cacheB = SpikeifyService.getRecordsCache(clientB);
+		Assert.assertSame(cacheA, SpikeifyService.getRecordsCache(clientA));
+		Assert.assertNotSame(cacheA, cacheB);
+
+		// record loaded through client A
+		Key key = new Key("test", "set", 1L);
+		Map<String, Object> bins = Collections.<String, Object>singletonMap("one", 1L);
+		cacheA.insert(key, bins);
+
+		// saving same values through client B writes them, as B has not loaded the record
+		Set<String> changed = cacheB.update(key, bins, false);
+		Assert.assertEquals(bins.keySet(), changed);
+		Assert.assertTrue(cacheA.update(key, bins, false).isEmpty());
+	}
+
+	@Test
+	public void setsRecordsCacheOfClient() {
+
+		IAsyncClient client = new AsyncClientStub().client();
+		RecordsCache cache = new RecordsCache();
+
+		SpikeifyService.setRecordsCache(client, cache);
+		Assert.assertSame(cache, SpikeifyService.getRecordsCache(client));
+		Assert.assertNotSame(cache, SpikeifyService.getRecordsCache(new AsyncClientStub().client()));
+	}
+}
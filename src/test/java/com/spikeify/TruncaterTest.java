@@ -0,0 +1,148 @@
+package com.spikeify;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.ScanCallback;
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.DeleteListener;
+import com.aerospike.client.policy.WritePolicy;
+import com.spikeify.async.RateLimiter;
+import com.spikeify.commands.Truncater;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TruncaterTest {
+
+	private final AsyncClientStub stub = new AsyncClientStub();
+	private final AtomicInteger truncated = new AtomicInteger();
+
+	/**
+	 * Client with 'count' records in every set, deleting records on a background thread, record with key 13 fails to delete.
+	 */
+	private IAsyncClient client(final boolean supportsTruncate, final int count) {
+		return stub
+				.answer("getWritePolicyDefault", new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						return new WritePolicy();
+					}
+				})
+				.answer("truncate", new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						if (!supportsTruncate) {
+							throw new AerospikeException("Truncate failed: unrecognized command");
+						}
+						truncated.incrementAndGet();
+						return null;
+					}
+				})
+				.answer("scanAll", new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						for (long i = 0; i < count; i++) {
+							((ScanCallback) args[3]).scanCallback(new Key((String) args[1], (String) args[2], i), null);
+						}
+						return null;
+					}
+				})
+				.answerLater("delete", 2, new AsyncClientStub.Answer() {
+					@Override
+					public Object answer(Object[] args) {
+						Key key = (Key) args[2];
+						DeleteListener listener = (DeleteListener) args[1];
+						if (key.userKey.toLong() == 13) {
+							listener.onFailure(new AerospikeException(ResultCode.TIMEOUT));
+						} else {
+							listener.onSuccess(key, true);
+						}
+						return null;
+					}
+				})
+				.client();
+	}
+
+	@Test
+	public void usesServerTruncate() {
+
+		Truncater truncater = new Truncater(client(true, 100), new RecordsCache());
+		truncater.truncateSet("test", "set");
+
+		Assert.assertEquals(1, truncated.get());
+		Assert.assertEquals(0, truncater.getScanned());
+	}
+
+	@Test
+	public void deletesWithinWindow() {
+
+		Truncater truncater = new Truncater(client(false, 10), new RecordsCache()).inFlight(3);
+		truncater.truncateNamespace("test");
+
+		Assert.assertEquals(10, truncater.getScanned());
+		Assert.assertEquals(10, truncater.getDeleted());
+		Assert.assertEquals(0, truncater.getFailed());
+		Assert.assertTrue(stub.maxInFlight.get() <= 3);
+	}
+
+	@Test
+	public void reportsFailedDeletes() {
+
+		Truncater truncater = new Truncater(client(true, 20), new RecordsCache()).serverTruncate(false);
+		try {
+			truncater.truncateSet("test", "set");
+			Assert.fail();
+		} catch (SpikeifyError e) {
+			Assert.assertEquals(0, truncated.get());
+			Assert.assertEquals(20, truncater.getScanned());
+			Assert.assertEquals(19, truncater.getDeleted());
+			Assert.assertEquals(1, truncater.getFailed());
+		}
+	}
+
+	@Test
+	public void failsOnTruncateErrors() {
+
+		IAsyncClient client = stub.answer("truncate", new AsyncClientStub.Answer() {
+			@Override
+			public Object answer(Object[] args) {
+				throw new AerospikeException(ResultCode.TIMEOUT);
+			}
+		}).client();
+
+		Truncater truncater = new Truncater(client, new RecordsCache());
+		try {
+			truncater.truncateSet("test", "set");
+			Assert.fail();
+		} catch (AerospikeException e) {
+			// no fall back to scan and delete
+			Assert.assertEquals(ResultCode.TIMEOUT, e.getResultCode());
+			Assert.assertEquals(0, truncater.getScanned());
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	public void staticTruncateDelegates() {
+
+		Truncater.truncateNamespace("test", client(false, 12));
+		Assert.assertEquals(0, stub.inFlight.get());
+	}
+
+	@Test
+	public void limitsRate() {
+
+		RateLimiter limiter = new RateLimiter(100);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 21; i++) {
+			limiter.acquire();
+		}
+		long elapsed = (System.nanoTime() - start) / 1000000;
+
+		// first permit is immediate, 20 more take 200 ms
+		Assert.assertTrue(elapsed >= 190);
+	}
+}
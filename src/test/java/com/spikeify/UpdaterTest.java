@@ -383,6 +383,23 @@ public class UpdaterTest extends SpikeifyTest {
 		}
 	}
 
+	@Test
+	public void updateEntitiesPipelined() {
+
+		Map<Long, EntityOne> entities = TestUtils.randomEntityOne(500, "EntityOne");
+
+		Map<Key, Object> result = sfy.updateAll(entities.values().toArray()).pipelined(16).now();
+		Assert.assertEquals(entities.size(), result.size());
+
+		// reload entities
+		Map<Key, EntityOne> reloaded = sfy.getAll(EntityOne.class, result.keySet().toArray(new Key[result.size()])).now();
+		Assert.assertEquals(entities.size(), reloaded.size());
+
+		for (Key key : reloaded.keySet()) {
+			Assert.assertEquals(entities.get(key.userKey.toLong()), reloaded.get(key));
+		}
+	}
+
 	@Test
 	public void updateKeysAsync() throws InterruptedException {
 
@@ -0,0 +1,86 @@
+package com.spikeify;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.IAsyncClient;
+import com.aerospike.client.listener.WriteListener;
+import com.aerospike.client.policy.WritePolicy;
+import com.spikeify.async.WriteWindow;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class WriteWindowTest {
+
+	@Test
+	public void collectsFailures() {
+
+		WriteWindow window = new WriteWindow(4);
+
+		Key key1 = new Key("test", "set", 1L);
+		Key key2 = new Key("test", "set", 2L);
+
+		window.acquire(key1).onSuccess(key1);
+		window.acquire(key2).onFailure(new AerospikeException(ResultCode.KEY_NOT_FOUND_ERROR));
+
+		Map<Key, AerospikeException> failures = window.await();
+		Assert.assertEquals(1, failures.size());
+		Assert.assertEquals(ResultCode.KEY_NOT_FOUND_ERROR, failures.get(key2).getResultCode());
+	}
+
+	@Test
+	public void limitsWritesInFlight() throws InterruptedException {
+
+		final WriteWindow window = new WriteWindow(1);
+		final Key key1 = new Key("test", "set", 1L);
+		final Key key2 = new Key("test", "set", 2L);
+
+		WriteListener pending = window.acquire(key1);
+
+		final CountDownLatch acquired = new CountDownLatch(1);
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				window.acquire(key2).onSuccess(key2);
+				acquired.countDown();
+			}
+		});
+		writer.start();
+
+		// window is full until pending write completes
+		Assert.assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+		pending.onSuccess(key1);
+		Assert.assertTrue(acquired.await(5, TimeUnit.SECONDS));
+
+		writer.join();
+		Assert.assertTrue(window.await().isEmpty());
+	}
+
+	@Test(timeout = 5000)
+	public void releasesPermitIfWriteThrows() {
+
+		IAsyncClient failing = new AsyncClientStub().answer("put", new AsyncClientStub.Answer() {
+			@Override
+			public Object answer(Object[] args) {
+				throw new IllegalStateException("not connected");
+			}
+		}).client();
+
+		WriteWindow window = new WriteWindow(1);
+		Key key1 = new Key("test", "set", 1L);
+		Key key2 = new Key("test", "set", 2L);
+
+		// second write would wait forever for the permit of the first one
+		window.put(failing, new WritePolicy(), key1, new Bin("one", 1));
+		window.put(failing, new WritePolicy(), key2, new Bin("one", 2));
+
+		Map<Key, AerospikeException> failures = window.await();
+		Assert.assertEquals(2, failures.size());
+		Assert.assertTrue(failures.get(key1).getCause() instanceof IllegalStateException);
+	}
+}